@@ -0,0 +1,64 @@
+package org.example.projekt.services;
+
+import org.example.projekt.security.Anmeldungen;
+import org.example.projekt.security.Benutzerverwaltung;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+// Kosten einer Anmeldung mit PBKDF2 (310 000 Iterationen wie in users.properties):
+//   gemerkt   - bekannter Header, zu vergleichen mit RolesBenchmark.vorberechnet (Klartext-Vergleich)
+//   kalt      - jede Anmeldung wird gehasht (TTL 0), das ist die Obergrenze für einen neuen Header
+//   falsch    - falsches Passwort, wird nie gemerkt und kostet gleich viel wie kalt
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AnmeldungBenchmark {
+
+    private String header;
+    private String falsch;
+    private Anmeldungen gemerkt;
+    private Anmeldungen kalt;
+
+    @Setup
+    public void setup() {
+        Properties eintraege = new Properties();
+        eintraege.setProperty("user", Benutzerverwaltung.eintrag("USER", "187", 310_000));
+        Benutzerverwaltung benutzerverwaltung = new Benutzerverwaltung(eintraege);
+        header = "Basic " + Base64.getEncoder().encodeToString("user:187".getBytes(StandardCharsets.UTF_8));
+        falsch = "Basic " + Base64.getEncoder().encodeToString("user:188".getBytes(StandardCharsets.UTF_8));
+        gemerkt = new Anmeldungen(benutzerverwaltung, 1024, 300_000, 2_000);
+        kalt = new Anmeldungen(benutzerverwaltung, 1024, 0, 2_000);
+        gemerkt.rollen(header);
+    }
+
+    @Benchmark
+    public int gemerkt() {
+        return gemerkt.rollen(header);
+    }
+
+    @Benchmark
+    public int kalt() {
+        return kalt.rollen(header);
+    }
+
+    @Benchmark
+    public int falsch() {
+        return gemerkt.rollen(falsch);
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.projekt.services;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lasttest: viele gleichzeitige Clients rufen einen Endpoint auf und messen Durchsatz und Latenz.
+// Für den Vorher/Nachher-Vergleich die synchrone und die asynchrone Version deployen und beide URLs angeben.
+// Kein JMH-Benchmark (die Last kommt von aussen, gemessen wird der Server), läuft manuell:
+//   java -cp benchmarks/target/benchmarks.jar org.example.projekt.services.AsyncLoadBenchmark <basis-url> [...]
+// Einstellungen: -Dload.clients (1000), -Dload.seconds (30), -Dload.path (/autos/all), -Dload.user, -Dload.password
+public class AsyncLoadBenchmark {
+
+    private static final String DEFAULT_URL = "http://localhost:8080/Projekt_war_exploded/resources";
+    private static final int CLIENTS = Integer.getInteger("load.clients", 1000);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 30);
+    private static final int WARMUP_SECONDS = 5;
+    private static final String PATH = System.getProperty("load.path", "/autos/all");
+    private static final String AUTH = "Basic " + Base64.getEncoder().encodeToString(
+            (System.getProperty("load.user", "admin") + ":" + System.getProperty("load.password", "1234")).getBytes());
+
+    private record Ergebnis(long requests, long fehler, long[] latenzenMicros, double sekunden) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] urls = args.length > 0 ? args : new String[]{DEFAULT_URL};
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        System.out.printf("%d Clients, %d s, GET %s%n", CLIENTS, SECONDS, PATH);
+        System.out.printf("%-60s %10s %8s %10s %10s %10s%n", "URL", "req/s", "Fehler", "p50 ms", "p99 ms", "max ms");
+        for (String url : urls) {
+            run(client, url, WARMUP_SECONDS);
+            Ergebnis e = run(client, url, SECONDS);
+            long[] l = e.latenzenMicros();
+            System.out.printf("%-60s %10.0f %8d %10.1f %10.1f %10.1f%n", url, e.requests() / e.sekunden(), e.fehler(),
+                    perzentil(l, 0.50) / 1000.0, perzentil(l, 0.99) / 1000.0, l.length == 0 ? 0 : l[l.length - 1] / 1000.0);
+        }
+    }
+
+    private static Ergebnis run(HttpClient client, String baseUrl, int sekunden) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + PATH))
+                .header("Authorization", AUTH)
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+        LongAdder requests = new LongAdder();
+        LongAdder fehler = new LongAdder();
+        long[][] latenzenProClient = new long[CLIENTS][];
+        long ende = System.nanoTime() + sekunden * 1_000_000_000L;
+        long start = System.nanoTime();
+
+        // Ein virtueller Thread pro Client, jeder schickt seine Requests nacheinander
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                int index = i;
+                clients.submit(() -> {
+                    long[] eigene = new long[1024];
+                    int n = 0;
+                    while (System.nanoTime() < ende) {
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                fehler.increment();
+                            }
+                        } catch (Exception e) {
+                            fehler.increment();
+                        }
+                        if (n == eigene.length) {
+                            eigene = Arrays.copyOf(eigene, n * 2);
+                        }
+                        eigene[n++] = (System.nanoTime() - t0) / 1000;
+                        requests.increment();
+                    }
+                    latenzenProClient[index] = Arrays.copyOf(eigene, n);
+                    return null;
+                });
+            }
+        }
+        double dauer = (System.nanoTime() - start) / 1e9;
+
+        long[] alle = Arrays.stream(latenzenProClient).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Ergebnis(requests.sum(), fehler.sum(), alle, dauer);
+    }
+
+    private static long perzentil(long[] sortiert, double p) {
+        if (sortiert.length == 0) {
+            return 0;
+        }
+        return sortiert[Math.min(sortiert.length - 1, (int) (sortiert.length * p))];
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.projekt.services;
+
+import org.example.projekt.modules.Auto;
+import org.example.projekt.modules.Marke;
+import org.example.projekt.modules.Vorschlag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// GET /autos/vorschlaege über AutoIndex und Autocomplete auf Autos im Speicher:
+//   kurz       - Präfix mit einem Zeichen, Ergebnis bis zur nächsten Änderung gehalten
+//   lang       - Präfix eines Modellnamens, Bereich der sortierten Map
+//   wortanfang - Treffer auf einem späteren Wort ("gti" in "Golf GTI")
+//   nachAenderung - kurzes Präfix direkt nach einem eingefügten Auto, der gehaltene Treffer gilt nicht mehr
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AutocompleteBenchmark {
+
+    private static final String[] MODELLE = {"Golf", "Golf GTI", "Polo", "Passat Variant", "Octavia", "Fabia",
+            "Model 3", "Model Y", "Corsa", "Astra", "Clio", "Mégane", "A3 Sportback", "A4 Avant", "Serie 3 Touring",
+            "Yaris", "Corolla", "Civic Type R", "Ibiza", "León"};
+    private static final int MARKEN = 20;
+    private static final int LIMIT = 10;
+
+    @Param({"1000", "100000"})
+    public int autos;
+
+    private Autocomplete autocomplete;
+    private Auto neu;
+
+    @Setup
+    public void setup() throws SQLException {
+        InMemoryRepository repository = new InMemoryRepository();
+        for (int i = 1; i <= MARKEN; i++) {
+            repository.addMarke(new Marke("Marke " + i));
+        }
+        Random random = new Random(42);
+        List<Auto> batch = new ArrayList<>(autos);
+        for (int i = 0; i < autos; i++) {
+            // Pro Basisname einige Varianten, damit es mehr Einträge als Basisnamen gibt
+            String modell = MODELLE[random.nextInt(MODELLE.length)] + (i % 7 == 0 ? " " + random.nextInt(100) : "");
+            batch.add(new Auto(modell, LocalDate.of(1990 + random.nextInt(35), 1, 1), 1200.0, 100, true, true,
+                    1 + random.nextInt(MARKEN)));
+        }
+        repository.addAutos(batch);
+        AutoIndex index = new AutoIndex(repository);
+        autocomplete = new Autocomplete(index, repository);
+        autocomplete.vorschlaege("g", LIMIT);
+        neu = new Auto("Golf", LocalDate.of(2020, 1, 1), 1200.0, 100, true, true, 1);
+    }
+
+    @Benchmark
+    public List<Vorschlag> kurz() throws SQLException {
+        return autocomplete.vorschlaege("g", LIMIT);
+    }
+
+    @Benchmark
+    public List<Vorschlag> lang() throws SQLException {
+        return autocomplete.vorschlaege("passat v", LIMIT);
+    }
+
+    @Benchmark
+    public List<Vorschlag> wortanfang() throws SQLException {
+        return autocomplete.vorschlaege("gti", LIMIT);
+    }
+
+    @Benchmark
+    public List<Vorschlag> nachAenderung() throws SQLException {
+        // Einfügen und wieder entfernen, damit die Anzahl gleich bleibt
+        autocomplete.eingefuegt(neu);
+        autocomplete.entfernt(neu);
+        return autocomplete.vorschlaege("g", LIMIT);
+    }
+}
@@ -0,0 +1,170 @@
+package org.example.projekt.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// YEAR(Baujahr) = ? (Full Scan) gegen Baujahr >= ? AND Baujahr < ? (Range-Seek) auf einer Tabelle mit einer Million
+// Zeilen, je ohne und mit Index auf Baujahr. Braucht eine MySQL und läuft daher nur auf Verlangen:
+//   java -Dbenchmark.jdbcUrl='jdbc:mysql://localhost:8889/Autos?user=root&password=root' \
+//        -jar benchmarks/target/benchmarks.jar BaujahrQuery
+// Die Tabelle autos_benchmark wird beim ersten Lauf gefüllt und für weitere Läufe stehen gelassen.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BaujahrQueryBenchmark {
+
+    static final String URL_PROPERTY = "benchmark.jdbcUrl";
+    private static final int ROWS = 1_000_000;
+    private static final int JAHR = 2015;
+
+    private static final String SCAN_SQL = "SELECT COUNT(*), SUM(Leistung) FROM autos_benchmark WHERE YEAR(Baujahr) = ?";
+    private static final String RANGE_SQL = "SELECT COUNT(*), SUM(Leistung) FROM autos_benchmark WHERE Baujahr >= ? AND Baujahr < ?";
+
+    @Param({"false", "true"})
+    public boolean index;
+
+    private Connection con;
+    private PreparedStatement scan;
+    private PreparedStatement range;
+
+    @Setup
+    public void setup() throws SQLException {
+        String url = System.getProperty(URL_PROPERTY);
+        if (url == null) {
+            throw new IllegalStateException("-D" + URL_PROPERTY + "=<jdbc-url> fehlt");
+        }
+        con = DriverManager.getConnection(url + (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true");
+        tabelle();
+        try (Statement stmt = con.createStatement()) {
+            if (hatIndex()) {
+                stmt.execute("DROP INDEX idx_benchmark_baujahr ON autos_benchmark");
+            }
+            if (index) {
+                stmt.execute("CREATE INDEX idx_benchmark_baujahr ON autos_benchmark (Baujahr)");
+            }
+            stmt.execute("ANALYZE TABLE autos_benchmark");
+        }
+        scan = binden(con.prepareStatement(SCAN_SQL), false);
+        range = binden(con.prepareStatement(RANGE_SQL), true);
+        explain("YEAR()", SCAN_SQL, false);
+        explain("Range", RANGE_SQL, true);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        con.close();
+    }
+
+    @Benchmark
+    public long jahrFunktion() throws SQLException {
+        return summe(scan);
+    }
+
+    @Benchmark
+    public long bereich() throws SQLException {
+        return summe(range);
+    }
+
+    private static long summe(PreparedStatement pstmt) throws SQLException {
+        try (ResultSet rs = pstmt.executeQuery()) {
+            rs.next();
+            return rs.getLong(1) + rs.getLong(2);
+        }
+    }
+
+    // Tabelle einmal anlegen; Baujahre gleichmässig über 1980 bis 2024 verteilt
+    private void tabelle() throws SQLException {
+        try (Statement stmt = con.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS autos_benchmark ("
+                    + "ID_Autos INT AUTO_INCREMENT PRIMARY KEY, Modell VARCHAR(45) NOT NULL, Baujahr DATE NOT NULL, "
+                    + "Gewicht DECIMAL(6,2) NOT NULL, Leistung INT NOT NULL, Verbrenner TINYINT NOT NULL, "
+                    + "Produktion TINYINT NOT NULL, FS_Marken INT NOT NULL)");
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM autos_benchmark")) {
+                rs.next();
+                if (rs.getInt(1) == ROWS) {
+                    return;
+                }
+            }
+            stmt.execute("TRUNCATE TABLE autos_benchmark");
+        }
+
+        Random random = new Random(42);
+        LocalDate start = LocalDate.of(1980, 1, 1);
+        int tage = (int) (LocalDate.of(2025, 1, 1).toEpochDay() - start.toEpochDay());
+        con.setAutoCommit(false);
+        try (PreparedStatement pstmt = con.prepareStatement(
+                "INSERT INTO autos_benchmark (Modell, Baujahr, Gewicht, Leistung, Verbrenner, Produktion, FS_Marken) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                pstmt.setString(1, "Modell " + (i % 5000));
+                pstmt.setDate(2, Date.valueOf(start.plusDays(random.nextInt(tage))));
+                pstmt.setDouble(3, 800 + random.nextInt(2500));
+                pstmt.setInt(4, 50 + random.nextInt(700));
+                pstmt.setBoolean(5, random.nextBoolean());
+                pstmt.setBoolean(6, random.nextBoolean());
+                pstmt.setInt(7, 1 + random.nextInt(50));
+                pstmt.addBatch();
+                if (i % 10_000 == 9_999) {
+                    pstmt.executeBatch();
+                    con.commit();
+                }
+            }
+        } finally {
+            con.setAutoCommit(true);
+        }
+    }
+
+    private boolean hatIndex() throws SQLException {
+        try (Statement stmt = con.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM information_schema.statistics "
+                     + "WHERE table_schema = DATABASE() AND table_name = 'autos_benchmark' "
+                     + "AND index_name = 'idx_benchmark_baujahr'")) {
+            rs.next();
+            return rs.getInt(1) > 0;
+        }
+    }
+
+    private void explain(String name, String sql, boolean bereich) throws SQLException {
+        try (PreparedStatement pstmt = binden(con.prepareStatement("EXPLAIN " + sql), bereich);
+             ResultSet rs = pstmt.executeQuery()) {
+            if (rs.next()) {
+                System.out.println("EXPLAIN " + name + " (Index " + index + "): type=" + rs.getString("type")
+                        + ", key=" + rs.getString("key") + ", rows=" + rs.getString("rows"));
+            }
+        }
+    }
+
+    private static PreparedStatement binden(PreparedStatement pstmt, boolean bereich) throws SQLException {
+        if (bereich) {
+            pstmt.setDate(1, Date.valueOf(LocalDate.of(JAHR, 1, 1)));
+            pstmt.setDate(2, Date.valueOf(LocalDate.of(JAHR + 1, 1, 1)));
+        } else {
+            pstmt.setInt(1, JAHR);
+        }
+        return pstmt;
+    }
+}
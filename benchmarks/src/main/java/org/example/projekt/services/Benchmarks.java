@@ -0,0 +1,60 @@
+package org.example.projekt.services;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+// Einstieg von benchmarks.jar, nimmt die üblichen JMH-Optionen (-h für die Liste):
+//   java -jar benchmarks/target/benchmarks.jar                      alle Benchmarks
+//   java -jar benchmarks/target/benchmarks.jar Json -p zeilen=100   nur JsonBenchmark mit 100 Zeilen
+// BaujahrQueryBenchmark braucht eine MySQL und läuft nur, wenn er ausdrücklich ausgewählt wird.
+// Ohne -rf/-rff landet das Ergebnis als JSON in jmh-result-<Zeitpunkt>.json, damit Läufe nebeneinander liegen
+// bleiben und verglichen werden können. Ohne -prof läuft der GC-Profiler mit (gc.alloc.rate.norm = Bytes pro Aufruf).
+public class Benchmarks {
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        CommandLineOptions kommandozeile;
+        try {
+            kommandozeile = new CommandLineOptions(args);
+        } catch (CommandLineOptionException e) {
+            System.err.println("Fehler in den Optionen: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        if (kommandozeile.shouldHelp()) {
+            kommandozeile.showHelp();
+            return;
+        }
+
+        ChainedOptionsBuilder optionen = new OptionsBuilder().parent(kommandozeile);
+        if (kommandozeile.getIncludes().isEmpty()) {
+            optionen.exclude(BaujahrQueryBenchmark.class.getSimpleName());
+        }
+        ResultFormatType format = kommandozeile.getResultFormat().orElse(ResultFormatType.JSON);
+        optionen.resultFormat(format);
+        if (!kommandozeile.getResult().hasValue()) {
+            String zeitpunkt = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            optionen.result("jmh-result-" + zeitpunkt + "." + format.name().toLowerCase(Locale.ROOT));
+        }
+        if (kommandozeile.getProfilers().isEmpty()) {
+            optionen.addProfiler(GCProfiler.class);
+        }
+
+        Runner runner = new Runner(optionen.build());
+        if (kommandozeile.shouldList()) {
+            runner.list();
+            return;
+        }
+        runner.run();
+    }
+}
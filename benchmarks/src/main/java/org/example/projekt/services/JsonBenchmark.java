@@ -0,0 +1,69 @@
+package org.example.projekt.services;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.example.projekt.modules.Auto;
+import org.example.projekt.modules.Marke;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JSON einer Liste von Autos wie in GET /autos, mit 1, 100 und 10 000 Zeilen.
+// Der Mapper entspricht dem von JacksonFeature in Jersey (Module per ServiceLoader, sonst Standardeinstellungen);
+// geschrieben wird in einen wiederverwendeten Puffer, gemessen wird also nur die Serialisierung.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JsonBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int zeilen;
+
+    private List<Auto> autos;
+    private ObjectWriter writer;
+    private ByteArrayOutputStream puffer;
+
+    @Setup
+    public void setup() {
+        // Wenige Marken, als geteilte Instanzen wie aus dem Marken-Cache von DataBase
+        List<Marke> marken = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            marken.add(new Marke(i, "Marke " + i));
+        }
+        autos = new ArrayList<>(zeilen);
+        for (int i = 1; i <= zeilen; i++) {
+            Marke marke = marken.get(i % marken.size());
+            autos.add(new Auto(i, "Modell " + i, LocalDate.of(1990 + i % 35, 1 + i % 12, 1 + i % 28),
+                    900.0 + i % 1500, 60 + i % 400, i % 3 != 0, i % 5 != 0, marke.getIdMarke(), marke));
+        }
+        writer = new ObjectMapper().findAndRegisterModules().writerFor(new TypeReference<List<Auto>>() {
+        });
+        puffer = new ByteArrayOutputStream(zeilen * 256);
+    }
+
+    @Benchmark
+    public int serialisieren() throws IOException {
+        puffer.reset();
+        writer.writeValue(puffer, autos);
+        return puffer.size();
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.projekt.services;
+
+import org.example.projekt.config.DeflaterPool;
+import org.example.projekt.config.Kompression;
+import org.example.projekt.config.KomprimierenderStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// gzip einer /autos/all-Antwort je Grösse und Stufe:
+//   pool - KomprimierenderStream mit Deflater aus dem DeflaterPool, wie im Filter
+//   jdk  - GZIPOutputStream mit neuem Deflater pro Request
+// Die komprimierte Grösse je Kombination steht einmal beim Setup im Log.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class KompressionBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int autos;
+
+    @Param({"1", "6", "9"})
+    public int level;
+
+    private byte[] json;
+    private DeflaterPool pool;
+
+    @Setup
+    public void setup() throws IOException {
+        json = json(autos);
+        pool = new DeflaterPool(level, 8192, 16);
+        int groesse = pool();
+        System.out.printf("%n%d Autos, Stufe %d: %d -> %d Bytes (%.1f %%)%n",
+                autos, level, json.length, groesse, 100.0 * groesse / json.length);
+    }
+
+    @Benchmark
+    public int pool() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        KomprimierenderStream stream = new KomprimierenderStream(out, Kompression.Kodierung.GZIP, pool, 0, () -> { });
+        stream.write(json);
+        stream.fertig();
+        return out.size();
+    }
+
+    @Benchmark
+    public int jdk() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream zip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            zip.write(json);
+        }
+        return out.size();
+    }
+
+    // Aufbau wie die JSON-Antwort von /autos/all, die Marke ist in jedem Auto wiederholt
+    private static byte[] json(int autos) {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 1; i <= autos; i++) {
+            int marke = 1 + random.nextInt(50);
+            sb.append(i > 1 ? "," : "")
+                    .append("{\"idAutos\":").append(i)
+                    .append(",\"modell\":\"Modell ").append(random.nextInt(5000)).append('"')
+                    .append(",\"baujahr\":\"").append(1980 + random.nextInt(45)).append("-01-01\"")
+                    .append(",\"gewicht\":").append(800 + random.nextInt(2000)).append(".0")
+                    .append(",\"leistung\":").append(50 + random.nextInt(600))
+                    .append(",\"verbrenner\":").append(random.nextBoolean())
+                    .append(",\"produktion\":true,\"fsMarken\":").append(marke)
+                    .append(",\"marke\":{\"idMarke\":").append(marke).append(",\"name\":\"Marke ").append(marke).append("\"}}");
+        }
+        return sb.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
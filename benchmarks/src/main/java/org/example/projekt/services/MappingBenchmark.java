@@ -0,0 +1,63 @@
+package org.example.projekt.services;
+
+import org.example.projekt.modules.Auto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// ResultSet -> Auto wie in DataBase.getAllAutos (Spalten per Name, Marke aus dem Cache), ohne MySQL:
+// die Zeilen kommen aus FakeJdbc. Dessen ResultSet ist ein Proxy, jeder get-Aufruf kostet also einen
+// Reflection-Aufruf und ein Map-Lookup mehr als beim Treiber; für Vergleiche zwischen Läufen reicht das.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MappingBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int zeilen;
+
+    private FakeJdbc jdbc;
+    private DataBase db;
+
+    @Setup
+    public void setup() throws SQLException {
+        List<Map<String, Object>> marken = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            marken.add(FakeJdbc.markeRow(i, "Marke " + i));
+        }
+        List<Map<String, Object>> autos = new ArrayList<>(zeilen);
+        for (int i = 1; i <= zeilen; i++) {
+            autos.add(FakeJdbc.autoRow(i, "Modell " + i, 1990 + i % 35, 1 + i % 20));
+        }
+        jdbc = new FakeJdbc(sql -> sql.contains("FROM marken") ? marken : autos);
+        db = jdbc.dataBase();
+        // Marken-Cache füllen, damit nur das Abbilden der Autos gemessen wird
+        if (db.getAllAutos().size() != zeilen) {
+            throw new IllegalStateException("FakeJdbc liefert nicht " + zeilen + " Zeilen");
+        }
+    }
+
+    @Benchmark
+    public List<Auto> getAllAutos() throws SQLException {
+        // Die Attrappe merkt sich jede Abfrage
+        jdbc.reset();
+        return db.getAllAutos();
+    }
+}
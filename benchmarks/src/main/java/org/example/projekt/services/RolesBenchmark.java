@@ -0,0 +1,122 @@
+package org.example.projekt.services;
+
+import jakarta.annotation.security.DenyAll;
+import jakarta.annotation.security.PermitAll;
+import jakarta.annotation.security.RolesAllowed;
+import org.example.projekt.security.Roles;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.StringTokenizer;
+import java.util.concurrent.TimeUnit;
+
+// Prüfung eines Requests im Roles-Filter (Roles.pruefen, also filter ohne das Auslesen des Headers):
+//   bisher        - Vorgehen vor der Umstellung (Reflection, HashSet, Base64 und StringTokenizer pro Request)
+//   vorberechnet  - Basic mit gemerkter Anmeldung; der GC-Profiler zeigt 0 B/op (gc.alloc.rate.norm)
+//   bearer        - gültiges Token, eine MAC-Berechnung
+//   bearerFalsch  - Token mit falscher Signatur
+//   ohneHeader    - kein Authorization-Header
+//   falscheRolle  - gültige Anmeldung, aber USER auf einer ADMIN-Methode
+// Ein falsches Basic-Passwort wird nie gemerkt und kostet eine volle PBKDF2-Runde, siehe AnmeldungBenchmark.falsch.
+// Die Rate-Limits sind im Fork aus, sonst liefert vorberechnet nach dem Burst nur noch 429.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Dratelimit.USER.perSecond=0", "-Dratelimit.ADMIN.perSecond=0"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RolesBenchmark {
+
+    private Method methode;
+    private Method nurAdmin;
+    private String header;
+    private String bearer;
+    private String bearerFalsch;
+    private Roles roles;
+
+    @Setup
+    public void setup() throws Exception {
+        methode = AutoServices.class.getMethod("countAutos");
+        nurAdmin = AutoServices.class.getMethod("deleteAuto", int.class);
+        header = "Basic " + Base64.getEncoder().encodeToString("user:187".getBytes());
+        Roles.vorberechnen(AutoServices.class, MarkeServices.class);
+        roles = new Roles();
+        bearer = "Bearer " + Roles.ausstellen(header).wert();
+        // Ein Zeichen mitten in der Signatur ändern (das letzte trägt bei Base64 ohne Padding ungenutzte Bits)
+        int stelle = bearer.length() - 8;
+        char zeichen = bearer.charAt(stelle);
+        bearerFalsch = bearer.substring(0, stelle) + (zeichen == 'A' ? 'B' : 'A') + bearer.substring(stelle + 1);
+        if (roles.pruefen(methode, header) != null || roles.pruefen(methode, bearer) != null
+                || roles.pruefen(methode, bearerFalsch) == null || roles.pruefen(nurAdmin, header) == null) {
+            throw new IllegalStateException("Anmeldedaten passen nicht zu users.properties");
+        }
+    }
+
+    @Benchmark
+    public boolean bisher() {
+        return bisherErlaubt(methode, header);
+    }
+
+    @Benchmark
+    public boolean vorberechnet() {
+        return roles.pruefen(methode, header) == null;
+    }
+
+    @Benchmark
+    public boolean bearer() {
+        return roles.pruefen(methode, bearer) == null;
+    }
+
+    @Benchmark
+    public boolean bearerFalsch() {
+        return roles.pruefen(methode, bearerFalsch) == null;
+    }
+
+    @Benchmark
+    public boolean ohneHeader() {
+        return roles.pruefen(methode, null) == null;
+    }
+
+    @Benchmark
+    public boolean falscheRolle() {
+        return roles.pruefen(nurAdmin, header) == null;
+    }
+
+    // Der Filter vor der Umstellung, ohne Abbruch-Antworten
+    private static boolean bisherErlaubt(Method method, String authorization) {
+        if (method.isAnnotationPresent(PermitAll.class)) {
+            return true;
+        }
+        if (method.isAnnotationPresent(DenyAll.class) || authorization == null) {
+            return false;
+        }
+        String encodedUserPassword = authorization.replaceFirst("Basic ", "");
+        String usernameAndPassword = new String(Base64.getDecoder().decode(encodedUserPassword.getBytes()));
+        StringTokenizer tokenizer = new StringTokenizer(usernameAndPassword, ":");
+        String username = tokenizer.nextToken();
+        String password = tokenizer.nextToken();
+        if (method.isAnnotationPresent(RolesAllowed.class)) {
+            Set<String> rolesSet = new HashSet<>(Arrays.asList(method.getAnnotation(RolesAllowed.class).value()));
+            if (username.equals("admin") && password.equals("1234")) {
+                return rolesSet.contains("ADMIN");
+            } else if (username.equals("user") && password.equals("187")) {
+                return rolesSet.contains("USER");
+            }
+            return false;
+        }
+        return true;
+    }
+}
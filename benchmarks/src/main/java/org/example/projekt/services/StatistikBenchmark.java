@@ -0,0 +1,72 @@
+package org.example.projekt.services;
+
+import org.example.projekt.modules.Auto;
+import org.example.projekt.modules.AutoStats;
+import org.example.projekt.modules.Marke;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// AutoStatistik auf Autos im Speicher (InMemoryRepository):
+//   aufbauen - Schnappschuss laden und alle Gruppierungen auswerten, wie nach einem Schreibzugriff
+//   stats    - ein Request auf /autos/stats, liest nur das fertige Ergebnis
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class StatistikBenchmark {
+
+    private static final int MARKEN = 50;
+
+    @Param({"100000", "1000000"})
+    public int anzahl;
+
+    private AutoStatistik statistik;
+
+    @Setup
+    public void setup() throws SQLException {
+        InMemoryRepository repository = new InMemoryRepository();
+        for (int i = 1; i <= MARKEN; i++) {
+            repository.addMarke(new Marke("Marke " + i));
+        }
+        Random random = new Random(42);
+        List<Auto> batch = new ArrayList<>(anzahl);
+        for (int i = 0; i < anzahl; i++) {
+            batch.add(new Auto("Modell " + i, LocalDate.of(1980 + random.nextInt(45), 1, 1),
+                    800 + random.nextInt(2000), 50 + random.nextInt(600), random.nextInt(4) > 0, true,
+                    1 + random.nextInt(MARKEN)));
+        }
+        repository.addAutos(batch);
+        statistik = new AutoStatistik(repository, repository);
+        statistik.stats(AutoStatistik.Gruppierung.MARKE);
+    }
+
+    @Benchmark
+    public int aufbauen() throws SQLException {
+        statistik.invalidate();
+        return statistik.aufbauen().size;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public AutoStats stats() throws SQLException {
+        return statistik.stats(AutoStatistik.Gruppierung.MARKE);
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.projekt.services;
+
+import org.example.projekt.modules.Auto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Validierung aus POST /autos (und pro Eintrag in /autos/batch) vor dem Datenbankzugriff:
+//   gueltig      - alle Prüfungen laufen durch
+//   leer         - Modell fehlt, erste Prüfung
+//   zukunft      - Baujahr in der Zukunft
+//   ohneLeistung - letzte Prüfung schlägt fehl
+// Der AutoServices-Logger ist aus, sonst würde die Konsole gemessen; aktiv kostet jede Warnung zusätzlich einen Eintrag.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ValidierungBenchmark {
+
+    // JUL hält Logger nur schwach, ohne Referenz ginge der Level verloren
+    private Logger logger;
+    private AutoServices services;
+    private Auto gueltig;
+    private Auto leer;
+    private Auto zukunft;
+    private Auto ohneLeistung;
+
+    @Setup
+    public void setup() {
+        logger = Logger.getLogger(AutoServices.class.getName());
+        logger.setLevel(Level.OFF);
+        InMemoryRepository repository = new InMemoryRepository();
+        services = new AutoServices(repository, repository);
+        gueltig = new Auto("Golf", LocalDate.of(2019, 5, 1), 1350.0, 150, true, true, 1);
+        leer = new Auto("  ", LocalDate.of(2019, 5, 1), 1350.0, 150, true, true, 1);
+        zukunft = new Auto("Golf", LocalDate.now().plusYears(1), 1350.0, 150, true, true, 1);
+        ohneLeistung = new Auto("Golf", LocalDate.of(2019, 5, 1), 1350.0, 0, true, true, 1);
+    }
+
+    @Benchmark
+    public String gueltig() {
+        return services.validateFelder(gueltig);
+    }
+
+    @Benchmark
+    public String leer() {
+        return services.validateFelder(leer);
+    }
+
+    @Benchmark
+    public String zukunft() {
+        return services.validateFelder(zukunft);
+    }
+
+    @Benchmark
+    public String ohneLeistung() {
+        return services.validateFelder(ohneLeistung);
+    }
+}
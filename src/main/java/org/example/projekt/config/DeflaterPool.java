@@ -0,0 +1,54 @@
+package org.example.projekt.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.Deflater;
+
+// Wiederverwendbare Deflater und Puffer für die Kompression der Antworten.
+// Ein Deflater hält nativen Speicher (einige hundert KB), ihn pro Request anzulegen und wieder freizugeben
+// kostet mehr als das Komprimieren einer kleinen Antwort. Ist der Pool leer, wird ein neuer angelegt;
+// ist er beim Zurückgeben voll, wird der Deflater sofort freigegeben statt auf den GC zu warten.
+public final class DeflaterPool {
+    private final int level;
+    private final int puffergroesse;
+    // nowrap = true für gzip (eigener Header), false für deflate (zlib-Format)
+    private final ArrayBlockingQueue<Deflater> roh;
+    private final ArrayBlockingQueue<Deflater> zlib;
+    private final ArrayBlockingQueue<byte[]> puffer;
+
+    public DeflaterPool(int level, int puffergroesse, int kapazitaet) {
+        if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Kompressionsstufe muss zwischen 1 und 9 liegen: " + level);
+        }
+        this.level = level;
+        this.puffergroesse = puffergroesse;
+        this.roh = new ArrayBlockingQueue<>(kapazitaet);
+        this.zlib = new ArrayBlockingQueue<>(kapazitaet);
+        // Zwei Puffer pro Stream (Eingabe sammeln, Ausgabe des Deflaters)
+        this.puffer = new ArrayBlockingQueue<>(2 * kapazitaet);
+    }
+
+    public Deflater deflater(boolean nowrap) {
+        Deflater deflater = (nowrap ? roh : zlib).poll();
+        return deflater != null ? deflater : new Deflater(level, nowrap);
+    }
+
+    public void zurueck(Deflater deflater, boolean nowrap) {
+        deflater.reset();
+        if (!(nowrap ? roh : zlib).offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    public byte[] puffer() {
+        byte[] p = puffer.poll();
+        return p != null ? p : new byte[puffergroesse];
+    }
+
+    public void zurueck(byte[] p) {
+        puffer.offer(p);
+    }
+
+    public int getLevel() {
+        return level;
+    }
+}
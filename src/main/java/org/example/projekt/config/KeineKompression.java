@@ -0,0 +1,12 @@
+package org.example.projekt.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Antworten dieser Ressourcen-Methode (oder -Klasse) werden nie komprimiert, z.B. weil sie immer nur wenige Bytes lang sind
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface KeineKompression {
+}
@@ -0,0 +1,159 @@
+package org.example.projekt.config;
+
+import jakarta.annotation.Priority;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Komprimiert Antworten nach Accept-Encoding (gzip oder deflate), sobald sie mindestens compression.minBytes lang sind.
+// Kleinere Antworten gehen unverändert raus, Ressourcen mit @KeineKompression werden übersprungen.
+// Antworten, die bereits ein Content-Encoding haben (z.B. die vorkomprimierten aus dem ResponseCache), bleiben wie sie sind.
+// Ein starker ETag bekommt beim Komprimieren die Endung der Kodierung, die Bytes sind ja andere (RFC 9110, 8.8.3).
+@Provider
+@Priority(Priorities.ENTITY_CODER)
+public class Kompression implements WriterInterceptor {
+    private static final int MIN_BYTES = Integer.getInteger("compression.minBytes", 1024);
+    private static final int LEVEL = Integer.getInteger("compression.level", 6);
+    private static final int PUFFER = 8192;
+    // @KeineKompression pro Ressourcen-Methode, nur beim ersten Request per Reflection gesucht
+    private static final ConcurrentHashMap<Method, Boolean> AUSGENOMMEN = new ConcurrentHashMap<>();
+
+    // Für alle Requests gemeinsam
+    private static final class Holder {
+        static final DeflaterPool POOL = new DeflaterPool(LEVEL, Math.max(PUFFER, MIN_BYTES),
+                4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    public enum Kodierung {
+        GZIP("gzip", true, "-gz"),
+        DEFLATE("deflate", false, "-df");
+
+        private final String name;
+        private final boolean nowrap;
+        private final String etagEndung;
+
+        Kodierung(String name, boolean nowrap, String etagEndung) {
+            this.name = name;
+            this.nowrap = nowrap;
+            this.etagEndung = etagEndung;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getEtagEndung() {
+            return etagEndung;
+        }
+
+        boolean isNowrap() {
+            return nowrap;
+        }
+    }
+
+    @Context
+    private HttpHeaders httpHeaders;
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException, WebApplicationException {
+        MultivaluedMap<String, Object> headers = context.getHeaders();
+        if (MIN_BYTES < 0 || ausgenommen() || headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            context.proceed();
+            return;
+        }
+        // Die Antwort hängt ab hier von Accept-Encoding ab, auch wenn sie diesmal nicht komprimiert wird
+        if (!headers.containsKey(HttpHeaders.VARY)) {
+            headers.putSingle(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        Kodierung kodierung = waehlen(httpHeaders.getHeaderString(HttpHeaders.ACCEPT_ENCODING));
+        if (kodierung == null || context.getEntity() instanceof byte[] bytes && bytes.length < MIN_BYTES) {
+            context.proceed();
+            return;
+        }
+
+        KomprimierenderStream stream = new KomprimierenderStream(context.getOutputStream(), kodierung, Holder.POOL,
+                MIN_BYTES, () -> kodiert(headers, kodierung));
+        context.setOutputStream(stream);
+        try {
+            context.proceed();
+            stream.fertig();
+        } catch (IOException | RuntimeException e) {
+            stream.abbrechen();
+            throw e;
+        }
+    }
+
+    private boolean ausgenommen() {
+        Method method = resourceInfo == null ? null : resourceInfo.getResourceMethod();
+        return method != null && AUSGENOMMEN.computeIfAbsent(method, m -> m.isAnnotationPresent(KeineKompression.class)
+                || m.getDeclaringClass().isAnnotationPresent(KeineKompression.class));
+    }
+
+    // Header einer komprimierten Antwort, gesetzt bevor das erste Byte gesendet ist
+    public static void kodiert(MultivaluedMap<String, Object> headers, Kodierung kodierung) {
+        headers.putSingle(HttpHeaders.CONTENT_ENCODING, kodierung.getName());
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        Object etag = headers.getFirst(HttpHeaders.ETAG);
+        if (etag instanceof EntityTag tag) {
+            if (!tag.isWeak()) {
+                headers.putSingle(HttpHeaders.ETAG, new EntityTag(tag.getValue() + kodierung.getEtagEndung()));
+            }
+        } else if (etag != null && !etag.toString().startsWith("W/")) {
+            // Unbekannte Form: lieber ohne ETag als mit dem der unkomprimierten Antwort
+            headers.remove(HttpHeaders.ETAG);
+        }
+    }
+
+    // Kodierung mit dem höchsten q-Wert, bei Gleichstand gzip; null wenn keine akzeptiert wird
+    public static Kodierung waehlen(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+        double gzip = -1;
+        double deflate = -1;
+        double stern = -1;
+        for (String teil : acceptEncoding.split(",")) {
+            String[] werte = teil.trim().split(";");
+            String name = werte[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1;
+            for (int i = 1; i < werte.length; i++) {
+                String parameter = werte[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            switch (name) {
+                case "gzip", "x-gzip" -> gzip = Math.max(gzip, q);
+                case "deflate" -> deflate = Math.max(deflate, q);
+                case "*" -> stern = Math.max(stern, q);
+                default -> {
+                }
+            }
+        }
+        // * gilt nur für die Kodierungen, die nicht ausdrücklich genannt sind
+        gzip = gzip < 0 ? stern : gzip;
+        deflate = deflate < 0 ? stern : deflate;
+        if (gzip <= 0 && deflate <= 0) {
+            return null;
+        }
+        return gzip >= deflate ? Kodierung.GZIP : Kodierung.DEFLATE;
+    }
+}
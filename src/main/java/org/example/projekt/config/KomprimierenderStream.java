@@ -0,0 +1,186 @@
+package org.example.projekt.config;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+// Sammelt die Antwort bis minBytes im Puffer. Bleibt sie kleiner, wird sie unverändert geschrieben; sonst wird
+// vor dem ersten Byte beimStart aufgerufen (Header setzen, solange sie noch nicht gesendet sind) und alles
+// Weitere komprimiert. Der Puffer dient danach als Sammelstelle, damit einzelne Bytes wie ',' beim Streamen
+// nicht je einen Aufruf in den nativen Deflater kosten.
+// fertig() muss aufgerufen werden, sonst fehlen Ende und Prüfsumme und Deflater und Puffer gehen dem Pool verloren.
+public final class KomprimierenderStream extends OutputStream {
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final OutputStream ziel;
+    private final Kompression.Kodierung kodierung;
+    private final DeflaterPool pool;
+    private final int minBytes;
+    private final Runnable beimStart;
+
+    private byte[] eingabe;
+    private int anzahl;
+    private byte[] ausgabe;
+    private Deflater deflater;
+    private CRC32 crc;
+    private long gesamt;
+    private boolean fertig;
+
+    public KomprimierenderStream(OutputStream ziel, Kompression.Kodierung kodierung, DeflaterPool pool,
+                                 int minBytes, Runnable beimStart) {
+        this.ziel = ziel;
+        this.kodierung = kodierung;
+        this.pool = pool;
+        this.minBytes = minBytes;
+        this.beimStart = beimStart;
+        this.eingabe = pool.puffer();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        pruefeOffen();
+        if (anzahl == eingabe.length) {
+            leeren();
+        }
+        eingabe[anzahl++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        pruefeOffen();
+        if (anzahl + len <= eingabe.length) {
+            System.arraycopy(b, off, eingabe, anzahl, len);
+            anzahl += len;
+            return;
+        }
+        // Passt nicht mehr in den Puffer, damit ist minBytes (höchstens die Puffergrösse) überschritten
+        leeren();
+        if (len >= eingabe.length) {
+            komprimieren(b, off, len);
+        } else {
+            System.arraycopy(b, off, eingabe, 0, len);
+            anzahl = len;
+        }
+    }
+
+    // Alles bisher Geschriebene mit SYNC_FLUSH beim Ziel abliefern, damit ein Stream in Blöcken beim Client ankommt.
+    // Jeder Flush beendet einen Deflate-Block und kostet etwas Kompression; AutoServices flusht deshalb nur alle
+    // STREAM_FLUSH_ROWS Zeilen. Unter minBytes ist noch nicht entschieden, ob komprimiert wird: dann geht nichts raus.
+    @Override
+    public void flush() throws IOException {
+        if (fertig || deflater == null && anzahl < minBytes) {
+            return;
+        }
+        leeren();
+        int n;
+        do {
+            n = deflater.deflate(ausgabe, 0, ausgabe.length, Deflater.SYNC_FLUSH);
+            ziel.write(ausgabe, 0, n);
+        } while (n == ausgabe.length);
+        ziel.flush();
+    }
+
+    // Rest schreiben, Deflater und Puffer an den Pool zurückgeben; das Ziel bleibt offen
+    public void fertig() throws IOException {
+        if (fertig) {
+            return;
+        }
+        try {
+            if (deflater == null && anzahl < minBytes) {
+                ziel.write(eingabe, 0, anzahl);
+            } else {
+                leeren();
+                deflater.finish();
+                while (!deflater.finished()) {
+                    int n = deflater.deflate(ausgabe, 0, ausgabe.length);
+                    ziel.write(ausgabe, 0, n);
+                }
+                if (kodierung == Kompression.Kodierung.GZIP) {
+                    schreibeIntLE(crc.getValue());
+                    schreibeIntLE(gesamt);
+                }
+            }
+        } finally {
+            freigeben();
+        }
+    }
+
+    // Nach einem Fehler: nichts mehr schreiben, nur die Ressourcen zurückgeben
+    public void abbrechen() {
+        freigeben();
+    }
+
+    @Override
+    public void close() throws IOException {
+        fertig();
+        ziel.close();
+    }
+
+    public boolean isKomprimiert() {
+        return deflater != null;
+    }
+
+    // ==================== Hilfsmethoden ====================
+
+    private void pruefeOffen() throws IOException {
+        if (fertig) {
+            throw new IOException("Stream ist bereits abgeschlossen");
+        }
+    }
+
+    private void leeren() throws IOException {
+        if (deflater == null) {
+            starten();
+        }
+        if (anzahl > 0) {
+            komprimieren(eingabe, 0, anzahl);
+            anzahl = 0;
+        }
+    }
+
+    private void starten() throws IOException {
+        beimStart.run();
+        deflater = pool.deflater(kodierung.isNowrap());
+        ausgabe = pool.puffer();
+        if (kodierung == Kompression.Kodierung.GZIP) {
+            crc = new CRC32();
+            ziel.write(GZIP_HEADER);
+        }
+    }
+
+    private void komprimieren(byte[] b, int off, int len) throws IOException {
+        if (crc != null) {
+            crc.update(b, off, len);
+        }
+        gesamt += len;
+        deflater.setInput(b, off, len);
+        // Der Deflater hält nur eine Referenz auf b, vor dem Zurückkehren muss alles verarbeitet sein
+        while (!deflater.needsInput()) {
+            int n = deflater.deflate(ausgabe, 0, ausgabe.length, Deflater.NO_FLUSH);
+            if (n > 0) {
+                ziel.write(ausgabe, 0, n);
+            }
+        }
+    }
+
+    private void schreibeIntLE(long wert) throws IOException {
+        ziel.write((int) wert & 0xff);
+        ziel.write((int) (wert >> 8) & 0xff);
+        ziel.write((int) (wert >> 16) & 0xff);
+        ziel.write((int) (wert >> 24) & 0xff);
+    }
+
+    private void freigeben() {
+        if (fertig) {
+            return;
+        }
+        fertig = true;
+        pool.zurueck(eingabe);
+        eingabe = null;
+        if (deflater != null) {
+            pool.zurueck(deflater, kodierung.isNowrap());
+            pool.zurueck(ausgabe);
+        }
+    }
+}
@@ -3,9 +3,13 @@ package org.example.projekt.config;
 
 import jakarta.ws.rs.ApplicationPath;
 import jakarta.ws.rs.core.Application;
+import org.example.projekt.logging.AsyncHandler;
+import org.example.projekt.metrics.Anfragemessung;
 import org.example.projekt.security.Roles;
+import org.example.projekt.services.AuthServices;
 import org.example.projekt.services.AutoServices;
 import org.example.projekt.services.MarkeServices;
+import org.example.projekt.services.MetrikServices;
 
 import java.util.Arrays;
 import java.util.HashSet;
@@ -19,10 +23,19 @@ public class RestConfig extends Application {
         } catch (ClassNotFoundException e) {
             throw new RuntimeException(e);
         }
+        // Log-Einträge über einen Ringpuffer und einen eigenen Schreiber-Thread statt synchron auf die Konsole
+        AsyncHandler.installieren();
+        // Berechtigungen der Ressourcen einmal beim Start auswerten statt bei jedem Request
+        Roles.vorberechnen(MarkeServices.class, AutoServices.class, AuthServices.class, MetrikServices.class);
+        Anfragemessung.vorberechnen(MarkeServices.class, AutoServices.class, AuthServices.class, MetrikServices.class);
         return new HashSet<Class<?>>(
                 Arrays.asList(
+                        Anfragemessung.class,
                         Roles.class,
+                        Kompression.class,
+                        AuthServices.class,
                         MarkeServices.class,
-                        AutoServices.class));
+                        AutoServices.class,
+                        MetrikServices.class));
     }
 }
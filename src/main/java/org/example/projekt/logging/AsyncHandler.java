@@ -0,0 +1,238 @@
+package org.example.projekt.logging;
+
+import org.example.projekt.metrics.Metriken;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+// JUL-Handler, der Einträge nur in einen Ringpuffer legt; ein eigener Thread formatiert und schreibt sie.
+// Der aufrufende Thread wartet also weder auf das Formatieren noch auf die Konsole und ihren Lock.
+// Ist der Puffer voll, wird der Eintrag verworfen (VERWERFEN, Standard) oder der Aufrufer wartet auf Platz
+// (WARTEN). Verworfene Einträge werden gezählt und beim nächsten Schreiben als eigene Zeile gemeldet.
+public class AsyncHandler extends Handler {
+    private static final long LEERLAUF_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long WARTEN_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final ReentrantLock INSTALLIEREN = new ReentrantLock();
+
+    public enum Strategie {
+        VERWERFEN, WARTEN
+    }
+
+    private final Ringpuffer<LogRecord> puffer;
+    private final Strategie strategie;
+    private final Writer ausgabe;
+    // flush() aus anderen Threads gegen das Schreiben
+    private final ReentrantLock ausgabeLock = new ReentrantLock();
+    private final Thread schreiber;
+
+    private volatile boolean schlaeft;
+    private volatile boolean geschlossen;
+
+    private final LongAdder verworfen = new LongAdder();
+    private final LongAdder geschrieben = new LongAdder();
+    // Nur im Schreiber-Thread
+    private long gemeldetVerworfen;
+
+    public AsyncHandler(int kapazitaet, Strategie strategie, OutputStream ziel) {
+        this.puffer = new Ringpuffer<>(kapazitaet);
+        this.strategie = strategie;
+        this.ausgabe = new BufferedWriter(new OutputStreamWriter(ziel, StandardCharsets.UTF_8), 64 * 1024);
+        setFormatter(new SchluesselWertFormat());
+        this.schreiber = Thread.ofPlatform().name("log-writer").daemon().unstarted(this::schreiben);
+        this.schreiber.start();
+    }
+
+    // -Dlog.async.capacity (Zweierpotenz), -Dlog.async.policy=drop|block, Ausgabe auf stderr wie der ConsoleHandler
+    public static AsyncHandler fromSystemProperties() {
+        String policy = System.getProperty("log.async.policy", "drop");
+        return new AsyncHandler(Integer.getInteger("log.async.capacity", 8192),
+                policy.equalsIgnoreCase("block") ? Strategie.WARTEN : Strategie.VERWERFEN, System.err);
+    }
+
+    // Ersetzt die ConsoleHandler des Root-Loggers; ohne Wirkung mit -Dlog.async=false oder wenn schon installiert
+    public static void installieren() {
+        if (!Boolean.parseBoolean(System.getProperty("log.async", "true"))) {
+            return;
+        }
+        Logger root = LogManager.getLogManager().getLogger("");
+        INSTALLIEREN.lock();
+        try {
+            for (Handler handler : root.getHandlers()) {
+                if (handler instanceof AsyncHandler) {
+                    return;
+                }
+            }
+            AsyncHandler async = fromSystemProperties();
+            for (Handler handler : root.getHandlers()) {
+                if (handler instanceof ConsoleHandler) {
+                    async.setLevel(handler.getLevel());
+                    root.removeHandler(handler);
+                    handler.close();
+                }
+            }
+            root.addHandler(async);
+            Metriken.zaehler("log_records_dropped_total", "Verworfene Log-Einträge (Puffer voll)", async::getVerworfen);
+            Metriken.zaehler("log_records_written_total", "Geschriebene Log-Einträge", async::getGeschrieben);
+            Runtime.getRuntime().addShutdownHook(new Thread(async::close, "log-writer-shutdown"));
+        } finally {
+            INSTALLIEREN.unlock();
+        }
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (geschlossen || !isLoggable(record)) {
+            return;
+        }
+        if (!puffer.anbieten(record)) {
+            if (strategie == Strategie.VERWERFEN) {
+                verworfen.increment();
+                return;
+            }
+            while (!puffer.anbieten(record)) {
+                if (geschlossen) {
+                    verworfen.increment();
+                    return;
+                }
+                wecken();
+                LockSupport.parkNanos(WARTEN_NANOS);
+            }
+        }
+        if (schlaeft) {
+            wecken();
+        }
+    }
+
+    // Wartet, bis alles bis jetzt Angebotene geschrieben ist (höchstens eine Sekunde)
+    @Override
+    public void flush() {
+        long ende = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (!puffer.istLeer() && schreiber.isAlive() && System.nanoTime() < ende) {
+            wecken();
+            LockSupport.parkNanos(WARTEN_NANOS);
+        }
+        try {
+            ausgabeLock.lock();
+            try {
+                ausgabe.flush();
+            } finally {
+                ausgabeLock.unlock();
+            }
+        } catch (IOException e) {
+            reportError("Log-Ausgabe fehlgeschlagen", e, ErrorManager.FLUSH_FAILURE);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (geschlossen) {
+            return;
+        }
+        geschlossen = true;
+        wecken();
+        try {
+            schreiber.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getVerworfen() {
+        return verworfen.sum();
+    }
+
+    public long getGeschrieben() {
+        return geschrieben.sum();
+    }
+
+    // ==================== Schreiber-Thread ====================
+
+    private void schreiben() {
+        boolean ungespuelt = false;
+        while (true) {
+            LogRecord record = puffer.nehmen();
+            if (record != null) {
+                ausgeben(record);
+                ungespuelt = true;
+                continue;
+            }
+            ungespuelt |= verworfenMelden();
+            // Gespült wird erst, wenn der Puffer leer ist: unter Last ein Systemaufruf für viele Zeilen
+            if (ungespuelt) {
+                try {
+                    ausgabeLock.lock();
+                    try {
+                        ausgabe.flush();
+                    } finally {
+                        ausgabeLock.unlock();
+                    }
+                } catch (IOException e) {
+                    reportError("Log-Ausgabe fehlgeschlagen", e, ErrorManager.FLUSH_FAILURE);
+                }
+                ungespuelt = false;
+            }
+            if (geschlossen && puffer.istLeer()) {
+                return;
+            }
+            // Erst anmelden, dann nochmal prüfen: sonst könnte ein Eintrag zwischen Prüfen und Schlafen liegen bleiben
+            schlaeft = true;
+            if (puffer.istLeer() && !geschlossen) {
+                LockSupport.parkNanos(this, LEERLAUF_NANOS);
+            }
+            schlaeft = false;
+        }
+    }
+
+    private void ausgeben(LogRecord record) {
+        String zeile;
+        try {
+            zeile = getFormatter().format(record);
+        } catch (RuntimeException e) {
+            reportError("Log-Eintrag konnte nicht formatiert werden", e, ErrorManager.FORMAT_FAILURE);
+            return;
+        }
+        try {
+            ausgabeLock.lock();
+            try {
+                ausgabe.write(zeile);
+            } finally {
+                ausgabeLock.unlock();
+            }
+            geschrieben.increment();
+        } catch (IOException e) {
+            reportError("Log-Ausgabe fehlgeschlagen", e, ErrorManager.WRITE_FAILURE);
+        }
+    }
+
+    private boolean verworfenMelden() {
+        long bisher = verworfen.sum();
+        if (bisher > gemeldetVerworfen) {
+            LogRecord meldung = new Protokoll.Eintrag(Level.WARNING, "log.dropped",
+                    new Object[]{"count", bisher - gemeldetVerworfen, "capacity", puffer.getKapazitaet()});
+            meldung.setLoggerName(AsyncHandler.class.getName());
+            gemeldetVerworfen = bisher;
+            ausgeben(meldung);
+            return true;
+        }
+        return false;
+    }
+
+    private void wecken() {
+        LockSupport.unpark(schreiber);
+    }
+}
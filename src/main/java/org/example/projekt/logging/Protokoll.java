@@ -0,0 +1,142 @@
+package org.example.projekt.logging;
+
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+// Strukturiertes Logging für den Request-Pfad: ein Ereignisname und Schlüssel/Wert-Paare statt eines
+// zusammengesetzten Satzes, z.B. LOG.info("auto.get", "id", id).
+// Jede Methode prüft zuerst den Level; ist er aus, werden weder der Eintrag noch das Array der Paare angelegt.
+// Zahlen boxt Java wie bei jedem Object-Parameter schon beim Aufruf; wo das zählt, vorher aktiv(level) prüfen.
+// Geschrieben wird über den normalen JUL-Logger, also über AsyncHandler, wenn er installiert ist.
+public final class Protokoll {
+
+    // LogRecord mit den Paaren; die Nachricht ist der Ereignisname
+    public static final class Eintrag extends LogRecord {
+        private final Object[] paare;
+        private final String threadName;
+
+        Eintrag(Level level, String ereignis, Object[] paare) {
+            super(level, ereignis);
+            this.paare = paare;
+            this.threadName = Thread.currentThread().getName();
+        }
+
+        public Object[] getPaare() {
+            return paare;
+        }
+
+        public String getThreadName() {
+            return threadName;
+        }
+    }
+
+    private static final Object[] KEINE = new Object[0];
+
+    private final Logger logger;
+
+    private Protokoll(Logger logger) {
+        this.logger = logger;
+    }
+
+    public static Protokoll fuer(Class<?> klasse) {
+        return new Protokoll(Logger.getLogger(klasse.getName()));
+    }
+
+    public boolean aktiv(Level level) {
+        return logger.isLoggable(level);
+    }
+
+    // ==================== FINE ====================
+
+    public void fein(String ereignis, String schluessel, Object wert) {
+        if (logger.isLoggable(Level.FINE)) {
+            schreiben(Level.FINE, ereignis, null, new Object[]{schluessel, wert});
+        }
+    }
+
+    public void fein(String ereignis, String k1, Object v1, String k2, Object v2) {
+        if (logger.isLoggable(Level.FINE)) {
+            schreiben(Level.FINE, ereignis, null, new Object[]{k1, v1, k2, v2});
+        }
+    }
+
+    // ==================== INFO ====================
+
+    public void info(String ereignis) {
+        if (logger.isLoggable(Level.INFO)) {
+            schreiben(Level.INFO, ereignis, null, KEINE);
+        }
+    }
+
+    public void info(String ereignis, String schluessel, Object wert) {
+        if (logger.isLoggable(Level.INFO)) {
+            schreiben(Level.INFO, ereignis, null, new Object[]{schluessel, wert});
+        }
+    }
+
+    public void info(String ereignis, String k1, Object v1, String k2, Object v2) {
+        if (logger.isLoggable(Level.INFO)) {
+            schreiben(Level.INFO, ereignis, null, new Object[]{k1, v1, k2, v2});
+        }
+    }
+
+    public void info(String ereignis, String k1, Object v1, String k2, Object v2, String k3, Object v3) {
+        if (logger.isLoggable(Level.INFO)) {
+            schreiben(Level.INFO, ereignis, null, new Object[]{k1, v1, k2, v2, k3, v3});
+        }
+    }
+
+    // ==================== WARNING ====================
+
+    public void warnung(String ereignis) {
+        if (logger.isLoggable(Level.WARNING)) {
+            schreiben(Level.WARNING, ereignis, null, KEINE);
+        }
+    }
+
+    public void warnung(String ereignis, String schluessel, Object wert) {
+        if (logger.isLoggable(Level.WARNING)) {
+            schreiben(Level.WARNING, ereignis, null, new Object[]{schluessel, wert});
+        }
+    }
+
+    public void warnung(String ereignis, String k1, Object v1, String k2, Object v2) {
+        if (logger.isLoggable(Level.WARNING)) {
+            schreiben(Level.WARNING, ereignis, null, new Object[]{k1, v1, k2, v2});
+        }
+    }
+
+    public void warnung(String ereignis, Throwable fehler) {
+        if (logger.isLoggable(Level.WARNING)) {
+            schreiben(Level.WARNING, ereignis, fehler, KEINE);
+        }
+    }
+
+    public void warnung(String ereignis, Throwable fehler, String schluessel, Object wert) {
+        if (logger.isLoggable(Level.WARNING)) {
+            schreiben(Level.WARNING, ereignis, fehler, new Object[]{schluessel, wert});
+        }
+    }
+
+    // ==================== SEVERE ====================
+
+    public void fehler(String ereignis, Throwable fehler) {
+        if (logger.isLoggable(Level.SEVERE)) {
+            schreiben(Level.SEVERE, ereignis, fehler, KEINE);
+        }
+    }
+
+    public void fehler(String ereignis, Throwable fehler, String schluessel, Object wert) {
+        if (logger.isLoggable(Level.SEVERE)) {
+            schreiben(Level.SEVERE, ereignis, fehler, new Object[]{schluessel, wert});
+        }
+    }
+
+    private void schreiben(Level level, String ereignis, Throwable fehler, Object[] paare) {
+        Eintrag eintrag = new Eintrag(level, ereignis, paare);
+        eintrag.setLoggerName(logger.getName());
+        eintrag.setThrown(fehler);
+        logger.log(eintrag);
+    }
+}
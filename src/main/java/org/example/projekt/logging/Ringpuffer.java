@@ -0,0 +1,56 @@
+package org.example.projekt.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Begrenzter Ringpuffer für viele Schreiber und genau einen Leser, ohne Lock.
+// Ein Schreiber reserviert seinen Platz per CAS auf ende und veröffentlicht das Element danach im Slot;
+// der Leser nimmt nur Slots, die schon veröffentlicht sind, und gibt sie mit anfang wieder frei.
+final class Ringpuffer<T> {
+    private final AtomicReferenceArray<T> slots;
+    private final int maske;
+    private final AtomicLong ende = new AtomicLong();
+    private final AtomicLong anfang = new AtomicLong();
+
+    Ringpuffer(int kapazitaet) {
+        if (kapazitaet < 2 || Integer.bitCount(kapazitaet) != 1) {
+            throw new IllegalArgumentException("Kapazität muss eine Zweierpotenz sein: " + kapazitaet);
+        }
+        this.slots = new AtomicReferenceArray<>(kapazitaet);
+        this.maske = kapazitaet - 1;
+    }
+
+    // false, wenn der Puffer voll ist
+    boolean anbieten(T element) {
+        long position;
+        do {
+            position = ende.get();
+            if (position - anfang.get() >= slots.length()) {
+                return false;
+            }
+        } while (!ende.compareAndSet(position, position + 1));
+        slots.lazySet((int) position & maske, element);
+        return true;
+    }
+
+    // Nur vom Leser-Thread; null, wenn nichts (fertig veröffentlicht) ansteht
+    T nehmen() {
+        long position = anfang.get();
+        int slot = (int) position & maske;
+        T element = slots.get(slot);
+        if (element == null) {
+            return null;
+        }
+        slots.lazySet(slot, null);
+        anfang.lazySet(position + 1);
+        return element;
+    }
+
+    boolean istLeer() {
+        return anfang.get() == ende.get();
+    }
+
+    int getKapazitaet() {
+        return slots.length();
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.projekt.logging;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.logging.Formatter;
+import java.util.logging.LogRecord;
+
+// Eine Zeile pro Eintrag im Format key=value (logfmt):
+//   ts=2026-10-18T10:09:46.123Z level=INFO logger=AutoServices thread=rest-12 event=auto.get id=5
+// Einträge aus Protokoll bringen event und ihre Schlüssel mit; andere Log-Aufrufe erscheinen mit msg="...".
+// Werte mit Leerzeichen, Anführungszeichen oder = werden in Anführungszeichen gesetzt. Ein Stacktrace folgt
+// eingerückt auf den nächsten Zeilen.
+public class SchluesselWertFormat extends Formatter {
+
+    @Override
+    public String format(LogRecord record) {
+        StringBuilder zeile = new StringBuilder(160);
+        zeile.append("ts=").append(Instant.ofEpochMilli(record.getMillis()));
+        zeile.append(" level=").append(record.getLevel().getName());
+        zeile.append(" logger=");
+        wert(zeile, kurzerName(record.getLoggerName()));
+        zeile.append(" thread=");
+        wert(zeile, threadName(record));
+        if (record instanceof Protokoll.Eintrag eintrag) {
+            zeile.append(" event=").append(eintrag.getMessage());
+            Object[] paare = eintrag.getPaare();
+            for (int i = 0; i + 1 < paare.length; i += 2) {
+                zeile.append(' ').append(paare[i]).append('=');
+                wert(zeile, String.valueOf(paare[i + 1]));
+            }
+        } else {
+            zeile.append(" msg=");
+            wert(zeile, formatMessage(record));
+        }
+        Throwable fehler = record.getThrown();
+        if (fehler != null) {
+            zeile.append(" error=");
+            wert(zeile, fehler.getClass().getName());
+            if (fehler.getMessage() != null) {
+                zeile.append(" error_msg=");
+                wert(zeile, fehler.getMessage());
+            }
+            zeile.append('\n');
+            StringWriter stack = new StringWriter();
+            fehler.printStackTrace(new PrintWriter(stack));
+            for (String stackZeile : stack.toString().split("\\R")) {
+                zeile.append("    ").append(stackZeile).append('\n');
+            }
+            return zeile.toString();
+        }
+        return zeile.append('\n').toString();
+    }
+
+    static void wert(StringBuilder zeile, String wert) {
+        if (wert == null) {
+            zeile.append("null");
+            return;
+        }
+        boolean quoten = wert.isEmpty();
+        for (int i = 0; i < wert.length() && !quoten; i++) {
+            char c = wert.charAt(i);
+            quoten = c <= ' ' || c == '"' || c == '=' || c == '\\';
+        }
+        if (!quoten) {
+            zeile.append(wert);
+            return;
+        }
+        zeile.append('"');
+        for (int i = 0; i < wert.length(); i++) {
+            char c = wert.charAt(i);
+            switch (c) {
+                case '"' -> zeile.append("\\\"");
+                case '\\' -> zeile.append("\\\\");
+                case '\n' -> zeile.append("\\n");
+                case '\r' -> zeile.append("\\r");
+                case '\t' -> zeile.append("\\t");
+                default -> zeile.append(c);
+            }
+        }
+        zeile.append('"');
+    }
+
+    private static String kurzerName(String logger) {
+        if (logger == null) {
+            return "";
+        }
+        return logger.substring(logger.lastIndexOf('.') + 1);
+    }
+
+    // Der Name des erzeugenden Threads, wenn Protokoll ihn mitgegeben hat; sonst nur die ID
+    private static String threadName(LogRecord record) {
+        if (record instanceof Protokoll.Eintrag eintrag) {
+            return eintrag.getThreadName();
+        }
+        return Long.toString(record.getLongThreadID());
+    }
+}
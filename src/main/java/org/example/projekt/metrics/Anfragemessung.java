@@ -0,0 +1,93 @@
+package org.example.projekt.metrics;
+
+import jakarta.annotation.Priority;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.ext.Provider;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Dauer und Statusklasse jedes Requests pro Ressourcen-Methode. Läuft als erster Request- und letzter
+// Response-Filter, misst also inklusive Anmeldung, Rate-Limit, asynchroner Bearbeitung und Serialisierung
+// (ohne das Schreiben des Bodies). Abgewiesene Requests (401, 429) zählen beim Endpoint mit.
+@Provider
+@Priority(Priorities.AUTHENTICATION - 100)
+public class Anfragemessung implements ContainerRequestFilter, ContainerResponseFilter {
+    private static final String START = Anfragemessung.class.getName() + ".start";
+
+    private record Endpunkt(Histogramm dauer, LongAdder[] status) {
+        void aufnehmen(long nanos, int code) {
+            dauer.aufnehmen(nanos);
+            status[Math.clamp(code / 100 - 1, 0, status.length - 1)].increment();
+        }
+    }
+
+    private static final ConcurrentHashMap<Method, Endpunkt> ENDPUNKTE = new ConcurrentHashMap<>();
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    // Beim Start mit allen Ressourcen-Klassen aufrufen, damit auch nie aufgerufene Endpoints mit 0 erscheinen
+    public static void vorberechnen(Class<?>... ressourcen) {
+        for (Class<?> ressource : ressourcen) {
+            for (Method method : ressource.getMethods()) {
+                if (istRessourcenMethode(method)) {
+                    ENDPUNKTE.computeIfAbsent(method, Anfragemessung::endpunkt);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        requestContext.setProperty(START, System.nanoTime());
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        // Ohne Start (Request vor dem Matching abgewiesen) oder ohne Ressourcen-Methode (404) nicht messbar
+        if (!(requestContext.getProperty(START) instanceof Long start)) {
+            return;
+        }
+        Method method = resourceInfo.getResourceMethod();
+        if (method == null) {
+            return;
+        }
+        Endpunkt endpunkt = ENDPUNKTE.get(method);
+        if (endpunkt == null) {
+            endpunkt = ENDPUNKTE.computeIfAbsent(method, Anfragemessung::endpunkt);
+        }
+        endpunkt.aufnehmen(System.nanoTime() - start, responseContext.getStatus());
+    }
+
+    // @GET, @POST, ... sind selbst mit @HttpMethod annotiert
+    private static boolean istRessourcenMethode(Method method) {
+        for (Annotation annotation : method.getAnnotations()) {
+            if (annotation.annotationType().isAnnotationPresent(HttpMethod.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Endpunkt endpunkt(Method method) {
+        String ressource = method.getDeclaringClass().getSimpleName();
+        String name = method.getName();
+        LongAdder[] status = new LongAdder[5];
+        for (int i = 0; i < status.length; i++) {
+            status[i] = Metriken.zaehler("http_responses_total", "Antworten pro Endpoint und Statusklasse",
+                    "resource", ressource, "handler", name, "status", (i + 1) + "xx");
+        }
+        return new Endpunkt(Metriken.histogramm("http_request_duration_seconds", "Bearbeitungszeit pro Endpoint",
+                "resource", ressource, "handler", name), status);
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.projekt.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latenz-Histogramm in Nanosekunden mit log-linearen Buckets: zwischen 16 µs und 17 s 8 gleich breite Buckets pro
+// Zweierpotenz (jeder höchstens 12.5 % breit), darunter und darüber je ein Bucket. /metrics exportiert genau diese
+// Buckets, histogram_quantile() interpoliert also nie über mehr als 12.5 % des Werts.
+// Aufnehmen ist ein Zähler-Inkrement ohne Lock und ohne Allokation; summiert wird erst beim Scrape.
+public final class Histogramm {
+    private static final int GENAU_BITS = 3;
+    private static final int PRO_OKTAVE = 1 << GENAU_BITS;
+    // 2^14 ns = 16 µs bis 2^34 ns = 17 s
+    private static final int MIN_EXPONENT = 14;
+    private static final int MAX_EXPONENT = 34;
+    // Bucket 0 (unter 16 µs), die Buckets der Oktaven und der Überlauf (nur in +Inf)
+    static final int GROESSE = 1 + (MAX_EXPONENT - MIN_EXPONENT) * PRO_OKTAVE + 1;
+    // Buckets mit einer oberen Grenze, alle ausser dem Überlauf
+    public static final int BUCKETS = GROESSE - 1;
+
+    private final AtomicLongArray zaehler = new AtomicLongArray(GROESSE);
+    private final LongAdder summe = new LongAdder();
+
+    // Zustand zu einem Zeitpunkt
+    public static final class Auswertung {
+        private final long[] zaehler;
+        private final long anzahl;
+        private final long summe;
+
+        private Auswertung(long[] zaehler, long anzahl, long summe) {
+            this.zaehler = zaehler;
+            this.anzahl = anzahl;
+            this.summe = summe;
+        }
+
+        public long getAnzahl() {
+            return anzahl;
+        }
+
+        public long getSumme() {
+            return summe;
+        }
+
+        // Kumulierte Anzahl bis einschliesslich Bucket i, für i < BUCKETS (le = obergrenze(i))
+        public long[] kumuliert() {
+            long[] ergebnis = new long[BUCKETS];
+            long gezaehlt = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                gezaehlt += zaehler[i];
+                ergebnis[i] = gezaehlt;
+            }
+            return ergebnis;
+        }
+    }
+
+    public void aufnehmen(long nanos) {
+        long wert = Math.max(0, nanos);
+        // Wie le in Prometheus gehört die obere Grenze noch zum Bucket
+        zaehler.incrementAndGet(index(wert - 1));
+        summe.add(wert);
+    }
+
+    public Auswertung auswerten() {
+        long[] kopie = new long[GROESSE];
+        long anzahl = 0;
+        for (int i = 0; i < GROESSE; i++) {
+            kopie[i] = zaehler.get(i);
+            anzahl += kopie[i];
+        }
+        return new Auswertung(kopie, anzahl, summe.sum());
+    }
+
+    static int index(long wert) {
+        if (wert < 1L << MIN_EXPONENT) {
+            return 0;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(wert);
+        if (exponent >= MAX_EXPONENT) {
+            return GROESSE - 1;
+        }
+        int mantisse = (int) (wert >>> (exponent - GENAU_BITS)) & (PRO_OKTAVE - 1);
+        return 1 + (exponent - MIN_EXPONENT) * PRO_OKTAVE + mantisse;
+    }
+
+    // Obere Grenze von Bucket i in Nanosekunden (einschliesslich), für i < BUCKETS
+    public static long obergrenze(int index) {
+        if (index == 0) {
+            return 1L << MIN_EXPONENT;
+        }
+        int k = index - 1;
+        int exponent = k / PRO_OKTAVE + MIN_EXPONENT;
+        return (long) (PRO_OKTAVE + k % PRO_OKTAVE + 1) << (exponent - GENAU_BITS);
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.projekt.metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+
+// Messwerte der JVM aus den Platform-MXBeans, gelesen beim Scrape
+final class JvmMetriken {
+
+    private JvmMetriken() {
+    }
+
+    static void registrieren() {
+        MemoryMXBean speicher = ManagementFactory.getMemoryMXBean();
+        Metriken.messwert("jvm_memory_used_bytes", "Belegter Speicher",
+                () -> speicher.getHeapMemoryUsage().getUsed(), "area", "heap");
+        Metriken.messwert("jvm_memory_used_bytes", "Belegter Speicher",
+                () -> speicher.getNonHeapMemoryUsage().getUsed(), "area", "nonheap");
+        Metriken.messwert("jvm_memory_committed_bytes", "Vom Betriebssystem zugesicherter Speicher",
+                () -> speicher.getHeapMemoryUsage().getCommitted(), "area", "heap");
+        Metriken.messwert("jvm_memory_max_bytes", "Maximaler Heap (-1 = unbegrenzt)",
+                () -> speicher.getHeapMemoryUsage().getMax(), "area", "heap");
+
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            Metriken.zaehler("jvm_gc_collections_total", "Anzahl Garbage Collections",
+                    gc::getCollectionCount, "gc", gc.getName());
+            Metriken.zaehler("jvm_gc_collection_seconds_total", "Gesamtdauer der Garbage Collections",
+                    () -> gc.getCollectionTime() / 1000.0, "gc", gc.getName());
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Metriken.messwert("jvm_threads_live", "Plattform-Threads (ohne virtuelle Threads)", threads::getThreadCount);
+        Metriken.messwert("jvm_threads_peak", "Höchste Anzahl Plattform-Threads", threads::getPeakThreadCount);
+
+        Metriken.messwert("process_uptime_seconds", "Laufzeit der JVM",
+                () -> ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0);
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            Metriken.zaehler("process_cpu_seconds_total", "Verbrauchte CPU-Zeit des Prozesses",
+                    () -> os.getProcessCpuTime() / 1e9);
+        }
+        Metriken.messwert("jvm_available_processors", "Verfügbare Prozessoren",
+                () -> Runtime.getRuntime().availableProcessors());
+    }
+}
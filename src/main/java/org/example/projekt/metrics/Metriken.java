@@ -0,0 +1,145 @@
+package org.example.projekt.metrics;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+// Alle Metriken der Anwendung, für /metrics im Textformat von Prometheus.
+// Zähler und Histogramme werden einmal angelegt (beim Start oder beim ersten Request eines Endpoints) und danach
+// direkt benutzt; auf dem Request-Pfad gibt es weder Map-Zugriffe noch Locks. Messwerte (Gauges) und
+// abgeleitete Zähler werden erst beim Scrape gelesen.
+public final class Metriken {
+    private static final double NANOS_PRO_SEKUNDE = TimeUnit.SECONDS.toNanos(1);
+    // le-Werte der Histogramm-Buckets in Sekunden, einmal formatiert; Quantile über ein Zeitfenster rechnet
+    // Prometheus daraus mit histogram_quantile(0.99, rate(name_bucket[5m])), ein Summary wäre seit dem Start kumuliert
+    private static final String[] LE = new String[Histogramm.BUCKETS];
+
+    static {
+        for (int i = 0; i < LE.length; i++) {
+            LE[i] = "le=\"" + BigDecimal.valueOf(Histogramm.obergrenze(i)).movePointLeft(9).toPlainString() + "\"";
+        }
+    }
+
+    private enum Typ {
+        COUNTER, GAUGE, HISTOGRAM
+    }
+
+    // Eine Metrik mit allen Label-Kombinationen (Schlüssel: fertig formatierte Labels)
+    private record Familie(String name, Typ typ, String hilfe, ConcurrentHashMap<String, Object> reihen) {
+    }
+
+    private static final ConcurrentHashMap<String, Familie> FAMILIEN = new ConcurrentHashMap<>();
+
+    static {
+        JvmMetriken.registrieren();
+    }
+
+    private Metriken() {
+    }
+
+    // labels abwechselnd Name und Wert, z.B. ("query", "readAutoById")
+    public static LongAdder zaehler(String name, String hilfe, String... labels) {
+        return (LongAdder) reihe(name, Typ.COUNTER, hilfe, labels, LongAdder::new);
+    }
+
+    // Zähler, den eine andere Komponente schon führt (z.B. Cache-Hits)
+    public static void zaehler(String name, String hilfe, DoubleSupplier wert, String... labels) {
+        reihe(name, Typ.COUNTER, hilfe, labels, () -> wert);
+    }
+
+    public static void messwert(String name, String hilfe, DoubleSupplier wert, String... labels) {
+        reihe(name, Typ.GAUGE, hilfe, labels, () -> wert);
+    }
+
+    // Dauer in Nanosekunden aufnehmen, ausgegeben als Histogramm in Sekunden
+    public static Histogramm histogramm(String name, String hilfe, String... labels) {
+        return (Histogramm) reihe(name, Typ.HISTOGRAM, hilfe, labels, Histogramm::new);
+    }
+
+    public static String prometheus() {
+        StringBuilder text = new StringBuilder(64 * 1024);
+        for (Familie familie : FAMILIEN.values()) {
+            text.append("# HELP ").append(familie.name()).append(' ').append(familie.hilfe()).append('\n');
+            text.append("# TYPE ").append(familie.name()).append(' ')
+                    .append(familie.typ().name().toLowerCase(Locale.ROOT)).append('\n');
+            for (Map.Entry<String, Object> reihe : familie.reihen().entrySet()) {
+                schreiben(text, familie.name(), reihe.getKey(), reihe.getValue());
+            }
+        }
+        return text.toString();
+    }
+
+    // ==================== Hilfsmethoden ====================
+
+    private interface Erzeuger {
+        Object neu();
+    }
+
+    private static Object reihe(String name, Typ typ, String hilfe, String[] labels, Erzeuger erzeuger) {
+        Familie familie = FAMILIEN.computeIfAbsent(name, n -> new Familie(n, typ, hilfe, new ConcurrentHashMap<>()));
+        if (familie.typ() != typ) {
+            throw new IllegalArgumentException("Metrik " + name + " ist bereits als " + familie.typ() + " registriert");
+        }
+        return familie.reihen().computeIfAbsent(labels(labels), l -> erzeuger.neu());
+    }
+
+    private static String labels(String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels müssen paarweise (Name, Wert) angegeben werden");
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(labels[i]).append("=\"");
+            for (char c : labels[i + 1].toCharArray()) {
+                switch (c) {
+                    case '\\' -> text.append("\\\\");
+                    case '"' -> text.append("\\\"");
+                    case '\n' -> text.append("\\n");
+                    default -> text.append(c);
+                }
+            }
+            text.append('"');
+        }
+        return text.toString();
+    }
+
+    private static void schreiben(StringBuilder text, String name, String labels, Object reihe) {
+        switch (reihe) {
+            case LongAdder zaehler -> zeile(text, name, labels, zaehler.sum());
+            case DoubleSupplier wert -> zeile(text, name, labels, wert.getAsDouble());
+            case Histogramm histogramm -> {
+                Histogramm.Auswertung auswertung = histogramm.auswerten();
+                long[] kumuliert = auswertung.kumuliert();
+                String vorLe = labels.isEmpty() ? "" : labels + ",";
+                for (int i = 0; i < LE.length; i++) {
+                    zeile(text, name + "_bucket", vorLe + LE[i], kumuliert[i]);
+                }
+                zeile(text, name + "_bucket", vorLe + "le=\"+Inf\"", auswertung.getAnzahl());
+                zeile(text, name + "_sum", labels, auswertung.getSumme() / NANOS_PRO_SEKUNDE);
+                zeile(text, name + "_count", labels, auswertung.getAnzahl());
+            }
+            default -> throw new IllegalStateException("Unbekannte Reihe: " + reihe);
+        }
+    }
+
+    private static void zeile(StringBuilder text, String name, String labels, double wert) {
+        text.append(name);
+        if (!labels.isEmpty()) {
+            text.append('{').append(labels).append('}');
+        }
+        text.append(' ');
+        if (wert == Math.rint(wert) && Math.abs(wert) < 1e15) {
+            text.append((long) wert);
+        } else {
+            text.append(wert);
+        }
+        text.append('\n');
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.projekt.modules;
+
+import java.util.List;
+
+public class AutoPage {
+    // Eine Seite Autos für die Keyset-Pagination (GET /autos/all?after=&limit=)
+    private List<Auto> autos;
+    private Integer nextCursor;       // ID für den nächsten after-Parameter, null = letzte Seite
+    private int limit;
+
+    // Leerer Constructor
+    public AutoPage() {
+    }
+
+    public AutoPage(List<Auto> autos, Integer nextCursor, int limit) {
+        this.autos = autos;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+
+    public List<Auto> getAutos() {
+        return autos;
+    }
+
+    public void setAutos(List<Auto> autos) {
+        this.autos = autos;
+    }
+
+    public Integer getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Integer nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public String toString() {
+        return "AutoPage{" +
+                "autos=" + autos +
+                ", nextCursor=" + nextCursor +
+                ", limit=" + limit +
+                '}';
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.projekt.modules;
+
+import java.util.List;
+
+public class AutoStats {
+    // Antwort von GET /autos/stats
+    private String gruppierung;       // marke, jahr oder antrieb
+    private int anzahl;               // Anzahl Autos im Schnappschuss
+    private String stand;             // Zeitpunkt des Schnappschusses (ISO-8601)
+    private List<StatsGruppe> gruppen;
+
+    // Leerer Constructor
+    public AutoStats() {
+    }
+
+    public AutoStats(String gruppierung, int anzahl, String stand, List<StatsGruppe> gruppen) {
+        this.gruppierung = gruppierung;
+        this.anzahl = anzahl;
+        this.stand = stand;
+        this.gruppen = gruppen;
+    }
+
+    public String getGruppierung() {
+        return gruppierung;
+    }
+
+    public void setGruppierung(String gruppierung) {
+        this.gruppierung = gruppierung;
+    }
+
+    public int getAnzahl() {
+        return anzahl;
+    }
+
+    public void setAnzahl(int anzahl) {
+        this.anzahl = anzahl;
+    }
+
+    public String getStand() {
+        return stand;
+    }
+
+    public void setStand(String stand) {
+        this.stand = stand;
+    }
+
+    public List<StatsGruppe> getGruppen() {
+        return gruppen;
+    }
+
+    public void setGruppen(List<StatsGruppe> gruppen) {
+        this.gruppen = gruppen;
+    }
+
+    @Override
+    public String toString() {
+        return "AutoStats{" +
+                "gruppierung='" + gruppierung + '\'' +
+                ", anzahl=" + anzahl +
+                ", stand='" + stand + '\'' +
+                ", gruppen=" + gruppen +
+                '}';
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.projekt.modules;
+
+public class BatchItemResult {
+    // Ergebnis eines einzelnen Eintrags im Batch
+    private int index;                // Position im Eingabe-Array
+    private int status;               // 201 eingefügt, 400 ungültig, 424 wegen anderer Fehler nicht eingefügt
+    private Integer idAutos;          // Generierte ID, nur bei Status 201
+    private String message;
+
+    // Leerer Constructor
+    public BatchItemResult() {
+    }
+
+    public BatchItemResult(int index, int status, Integer idAutos, String message) {
+        this.index = index;
+        this.status = status;
+        this.idAutos = idAutos;
+        this.message = message;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public Integer getIdAutos() {
+        return idAutos;
+    }
+
+    public void setIdAutos(Integer idAutos) {
+        this.idAutos = idAutos;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchItemResult{" +
+                "index=" + index +
+                ", status=" + status +
+                ", idAutos=" + idAutos +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.projekt.modules;
+
+import java.util.List;
+
+public class BatchResult {
+    // Antwort von POST /autos/batch: ein Ergebnis pro Eintrag in Eingabereihenfolge
+    private int inserted;
+    private List<BatchItemResult> items;
+
+    // Leerer Constructor
+    public BatchResult() {
+    }
+
+    public BatchResult(int inserted, List<BatchItemResult> items) {
+        this.inserted = inserted;
+        this.items = items;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(int inserted) {
+        this.inserted = inserted;
+    }
+
+    public List<BatchItemResult> getItems() {
+        return items;
+    }
+
+    public void setItems(List<BatchItemResult> items) {
+        this.items = items;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{" +
+                "inserted=" + inserted +
+                ", items=" + items +
+                '}';
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.projekt.modules;
+
+public class Kennzahlen {
+    // Verteilung eines Werts (Leistung oder Gewicht) innerhalb einer Gruppe
+    private double min;
+    private double max;
+    private double durchschnitt;
+    private double p50;               // Median
+    private double p90;
+    private double p99;
+
+    // Leerer Constructor
+    public Kennzahlen() {
+    }
+
+    public Kennzahlen(double min, double max, double durchschnitt, double p50, double p90, double p99) {
+        this.min = min;
+        this.max = max;
+        this.durchschnitt = durchschnitt;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public void setMin(double min) {
+        this.min = min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public void setMax(double max) {
+        this.max = max;
+    }
+
+    public double getDurchschnitt() {
+        return durchschnitt;
+    }
+
+    public void setDurchschnitt(double durchschnitt) {
+        this.durchschnitt = durchschnitt;
+    }
+
+    public double getP50() {
+        return p50;
+    }
+
+    public void setP50(double p50) {
+        this.p50 = p50;
+    }
+
+    public double getP90() {
+        return p90;
+    }
+
+    public void setP90(double p90) {
+        this.p90 = p90;
+    }
+
+    public double getP99() {
+        return p99;
+    }
+
+    public void setP99(double p99) {
+        this.p99 = p99;
+    }
+
+    @Override
+    public String toString() {
+        return "Kennzahlen{" +
+                "min=" + min +
+                ", max=" + max +
+                ", durchschnitt=" + durchschnitt +
+                ", p50=" + p50 +
+                ", p90=" + p90 +
+                ", p99=" + p99 +
+                '}';
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.projekt.modules;
+
+public class StatsGruppe {
+    // Kennzahlen einer Gruppe (eine Marke, ein Baujahr oder eine Antriebsart)
+    private String schluessel;        // Markenname, Baujahr oder "Verbrenner"/"Elektro"
+    private int anzahl;
+    private Kennzahlen leistung;      // PS
+    private Kennzahlen gewicht;
+
+    // Leerer Constructor
+    public StatsGruppe() {
+    }
+
+    public StatsGruppe(String schluessel, int anzahl, Kennzahlen leistung, Kennzahlen gewicht) {
+        this.schluessel = schluessel;
+        this.anzahl = anzahl;
+        this.leistung = leistung;
+        this.gewicht = gewicht;
+    }
+
+    public String getSchluessel() {
+        return schluessel;
+    }
+
+    public void setSchluessel(String schluessel) {
+        this.schluessel = schluessel;
+    }
+
+    public int getAnzahl() {
+        return anzahl;
+    }
+
+    public void setAnzahl(int anzahl) {
+        this.anzahl = anzahl;
+    }
+
+    public Kennzahlen getLeistung() {
+        return leistung;
+    }
+
+    public void setLeistung(Kennzahlen leistung) {
+        this.leistung = leistung;
+    }
+
+    public Kennzahlen getGewicht() {
+        return gewicht;
+    }
+
+    public void setGewicht(Kennzahlen gewicht) {
+        this.gewicht = gewicht;
+    }
+
+    @Override
+    public String toString() {
+        return "StatsGruppe{" +
+                "schluessel='" + schluessel + '\'' +
+                ", anzahl=" + anzahl +
+                ", leistung=" + leistung +
+                ", gewicht=" + gewicht +
+                '}';
+    }
+}
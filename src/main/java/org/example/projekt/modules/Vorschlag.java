@@ -0,0 +1,62 @@
+package org.example.projekt.modules;
+
+public class Vorschlag {
+    // Ein Treffer der Autovervollständigung: ein Modellname oder eine Marke
+    private String text;
+    private String typ;               // "modell" oder "marke"
+    private Integer idMarke;          // nur bei Marken
+    private int anzahl;               // Anzahl Autos mit diesem Modell bzw. dieser Marke
+
+    // Leerer Constructor
+    public Vorschlag() {
+    }
+
+    public Vorschlag(String text, String typ, Integer idMarke, int anzahl) {
+        this.text = text;
+        this.typ = typ;
+        this.idMarke = idMarke;
+        this.anzahl = anzahl;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public String getTyp() {
+        return typ;
+    }
+
+    public void setTyp(String typ) {
+        this.typ = typ;
+    }
+
+    public Integer getIdMarke() {
+        return idMarke;
+    }
+
+    public void setIdMarke(Integer idMarke) {
+        this.idMarke = idMarke;
+    }
+
+    public int getAnzahl() {
+        return anzahl;
+    }
+
+    public void setAnzahl(int anzahl) {
+        this.anzahl = anzahl;
+    }
+
+    @Override
+    public String toString() {
+        return "Vorschlag{" +
+                "text='" + text + '\'' +
+                ", typ='" + typ + '\'' +
+                ", idMarke=" + idMarke +
+                ", anzahl=" + anzahl +
+                '}';
+    }
+}
@@ -0,0 +1,282 @@
+package org.example.projekt.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bereits geprüfte Authorization-Header vor der langsamen Passwortprüfung der Benutzerverwaltung.
+// Schlüssel ist SHA-256 über ein zufälliges Geheimnis und den Header. Davor liegt eine direkt abgebildete Tabelle
+// mit höchstens maxSize zuletzt angemeldeten Headern: ein Treffer dort kostet weder SHA-256 noch eine Allokation,
+// verglichen wird in konstanter Zeit. Der Header (und damit das Passwort) bleibt dafür bis zum Ablauf des Eintrags
+// im Speicher. Ein Eintrag gilt bis zur TTL und nur, solange der Benutzer noch dasselbe Objekt in der
+// Benutzerverwaltung ist: Sperren oder ein neues Passwort wirken damit sofort.
+// Fehlversuche werden nicht gemerkt. Damit viele falsche Passwörter nicht alle Kerne mit Hashen belegen, laufen
+// höchstens so viele Prüfungen gleichzeitig, wie Kerne vorhanden sind; wer länger als maxWarten wartet, wird abgewiesen.
+// Kommen viele Requests mit demselben, noch nicht gemerkten Header gleichzeitig (z.B. beim Start eines Clients),
+// prüft nur der erste das Passwort, die anderen warten auf sein Ergebnis.
+public final class Anmeldungen {
+    public static final int UNGUELTIG = 0;
+    public static final int UEBERLASTET = -1;
+
+    private static final String SCHEMA = "Basic ";
+    static final Benutzerverwaltung.Benutzer UEBERLASTET_MARKE = Benutzerverwaltung.attrappe("");
+
+    private record Schluessel(long a, long b, long c, long d) {
+    }
+
+    private record Eintrag(Benutzerverwaltung.Benutzer benutzer, long ablauf) {
+    }
+
+    private record Direkt(String header, Eintrag eintrag) {
+    }
+
+    private final Benutzerverwaltung benutzerverwaltung;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long maxWartenNanos;
+    private final byte[] geheimnis = new byte[16];
+
+    private final ConcurrentHashMap<Schluessel, Eintrag> eintraege = new ConcurrentHashMap<>();
+    // Index aus String.hashCode; eine Kollision verdrängt nur, der nächste Request geht über SHA-256
+    private final AtomicReferenceArray<Direkt> direkt;
+    private final ConcurrentHashMap<Schluessel, CompletableFuture<Benutzerverwaltung.Benutzer>> laufend =
+            new ConcurrentHashMap<>();
+    private final ArrayBlockingQueue<MessageDigest> digests;
+    private final Semaphore pruefungen;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder gehasht = new LongAdder();
+
+    public Anmeldungen(Benutzerverwaltung benutzerverwaltung, int maxSize, long ttlMillis, long maxWartenMillis) {
+        this.benutzerverwaltung = benutzerverwaltung;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxWartenNanos = TimeUnit.MILLISECONDS.toNanos(maxWartenMillis);
+        new SecureRandom().nextBytes(geheimnis);
+        // Zweierpotenz, mindestens maxSize
+        this.direkt = new AtomicReferenceArray<>(1 << 32 - Integer.numberOfLeadingZeros(Math.clamp(maxSize, 1, 1 << 30) - 1));
+        int kerne = Runtime.getRuntime().availableProcessors();
+        this.digests = new ArrayBlockingQueue<>(4 * kerne);
+        this.pruefungen = new Semaphore(kerne);
+    }
+
+    // Einstellungen aus System-Properties (-Dauth.cache.maxSize, -Dauth.cache.ttlMs, -Dauth.hash.maxWartenMs)
+    static Anmeldungen fromSystemProperties(Benutzerverwaltung benutzerverwaltung) {
+        return new Anmeldungen(benutzerverwaltung,
+                Integer.getInteger("auth.cache.maxSize", 1024),
+                Long.getLong("auth.cache.ttlMs", 300_000),
+                Long.getLong("auth.hash.maxWartenMs", 2_000));
+    }
+
+    // Rollen-Bits des Benutzers, UNGUELTIG oder UEBERLASTET
+    public int rollen(String authorization) {
+        Benutzerverwaltung.Benutzer benutzer = anmelden(authorization);
+        return benutzer == null ? UNGUELTIG : benutzer == UEBERLASTET_MARKE ? UEBERLASTET : benutzer.getRollen();
+    }
+
+    // Der angemeldete Benutzer, null wenn ungültig, UEBERLASTET_MARKE wenn keine Prüfung frei war
+    Benutzerverwaltung.Benutzer anmelden(String authorization) {
+        Benutzerverwaltung.Benutzer benutzer = direktGemerkt(authorization);
+        if (benutzer != null) {
+            hits.increment();
+            return benutzer;
+        }
+        Schluessel schluessel = schluessel(authorization);
+        benutzer = gemerkt(schluessel, authorization);
+        if (benutzer != null) {
+            hits.increment();
+            return benutzer;
+        }
+        misses.increment();
+
+        CompletableFuture<Benutzerverwaltung.Benutzer> ergebnis = new CompletableFuture<>();
+        CompletableFuture<Benutzerverwaltung.Benutzer> andere = laufend.putIfAbsent(schluessel, ergebnis);
+        if (andere != null) {
+            return warten(andere);
+        }
+        try {
+            // Eine andere Prüfung kann zwischen Cache-Zugriff und putIfAbsent fertig geworden sein
+            benutzer = gemerkt(schluessel, authorization);
+            if (benutzer == null) {
+                benutzer = pruefen(schluessel, authorization);
+            }
+            ergebnis.complete(benutzer);
+            return benutzer;
+        } catch (RuntimeException | Error e) {
+            ergebnis.completeExceptionally(e);
+            throw e;
+        } finally {
+            laufend.remove(schluessel, ergebnis);
+        }
+    }
+
+    // Gültiger Eintrag aus der Tabelle vor dem Hash, ohne Allokation
+    private Benutzerverwaltung.Benutzer direktGemerkt(String authorization) {
+        int index = index(authorization);
+        Direkt treffer = direkt.get(index);
+        if (treffer == null || !gleich(treffer.header(), authorization)) {
+            return null;
+        }
+        if (gueltig(treffer.eintrag())) {
+            return treffer.eintrag().benutzer();
+        }
+        direkt.compareAndSet(index, treffer, null);
+        return null;
+    }
+
+    // Gültiger Eintrag aus dem Cache, abgelaufene oder widerrufene werden entfernt
+    private Benutzerverwaltung.Benutzer gemerkt(Schluessel schluessel, String authorization) {
+        Eintrag eintrag = eintraege.get(schluessel);
+        if (eintrag == null) {
+            return null;
+        }
+        if (gueltig(eintrag)) {
+            direkt.set(index(authorization), new Direkt(authorization, eintrag));
+            return eintrag.benutzer();
+        }
+        eintraege.remove(schluessel, eintrag);
+        return null;
+    }
+
+    private boolean gueltig(Eintrag eintrag) {
+        return benutzerverwaltung.get(eintrag.benutzer().getName()) == eintrag.benutzer()
+                && System.nanoTime() - eintrag.ablauf() < 0;
+    }
+
+    private int index(String authorization) {
+        int h = authorization.hashCode();
+        return (h ^ h >>> 16) & direkt.length() - 1;
+    }
+
+    // Ohne frühen Abbruch: die Laufzeit verrät nicht, wie viele Zeichen des gemerkten Headers übereinstimmen
+    private static boolean gleich(String gemerkt, String authorization) {
+        if (gemerkt.length() != authorization.length()) {
+            return false;
+        }
+        int unterschied = 0;
+        for (int i = 0; i < gemerkt.length(); i++) {
+            unterschied |= gemerkt.charAt(i) ^ authorization.charAt(i);
+        }
+        return unterschied == 0;
+    }
+
+    private static Benutzerverwaltung.Benutzer warten(CompletableFuture<Benutzerverwaltung.Benutzer> ergebnis) {
+        try {
+            return ergebnis.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException laufzeit) {
+                throw laufzeit;
+            }
+            throw e;
+        }
+    }
+
+    private Benutzerverwaltung.Benutzer pruefen(Schluessel schluessel, String authorization) {
+        if (!authorization.regionMatches(true, 0, SCHEMA, 0, SCHEMA.length())) {
+            return null;
+        }
+        String usernameAndPassword;
+        try {
+            usernameAndPassword = new String(Base64.getDecoder().decode(
+                    authorization.substring(SCHEMA.length()).trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        // Das Passwort darf selbst Doppelpunkte enthalten (RFC 7617)
+        int trenner = usernameAndPassword.indexOf(':');
+        if (trenner < 0) {
+            return null;
+        }
+
+        Benutzerverwaltung.Benutzer benutzer;
+        try {
+            if (!pruefungen.tryAcquire(maxWartenNanos, TimeUnit.NANOSECONDS)) {
+                return UEBERLASTET_MARKE;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return UEBERLASTET_MARKE;
+        }
+        try {
+            gehasht.increment();
+            benutzer = benutzerverwaltung.pruefen(usernameAndPassword.substring(0, trenner),
+                    usernameAndPassword.substring(trenner + 1));
+        } finally {
+            pruefungen.release();
+        }
+        if (benutzer == null) {
+            return null;
+        }
+        if (eintraege.size() >= maxSize) {
+            verdraengen();
+        }
+        Eintrag eintrag = new Eintrag(benutzer, System.nanoTime() + ttlNanos);
+        eintraege.put(schluessel, eintrag);
+        direkt.set(index(authorization), new Direkt(authorization, eintrag));
+        return benutzer;
+    }
+
+    // Abgelaufene Einträge entfernen, reicht das nicht, einen beliebigen
+    private void verdraengen() {
+        long jetzt = System.nanoTime();
+        eintraege.values().removeIf(e -> jetzt - e.ablauf() >= 0);
+        Iterator<Schluessel> it = eintraege.keySet().iterator();
+        while (eintraege.size() >= maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private Schluessel schluessel(String authorization) {
+        MessageDigest sha = digests.poll();
+        if (sha == null) {
+            try {
+                sha = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                // SHA-256 gehört zu jeder Java-Laufzeit
+                throw new IllegalStateException(e);
+            }
+        }
+        try {
+            sha.update(geheimnis);
+            // UTF-8 ist eindeutig: verschiedene Header ergeben nie dieselbe Eingabe
+            byte[] d = sha.digest(authorization.getBytes(StandardCharsets.UTF_8));
+            return new Schluessel(lesen(d, 0), lesen(d, 8), lesen(d, 16), lesen(d, 24));
+        } finally {
+            digests.offer(sha);
+        }
+    }
+
+    private static long lesen(byte[] d, int off) {
+        long wert = 0;
+        for (int i = off; i < off + 8; i++) {
+            wert = wert << 8 | (d[i] & 0xff);
+        }
+        return wert;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    // Tatsächlich ausgeführte Passwortprüfungen
+    public long getGehasht() {
+        return gehasht.sum();
+    }
+}
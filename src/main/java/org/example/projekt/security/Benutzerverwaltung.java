@@ -0,0 +1,173 @@
+package org.example.projekt.security;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.io.Console;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+// Benutzer mit gesalzenen PBKDF2-Hashes (HMAC-SHA256), geladen aus users.properties:
+//   <benutzer> = <ROLLE[,ROLLE]>:<iterationen>:<salt base64>:<hash base64>
+// Zeilen erzeugt main(). Die Datei kommt aus -Dauth.users.file oder dem Classpath.
+// Ein geänderter oder gesperrter Benutzer bekommt ein neues (bzw. kein) Benutzer-Objekt; gemerkte Anmeldungen
+// vergleichen die Identität und gelten damit sofort nicht mehr.
+public final class Benutzerverwaltung {
+    private static final Logger LOGGER = Logger.getLogger(Benutzerverwaltung.class.getName());
+    private static final String ALGORITHMUS = "PBKDF2WithHmacSHA256";
+    static final int STANDARD_ITERATIONEN = 310_000;
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    static final class Benutzer {
+        private final String name;
+        private final int rollen;
+        private final int iterationen;
+        private final byte[] salt;
+        private final byte[] hash;
+
+        private Benutzer(String name, int rollen, int iterationen, byte[] salt, byte[] hash) {
+            this.name = name;
+            this.rollen = rollen;
+            this.iterationen = iterationen;
+            this.salt = salt;
+            this.hash = hash;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        int getRollen() {
+            return rollen;
+        }
+
+        private boolean gleich(Benutzer b) {
+            return rollen == b.rollen && iterationen == b.iterationen
+                    && Arrays.equals(salt, b.salt) && Arrays.equals(hash, b.hash);
+        }
+    }
+
+    private final Map<String, Benutzer> benutzer = new ConcurrentHashMap<>();
+    // Für unbekannte Namen wird trotzdem gehasht, sonst verrät die Antwortzeit, welche Benutzer es gibt
+    private final Benutzer attrappe = attrappe("");
+
+    // Benutzer ohne Rollen, dessen Hash zu keinem Passwort passt
+    static Benutzer attrappe(String name) {
+        return new Benutzer(name, 0, STANDARD_ITERATIONEN, new byte[SALT_BYTES], new byte[HASH_BITS / 8]);
+    }
+
+    public Benutzerverwaltung(Properties eintraege) {
+        uebernehmen(eintraege);
+    }
+
+    public static Benutzerverwaltung ausKonfiguration() {
+        Properties eintraege = new Properties();
+        String datei = System.getProperty("auth.users.file");
+        try {
+            if (datei != null) {
+                try (Reader reader = Files.newBufferedReader(Path.of(datei), StandardCharsets.UTF_8)) {
+                    eintraege.load(reader);
+                }
+            } else {
+                try (InputStream in = Benutzerverwaltung.class.getResourceAsStream("/users.properties")) {
+                    if (in == null) {
+                        LOGGER.warning("Keine users.properties gefunden, es kann sich niemand anmelden");
+                    } else {
+                        eintraege.load(in);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Benutzer konnten nicht geladen werden: " + datei, e);
+        }
+        Benutzerverwaltung verwaltung = new Benutzerverwaltung(eintraege);
+        LOGGER.info(verwaltung.benutzer.size() + " Benutzer geladen");
+        return verwaltung;
+    }
+
+    // Neuen Stand übernehmen: unveränderte Benutzer behalten ihr Objekt (und damit ihre gemerkten Anmeldungen)
+    public void uebernehmen(Properties eintraege) {
+        for (String name : eintraege.stringPropertyNames()) {
+            Benutzer neu = parse(name, eintraege.getProperty(name));
+            benutzer.compute(name, (n, alt) -> alt != null && alt.gleich(neu) ? alt : neu);
+        }
+        benutzer.keySet().retainAll(eintraege.stringPropertyNames());
+    }
+
+    public void sperren(String name) {
+        benutzer.remove(name);
+    }
+
+    Benutzer get(String name) {
+        return benutzer.get(name);
+    }
+
+    // Langsam (PBKDF2): der Benutzer bei passendem Passwort, sonst null
+    Benutzer pruefen(String name, String passwort) {
+        Benutzer b = benutzer.get(name);
+        Benutzer vergleich = b != null ? b : attrappe;
+        byte[] hash = hash(passwort, vergleich.salt, vergleich.iterationen);
+        // Laufzeit unabhängig davon, ab welchem Byte der Hash abweicht
+        return MessageDigest.isEqual(hash, vergleich.hash) && b != null ? b : null;
+    }
+
+    private static Benutzer parse(String name, String eintrag) {
+        String[] teile = eintrag.trim().split(":");
+        if (teile.length != 4) {
+            throw new IllegalArgumentException("Ungültiger Eintrag für Benutzer " + name);
+        }
+        return new Benutzer(name, Berechtigung.bits(teile[0].split(",")), Integer.parseInt(teile[1]),
+                Base64.getDecoder().decode(teile[2]), Base64.getDecoder().decode(teile[3]));
+    }
+
+    private static byte[] hash(String passwort, byte[] salt, int iterationen) {
+        PBEKeySpec spec = new PBEKeySpec(passwort.toCharArray(), salt, iterationen, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHMUS).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            // PBKDF2WithHmacSHA256 gehört zu jeder Java-Laufzeit
+            throw new IllegalStateException(e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    // Wert einer Zeile in users.properties
+    public static String eintrag(String rollen, String passwort, int iterationen) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        return rollen + ":" + iterationen + ":" + Base64.getEncoder().encodeToString(salt) + ":"
+                + Base64.getEncoder().encodeToString(hash(passwort, salt, iterationen));
+    }
+
+    // Zeile für users.properties erzeugen, das Passwort wird ohne Echo abgefragt:
+    //   java -cp ... org.example.projekt.security.Benutzerverwaltung <benutzer> <ROLLE[,ROLLE]> [iterationen]
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Aufruf: Benutzerverwaltung <benutzer> <ROLLE[,ROLLE]> [iterationen]");
+            System.exit(1);
+        }
+        Console console = System.console();
+        if (console == null) {
+            System.err.println("Keine Konsole für die Passworteingabe");
+            System.exit(1);
+        }
+        String passwort = new String(console.readPassword("Passwort für %s: ", args[0]));
+        int iterationen = args.length > 2 ? Integer.parseInt(args[2]) : STANDARD_ITERATIONEN;
+        System.out.println(args[0] + " = " + eintrag(args[1], passwort, iterationen));
+    }
+}
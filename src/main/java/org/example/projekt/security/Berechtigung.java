@@ -0,0 +1,63 @@
+package org.example.projekt.security;
+
+import jakarta.annotation.security.DenyAll;
+import jakarta.annotation.security.PermitAll;
+import jakarta.annotation.security.RolesAllowed;
+
+import java.lang.reflect.Method;
+
+// Aus den Annotationen einer Ressourcen-Methode abgeleitet, einmal pro Methode berechnet.
+// Annotationen an der Methode gehen denen an der Klasse vor. kosten ist das Gewicht für das Rate-Limit (@Kosten).
+record Berechtigung(Art art, int rollen, int kosten) {
+
+    enum Art {
+        OEFFENTLICH, GESPERRT, ROLLEN
+    }
+
+    // Bits für die Rollen aus @RolesAllowed
+    static final int ADMIN = 1;
+    static final int USER = 1 << 1;
+    static final int ALLE_ROLLEN = ADMIN | USER;
+
+    static Berechtigung von(Method method) {
+        Class<?> klasse = method.getDeclaringClass();
+        Kosten kosten = method.isAnnotationPresent(Kosten.class)
+                ? method.getAnnotation(Kosten.class) : klasse.getAnnotation(Kosten.class);
+        int k = kosten == null ? 1 : Math.max(1, kosten.value());
+        Berechtigung berechtigung = aus(method.isAnnotationPresent(PermitAll.class),
+                method.isAnnotationPresent(DenyAll.class), method.getAnnotation(RolesAllowed.class), k);
+        if (berechtigung == null) {
+            berechtigung = aus(klasse.isAnnotationPresent(PermitAll.class),
+                    klasse.isAnnotationPresent(DenyAll.class), klasse.getAnnotation(RolesAllowed.class), k);
+        }
+        // Ohne Annotation: jeder angemeldete Benutzer
+        return berechtigung != null ? berechtigung : new Berechtigung(Art.ROLLEN, ALLE_ROLLEN, k);
+    }
+
+    private static Berechtigung aus(boolean permitAll, boolean denyAll, RolesAllowed rolesAllowed, int kosten) {
+        if (permitAll) {
+            return new Berechtigung(Art.OEFFENTLICH, 0, kosten);
+        }
+        if (denyAll) {
+            return new Berechtigung(Art.GESPERRT, 0, kosten);
+        }
+        if (rolesAllowed != null) {
+            return new Berechtigung(Art.ROLLEN, bits(rolesAllowed.value()), kosten);
+        }
+        return null;
+    }
+
+    // Unbekannte Rollennamen geben kein Bit, eine Methode nur mit solchen ist für niemanden erreichbar
+    static int bits(String... rollen) {
+        int bits = 0;
+        for (String rolle : rollen) {
+            switch (rolle) {
+                case "ADMIN" -> bits |= ADMIN;
+                case "USER" -> bits |= USER;
+                default -> {
+                }
+            }
+        }
+        return bits;
+    }
+}
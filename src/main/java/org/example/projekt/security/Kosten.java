@@ -0,0 +1,13 @@
+package org.example.projekt.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Gewicht eines Requests für das Rate-Limit: so viele normale Requests kostet ein Aufruf dieser Methode (Standard 1)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Kosten {
+    int value();
+}
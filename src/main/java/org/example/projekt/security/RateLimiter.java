@@ -0,0 +1,111 @@
+package org.example.projekt.security;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Token-Bucket pro Benutzer als GCRA (Generic Cell Rate Algorithm): pro Bucket nur ein AtomicLong mit dem
+// theoretischen Ankunftszeitpunkt (TAT), geprüft und fortgeschrieben mit compareAndSet, ohne Lock und ohne Timer.
+// Rate und Burst hängen von der Rolle ab (ADMIN vor USER). Ein Request mit Kosten k verbraucht k Tokens.
+// Volle Buckets (TAT in der Vergangenheit) verhalten sich wie neue und werden beim Aufräumen entfernt.
+public final class RateLimiter {
+
+    // Abstand zwischen zwei Tokens und Burst in Nanosekunden; intervall 0 = ohne Limit
+    private record Limit(long intervall, long burst) {
+        static Limit von(double proSekunde, int burst) {
+            if (proSekunde <= 0) {
+                return new Limit(0, 0);
+            }
+            long intervall = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / proSekunde));
+            return new Limit(intervall, intervall * Math.max(1, burst));
+        }
+    }
+
+    private final Limit admin;
+    private final Limit user;
+    private final int maxBuckets;
+    private final LongSupplier uhr;
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong naechstesAufraeumen = new AtomicLong();
+
+    private final LongAdder erlaubt = new LongAdder();
+    private final LongAdder abgewiesen = new LongAdder();
+
+    public RateLimiter(double adminProSekunde, int adminBurst, double userProSekunde, int userBurst,
+                       int maxBuckets, LongSupplier uhr) {
+        this.admin = Limit.von(adminProSekunde, adminBurst);
+        this.user = Limit.von(userProSekunde, userBurst);
+        this.maxBuckets = maxBuckets;
+        this.uhr = uhr;
+    }
+
+    // -Dratelimit.<ROLLE>.perSecond (0 = ohne Limit), -Dratelimit.<ROLLE>.burst, -Dratelimit.maxBuckets
+    public static RateLimiter fromSystemProperties() {
+        return new RateLimiter(
+                Double.parseDouble(System.getProperty("ratelimit.ADMIN.perSecond", "200")),
+                Integer.getInteger("ratelimit.ADMIN.burst", 400),
+                Double.parseDouble(System.getProperty("ratelimit.USER.perSecond", "50")),
+                Integer.getInteger("ratelimit.USER.burst", 100),
+                Integer.getInteger("ratelimit.maxBuckets", 100_000),
+                System::nanoTime);
+    }
+
+    // 0 wenn der Request erlaubt ist, sonst die Wartezeit in Nanosekunden, bis er es wäre
+    public long erlauben(String benutzer, int rollen, int kosten) {
+        Limit limit = (rollen & Berechtigung.ADMIN) != 0 ? admin : user;
+        if (limit.intervall() == 0) {
+            return 0;
+        }
+        long jetzt = uhr.getAsLong();
+        AtomicLong tat = buckets.get(benutzer);
+        if (tat == null) {
+            aufraeumen(jetzt);
+            tat = buckets.computeIfAbsent(benutzer, b -> new AtomicLong(jetzt));
+        }
+        // Teurer als der ganze Burst wäre nie erlaubt, dann kostet der Request den vollen Burst
+        long zuwachs = Math.min(limit.intervall() * kosten, limit.burst());
+        while (true) {
+            long alt = tat.get();
+            long neu = Math.max(alt, jetzt) + zuwachs;
+            long ueber = neu - jetzt - limit.burst();
+            if (ueber > 0) {
+                // Mehr als der Burst: nicht verbrauchen, damit abgewiesene Requests das Limit nicht verlängern
+                abgewiesen.increment();
+                return ueber;
+            }
+            if (tat.compareAndSet(alt, neu)) {
+                erlaubt.increment();
+                return 0;
+            }
+        }
+    }
+
+    // Höchstens einmal pro Sekunde und nur wenn zu viele Buckets da sind
+    private void aufraeumen(long jetzt) {
+        long faellig = naechstesAufraeumen.get();
+        if (buckets.size() < maxBuckets || jetzt - faellig < 0
+                || !naechstesAufraeumen.compareAndSet(faellig, jetzt + TimeUnit.SECONDS.toNanos(1))) {
+            return;
+        }
+        // Ein gleichzeitiger Request auf einen eben entfernten (vollen) Bucket geht dabei höchstens einmal verloren
+        Iterator<AtomicLong> it = buckets.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().get() - jetzt <= 0) {
+                it.remove();
+            }
+        }
+    }
+
+    public long getErlaubt() {
+        return erlaubt.sum();
+    }
+
+    public long getAbgewiesen() {
+        return abgewiesen.sum();
+    }
+}
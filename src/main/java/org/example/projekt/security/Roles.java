@@ -1,76 +1,167 @@
 package org.example.projekt.security;
 
 import java.lang.reflect.Method;
-import java.util.Arrays;
-import java.util.Base64;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
-import jakarta.annotation.security.DenyAll;
-import jakarta.annotation.security.PermitAll;
-import jakarta.annotation.security.RolesAllowed;
+import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.container.ContainerRequestFilter;
 import jakarta.ws.rs.container.ResourceInfo;
 import jakarta.ws.rs.core.Context;
-import jakarta.ws.rs.core.MultivaluedMap;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.Provider;
+import org.example.projekt.metrics.Metriken;
 
+// Prüft @PermitAll, @DenyAll und @RolesAllowed mit Bearer-Tokens (siehe Tokens) oder Basic-Auth gegen die Benutzerverwaltung.
+// Die Berechtigung jeder Ressourcen-Methode wird beim Start berechnet (vorberechnen), geprüfte Authorization-Header
+// merkt sich Anmeldungen. Ein Request mit bekanntem Header kostet damit einen SHA-256 und zwei Map-Zugriffe;
+// dekodiert und (langsam) gehasht wird nur beim ersten Auftreten eines Headers.
+// Angemeldete Requests laufen danach durch das Rate-Limit des Benutzers (429 mit Retry-After).
 @Provider
 public class Roles implements ContainerRequestFilter {
 
     @Context
     private ResourceInfo resourceInfo;
     private static final String AUTHORIZATION_PROPERTY = "Authorization";
-    private static final String AUTHENTICATION_SCHEME = "Basic";
+    private static final String BEARER = "Bearer ";
 
-    @Override
-    public void filter(ContainerRequestContext requestContext) {
-        Method method = resourceInfo.getResourceMethod();
-        if (!method.isAnnotationPresent(PermitAll.class)) {
-            if (method.isAnnotationPresent(DenyAll.class)) {
-                requestContext.abortWith(Response.status(Response.Status.FORBIDDEN).entity("Access blocked for all users.").build());
-                return;
-            }
-            final MultivaluedMap<String, String> headers = requestContext.getHeaders();
-            final List<String> authorization = headers.get(AUTHORIZATION_PROPERTY);
-            if (authorization == null || authorization.isEmpty()) {
-                requestContext.abortWith(Response.status(Response.Status.UNAUTHORIZED).entity("You cannot access this resource").build());
-                return;
-            }
-            final String encodedUserPassword = authorization.get(0).replaceFirst(AUTHENTICATION_SCHEME + " ", "");
-            String usernameAndPassword = new String(Base64.getDecoder().decode(encodedUserPassword.getBytes()));
-            final StringTokenizer tokenizer = new StringTokenizer(usernameAndPassword, ":");
-            final String username = tokenizer.nextToken();
-            final String password = tokenizer.nextToken();
-            if (method.isAnnotationPresent(RolesAllowed.class)) {
-                RolesAllowed rolesAnnotation = method.getAnnotation(RolesAllowed.class);
-                Set<String> rolesSet = new HashSet<String>(Arrays.asList(rolesAnnotation.value()));
-                if (!isUserAllowed(username, password, rolesSet)) {
-                    requestContext.abortWith(Response.status(Response.Status.UNAUTHORIZED).entity("You cannot access this resource").build());
-                    return;
+    private static final ConcurrentHashMap<Method, Berechtigung> BERECHTIGUNGEN = new ConcurrentHashMap<>();
+
+    // Abgewiesene Requests nach Grund, für /metrics
+    private static final LongAdder OHNE_ANMELDUNG = abgewiesen("missing");
+    private static final LongAdder UNGUELTIG = abgewiesen("invalid");
+    private static final LongAdder FALSCHE_ROLLE = abgewiesen("forbidden_role");
+    private static final LongAdder FUER_ALLE_GESPERRT = abgewiesen("denied");
+    private static final LongAdder UEBERLASTET = abgewiesen("overloaded");
+    private static final LongAdder RATE_LIMIT = abgewiesen("rate_limited");
+
+    // Benutzer erst beim ersten Request laden
+    private static final class Holder {
+        static final Benutzerverwaltung BENUTZER = Benutzerverwaltung.ausKonfiguration();
+        static final Anmeldungen ANMELDUNGEN = Anmeldungen.fromSystemProperties(BENUTZER);
+        static final Tokens TOKENS = Tokens.fromSystemProperties();
+        static final RateLimiter LIMITER = RateLimiter.fromSystemProperties();
+    }
+
+    // Für Änderungen zur Laufzeit (Sperren, neue Passwörter)
+    public static Benutzerverwaltung benutzerverwaltung() {
+        return Holder.BENUTZER;
+    }
+
+    // Für Schlüsselrotation
+    public static Tokens tokens() {
+        return Holder.TOKENS;
+    }
+
+    // Für /auth/login: Token zu gültigen Basic-Anmeldedaten, sonst WebApplicationException mit 401 bzw. 503
+    public static Tokens.Token ausstellen(String authorization) {
+        Benutzerverwaltung.Benutzer benutzer = authorization == null ? null : Holder.ANMELDUNGEN.anmelden(authorization);
+        if (benutzer == Anmeldungen.UEBERLASTET_MARKE) {
+            UEBERLASTET.increment();
+            throw new WebApplicationException(ueberlastet());
+        }
+        if (benutzer == null) {
+            UNGUELTIG.increment();
+            throw new WebApplicationException(nichtErlaubt());
+        }
+        return Holder.TOKENS.ausstellen(benutzer.getName(), benutzer.getRollen());
+    }
+
+    // Für /auth/logout: das Bearer-Token aus dem Header sperren
+    public static boolean widerrufen(String authorization) {
+        return istBearer(authorization) && Holder.TOKENS.widerrufen(authorization.substring(BEARER.length()).trim());
+    }
+
+    // Beim Start mit allen Ressourcen-Klassen aufrufen; später auftauchende Methoden werden beim ersten Request berechnet
+    public static void vorberechnen(Class<?>... ressourcen) {
+        for (Class<?> ressource : ressourcen) {
+            for (Method method : ressource.getMethods()) {
+                if (method.getDeclaringClass() != Object.class) {
+                    BERECHTIGUNGEN.put(method, Berechtigung.von(method));
                 }
             }
         }
     }
 
-    private boolean isUserAllowed(final String username, final String password, final Set<String> rolesSet) {
-        boolean isAllowed = false;
-        if (username.equals("admin") && password.equals("1234")) {
-            String userRole = "ADMIN";
-            if (rolesSet.contains(userRole)) {
-                isAllowed = true;
-            }
-        } else if (username.equals("user") && password.equals("187")){
-            String userRole = "USER";
-            if(rolesSet.contains(userRole)){
-                isAllowed = true;
-            }
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        List<String> authorization = requestContext.getHeaders().get(AUTHORIZATION_PROPERTY);
+        Response abbruch = pruefen(resourceInfo.getResourceMethod(),
+                authorization == null || authorization.isEmpty() ? null : authorization.get(0));
+        if (abbruch != null) {
+            requestContext.abortWith(abbruch);
+        }
+    }
+
+    // null wenn der Request weiterlaufen darf, sonst die Antwort für den Abbruch
+    public Response pruefen(Method method, String authorization) {
+        Berechtigung berechtigung = BERECHTIGUNGEN.get(method);
+        if (berechtigung == null) {
+            berechtigung = BERECHTIGUNGEN.computeIfAbsent(method, Berechtigung::von);
+        }
+        switch (berechtigung.art()) {
+            case OEFFENTLICH:
+                return null;
+            case GESPERRT:
+                FUER_ALLE_GESPERRT.increment();
+                return Response.status(Response.Status.FORBIDDEN).entity("Access blocked for all users.").build();
+            default:
+                if (authorization == null || authorization.isEmpty()) {
+                    OHNE_ANMELDUNG.increment();
+                    return nichtErlaubt();
+                }
+                String benutzer = null;
+                int rollen = Anmeldungen.UNGUELTIG;
+                if (istBearer(authorization)) {
+                    // Eine MAC-Berechnung, ohne Benutzer und Passwort
+                    Tokens.Inhalt inhalt = Holder.TOKENS.pruefen(authorization.substring(BEARER.length()).trim());
+                    if (inhalt != null) {
+                        benutzer = inhalt.benutzer();
+                        rollen = inhalt.rollen();
+                    }
+                } else {
+                    Benutzerverwaltung.Benutzer angemeldet = Holder.ANMELDUNGEN.anmelden(authorization);
+                    if (angemeldet == Anmeldungen.UEBERLASTET_MARKE) {
+                        UEBERLASTET.increment();
+                        return ueberlastet();
+                    }
+                    if (angemeldet != null) {
+                        benutzer = angemeldet.getName();
+                        rollen = angemeldet.getRollen();
+                    }
+                }
+                if ((rollen & berechtigung.rollen()) == 0) {
+                    (rollen == Anmeldungen.UNGUELTIG ? UNGUELTIG : FALSCHE_ROLLE).increment();
+                    return nichtErlaubt();
+                }
+                long warten = Holder.LIMITER.erlauben(benutzer, rollen, berechtigung.kosten());
+                if (warten > 0) {
+                    RATE_LIMIT.increment();
+                    return Response.status(Response.Status.TOO_MANY_REQUESTS)
+                            .header("Retry-After", Long.toString(TimeUnit.NANOSECONDS.toSeconds(warten - 1) + 1))
+                            .entity("Too many requests").build();
+                }
+                return null;
         }
-        return isAllowed;
+    }
+
+    private static LongAdder abgewiesen(String grund) {
+        return Metriken.zaehler("auth_failures_total", "Von Roles abgewiesene Requests nach Grund", "reason", grund);
+    }
+
+    private static boolean istBearer(String authorization) {
+        return authorization != null && authorization.regionMatches(true, 0, BEARER, 0, BEARER.length());
+    }
+
+    private static Response nichtErlaubt() {
+        return Response.status(Response.Status.UNAUTHORIZED).entity("You cannot access this resource").build();
+    }
 
+    private static Response ueberlastet() {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE).header("Retry-After", "1")
+                .entity("Too many concurrent logins").build();
     }
 }
@@ -0,0 +1,218 @@
+package org.example.projekt.security;
+
+import org.example.projekt.logging.Protokoll;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+// Zustandslose Bearer-Tokens: <kid>.<base64url(rollen|ablauf|id|benutzer)>.<base64url(HMAC-SHA256)>
+// Die Prüfung braucht nur den Schlüssel zur kid und eine MAC-Berechnung, keinen Zugriff auf die Benutzer.
+// Schlüsselrotation: neue Tokens werden mit dem aktuellen Schlüssel signiert, ältere Schlüssel werden zum Prüfen
+// behalten, bis sie entfernt werden. Widerrufene Token-IDs stehen bis zu ihrem Ablauf in einer kleinen Liste.
+public final class Tokens {
+    private static final Protokoll LOG = Protokoll.fuer(Tokens.class);
+    private static final String ALGORITHMUS = "HmacSHA256";
+    private static final Base64.Encoder BASE64 = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64_DECODER = Base64.getUrlDecoder();
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int MAC_POOL = 4 * Runtime.getRuntime().availableProcessors();
+
+    public record Token(String wert, long ablauf) {
+    }
+
+    // Inhalt eines gültigen Tokens
+    public record Inhalt(int rollen, long ablauf, String id, String benutzer) {
+    }
+
+    private static final class Schluessel {
+        final String kid;
+        final SecretKeySpec key;
+        // Mac-Instanzen sind nicht threadsicher, aber nach doFinal wiederverwendbar
+        final ArrayBlockingQueue<Mac> macs = new ArrayBlockingQueue<>(MAC_POOL);
+
+        Schluessel(String kid, byte[] key) {
+            this.kid = kid;
+            this.key = new SecretKeySpec(key, ALGORITHMUS);
+        }
+
+        byte[] mac(String daten) {
+            Mac mac = macs.poll();
+            try {
+                if (mac == null) {
+                    mac = Mac.getInstance(ALGORITHMUS);
+                    mac.init(key);
+                }
+                return mac.doFinal(daten.getBytes(StandardCharsets.UTF_8));
+            } catch (GeneralSecurityException e) {
+                // HmacSHA256 gehört zu jeder Java-Laufzeit
+                throw new IllegalStateException(e);
+            } finally {
+                if (mac != null) {
+                    macs.offer(mac);
+                }
+            }
+        }
+    }
+
+    private final Map<String, Schluessel> schluessel = new ConcurrentHashMap<>();
+    private volatile Schluessel aktuell;
+    private final long gueltigkeitSekunden;
+    private final int maxWiderrufen;
+    private final LongSupplier uhr;
+    // Token-ID -> Ablauf (Sekunden)
+    private final Map<String, Long> widerrufen = new ConcurrentHashMap<>();
+
+    // Der erste Schlüssel signiert, alle prüfen; uhr liefert Sekunden seit der Epoche
+    public Tokens(LinkedHashMap<String, byte[]> schluessel, long gueltigkeitSekunden, int maxWiderrufen, LongSupplier uhr) {
+        this.gueltigkeitSekunden = gueltigkeitSekunden;
+        this.maxWiderrufen = maxWiderrufen;
+        this.uhr = uhr;
+        for (Map.Entry<String, byte[]> e : schluessel.entrySet()) {
+            hinzufuegen(e.getKey(), e.getValue(), aktuell == null);
+        }
+        if (aktuell == null) {
+            rotieren();
+        }
+    }
+
+    // -Dauth.token.keys=kid:base64,kid:base64 (erster signiert). Ohne Angabe ein zufälliger Schlüssel,
+    // Tokens gelten dann nur bis zum Neustart.
+    public static Tokens fromSystemProperties() {
+        LinkedHashMap<String, byte[]> schluessel = new LinkedHashMap<>();
+        String keys = System.getProperty("auth.token.keys");
+        if (keys != null && !keys.isBlank()) {
+            for (String eintrag : keys.split(",")) {
+                int trenner = eintrag.indexOf(':');
+                if (trenner <= 0) {
+                    throw new IllegalArgumentException("auth.token.keys: erwartet kid:base64, war " + eintrag);
+                }
+                schluessel.put(eintrag.substring(0, trenner).trim(),
+                        Base64.getDecoder().decode(eintrag.substring(trenner + 1).trim()));
+            }
+        } else {
+            LOG.info("auth.token.keys.random");
+        }
+        return new Tokens(schluessel, Long.getLong("auth.token.ttlSeconds", 900),
+                Integer.getInteger("auth.token.maxWiderrufen", 10_000), () -> System.currentTimeMillis() / 1000);
+    }
+
+    public Token ausstellen(String benutzer, int rollen) {
+        long ablauf = uhr.getAsLong() + gueltigkeitSekunden;
+        byte[] id = new byte[12];
+        RANDOM.nextBytes(id);
+        Schluessel s = aktuell;
+        String signiert = s.kid + "." + BASE64.encodeToString(
+                (rollen + "|" + ablauf + "|" + BASE64.encodeToString(id) + "|" + benutzer).getBytes(StandardCharsets.UTF_8));
+        return new Token(signiert + "." + BASE64.encodeToString(s.mac(signiert)), ablauf);
+    }
+
+    // Rollen-Bits eines gültigen Tokens, sonst 0
+    public int rollen(String token) {
+        Inhalt inhalt = pruefen(token);
+        return inhalt == null ? 0 : inhalt.rollen();
+    }
+
+    // Benutzer eines gültigen Tokens, sonst null
+    public String benutzer(String token) {
+        Inhalt inhalt = pruefen(token);
+        return inhalt == null ? null : inhalt.benutzer();
+    }
+
+    // Gültiges Token bis zu seinem Ablauf sperren; false, wenn es ohnehin ungültig ist
+    public boolean widerrufen(String token) {
+        Inhalt inhalt = pruefen(token);
+        if (inhalt == null) {
+            return false;
+        }
+        if (widerrufen.size() >= maxWiderrufen) {
+            aufraeumen();
+        }
+        if (widerrufen.size() >= maxWiderrufen) {
+            // Lieber eine Warnung als eine unbegrenzte Liste; das Token läuft spätestens nach der TTL ab
+            LOG.warnung("auth.revocations.full", "max", maxWiderrufen);
+            return false;
+        }
+        widerrufen.put(inhalt.id(), inhalt.ablauf());
+        return true;
+    }
+
+    // Neuer Signaturschlüssel, die bisherigen prüfen weiter; Rückgabe ist die neue kid
+    public String rotieren() {
+        byte[] key = new byte[32];
+        RANDOM.nextBytes(key);
+        String kid = Long.toString(System.currentTimeMillis(), 36) + Integer.toString(RANDOM.nextInt(1296), 36);
+        hinzufuegen(kid, key, true);
+        return kid;
+    }
+
+    // Alter Schlüssel: alle damit signierten Tokens werden ungültig
+    public void entfernen(String kid) {
+        if (aktuell.kid.equals(kid)) {
+            throw new IllegalArgumentException("Der aktuelle Signaturschlüssel kann nicht entfernt werden");
+        }
+        schluessel.remove(kid);
+    }
+
+    private void hinzufuegen(String kid, byte[] key, boolean signieren) {
+        if (kid.indexOf('.') >= 0) {
+            throw new IllegalArgumentException("kid darf keinen Punkt enthalten: " + kid);
+        }
+        Schluessel s = new Schluessel(kid, key);
+        schluessel.put(kid, s);
+        if (signieren) {
+            aktuell = s;
+        }
+    }
+
+    // Inhalt eines gültigen Tokens, null wenn Signatur, Schlüssel, Ablauf oder Widerruf nicht passen
+    public Inhalt pruefen(String token) {
+        int erster = token.indexOf('.');
+        int letzter = token.lastIndexOf('.');
+        if (erster <= 0 || letzter == erster) {
+            return null;
+        }
+        Schluessel s = schluessel.get(token.substring(0, erster));
+        if (s == null) {
+            return null;
+        }
+        String signiert = token.substring(0, letzter);
+        byte[] erwartet;
+        try {
+            erwartet = BASE64_DECODER.decode(token.substring(letzter + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(s.mac(signiert), erwartet)) {
+            return null;
+        }
+        // Ab hier stammt der Inhalt von uns
+        String[] teile = new String(BASE64_DECODER.decode(token.substring(erster + 1, letzter)), StandardCharsets.UTF_8)
+                .split("\\|", 4);
+        long ablauf = Long.parseLong(teile[1]);
+        if (ablauf <= uhr.getAsLong() || widerrufen.containsKey(teile[2])) {
+            return null;
+        }
+        return new Inhalt(Integer.parseInt(teile[0]), ablauf, teile[2], teile[3]);
+    }
+
+    private void aufraeumen() {
+        long jetzt = uhr.getAsLong();
+        Iterator<Long> it = widerrufen.values().iterator();
+        while (it.hasNext()) {
+            if (it.next() <= jetzt) {
+                it.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.projekt.services;
+
+import java.sql.SQLException;
+
+// Eine Repository-Abfrage für die Decorators (BegrenztesRepository, GemessenesRepository)
+@FunctionalInterface
+interface Abfrage<T> {
+    T ausfuehren() throws SQLException;
+}
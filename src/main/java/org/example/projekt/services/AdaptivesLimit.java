@@ -0,0 +1,203 @@
+package org.example.projekt.services;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Adaptive Obergrenze für gleichzeitige Datenbankabfragen (AIMD mit einer Latenzprüfung wie bei TCP Vegas).
+// Jede Antwortzeit wird mit der Basis ihrer Abfrageart verglichen (z.B. readAutoById, getAllAutos), damit ein
+// langer Tabellen-Scan neben vielen Einzelabfragen nicht als Überlast zählt. Die Basis ist ein langfristiger
+// gleitender Durchschnitt (etwa die letzten 1/GEWICHT Proben der Art) und folgt so einer dauerhaft langsameren
+// Datenbank, aber nicht einem kurzen Anstieg. Die Verhältnisse werden in Fenstern von etwa limit Abfragen gesammelt.
+// Am Ende eines Fensters:
+//   - mittleres Verhältnis über toleranz oder eine Überlast gemeldet -> limit * 0.75
+//   - sonst, wenn das Limit ausgeschöpft war                         -> limit + 1
+// Ist das Limit erreicht, wartet ein Aufrufer höchstens maxWarten und höchstens maxWartend Aufrufer warten
+// gleichzeitig; alle anderen werden sofort abgewiesen.
+public class AdaptivesLimit {
+    private static final double VERKLEINERN = 0.75;
+    private static final int MIN_FENSTER = 10;
+    private static final double GEWICHT = 0.01;
+    private static final String OHNE_ART = "";
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double toleranz;
+    private final long maxWartenNanos;
+    private final int maxWartend;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition frei = lock.newCondition();
+
+    // Nur unter lock
+    private double limit;
+    private int laufend;
+    private int wartend;
+    private int proben;
+    private double summeVerhaeltnis;
+    private boolean ausgelastet;
+    private boolean ueberlastet;
+    // Basis-Latenz in Nanosekunden pro Abfrageart
+    private final Map<String, double[]> basis = new HashMap<>();
+
+    private final LongAdder abgewiesen = new LongAdder();
+
+    public AdaptivesLimit(String name, int startLimit, int minLimit, int maxLimit, double toleranz,
+                          long maxWartenMs, int maxWartend) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Ungültige Grenzen für " + name + ": " + minLimit + " - " + maxLimit);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.toleranz = toleranz;
+        this.maxWartenNanos = TimeUnit.MILLISECONDS.toNanos(maxWartenMs);
+        this.maxWartend = maxWartend;
+        this.limit = Math.clamp(startLimit, minLimit, maxLimit);
+    }
+
+    // Einstellungen unter db.limit.<art>.*, Warteschlange unter db.limit.*
+    public static AdaptivesLimit fromSystemProperties(String art, int startLimit, int maxLimit) {
+        String praefix = "db.limit." + art + ".";
+        return new AdaptivesLimit(art,
+                Integer.getInteger(praefix + "initial", startLimit),
+                Integer.getInteger(praefix + "min", 1),
+                Integer.getInteger(praefix + "max", maxLimit),
+                Double.parseDouble(System.getProperty("db.limit.toleranz", "2.0")),
+                Long.getLong("db.limit.queueMs", 50L),
+                Integer.getInteger("db.limit.maxQueue", 100));
+    }
+
+    // Platz für eine Abfrage belegen; false, wenn bis zum Ende der Wartezeit keiner frei wurde
+    public boolean betreten() {
+        lock.lock();
+        try {
+            if (laufend < (int) limit) {
+                belegen();
+                return true;
+            }
+            if (wartend >= maxWartend || maxWartenNanos <= 0) {
+                ausgelastet = true;
+                abgewiesen.increment();
+                return false;
+            }
+            wartend++;
+            try {
+                long rest = maxWartenNanos;
+                while (laufend >= (int) limit) {
+                    if (rest <= 0) {
+                        ausgelastet = true;
+                        abgewiesen.increment();
+                        return false;
+                    }
+                    rest = frei.awaitNanos(rest);
+                }
+                belegen();
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abgewiesen.increment();
+                return false;
+            } finally {
+                wartend--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Platz freigeben, ohne Abfrageart (alle Proben teilen eine Basis)
+    public void verlassen(long rttNanos, boolean ueberlast) {
+        verlassen(OHNE_ART, rttNanos, ueberlast);
+    }
+
+    // Platz freigeben; rttNanos < 0 zählt nicht als Probe (z.B. Streaming, dessen Dauer der Client bestimmt).
+    // ueberlast für Fehler, die auf eine überlastete Datenbank hindeuten (Pool-Timeout, Lock-Wartezeit)
+    public void verlassen(String art, long rttNanos, boolean ueberlast) {
+        lock.lock();
+        try {
+            laufend--;
+            if (ueberlast) {
+                ueberlastet = true;
+            }
+            if (rttNanos >= 0) {
+                proben++;
+                summeVerhaeltnis += verhaeltnis(art, Math.max(1, rttNanos));
+                if (proben >= Math.max(MIN_FENSTER, (int) limit)) {
+                    anpassen();
+                }
+            }
+            frei.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLaufend() {
+        lock.lock();
+        try {
+            return laufend;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getAbgewiesen() {
+        return abgewiesen.sum();
+    }
+
+    // ==================== Hilfsmethoden (nur unter dem Lock) ====================
+
+    private void belegen() {
+        laufend++;
+        if (laufend >= (int) limit) {
+            ausgelastet = true;
+        }
+    }
+
+    // Antwortzeit im Verhältnis zur bisherigen Basis der Art, danach wird die Basis nachgeführt
+    private double verhaeltnis(String art, long rttNanos) {
+        double[] mittel = basis.get(art);
+        if (mittel == null) {
+            basis.put(art, new double[]{rttNanos});
+            return 1.0;
+        }
+        double verhaeltnis = rttNanos / mittel[0];
+        mittel[0] += GEWICHT * (rttNanos - mittel[0]);
+        return verhaeltnis;
+    }
+
+    private void anpassen() {
+        double schnitt = summeVerhaeltnis / proben;
+        int vorher = (int) limit;
+        if (ueberlastet || schnitt > toleranz) {
+            limit = Math.max(minLimit, limit * VERKLEINERN);
+        } else if (ausgelastet) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+        proben = 0;
+        summeVerhaeltnis = 0;
+        ausgelastet = false;
+        ueberlastet = false;
+        if ((int) limit > vorher) {
+            frei.signalAll();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.projekt.services;
+
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import org.example.projekt.logging.Protokoll;
+import org.example.projekt.metrics.Metriken;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Führt die Datenbankarbeit der Ressourcen auf virtuellen Threads aus. Der Container-Thread wird sofort
+// freigegeben, ein langsamer JDBC-Roundtrip blockiert also keinen Thread des Servlet-Pools mehr.
+// Die Anzahl gleichzeitiger Datenbankzugriffe begrenzen BegrenztesRepository und der Connection-Pool.
+public final class AsyncExecutor {
+    private static final Protokoll LOG = Protokoll.fuer(AsyncExecutor.class);
+
+    // Maximale Bearbeitungszeit pro Request (-Drest.timeoutMs, 0 = ohne Timeout)
+    private static final long TIMEOUT_MS = Long.getLong("rest.timeoutMs", 10_000L);
+    private static final int RETRY_AFTER_SECONDS = 1;
+
+    private static final ExecutorService EXECUTOR =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("rest-", 0).factory());
+
+    private static final LongAdder TIMEOUTS = new LongAdder();
+
+    static {
+        Metriken.zaehler("http_request_timeouts_total", "Requests, die nach rest.timeoutMs mit 503 beantwortet wurden",
+                TIMEOUTS::sum);
+        if (Boolean.getBoolean("virtualthreads.pinningMonitor")) {
+            PinningMonitor.start();
+        }
+    }
+
+    private AsyncExecutor() {
+    }
+
+    // Request-Arbeit auf einem virtuellen Thread ausführen, mit dem Standard-Timeout
+    public static CompletionStage<Response> submit(Supplier<Response> work) {
+        return submit(work, TIMEOUT_MS);
+    }
+
+    // Für schreibende Endpoints: ohne Timeout. Ein 503 mit Retry-After würde einen erneuten Versuch nahelegen,
+    // obwohl die Arbeit weiterläuft und noch committen kann; ein wiederholtes POST fügte die Zeile doppelt ein.
+    public static CompletionStage<Response> submitSchreibend(Supplier<Response> work) {
+        return submit(work, 0);
+    }
+
+    // Nach Ablauf des Timeouts wird mit 503 geantwortet. Die Arbeit selbst wird nicht unterbrochen:
+    // ein Interrupt würde den Socket einer ausgeliehenen JDBC-Verbindung schliessen.
+    public static CompletionStage<Response> submit(Supplier<Response> work, long timeoutMs) {
+        CompletableFuture<Response> future = CompletableFuture.supplyAsync(() -> {
+            try {
+                return work.get();
+            } catch (WebApplicationException e) {
+                // z.B. 503 aus BegrenztesRepository, sonst käme sie als CompletionException beim Container an
+                return e.getResponse();
+            }
+        }, EXECUTOR);
+        if (timeoutMs <= 0) {
+            return future;
+        }
+        // Ohne Antwort bis zum Timeout wird die Stage mit null abgeschlossen und auf 503 abgebildet
+        return future.completeOnTimeout(null, timeoutMs, TimeUnit.MILLISECONDS).thenApply(response -> {
+            if (response != null) {
+                return response;
+            }
+            TIMEOUTS.increment();
+            LOG.warnung("request.timeout", "timeoutMs", timeoutMs, "status", 503);
+            return timeoutResponse(timeoutMs);
+        });
+    }
+
+    public static long getTimeouts() {
+        return TIMEOUTS.sum();
+    }
+
+    private static Response timeoutResponse(long timeoutMs) {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .entity("Fehler: Zeitüberschreitung nach " + timeoutMs + " ms, bitte später erneut versuchen")
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.projekt.services;
+
+import jakarta.annotation.security.PermitAll;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.example.projekt.config.KeineKompression;
+import org.example.projekt.logging.Protokoll;
+import org.example.projekt.security.Roles;
+import org.example.projekt.security.Tokens;
+
+import java.util.concurrent.CompletionStage;
+
+// Anmeldung mit Basic-Auth gegen ein kurzlebiges Bearer-Token, das die folgenden Requests ohne Passwort authentifiziert
+@Path("/auth")
+public class AuthServices {
+    private static final Protokoll LOG = Protokoll.fuer(AuthServices.class);
+
+    @POST
+    @Path("/login")
+    @KeineKompression
+    @PermitAll
+    @Produces(MediaType.APPLICATION_JSON)
+    public CompletionStage<Response> login(@HeaderParam("Authorization") String authorization) {
+        // Das Hashen des Passworts dauert, deshalb wie die Datenbankarbeit auf einem virtuellen Thread
+        return AsyncExecutor.submit(() -> {
+            LOG.info("auth.login");
+            try {
+                Tokens.Token token = Roles.ausstellen(authorization);
+                long expiresIn = token.ablauf() - System.currentTimeMillis() / 1000;
+                return Response.ok("{\"token\":\"" + token.wert() + "\",\"tokenType\":\"Bearer\",\"expiresIn\":"
+                        + expiresIn + "}").header("Cache-Control", "no-store").build();
+            } catch (WebApplicationException e) {
+                return e.getResponse();
+            }
+        });
+    }
+
+    @POST
+    @Path("/logout")
+    @KeineKompression
+    @RolesAllowed({"ADMIN", "USER"})
+    public Response logout(@HeaderParam("Authorization") String authorization) {
+        LOG.info("auth.logout");
+        if (!Roles.widerrufen(authorization)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Nur Bearer-Tokens können abgemeldet werden")
+                    .build();
+        }
+        return Response.noContent().build();
+    }
+
+    @POST
+    @Path("/rotate")
+    @KeineKompression
+    @RolesAllowed({"ADMIN"})
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response rotate() {
+        String kid = Roles.tokens().rotieren();
+        LOG.info("auth.rotate", "kid", kid);
+        return Response.ok("{\"kid\":\"" + kid + "\"}").build();
+    }
+}
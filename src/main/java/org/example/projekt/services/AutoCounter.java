@@ -0,0 +1,124 @@
+package org.example.projekt.services;
+
+import org.example.projekt.logging.Protokoll;
+
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+// Im Speicher geführte Anzahl der Autos, damit /autos/count nicht bei jedem Aufruf COUNT(*) ausführt.
+// Schreibzugriffe melden sich mit beginWrite() an und tragen ihre Änderung mit endWrite(delta) ein.
+// Ein periodischer Abgleich mit der Datenbank korrigiert Abweichungen (z.B. Änderungen ausserhalb der API).
+public class AutoCounter {
+    private static final Protokoll LOG = Protokoll.fuer(AutoCounter.class);
+
+    // Liefert die Anzahl aus der Datenbank (SELECT COUNT(*))
+    @FunctionalInterface
+    public interface CountLoader {
+        long load() throws SQLException;
+    }
+
+    // Jede Änderung erzeugt einen neuen Stand, ein Abgleich wird nur per compareAndSet übernommen
+    private record Stand(long anzahl, long version) {
+    }
+
+    private static final long UNBEKANNT = -1;
+
+    private final CountLoader loader;
+    private final AtomicReference<Stand> stand = new AtomicReference<>(new Stand(UNBEKANNT, 0));
+    // Schreibzugriffe, deren Änderung noch nicht eingetragen ist
+    private final AtomicInteger laufend = new AtomicInteger();
+
+    private final LongAdder abgleiche = new LongAdder();
+    private final LongAdder korrekturen = new LongAdder();
+
+    private final ScheduledExecutorService resyncer;
+
+    // resyncIntervalMs = 0: kein periodischer Abgleich, nur Laden beim ersten Zugriff
+    public AutoCounter(CountLoader loader, long resyncIntervalMs) {
+        this.loader = loader;
+        if (resyncIntervalMs > 0) {
+            this.resyncer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "auto-counter-resync");
+                t.setDaemon(true);
+                return t;
+            });
+            // Erster Lauf sofort: die Anzahl wird beim Start geladen, ohne den Start zu blockieren
+            this.resyncer.scheduleWithFixedDelay(this::scheduledResync, 0, resyncIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.resyncer = null;
+        }
+    }
+
+    // Einstellungen aus System-Properties (-Dautos.count.resyncMs, 0 = kein periodischer Abgleich)
+    public static AutoCounter fromSystemProperties(CountLoader loader) {
+        return new AutoCounter(loader, Long.getLong("autos.count.resyncMs", 60_000L));
+    }
+
+    // Aktuelle Anzahl; nur solange sie noch nie geladen wurde, wird die Datenbank abgefragt
+    public long get() throws SQLException {
+        long anzahl = stand.get().anzahl();
+        if (anzahl != UNBEKANNT) {
+            return anzahl;
+        }
+        return resync();
+    }
+
+    // Vor einem Schreibzugriff auf autos aufrufen
+    public void beginWrite() {
+        laufend.incrementAndGet();
+    }
+
+    // Nach dem Schreibzugriff aufrufen (auch bei Fehlern, dann mit delta 0)
+    public void endWrite(long delta) {
+        try {
+            stand.updateAndGet(s -> new Stand(
+                    s.anzahl() == UNBEKANNT ? UNBEKANNT : Math.max(0, s.anzahl() + delta),
+                    s.version() + 1));
+        } finally {
+            laufend.decrementAndGet();
+        }
+    }
+
+    // Anzahl aus der Datenbank laden. Übernommen wird sie nur, wenn während der Abfrage kein Schreibzugriff
+    // lief oder abgeschlossen wurde, sonst könnte eine Änderung doppelt oder gar nicht gezählt werden.
+    public long resync() throws SQLException {
+        Stand vorher = stand.get();
+        boolean ruhig = laufend.get() == 0;
+        long anzahl = loader.load();
+        abgleiche.increment();
+        if (ruhig && laufend.get() == 0 && stand.compareAndSet(vorher, new Stand(anzahl, vorher.version() + 1))) {
+            if (vorher.anzahl() != UNBEKANNT && vorher.anzahl() != anzahl) {
+                korrekturen.increment();
+                LOG.info("autos.count.corrected", "vorher", vorher.anzahl(), "nachher", anzahl);
+            }
+        }
+        return anzahl;
+    }
+
+    public long getResyncs() {
+        return abgleiche.sum();
+    }
+
+    public long getCorrections() {
+        return korrekturen.sum();
+    }
+
+    public void close() {
+        if (resyncer != null) {
+            resyncer.shutdownNow();
+        }
+    }
+
+    private void scheduledResync() {
+        try {
+            resync();
+        } catch (SQLException | RuntimeException e) {
+            LOG.warnung("autos.count.resync_failed", e);
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package org.example.projekt.services;
+
+import org.example.projekt.logging.Protokoll;
+import org.example.projekt.modules.Auto;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Sekundärindizes über alle Autos im Service: Marke -> sortierte IDs, Baujahr -> IDs und ein nach Leistung
+// sortiertes Array für Bereichsabfragen. Lesezugriffe beantworten den Request ohne Datenbank.
+// Nach jedem Schreibzugriff wird refresh() mit den betroffenen IDs aufgerufen. Der Index liest diese Zeilen
+// dann neu aus dem Repository; refreshes laufen nacheinander, dadurch gewinnt immer der zuletzt committete
+// Stand, auch wenn zwei Schreibzugriffe auf dasselbe Auto ihre Refreshes in umgekehrter Reihenfolge auslösen.
+public class AutoIndex {
+    private static final Protokoll LOG = Protokoll.fuer(AutoIndex.class);
+    private static final int FETCH_SIZE = 5_000;
+
+    // Wird unter dem Schreib-Lock über jede Änderung informiert, in derselben Reihenfolge wie der Index
+    interface Beobachter {
+        void eingefuegt(Auto auto);
+
+        void entfernt(Auto auto);
+
+        // Vor dem kompletten Neuladen
+        void geleert();
+    }
+
+    private final AutoRepository autoRepository;
+    private final List<Beobachter> beobachter = new CopyOnWriteArrayList<>();
+
+    // Serialisiert Laden und Refreshes (inklusive der Datenbankzugriffe dafür)
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    // Schützt die Datenstrukturen: Requests lesen parallel, Refreshes ändern exklusiv
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final IntHashMap<Auto> autos = new IntHashMap<>();
+    private final IntHashMap<IntListe> nachMarke = new IntHashMap<>();
+    private final IntHashMap<IntListe> nachJahr = new IntHashMap<>();
+    // (Leistung << 32 | ID) aufsteigend sortiert, die Leistung ist nie negativ
+    private long[] nachLeistung = new long[16];
+    private int nachLeistungSize;
+
+    private volatile boolean geladen;
+
+    public AutoIndex(AutoRepository autoRepository) {
+        this.autoRepository = autoRepository;
+    }
+
+    void beobachten(Beobachter b) {
+        beobachter.add(b);
+    }
+
+    // ==================== Abfragen ====================
+
+    // Autos einer Marke, aufsteigend nach ID
+    public List<Auto> findByMarke(int markeId) throws SQLException {
+        ensureGeladen();
+        lock.readLock().lock();
+        try {
+            return aufloesen(nachMarke.get(markeId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Autos mit Baujahr von bis und mit bis (Jahre), aufsteigend nach Jahr und ID
+    public List<Auto> findByJahre(int vonJahr, int bisJahr) throws SQLException {
+        ensureGeladen();
+        lock.readLock().lock();
+        try {
+            List<Auto> treffer = new ArrayList<>();
+            for (int jahr = vonJahr; jahr <= bisJahr; jahr++) {
+                treffer.addAll(aufloesen(nachJahr.get(jahr)));
+            }
+            return treffer;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Autos mit min <= Leistung <= max, aufsteigend nach Leistung und ID
+    public List<Auto> findByLeistung(int min, int max) throws SQLException {
+        ensureGeladen();
+        lock.readLock().lock();
+        try {
+            int von = ersterIndexAb(schluessel(min, 0));
+            int bis = ersterIndexAb(schluessel(max + 1L, 0));
+            List<Auto> treffer = new ArrayList<>(bis - von);
+            for (int i = von; i < bis; i++) {
+                treffer.add(kopie(autos.get((int) nachLeistung[i])));
+            }
+            return treffer;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() throws SQLException {
+        ensureGeladen();
+        lock.readLock().lock();
+        try {
+            return autos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==================== Pflege ====================
+
+    // Nach Schreibzugriffen auf einzelne Autos: diese Zeilen aus dem Repository neu lesen
+    public void refresh(int... ids) {
+        if (ids.length == 0) {
+            return;
+        }
+        refreshLock.lock();
+        try {
+            if (!geladen) {
+                // Das spätere Laden liest den aktuellen Stand ohnehin
+                return;
+            }
+            List<Auto> aktuell = lesen(ids);
+            lock.writeLock().lock();
+            try {
+                for (int id : ids) {
+                    entfernen(id);
+                }
+                for (Auto auto : aktuell) {
+                    entfernen(auto.getIdAutos());
+                    einfuegen(auto);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (SQLException | RuntimeException e) {
+            // Lieber einmal alles neu laden als einen falschen Stand ausliefern
+            LOG.warnung("index.refresh.failed", e);
+            geladen = false;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    // Nach Schreibzugriffen auf viele Autos (z.B. alle löschen): beim nächsten Lesen komplett neu laden
+    public void reload() {
+        geladen = false;
+    }
+
+    // Laden, falls noch nicht geschehen oder nach reload()
+    void ensureGeladen() throws SQLException {
+        if (geladen) {
+            return;
+        }
+        refreshLock.lock();
+        try {
+            if (geladen) {
+                return;
+            }
+            long start = System.nanoTime();
+            List<Auto> alle = new ArrayList<>();
+            try {
+                autoRepository.streamAllAutos(FETCH_SIZE, alle::add);
+            } catch (IOException e) {
+                // Der Consumer sammelt nur in eine Liste und wirft keine IOException
+                throw new IllegalStateException(e);
+            }
+            lock.writeLock().lock();
+            try {
+                alleEinfuegen(alle);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            geladen = true;
+            LOG.info("index.loaded", "autos", alle.size(), "ms", (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    // Die angegebenen Autos lesen; IDs eines Batches liegen meist nahe beieinander, dann reicht eine Bereichsabfrage
+    private List<Auto> lesen(int[] ids) throws SQLException {
+        if (ids.length == 1) {
+            Auto auto = autoRepository.readAutoById(ids[0]);
+            return auto == null ? List.of() : List.of(auto);
+        }
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int id : ids) {
+            min = Math.min(min, id);
+            max = Math.max(max, id);
+        }
+        return autoRepository.getAutosAfter(min - 1, max - min + 1);
+    }
+
+    // ==================== Datenstrukturen (nur unter dem Schreib-Lock) ====================
+
+    // Komplettes Laden: alles anhängen und jede Struktur einmal sortieren statt Zeile für Zeile einzusortieren
+    private void alleEinfuegen(List<Auto> alle) {
+        autos.clear();
+        nachMarke.clear();
+        nachJahr.clear();
+        for (Beobachter b : beobachter) {
+            b.geleert();
+        }
+        nachLeistung = new long[Math.max(16, alle.size())];
+        nachLeistungSize = 0;
+        for (Auto auto : alle) {
+            int id = auto.getIdAutos();
+            if (autos.containsKey(id)) {
+                continue;
+            }
+            autos.put(id, auto);
+            liste(nachMarke, auto.getFsMarken()).anhaengen(id);
+            liste(nachJahr, auto.getBaujahr().getYear()).anhaengen(id);
+            nachLeistung[nachLeistungSize++] = schluessel(auto.getLeistung(), id);
+            for (Beobachter b : beobachter) {
+                b.eingefuegt(auto);
+            }
+        }
+        Arrays.sort(nachLeistung, 0, nachLeistungSize);
+        nachMarke.forEachValue(IntListe::sortieren);
+        nachJahr.forEachValue(IntListe::sortieren);
+    }
+
+    // Einzelnes Auto einsortieren, für refresh()
+
+    private void einfuegen(Auto auto) {
+        int id = auto.getIdAutos();
+        autos.put(id, auto);
+        liste(nachMarke, auto.getFsMarken()).add(id);
+        liste(nachJahr, auto.getBaujahr().getYear()).add(id);
+
+        long key = schluessel(auto.getLeistung(), id);
+        int pos = ersterIndexAb(key);
+        if (nachLeistungSize == nachLeistung.length) {
+            nachLeistung = Arrays.copyOf(nachLeistung, nachLeistungSize * 2);
+        }
+        System.arraycopy(nachLeistung, pos, nachLeistung, pos + 1, nachLeistungSize - pos);
+        nachLeistung[pos] = key;
+        nachLeistungSize++;
+        for (Beobachter b : beobachter) {
+            b.eingefuegt(auto);
+        }
+    }
+
+    private void entfernen(int id) {
+        Auto auto = autos.remove(id);
+        if (auto == null) {
+            return;
+        }
+        entfernenAusListe(nachMarke, auto.getFsMarken(), id);
+        entfernenAusListe(nachJahr, auto.getBaujahr().getYear(), id);
+
+        int pos = ersterIndexAb(schluessel(auto.getLeistung(), id));
+        System.arraycopy(nachLeistung, pos + 1, nachLeistung, pos, nachLeistungSize - pos - 1);
+        nachLeistungSize--;
+        for (Beobachter b : beobachter) {
+            b.entfernt(auto);
+        }
+    }
+
+    private static IntListe liste(IntHashMap<IntListe> index, int key) {
+        IntListe liste = index.get(key);
+        if (liste == null) {
+            liste = new IntListe();
+            index.put(key, liste);
+        }
+        return liste;
+    }
+
+    private static void entfernenAusListe(IntHashMap<IntListe> index, int key, int id) {
+        IntListe liste = index.get(key);
+        if (liste != null && liste.remove(id) && liste.size == 0) {
+            index.remove(key);
+        }
+    }
+
+    private List<Auto> aufloesen(IntListe ids) {
+        if (ids == null) {
+            return new ArrayList<>();
+        }
+        List<Auto> treffer = new ArrayList<>(ids.size);
+        for (int i = 0; i < ids.size; i++) {
+            treffer.add(kopie(autos.get(ids.werte[i])));
+        }
+        return treffer;
+    }
+
+    // Aufrufer bekommen Kopien, damit sie den Index nicht verändern; die Marke ist wie in DataBase geteilt
+    private static Auto kopie(Auto auto) {
+        return new Auto(auto.getIdAutos(), auto.getModell(), auto.getBaujahr(), auto.getGewicht(), auto.getLeistung(),
+                auto.isVerbrenner(), auto.isProduktion(), auto.getFsMarken(), auto.getMarke());
+    }
+
+    private static long schluessel(long leistung, int id) {
+        return leistung << 32 | (id & 0xFFFFFFFFL);
+    }
+
+    // Erste Position mit Schlüssel >= key (Einfügeposition der binären Suche)
+    private int ersterIndexAb(long key) {
+        int index = Arrays.binarySearch(nachLeistung, 0, nachLeistungSize, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    // Sortierte Liste von IDs ohne Boxing
+    private static final class IntListe {
+        private int[] werte = new int[4];
+        private int size;
+
+        void add(int id) {
+            int pos = Arrays.binarySearch(werte, 0, size, id);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            if (size == werte.length) {
+                werte = Arrays.copyOf(werte, size * 2);
+            }
+            System.arraycopy(werte, pos, werte, pos + 1, size - pos);
+            werte[pos] = id;
+            size++;
+        }
+
+        // Beim kompletten Laden: unsortiert anhängen, danach einmal sortieren()
+        void anhaengen(int id) {
+            if (size == werte.length) {
+                werte = Arrays.copyOf(werte, size * 2);
+            }
+            werte[size++] = id;
+        }
+
+        void sortieren() {
+            Arrays.sort(werte, 0, size);
+        }
+
+        boolean remove(int id) {
+            int pos = Arrays.binarySearch(werte, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(werte, pos + 1, werte, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+    }
+}
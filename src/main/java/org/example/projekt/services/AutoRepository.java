@@ -0,0 +1,83 @@
+package org.example.projekt.services;
+
+import org.example.projekt.modules.Auto;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+// Zugriff auf die Autos, unabhängig vom Speicher (MySQL oder im Speicher, siehe Repositories).
+// Alle Implementierungen prüfen den Fremdschlüssel auf marken und liefern die gleichen Ergebnisse.
+public interface AutoRepository {
+
+    // Empfänger für gestreamte Autos, darf beim Schreiben in den Response-Stream IOException werfen
+    @FunctionalInterface
+    interface AutoConsumer {
+        void accept(Auto auto) throws IOException;
+    }
+
+    // Ein geöffneter, noch nicht gelesener Stream aller Autos; wird genau einmal geschrieben
+    @FunctionalInterface
+    interface AutoStream {
+        void schreiben(AutoConsumer consumer) throws SQLException, IOException;
+    }
+
+    // Auto nach ID lesen (inklusive Marke), null wenn es nicht existiert
+    Auto readAutoById(int id) throws SQLException;
+
+    // Alle Autos lesen (inklusive Marken)
+    List<Auto> getAllAutos() throws SQLException;
+
+    // Eine Seite Autos mit ID grösser als afterId, aufsteigend nach ID
+    List<Auto> getAutosAfter(int afterId, int limit) throws SQLException;
+
+    // Alle Autos aufsteigend nach ID an den Consumer geben, ohne sie zu sammeln
+    void streamAllAutos(int fetchSize, AutoConsumer consumer) throws SQLException, IOException;
+
+    // Wie streamAllAutos, aber eine Abweisung (z.B. 503 aus BegrenztesRepository) kommt schon beim Öffnen,
+    // also bevor eine Antwort mit Status 200 begonnen hat
+    default AutoStream oeffneStream(int fetchSize) {
+        return consumer -> streamAllAutos(fetchSize, consumer);
+    }
+
+    // Autos mit Baujahr im halboffenen Bereich [von, bisExklusiv)
+    List<Auto> getAutosByBaujahr(LocalDate von, LocalDate bisExklusiv) throws SQLException;
+
+    // Autos mit Baujahr von bis und mit bis (Jahre)
+    default List<Auto> getAutosByJahre(int vonJahr, int bisJahr) throws SQLException {
+        return getAutosByBaujahr(LocalDate.of(vonJahr, 1, 1), LocalDate.of(bisJahr + 1, 1, 1));
+    }
+
+    // Autos nach Baujahr (Jahr) lesen
+    default List<Auto> getAutosByJahr(int jahr) throws SQLException {
+        return getAutosByJahre(jahr, jahr);
+    }
+
+    // Autos nach allen gesetzten Kriterien filtern, sortieren und auf suche.limit() begrenzen
+    List<Auto> searchAutos(AutoSuche suche) throws SQLException;
+
+    // Auto hinzufügen, nur wenn die Marke existiert; die generierte ID wird im Auto gesetzt
+    WriteResult addAuto(Auto auto) throws SQLException;
+
+    // Mehrere Autos atomar einfügen (alles oder nichts), liefert die IDs in Eingabereihenfolge
+    int[] addAutos(List<Auto> autos) throws SQLException;
+
+    // Auto aktualisieren, nur wenn Auto und Marke existieren
+    WriteResult updateAuto(Auto auto) throws SQLException;
+
+    // Auto löschen, liefert die Anzahl gelöschter Autos (0 oder 1)
+    int deleteAuto(int id) throws SQLException;
+
+    // Alle Autos löschen, liefert die Anzahl gelöschter Autos
+    int deleteAllAutos() throws SQLException;
+
+    // Anzahl aller Autos
+    long countAutos() throws SQLException;
+
+    // Anzahl Autos, die eine Marke referenzieren
+    int countAutosWithMarke(int markeId) throws SQLException;
+
+    // Prüfen ob ein Auto existiert
+    boolean autoExists(int autoId) throws SQLException;
+}
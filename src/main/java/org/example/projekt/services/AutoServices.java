@@ -3,292 +3,859 @@ package org.example.projekt.services;
 import jakarta.annotation.security.PermitAll;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Providers;
+import org.example.projekt.config.KeineKompression;
+import org.example.projekt.logging.Protokoll;
+import org.example.projekt.security.Kosten;
 import org.example.projekt.modules.Auto;
+import org.example.projekt.modules.AutoPage;
+import org.example.projekt.modules.BatchItemResult;
+import org.example.projekt.modules.BatchResult;
 
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.logging.Logger;
-import java.util.logging.Level;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 @Path("/autos")
 public class AutoServices {
-    private static final Logger LOGGER = Logger.getLogger(AutoServices.class.getName());
-    private DataBase db = new DataBase();
+    private static final Protokoll LOG = Protokoll.fuer(AutoServices.class);
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final int STREAM_FLUSH_ROWS = 500;
+    private static final int MAX_VORSCHLAEGE = 50;
+    private static final int MIN_JAHR = 1;
+    private static final int MAX_JAHR = 9998;
+    private static final int MAX_BATCH_SIZE = Integer.getInteger("autos.batch.maxSize", 10_000);
+    // Status eines gültigen Eintrags, der wegen anderer ungültiger Einträge nicht eingefügt wurde
+    private static final int STATUS_FAILED_DEPENDENCY = 424;
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+    private record CountJson(long count, String json) {
+    }
+
+    // Zuletzt ausgelieferte /count-Antwort, statisch da JAX-RS pro Request eine neue Instanz erzeugt
+    private static volatile CountJson countJson = new CountJson(-1, null);
+
+    private final AutoRepository autoRepository;
+    private final MarkeRepository markeRepository;
+    private final AutoStatistik statistik;
+    private final AutoIndex index;
+    private final Autocomplete autocomplete;
+    private final VersionTracker versionen;
+    private final ResponseCache responseCache;
+
+    @Context
+    Providers providers;
+
+    // Pro Request gesetzt; Vorbedingungen werden vor der asynchronen Arbeit geprüft
+    @HeaderParam("If-None-Match")
+    String ifNoneMatch;
+
+    @HeaderParam("Accept-Encoding")
+    String acceptEncoding;
+
+    public AutoServices() {
+        this(Repositories.autos(), Repositories.marken(), Repositories.statistik(), Repositories.index(),
+                Repositories.autocomplete(), Repositories.versionen(), Repositories.responseCache());
+    }
+
+    AutoServices(DataBase db) {
+        this(db, db);
+    }
+
+    AutoServices(AutoRepository autoRepository, MarkeRepository markeRepository) {
+        this(autoRepository, markeRepository, new AutoStatistik(autoRepository, markeRepository));
+    }
+
+    AutoServices(AutoRepository autoRepository, MarkeRepository markeRepository, AutoStatistik statistik) {
+        this(autoRepository, markeRepository, statistik, new AutoIndex(autoRepository));
+    }
+
+    AutoServices(AutoRepository autoRepository, MarkeRepository markeRepository, AutoStatistik statistik, AutoIndex index) {
+        this(autoRepository, markeRepository, statistik, index, new Autocomplete(index, markeRepository), new VersionTracker(),
+                ResponseCache.fromSystemProperties());
+    }
+
+    AutoServices(AutoRepository autoRepository, MarkeRepository markeRepository, AutoStatistik statistik, AutoIndex index,
+                 Autocomplete autocomplete, VersionTracker versionen, ResponseCache responseCache) {
+        this.autoRepository = autoRepository;
+        this.markeRepository = markeRepository;
+        this.statistik = statistik;
+        this.index = index;
+        this.autocomplete = autocomplete;
+        this.versionen = versionen;
+        this.responseCache = responseCache;
+    }
 
     @GET
     @Path("/ping")
+    @KeineKompression
     @PermitAll
     @Produces(MediaType.TEXT_PLAIN)
     public Response ping() {
-        LOGGER.info("Ping Request für Auto API");
+        LOG.info("auto.ping");
         return Response.ok("Auto API is running").build();
     }
 
     @GET
     @RolesAllowed({"ADMIN", "USER"})
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getAuto(@QueryParam("id") int id) {
-        LOGGER.info("GET Request für Auto ID: " + id);
+    public CompletionStage<Response> getAuto(@QueryParam("id") int id) {
+        int[] slots = VersionTracker.autoLesen(id);
+        String etag = versionen.etag(slots);
+        // Ob das Auto existiert, ist erst nach dem Lesen bekannt: hier zählen nur konkrete ETags
+        if (VersionTracker.passt(ifNoneMatch, etag, false)) {
+            return nichtGeaendert(etag);
+        }
+        return AsyncExecutor.submit(() -> {
+            LOG.info("auto.get", "id", id);
 
-        try {
-            Auto auto = db.readAutoById(id);
-            if (auto == null) {
-                LOGGER.log(Level.WARNING, "Auto mit ID " + id + " nicht gefunden");
-                return Response.status(Response.Status.NOT_FOUND)
-                        .entity("Auto nicht gefunden")
+            try {
+                Auto auto = autoRepository.readAutoById(id);
+                if (auto == null) {
+                    LOG.warnung("auto.not_found", "id", id);
+                    return Response.status(Response.Status.NOT_FOUND)
+                            .entity("Auto nicht gefunden")
+                            .build();
+                }
+                if (VersionTracker.passt(ifNoneMatch, etag, true)) {
+                    return nichtGeaendertAntwort(etag);
+                }
+                LOG.info("auto.get.ok", "id", id);
+                return mitEtag(Response.ok(auto), etag, slots).build();
+            } catch (SQLException e) {
+                LOG.fehler("auto.get.db_error", e, "id", id);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity("Datenbankfehler: " + e.getMessage())
                         .build();
             }
-            LOGGER.info("Auto mit ID " + id + " erfolgreich abgerufen");
-            return Response.ok(auto).build();
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Datenbankfehler beim Lesen von Auto " + id, e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity("Datenbankfehler: " + e.getMessage())
-                    .build();
-        }
+        });
     }
 
     @GET
     @Path("/all")
+    @Kosten(20)
     @RolesAllowed({"ADMIN", "USER"})
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getAllAutos() {
-        LOGGER.info("GET Request für alle Autos");
+    public CompletionStage<Response> getAllAutos(@QueryParam("after") Integer after,
+                                                 @QueryParam("limit") Integer limit,
+                                                 @QueryParam("stream") boolean stream) {
+        // Gestreamte Antworten bekommen keinen ETag, der Stand kann sich während des Schreibens ändern
+        String etag = stream ? null : versionen.etag(VersionTracker.AUTOS);
+        if (VersionTracker.passt(ifNoneMatch, etag, true)) {
+            return nichtGeaendert(etag);
+        }
+        return AsyncExecutor.submit(() -> {
+            if (stream) {
+                return streamAllAutos();
+            }
+            if (after != null || limit != null) {
+                return getAutoPage(after == null ? 0 : after, limit == null ? DEFAULT_PAGE_SIZE : limit, etag);
+            }
+
+            LOG.info("autos.all");
+
+            ResponseCache.Schluessel schluessel = new ResponseCache.Schluessel("/autos/all", "", MediaType.APPLICATION_JSON);
+            ResponseCache.Eintrag eintrag = responseCache.get(schluessel, etag);
+            if (eintrag != null) {
+                return responseCache.antwort(eintrag, acceptEncoding);
+            }
+
+            try {
+                List<Auto> autos = autoRepository.getAllAutos();
+                LOG.info("autos.ok", "count", autos.size());
+                return zwischenspeichern(schluessel, etag, autos, VersionTracker.AUTOS);
+            } catch (SQLException e) {
+                LOG.fehler("autos.all.db_error", e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity("Datenbankfehler: " + e.getMessage())
+                        .build();
+            }
+        });
+    }
+
+    // Alle Autos ohne Pagination und Streaming
+    public CompletionStage<Response> getAllAutos() {
+        return getAllAutos(null, null, false);
+    }
+
+    private Response getAutoPage(int after, int limit, String etag) {
+        LOG.info("autos.page", "after", after, "limit", limit);
+
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Fehler: limit muss zwischen 1 und " + MAX_PAGE_SIZE + " liegen")
+                    .build();
+        }
+
+        ResponseCache.Schluessel schluessel = new ResponseCache.Schluessel(
+                "/autos/all", "after=" + after + "&limit=" + limit, MediaType.APPLICATION_JSON);
+        ResponseCache.Eintrag eintrag = responseCache.get(schluessel, etag);
+        if (eintrag != null) {
+            return responseCache.antwort(eintrag, acceptEncoding);
+        }
 
         try {
-            List<Auto> autos = db.getAllAutos();
-            LOGGER.info(autos.size() + " Autos erfolgreich abgerufen");
-            return Response.ok(autos).build();
+            // Eine Zeile mehr lesen, um zu wissen ob es eine nächste Seite gibt
+            List<Auto> autos = autoRepository.getAutosAfter(after, limit + 1);
+            Integer nextCursor = null;
+            if (autos.size() > limit) {
+                autos = autos.subList(0, limit);
+                nextCursor = autos.get(limit - 1).getIdAutos();
+            }
+            LOG.info("autos.ok", "count", autos.size());
+            return zwischenspeichern(schluessel, etag, new AutoPage(autos, nextCursor, limit), VersionTracker.AUTOS);
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Datenbankfehler beim Abrufen aller Autos", e);
+            LOG.fehler("autos.page.db_error", e);
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity("Datenbankfehler: " + e.getMessage())
                     .build();
         }
     }
 
+    // Autos direkt vom Datenbank-Cursor in den Response-Stream schreiben, der Speicherbedarf bleibt konstant
+    private Response streamAllAutos() {
+        LOG.info("autos.stream");
+
+        // Ist die Datenbank ausgelastet, muss die 503 kommen, bevor der Stream den Status 200 gesendet hat
+        AutoRepository.AutoStream autos = autoRepository.oeffneStream(STREAM_FETCH_SIZE);
+        StreamingOutput body = out -> {
+            MessageBodyWriter<Auto> writer = providers.getMessageBodyWriter(
+                    Auto.class, Auto.class, NO_ANNOTATIONS, MediaType.APPLICATION_JSON_TYPE);
+            // Der JSON-Writer darf den Response-Stream nach einem Element weder schliessen noch flushen:
+            // ein Flush pro Zeile wäre ein Chunk (und Syscall) pro Auto
+            OutputStream element = new FilterOutputStream(out) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                }
+
+                @Override
+                public void flush() {
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+            MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+            int[] zeilen = {0};
+
+            out.write('[');
+            try {
+                autos.schreiben(auto -> {
+                    if (zeilen[0] > 0) {
+                        out.write(',');
+                    }
+                    writer.writeTo(auto, Auto.class, Auto.class, NO_ANNOTATIONS,
+                            MediaType.APPLICATION_JSON_TYPE, headers, element);
+                    // Der Client bekommt die Daten in Blöcken, ohne dass die ganze Antwort gepuffert wird
+                    if (++zeilen[0] % STREAM_FLUSH_ROWS == 0) {
+                        out.flush();
+                    }
+                });
+            } catch (SQLException e) {
+                // Status und Header sind bereits gesendet, die Antwort kann nur noch abgebrochen werden
+                LOG.fehler("autos.stream.db_error", e);
+                throw new IOException("Datenbankfehler beim Streamen", e);
+            }
+            out.write(']');
+            out.flush();
+        };
+        return Response.ok(body, MediaType.APPLICATION_JSON).build();
+    }
+
     @DELETE
     @RolesAllowed("ADMIN")
     @Produces(MediaType.TEXT_PLAIN)
-    public Response deleteAuto(@QueryParam("id") int id) {
-        LOGGER.info("DELETE Request für Auto ID: " + id);
+    public CompletionStage<Response> deleteAuto(@QueryParam("id") int id) {
+        return AsyncExecutor.submitSchreibend(() -> {
+            LOG.info("auto.delete", "id", id);
 
-        try {
-            int rowsDeleted = db.deleteAuto(id);
-            if (rowsDeleted > 0) {
-                LOGGER.info("Auto " + id + " erfolgreich gelöscht");
-                return Response.ok("Auto " + id + " erfolgreich gelöscht!").build();
-            } else {
-                LOGGER.log(Level.WARNING, "Auto mit ID " + id + " nicht gefunden");
-                return Response.status(Response.Status.NOT_FOUND)
-                        .entity("Auto nicht gefunden")
+            try {
+                int rowsDeleted;
+                try (VersionTracker.Schreibzugriff s = versionen.schreiben(VersionTracker.autoSchreiben(id))) {
+                    rowsDeleted = autoRepository.deleteAuto(id);
+                }
+                geaendert(id);
+                if (rowsDeleted > 0) {
+                    LOG.info("auto.delete.ok", "id", id);
+                    return Response.ok("Auto " + id + " erfolgreich gelöscht!").build();
+                } else {
+                    LOG.warnung("auto.not_found", "id", id);
+                    return Response.status(Response.Status.NOT_FOUND)
+                            .entity("Auto nicht gefunden")
+                            .build();
+                }
+            } catch (SQLException e) {
+                LOG.fehler("auto.delete.db_error", e, "id", id);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity("Datenbankfehler: " + e.getMessage())
                         .build();
             }
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Datenbankfehler beim Löschen von Auto " + id, e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity("Datenbankfehler: " + e.getMessage())
-                    .build();
-        }
+        });
     }
 
     @POST
     @RolesAllowed("ADMIN")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.TEXT_PLAIN)
-    public Response addAuto(Auto auto) {
-        LOGGER.info("POST Request zum Hinzufügen eines neuen Autos: " + auto.getModell());
+    public CompletionStage<Response> addAuto(Auto auto) {
+        return AsyncExecutor.submitSchreibend(() -> {
+            LOG.info("auto.add", "modell", auto.getModell());
 
-        try {
-            // Validierung: Prüfen ob Marke existiert
-            if (!db.markeExists(auto.getFsMarken())) {
-                LOGGER.log(Level.WARNING, "Marke mit ID " + auto.getFsMarken() + " existiert nicht");
+            // Validierung: Pflichtfelder, Baujahr, Gewicht und Leistung prüfen (ohne Datenbank)
+            String fehler = validateFelder(auto);
+            if (fehler != null) {
                 return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("Fehler: Marke mit ID " + auto.getFsMarken() + " existiert nicht")
+                        .entity(fehler)
                         .build();
             }
 
-            // Validierung: Pflichtfelder prüfen
-            if (auto.getModell() == null || auto.getModell().trim().isEmpty()) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("Fehler: Modell darf nicht leer sein")
+            try {
+                // Einfügen und Prüfung der Marke in einer Anweisung
+                WriteResult result;
+                try (VersionTracker.Schreibzugriff s = versionen.schreiben(VersionTracker.AUTOS)) {
+                    result = autoRepository.addAuto(auto);
+                }
+                if (result == WriteResult.OK) {
+                    geaendert(auto.getIdAutos());
+                }
+                if (result == WriteResult.MARKE_NICHT_GEFUNDEN) {
+                    LOG.warnung("marke.not_found", "marke", auto.getFsMarken());
+                    return Response.status(Response.Status.BAD_REQUEST)
+                            .entity("Fehler: Marke mit ID " + auto.getFsMarken() + " existiert nicht")
+                            .build();
+                }
+                LOG.info("auto.add.ok", "id", auto.getIdAutos(), "modell", auto.getModell());
+                return Response.status(Response.Status.CREATED)
+                        .entity("Neues Auto " + auto.getModell() + " erfolgreich hinzugefügt")
                         .build();
-            }
-
-            // Validierung 1: Baujahr darf nicht in der Zukunft liegen (DATE)
-            if (auto.getBaujahr().isAfter(LocalDate.now())) {
-                LOGGER.log(Level.WARNING, "Baujahr liegt in der Zukunft: " + auto.getBaujahr());
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("Fehler: Baujahr darf nicht in der Zukunft liegen")
+            } catch (SQLException e) {
+                LOG.fehler("auto.add.db_error", e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity("Datenbankfehler: " + e.getMessage())
                         .build();
             }
+        });
+    }
+
+    @POST
+    @Path("/batch")
+    @Kosten(10)
+    @RolesAllowed("ADMIN")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public CompletionStage<Response> addAutos(List<Auto> autos) {
+        return AsyncExecutor.submitSchreibend(() -> {
+            int anzahl = autos == null ? 0 : autos.size();
+            LOG.info("autos.batch", "count", anzahl);
 
-            // Validierung 2: Gewicht muss größer als 0 sein (DECIMAL)
-            if (auto.getGewicht() <= 0) {
-                LOGGER.log(Level.WARNING, "Ungültiges Gewicht: " + auto.getGewicht());
+            if (anzahl == 0) {
                 return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("Fehler: Gewicht muss größer als 0 sein")
+                        .entity("Fehler: Die Liste der Autos darf nicht leer sein")
                         .build();
             }
-
-            // Validierung 3: Leistung muss größer als 0 sein (INTEGER)
-            if (auto.getLeistung() <= 0) {
-                LOGGER.log(Level.WARNING, "Ungültige Leistung: " + auto.getLeistung());
+            if (anzahl > MAX_BATCH_SIZE) {
                 return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("Fehler: Leistung muss größer als 0 sein (PS)")
+                        .entity("Fehler: Maximal " + MAX_BATCH_SIZE + " Autos pro Batch")
                         .build();
             }
 
-            int rowsInserted = db.addAuto(auto);
-            if (rowsInserted > 0) {
-                LOGGER.info("Neues Auto erfolgreich hinzugefügt: " + auto.getModell());
+            try {
+                // Alle Marken des Batches mit einer Abfrage prüfen
+                Set<Integer> markenIds = new HashSet<>();
+                for (Auto auto : autos) {
+                    if (auto != null) {
+                        markenIds.add(auto.getFsMarken());
+                    }
+                }
+                Set<Integer> vorhandeneMarken = markeRepository.existingMarkenIds(markenIds);
+
+                // Validierung aller Einträge in einem Durchgang, gleiche Regeln wie bei POST /autos
+                List<BatchItemResult> ergebnisse = new ArrayList<>(anzahl);
+                boolean gueltig = true;
+                for (int i = 0; i < anzahl; i++) {
+                    Auto auto = autos.get(i);
+                    String fehler;
+                    if (auto == null) {
+                        fehler = "Fehler: Eintrag ist leer";
+                    } else if (!vorhandeneMarken.contains(auto.getFsMarken())) {
+                        fehler = "Fehler: Marke mit ID " + auto.getFsMarken() + " existiert nicht";
+                    } else {
+                        fehler = validateFelder(auto);
+                    }
+                    gueltig &= fehler == null;
+                    ergebnisse.add(new BatchItemResult(i, fehler == null ? 0 : Response.Status.BAD_REQUEST.getStatusCode(), null, fehler));
+                }
+
+                // Alles oder nichts: bei einem ungültigen Eintrag wird kein Auto eingefügt
+                if (!gueltig) {
+                    for (BatchItemResult ergebnis : ergebnisse) {
+                        if (ergebnis.getStatus() == 0) {
+                            ergebnis.setStatus(STATUS_FAILED_DEPENDENCY);
+                            ergebnis.setMessage("Nicht eingefügt, der Batch enthält ungültige Einträge");
+                        }
+                    }
+                    LOG.warnung("autos.batch.invalid");
+                    return Response.status(Response.Status.BAD_REQUEST)
+                            .entity(new BatchResult(0, ergebnisse))
+                            .build();
+                }
+
+                int[] ids;
+                try (VersionTracker.Schreibzugriff s = versionen.schreiben(VersionTracker.AUTOS)) {
+                    ids = autoRepository.addAutos(autos);
+                }
+                geaendert(ids);
+                for (int i = 0; i < anzahl; i++) {
+                    BatchItemResult ergebnis = ergebnisse.get(i);
+                    ergebnis.setStatus(Response.Status.CREATED.getStatusCode());
+                    ergebnis.setIdAutos(ids[i] > 0 ? ids[i] : null);
+                    ergebnis.setMessage("Neues Auto " + autos.get(i).getModell() + " erfolgreich hinzugefügt");
+                }
+                LOG.info("autos.batch.ok", "count", anzahl);
                 return Response.status(Response.Status.CREATED)
-                        .entity("Neues Auto " + auto.getModell() + " erfolgreich hinzugefügt")
+                        .entity(new BatchResult(anzahl, ergebnisse))
                         .build();
-            } else {
-                LOGGER.log(Level.WARNING, "Auto konnte nicht hinzugefügt werden");
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("Auto konnte nicht hinzugefügt werden")
+            } catch (SQLException e) {
+                LOG.fehler("autos.batch.db_error", e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity("Datenbankfehler: " + e.getMessage())
                         .build();
             }
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Datenbankfehler beim Hinzufügen eines Autos", e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity("Datenbankfehler: " + e.getMessage())
-                    .build();
+        });
+    }
+
+    // Validierung der Felder eines Autos, liefert die Fehlermeldung oder null wenn alles gültig ist
+    String validateFelder(Auto auto) {
+        // Validierung: Pflichtfelder prüfen
+        if (auto.getModell() == null || auto.getModell().trim().isEmpty()) {
+            return "Fehler: Modell darf nicht leer sein";
         }
+
+        // Validierung 1: Baujahr darf nicht in der Zukunft liegen (DATE)
+        if (auto.getBaujahr().isAfter(LocalDate.now())) {
+            LOG.warnung("auto.invalid", "field", "baujahr", "value", auto.getBaujahr());
+            return "Fehler: Baujahr darf nicht in der Zukunft liegen";
+        }
+
+        // Validierung 2: Gewicht muss größer als 0 sein (DECIMAL)
+        if (auto.getGewicht() <= 0) {
+            LOG.warnung("auto.invalid", "field", "gewicht", "value", auto.getGewicht());
+            return "Fehler: Gewicht muss größer als 0 sein";
+        }
+
+        // Validierung 3: Leistung muss größer als 0 sein (INTEGER)
+        if (auto.getLeistung() <= 0) {
+            LOG.warnung("auto.invalid", "field", "leistung", "value", auto.getLeistung());
+            return "Fehler: Leistung muss größer als 0 sein (PS)";
+        }
+        return null;
     }
 
     @GET
     @Path("/baujahr")
     @RolesAllowed({"ADMIN", "USER"})
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getAutosByBaujahr(@QueryParam("jahr") int jahr) {
-        LOGGER.info("GET Request für Autos mit Baujahr: " + jahr);
+    public CompletionStage<Response> getAutosByBaujahr(@QueryParam("jahr") Integer jahr,
+                                                       @QueryParam("von") Integer von,
+                                                       @QueryParam("bis") Integer bis) {
+        return AsyncExecutor.submit(() -> {
+            // Entweder ein einzelnes Jahr oder ein Bereich von/bis (beide inklusive)
+            int vonJahr = von != null ? von : (jahr != null ? jahr : 0);
+            int bisJahr = bis != null ? bis : vonJahr;
+            LOG.info("autos.baujahr", "von", vonJahr, "bis", bisJahr);
 
-        try {
-            List<Auto> autos = db.getAutosByJahr(jahr);
-            LOGGER.info(autos.size() + " Autos mit Baujahr " + jahr + " gefunden");
-            return Response.ok(autos).build();
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Fehler beim Abrufen von Autos nach Baujahr", e);
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity("Fehler: Bitte gültiges Jahr angeben (z.B. 2020). " + e.getMessage())
-                    .build();
-        }
+            // Validierung: Jahre müssen gültig sein
+            if (vonJahr < MIN_JAHR || bisJahr < MIN_JAHR || bisJahr > MAX_JAHR) {
+                LOG.warnung("autos.baujahr.invalid", "von", vonJahr, "bis", bisJahr);
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("Fehler: Bitte gültiges Jahr angeben (z.B. 2020).")
+                        .build();
+            }
+            if (vonJahr > bisJahr) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("Fehler: von darf nicht grösser als bis sein")
+                        .build();
+            }
+
+            try {
+                // Aus dem Jahres-Index, aufsteigend nach Jahr und ID
+                List<Auto> autos = index.findByJahre(vonJahr, bisJahr);
+                LOG.info("autos.baujahr.ok", "von", vonJahr, "bis", bisJahr, "count", autos.size());
+                return Response.ok(autos).build();
+            } catch (WebApplicationException e) {
+                return e.getResponse();
+            } catch (Exception e) {
+                LOG.fehler("autos.baujahr.error", e);
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("Fehler: Bitte gültiges Jahr angeben (z.B. 2020). " + e.getMessage())
+                        .build();
+            }
+        });
+    }
+
+    // Autos eines einzelnen Baujahres
+    public CompletionStage<Response> getAutosByBaujahr(int jahr) {
+        return getAutosByBaujahr(jahr, null, null);
     }
 
     @GET
-    @Path("/count")
+    @Path("/stats")
+    @Kosten(5)
     @RolesAllowed({"ADMIN", "USER"})
     @Produces(MediaType.APPLICATION_JSON)
-    public Response countAutos() {
-        LOGGER.info("GET Request für Anzahl aller Autos");
+    public CompletionStage<Response> getStats(@QueryParam("gruppe") @DefaultValue("marke") String gruppe) {
+        return AsyncExecutor.submit(() -> {
+            LOG.info("autos.stats", "gruppe", gruppe);
 
-        try {
-            int count = db.countAutos();
-            LOGGER.info("Anzahl der Autos: " + count);
-            return Response.ok("{\"count\": " + count + "}").build();
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Datenbankfehler beim Zählen der Autos", e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity("Datenbankfehler: " + e.getMessage())
-                    .build();
-        }
+            AutoStatistik.Gruppierung gruppierung;
+            try {
+                gruppierung = AutoStatistik.Gruppierung.valueOf(gruppe.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("Fehler: gruppe muss marke, jahr oder antrieb sein")
+                        .build();
+            }
+
+            try {
+                return Response.ok(statistik.stats(gruppierung)).build();
+            } catch (SQLException e) {
+                LOG.fehler("autos.stats.db_error", e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity("Datenbankfehler: " + e.getMessage())
+                        .build();
+            }
+        });
     }
 
-    @PUT
-    @RolesAllowed("ADMIN")
-    @Consumes(MediaType.APPLICATION_JSON)
-    @Produces(MediaType.TEXT_PLAIN)
-    public Response updateAuto(Auto auto) {
-        LOGGER.info("PUT Request zum Aktualisieren von Auto ID: " + auto.getIdAutos());
+    @GET
+    @Path("/marke")
+    @RolesAllowed({"ADMIN", "USER"})
+    @Produces(MediaType.APPLICATION_JSON)
+    public CompletionStage<Response> getAutosByMarke(@QueryParam("id") int markeId) {
+        return AsyncExecutor.submit(() -> {
+            LOG.info("autos.marke", "marke", markeId);
 
-        try {
-            // Validierung: Prüfen ob Auto existiert
-            if (!db.autoExists(auto.getIdAutos())) {
-                LOGGER.log(Level.WARNING, "Auto mit ID " + auto.getIdAutos() + " existiert nicht");
-                return Response.status(Response.Status.NOT_FOUND)
-                        .entity("Fehler: Auto mit ID " + auto.getIdAutos() + " existiert nicht")
+            try {
+                if (!markeRepository.markeExists(markeId)) {
+                    LOG.warnung("marke.not_found", "marke", markeId);
+                    return Response.status(Response.Status.NOT_FOUND)
+                            .entity("Marke nicht gefunden")
+                            .build();
+                }
+                // Aus dem Index, ohne Datenbankabfrage
+                List<Auto> autos = index.findByMarke(markeId);
+                LOG.info("autos.marke.ok", "marke", markeId, "count", autos.size());
+                return Response.ok(autos).build();
+            } catch (SQLException e) {
+                LOG.fehler("autos.marke.db_error", e, "marke", markeId);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity("Datenbankfehler: " + e.getMessage())
                         .build();
             }
+        });
+    }
+
+    @GET
+    @Path("/leistung")
+    @RolesAllowed({"ADMIN", "USER"})
+    @Produces(MediaType.APPLICATION_JSON)
+    public CompletionStage<Response> getAutosByLeistung(@QueryParam("min") @DefaultValue("0") int min,
+                                                        @QueryParam("max") @DefaultValue("2147483647") int max) {
+        return AsyncExecutor.submit(() -> {
+            LOG.info("autos.leistung", "min", min, "max", max);
 
-            // Validierung: Prüfen ob Marke existiert
-            if (!db.markeExists(auto.getFsMarken())) {
-                LOGGER.log(Level.WARNING, "Marke mit ID " + auto.getFsMarken() + " existiert nicht");
+            if (min < 0 || max < 0) {
                 return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("Fehler: Marke mit ID " + auto.getFsMarken() + " existiert nicht")
+                        .entity("Fehler: Leistung darf nicht negativ sein")
                         .build();
             }
-
-            // Validierung: Pflichtfelder prüfen
-            if (auto.getModell() == null || auto.getModell().trim().isEmpty()) {
+            if (min > max) {
                 return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("Fehler: Modell darf nicht leer sein")
+                        .entity("Fehler: min darf nicht grösser als max sein")
                         .build();
             }
 
-            // Validierung 1: Baujahr darf nicht in der Zukunft liegen (DATE)
-            if (auto.getBaujahr().isAfter(LocalDate.now())) {
-                LOGGER.log(Level.WARNING, "Baujahr liegt in der Zukunft: " + auto.getBaujahr());
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("Fehler: Baujahr darf nicht in der Zukunft liegen")
+            try {
+                // Bereichsabfrage auf dem nach Leistung sortierten Index
+                List<Auto> autos = index.findByLeistung(min, max);
+                LOG.info("autos.leistung.ok", "min", min, "max", max, "count", autos.size());
+                return Response.ok(autos).build();
+            } catch (SQLException e) {
+                LOG.fehler("autos.leistung.db_error", e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity("Datenbankfehler: " + e.getMessage())
                         .build();
             }
+        });
+    }
 
-            // Validierung 2: Gewicht muss größer als 0 sein (DECIMAL)
-            if (auto.getGewicht() <= 0) {
-                LOGGER.log(Level.WARNING, "Ungültiges Gewicht: " + auto.getGewicht());
+    @GET
+    @Path("/search")
+    @Kosten(3)
+    @RolesAllowed({"ADMIN", "USER"})
+    @Produces(MediaType.APPLICATION_JSON)
+    public CompletionStage<Response> searchAutos(@QueryParam("minLeistung") Integer minLeistung,
+                                                 @QueryParam("maxLeistung") Integer maxLeistung,
+                                                 @QueryParam("minGewicht") Double minGewicht,
+                                                 @QueryParam("maxGewicht") Double maxGewicht,
+                                                 @QueryParam("von") Integer von,
+                                                 @QueryParam("bis") Integer bis,
+                                                 @QueryParam("verbrenner") Boolean verbrenner,
+                                                 @QueryParam("produktion") Boolean produktion,
+                                                 @QueryParam("marke") Integer marke,
+                                                 @QueryParam("modell") String modell,
+                                                 @QueryParam("sort") @DefaultValue("id") String sort,
+                                                 @QueryParam("desc") boolean desc,
+                                                 @QueryParam("limit") Integer limit) {
+        return AsyncExecutor.submit(() -> {
+            LOG.info("autos.search");
+
+            // Validierung: Bereiche, Jahre, Sortierung und Limit (ohne Datenbank)
+            if ((minLeistung != null && maxLeistung != null && minLeistung > maxLeistung)
+                    || (minGewicht != null && maxGewicht != null && minGewicht > maxGewicht)
+                    || (von != null && bis != null && von > bis)) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("Fehler: min/von darf nicht grösser als max/bis sein")
+                        .build();
+            }
+            if ((von != null && (von < MIN_JAHR || von > MAX_JAHR)) || (bis != null && (bis < MIN_JAHR || bis > MAX_JAHR))) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("Fehler: Bitte gültiges Jahr angeben (z.B. 2020).")
+                        .build();
+            }
+            AutoSuche.Sortierung sortierung;
+            try {
+                sortierung = AutoSuche.Sortierung.valueOf(sort.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
                 return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("Fehler: Gewicht muss größer als 0 sein")
+                        .entity("Fehler: sort muss id, leistung, gewicht, baujahr oder modell sein")
                         .build();
             }
+            int anzahl = limit == null ? DEFAULT_PAGE_SIZE : limit;
+            if (anzahl < 1 || anzahl > MAX_PAGE_SIZE) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("Fehler: limit muss zwischen 1 und " + MAX_PAGE_SIZE + " liegen")
+                        .build();
+            }
+
+            try {
+                AutoSuche suche = new AutoSuche(minLeistung, maxLeistung, minGewicht, maxGewicht, von, bis,
+                        verbrenner, produktion, marke, modell, sortierung, desc, anzahl);
+                List<Auto> autos = autoRepository.searchAutos(suche);
+                LOG.info("autos.search.ok", "count", autos.size());
+                return Response.ok(autos).build();
+            } catch (SQLException e) {
+                LOG.fehler("autos.search.db_error", e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity("Datenbankfehler: " + e.getMessage())
+                        .build();
+            }
+        });
+    }
+
+    @GET
+    @Path("/autocomplete")
+    @RolesAllowed({"ADMIN", "USER"})
+    @Produces(MediaType.APPLICATION_JSON)
+    public CompletionStage<Response> autocomplete(@QueryParam("q") String q,
+                                                  @QueryParam("limit") @DefaultValue("10") int limit) {
+        return AsyncExecutor.submit(() -> {
+            LOG.fein("autos.suggest", "q", q);
 
-            // Validierung 3: Leistung muss größer als 0 sein (INTEGER)
-            if (auto.getLeistung() <= 0) {
-                LOGGER.log(Level.WARNING, "Ungültige Leistung: " + auto.getLeistung());
+            if (q == null || q.isBlank()) {
                 return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("Fehler: Leistung muss größer als 0 sein (PS)")
+                        .entity("Fehler: q darf nicht leer sein")
                         .build();
             }
+            if (limit < 1 || limit > MAX_VORSCHLAEGE) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("Fehler: limit muss zwischen 1 und " + MAX_VORSCHLAEGE + " liegen")
+                        .build();
+            }
+
+            try {
+                // Modelle und Marken aus dem Index im Speicher
+                return Response.ok(autocomplete.vorschlaege(q, limit)).build();
+            } catch (SQLException e) {
+                LOG.fehler("autos.suggest.db_error", e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity("Datenbankfehler: " + e.getMessage())
+                        .build();
+            }
+        });
+    }
+
+    @GET
+    @Path("/count")
+    @KeineKompression
+    @RolesAllowed({"ADMIN", "USER"})
+    @Produces(MediaType.APPLICATION_JSON)
+    public CompletionStage<Response> countAutos() {
+        return AsyncExecutor.submit(() -> {
+            LOG.info("autos.count");
+
+            try {
+                long count = autoRepository.countAutos();
+                LOG.fein("autos.count.ok", "count", count);
+                return Response.ok(countJson(count)).build();
+            } catch (SQLException e) {
+                LOG.fehler("autos.count.db_error", e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity("Datenbankfehler: " + e.getMessage())
+                        .build();
+            }
+        });
+    }
 
-            int rowsUpdated = db.updateAuto(auto);
-            if (rowsUpdated > 0) {
-                LOGGER.info("Auto " + auto.getIdAutos() + " erfolgreich aktualisiert");
+    @PUT
+    @RolesAllowed("ADMIN")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.TEXT_PLAIN)
+    public CompletionStage<Response> updateAuto(Auto auto) {
+        return AsyncExecutor.submitSchreibend(() -> {
+            LOG.info("auto.update", "id", auto.getIdAutos());
+
+            try {
+                // Validierung: Pflichtfelder, Baujahr, Gewicht und Leistung prüfen (ohne Datenbank)
+                String fehler = validateFelder(auto);
+                if (fehler != null) {
+                    // Ein fehlendes Auto hat Vorrang (404), nur in diesem Fehlerfall wird nachgesehen
+                    if (!autoRepository.autoExists(auto.getIdAutos())) {
+                        return autoNichtGefunden(auto);
+                    }
+                    return Response.status(Response.Status.BAD_REQUEST)
+                            .entity(fehler)
+                            .build();
+                }
+
+                // Aktualisierung und Prüfung von Auto und Marke in einer Anweisung
+                WriteResult result;
+                try (VersionTracker.Schreibzugriff s = versionen.schreiben(VersionTracker.autoSchreiben(auto.getIdAutos()))) {
+                    result = autoRepository.updateAuto(auto);
+                }
+                if (result == WriteResult.OK) {
+                    geaendert(auto.getIdAutos());
+                }
+                if (result == WriteResult.AUTO_NICHT_GEFUNDEN) {
+                    return autoNichtGefunden(auto);
+                }
+                if (result == WriteResult.MARKE_NICHT_GEFUNDEN) {
+                    LOG.warnung("marke.not_found", "marke", auto.getFsMarken());
+                    return Response.status(Response.Status.BAD_REQUEST)
+                            .entity("Fehler: Marke mit ID " + auto.getFsMarken() + " existiert nicht")
+                            .build();
+                }
+                LOG.info("auto.update.ok", "id", auto.getIdAutos());
                 return Response.ok("Auto " + auto.getIdAutos() + " erfolgreich aktualisiert").build();
-            } else {
-                LOGGER.log(Level.WARNING, "Auto mit ID " + auto.getIdAutos() + " nicht gefunden");
-                return Response.status(Response.Status.NOT_FOUND)
-                        .entity("Auto nicht gefunden")
+            } catch (SQLException e) {
+                LOG.fehler("auto.update.db_error", e, "id", auto.getIdAutos());
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity("Datenbankfehler: " + e.getMessage())
                         .build();
             }
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Datenbankfehler beim Aktualisieren von Auto " + auto.getIdAutos(), e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity("Datenbankfehler: " + e.getMessage())
-                    .build();
+        });
+    }
+
+    // JSON für /count; wird nur neu aufgebaut, wenn sich die Anzahl geändert hat
+    private static String countJson(long count) {
+        CountJson cached = countJson;
+        if (cached.count() != count) {
+            String json = new StringBuilder(32).append("{\"count\": ").append(count).append('}').toString();
+            cached = new CountJson(count, json);
+            countJson = cached;
+        }
+        return cached.json();
+    }
+
+    // Der Client hat den aktuellen Stand schon: 304 ohne Datenbank und Serializer, ohne den Executor zu bemühen
+    static CompletionStage<Response> nichtGeaendert(String etag) {
+        return CompletableFuture.completedFuture(nichtGeaendertAntwort(etag));
+    }
+
+    static Response nichtGeaendertAntwort(String etag) {
+        return Response.notModified(new EntityTag(etag)).build();
+    }
+
+    // ETag nur setzen, wenn sich der Stand während des Lesens nicht geändert hat
+    private Response.ResponseBuilder mitEtag(Response.ResponseBuilder builder, String etag, int... slots) {
+        if (etag != null && etag.equals(versionen.etag(slots))) {
+            builder.tag(new EntityTag(etag));
+        }
+        return builder;
+    }
+
+    // Serialisiert ablegen, wenn der Stand während des Lesens gleich blieb; sonst normal über den Container
+    private Response zwischenspeichern(ResponseCache.Schluessel schluessel, String etag, Object entity, int... slots) {
+        if (providers == null || etag == null || !etag.equals(versionen.etag(slots))) {
+            return mitEtag(Response.ok(entity), etag, slots).build();
+        }
+        try {
+            return responseCache.antwort(responseCache.speichern(schluessel, etag, entity, providers), acceptEncoding);
+        } catch (IOException e) {
+            LOG.warnung("response_cache.error", e, "path", schluessel.pfad());
+            return mitEtag(Response.ok(entity), etag, slots).build();
         }
     }
 
+    // Nach einem Schreibzugriff: Statistik veralten lassen und die betroffenen Autos im Index nachführen
+    private void geaendert(int... ids) {
+        statistik.invalidate();
+        index.refresh(ids);
+    }
+
+    private Response autoNichtGefunden(Auto auto) {
+        LOG.warnung("auto.not_found", "id", auto.getIdAutos());
+        return Response.status(Response.Status.NOT_FOUND)
+                .entity("Fehler: Auto mit ID " + auto.getIdAutos() + " existiert nicht")
+                .build();
+    }
+
     @DELETE
     @Path("/all")
+    @Kosten(50)
     @RolesAllowed("ADMIN")
     @Produces(MediaType.TEXT_PLAIN)
-    public Response deleteAllAutos() {
-        LOGGER.warning("DELETE Request zum Löschen ALLER Autos");
+    public CompletionStage<Response> deleteAllAutos() {
+        return AsyncExecutor.submitSchreibend(() -> {
+            LOG.warnung("autos.delete_all");
 
-        try {
-            int rowsDeleted = db.deleteAllAutos();
-            LOGGER.info(rowsDeleted + " Autos wurden gelöscht");
-            return Response.ok(rowsDeleted + " Autos erfolgreich gelöscht").build();
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Datenbankfehler beim Löschen aller Autos", e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity("Datenbankfehler: " + e.getMessage())
-                    .build();
-        }
+            try {
+                int rowsDeleted;
+                try (VersionTracker.Schreibzugriff s = versionen.schreiben(VersionTracker.AUTOS, VersionTracker.ALLE_AUTOS)) {
+                    rowsDeleted = autoRepository.deleteAllAutos();
+                }
+                statistik.invalidate();
+                index.reload();
+                LOG.info("autos.delete_all.ok", "count", rowsDeleted);
+                return Response.ok(rowsDeleted + " Autos erfolgreich gelöscht").build();
+            } catch (SQLException e) {
+                LOG.fehler("autos.delete_all.db_error", e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity("Datenbankfehler: " + e.getMessage())
+                        .build();
+            }
+        });
     }
 }
@@ -0,0 +1,329 @@
+package org.example.projekt.services;
+
+import org.example.projekt.logging.Protokoll;
+import org.example.projekt.modules.Auto;
+import org.example.projekt.modules.AutoStats;
+import org.example.projekt.modules.Kennzahlen;
+import org.example.projekt.modules.Marke;
+import org.example.projekt.modules.StatsGruppe;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+// Statistiken über alle Autos aus einem spaltenweisen Schnappschuss (int[]/double[]/BitSet statt Auto-Objekten).
+// Schreibzugriffe rufen invalidate() auf; der nächste Aufruf baut den Schnappschuss im Hintergrund neu
+// und liefert bis dahin den bisherigen (das Feld "stand" zeigt dessen Zeitpunkt). Den allerersten Schnappschuss
+// baut nur ein Request auf, gleichzeitige warten auf ihn.
+// Alle Gruppierungen werden beim Aufbau parallel über den Common-Fork-Join-Pool ausgewertet,
+// ein Request liest danach nur noch das fertige Ergebnis des Schnappschusses.
+public class AutoStatistik {
+    private static final Protokoll LOG = Protokoll.fuer(AutoStatistik.class);
+    private static final int FETCH_SIZE = 5_000;
+    // Ab dieser Gruppengrösse wird auch innerhalb der Gruppe parallel sortiert
+    private static final int PARALLEL_SORT_AB = 100_000;
+    // Ganzzahlige Werte mit kleinerem Wertebereich werden gezählt statt sortiert
+    private static final int MAX_HISTOGRAMM = 1 << 16;
+
+    public enum Gruppierung {
+        MARKE, JAHR, ANTRIEB
+    }
+
+    // Eine Spalte pro Attribut, Zeile i ist in allen Spalten dasselbe Auto
+    static final class Schnappschuss {
+        final int size;
+        final int[] markeIds;
+        final int[] jahre;
+        final int[] leistung;
+        final double[] gewicht;
+        final BitSet verbrenner;
+        final Map<Integer, String> markenNamen;
+        final long generation;
+        final Instant stand;
+        final Map<Gruppierung, AutoStats> ergebnisse = new ConcurrentHashMap<>();
+
+        Schnappschuss(int size, int[] markeIds, int[] jahre, int[] leistung, double[] gewicht, BitSet verbrenner,
+                      Map<Integer, String> markenNamen, long generation) {
+            this.size = size;
+            this.markeIds = markeIds;
+            this.jahre = jahre;
+            this.leistung = leistung;
+            this.gewicht = gewicht;
+            this.verbrenner = verbrenner;
+            this.markenNamen = markenNamen;
+            this.generation = generation;
+            this.stand = Instant.now();
+        }
+    }
+
+    private final AutoRepository autoRepository;
+    private final MarkeRepository markeRepository;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicBoolean neuAufbau = new AtomicBoolean();
+    private final ReentrantLock ersterAufbau = new ReentrantLock();
+    private volatile Schnappschuss schnappschuss;
+
+    public AutoStatistik(AutoRepository autoRepository, MarkeRepository markeRepository) {
+        this.autoRepository = autoRepository;
+        this.markeRepository = markeRepository;
+    }
+
+    // Nach jedem Schreibzugriff auf autos aufrufen
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    public AutoStats stats(Gruppierung gruppierung) throws SQLException {
+        Schnappschuss aktuell = schnappschuss;
+        if (aktuell == null) {
+            // Erster Aufruf: ohne Schnappschuss gibt es nichts Älteres zu liefern
+            aktuell = ersterSchnappschuss();
+        } else if (aktuell.generation != generation.get()) {
+            neuAufbauStarten();
+        }
+        Schnappschuss s = aktuell;
+        return s.ergebnisse.computeIfAbsent(gruppierung, g -> auswerten(s, g));
+    }
+
+    private Schnappschuss ersterSchnappschuss() throws SQLException {
+        ersterAufbau.lock();
+        try {
+            // Wer auf das Lock gewartet hat, findet den Schnappschuss des Vorgängers
+            Schnappschuss aktuell = schnappschuss;
+            return aktuell != null ? aktuell : aufbauen();
+        } finally {
+            ersterAufbau.unlock();
+        }
+    }
+
+    // Schnappschuss synchron aufbauen und übernehmen (falls kein neuerer existiert)
+    Schnappschuss aufbauen() throws SQLException {
+        long gen = generation.get();
+        Map<Integer, String> namen = new ConcurrentHashMap<>();
+        for (Marke marke : markeRepository.getAllMarken()) {
+            namen.put(marke.getIdMarke(), marke.getName());
+        }
+
+        Spalten spalten = new Spalten();
+        try {
+            autoRepository.streamAllAutos(FETCH_SIZE, spalten::add);
+        } catch (IOException e) {
+            // Der Consumer schreibt nur in Arrays und wirft keine IOException
+            throw new IllegalStateException(e);
+        }
+        Schnappschuss neu = spalten.schnappschuss(namen, gen);
+        Arrays.stream(Gruppierung.values()).parallel()
+                .forEach(g -> neu.ergebnisse.put(g, auswerten(neu, g)));
+        Schnappschuss alt = schnappschuss;
+        if (alt == null || alt.generation <= gen) {
+            schnappschuss = neu;
+        }
+        return neu;
+    }
+
+    private void neuAufbauStarten() {
+        if (!neuAufbau.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual().name("auto-statistik").start(() -> {
+            try {
+                long start = System.nanoTime();
+                Schnappschuss neu = aufbauen();
+                LOG.fein("statistik.aufgebaut", "autos", neu.size, "ms", (System.nanoTime() - start) / 1_000_000);
+            } catch (SQLException | RuntimeException e) {
+                LOG.warnung("statistik.fehler", e);
+            } finally {
+                neuAufbau.set(false);
+            }
+        });
+    }
+
+    // ==================== Auswertung ====================
+
+    private static AutoStats auswerten(Schnappschuss s, Gruppierung gruppierung) {
+        int[] schluessel = schluessel(s, gruppierung);
+
+        // Zeilen nach Gruppe ordnen (Counting Sort über die Gruppenindizes), eine Gruppe = ein zusammenhängender Bereich
+        IntHashMap<int[]> gruppenIndex = new IntHashMap<>();
+        List<Integer> gruppenSchluessel = new ArrayList<>();
+        int[] gruppeProZeile = new int[s.size];
+        for (int i = 0; i < s.size; i++) {
+            int[] g = gruppenIndex.get(schluessel[i]);
+            if (g == null) {
+                g = new int[]{gruppenSchluessel.size(), 0};
+                gruppenIndex.put(schluessel[i], g);
+                gruppenSchluessel.add(schluessel[i]);
+            }
+            g[1]++;
+            gruppeProZeile[i] = g[0];
+        }
+        int anzahlGruppen = gruppenSchluessel.size();
+        int[] start = new int[anzahlGruppen + 1];
+        for (int key : gruppenSchluessel) {
+            int[] g = gruppenIndex.get(key);
+            start[g[0] + 1] = g[1];
+        }
+        for (int g = 0; g < anzahlGruppen; g++) {
+            start[g + 1] += start[g];
+        }
+        int[] zeilen = new int[s.size];
+        int[] position = Arrays.copyOf(start, anzahlGruppen);
+        for (int i = 0; i < s.size; i++) {
+            zeilen[position[gruppeProZeile[i]]++] = i;
+        }
+
+        // Gruppen parallel auswerten
+        StatsGruppe[] gruppen = new StatsGruppe[anzahlGruppen];
+        IntStream.range(0, anzahlGruppen).parallel().forEach(g -> {
+            int von = start[g];
+            int bis = start[g + 1];
+            int[] leistung = new int[bis - von];
+            double[] gewicht = new double[bis - von];
+            for (int j = von; j < bis; j++) {
+                leistung[j - von] = s.leistung[zeilen[j]];
+                gewicht[j - von] = s.gewicht[zeilen[j]];
+            }
+            gruppen[g] = new StatsGruppe(name(s, gruppierung, gruppenSchluessel.get(g)), bis - von,
+                    kennzahlen(leistung), kennzahlen(gewicht));
+        });
+
+        List<StatsGruppe> liste = new ArrayList<>(Arrays.asList(gruppen));
+        if (gruppierung == Gruppierung.JAHR) {
+            liste.sort((a, b) -> a.getSchluessel().compareTo(b.getSchluessel()));
+        } else {
+            liste.sort((a, b) -> Integer.compare(b.getAnzahl(), a.getAnzahl()));
+        }
+        return new AutoStats(gruppierung.name().toLowerCase(Locale.ROOT), s.size, s.stand.toString(), liste);
+    }
+
+    private static int[] schluessel(Schnappschuss s, Gruppierung gruppierung) {
+        return switch (gruppierung) {
+            case MARKE -> s.markeIds;
+            case JAHR -> s.jahre;
+            case ANTRIEB -> {
+                int[] antrieb = new int[s.size];
+                for (int i = s.verbrenner.nextSetBit(0); i >= 0 && i < s.size; i = s.verbrenner.nextSetBit(i + 1)) {
+                    antrieb[i] = 1;
+                }
+                yield antrieb;
+            }
+        };
+    }
+
+    private static String name(Schnappschuss s, Gruppierung gruppierung, int schluessel) {
+        return switch (gruppierung) {
+            case MARKE -> s.markenNamen.getOrDefault(schluessel, "Marke " + schluessel);
+            // Vierstellig, damit die Jahre als Text richtig sortiert werden
+            case JAHR -> String.format("%04d", schluessel);
+            case ANTRIEB -> schluessel == 1 ? "Verbrenner" : "Elektro";
+        };
+    }
+
+    private static Kennzahlen kennzahlen(int[] werte) {
+        int n = werte.length;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        long summe = 0;
+        for (int wert : werte) {
+            min = Math.min(min, wert);
+            max = Math.max(max, wert);
+            summe += wert;
+        }
+        if ((long) max - min >= MAX_HISTOGRAMM) {
+            sortieren(werte);
+            return new Kennzahlen(min, max, (double) summe / n,
+                    werte[rang(n, 0.50)], werte[rang(n, 0.90)], werte[rang(n, 0.99)]);
+        }
+
+        // Leistung (PS) hat einen kleinen Wertebereich: Häufigkeiten zählen ist O(n) statt O(n log n)
+        int[] haeufigkeit = new int[max - min + 1];
+        for (int wert : werte) {
+            haeufigkeit[wert - min]++;
+        }
+        int[] raenge = {rang(n, 0.50), rang(n, 0.90), rang(n, 0.99)};
+        double[] perzentile = new double[raenge.length];
+        int k = 0;
+        long kumuliert = 0;
+        for (int i = 0; i < haeufigkeit.length && k < raenge.length; i++) {
+            kumuliert += haeufigkeit[i];
+            while (k < raenge.length && kumuliert > raenge[k]) {
+                perzentile[k++] = min + i;
+            }
+        }
+        return new Kennzahlen(min, max, (double) summe / n, perzentile[0], perzentile[1], perzentile[2]);
+    }
+
+    private static Kennzahlen kennzahlen(double[] werte) {
+        sortieren(werte);
+        double summe = 0;
+        for (double wert : werte) {
+            summe += wert;
+        }
+        int n = werte.length;
+        return new Kennzahlen(werte[0], werte[n - 1], summe / n,
+                werte[rang(n, 0.50)], werte[rang(n, 0.90)], werte[rang(n, 0.99)]);
+    }
+
+    private static void sortieren(int[] werte) {
+        if (werte.length >= PARALLEL_SORT_AB) {
+            Arrays.parallelSort(werte);
+        } else {
+            Arrays.sort(werte);
+        }
+    }
+
+    private static void sortieren(double[] werte) {
+        if (werte.length >= PARALLEL_SORT_AB) {
+            Arrays.parallelSort(werte);
+        } else {
+            Arrays.sort(werte);
+        }
+    }
+
+    // Perzentil nach dem Nearest-Rank-Verfahren (Index im sortierten Array)
+    private static int rang(int n, double p) {
+        return Math.max(0, (int) Math.ceil(p * n) - 1);
+    }
+
+    // Wachsende Spalten während des Ladens
+    private static final class Spalten {
+        private int size;
+        private int[] markeIds = new int[1024];
+        private int[] jahre = new int[1024];
+        private int[] leistung = new int[1024];
+        private double[] gewicht = new double[1024];
+        private final BitSet verbrenner = new BitSet();
+
+        void add(Auto auto) {
+            if (size == markeIds.length) {
+                int neu = size * 2;
+                markeIds = Arrays.copyOf(markeIds, neu);
+                jahre = Arrays.copyOf(jahre, neu);
+                leistung = Arrays.copyOf(leistung, neu);
+                gewicht = Arrays.copyOf(gewicht, neu);
+            }
+            markeIds[size] = auto.getFsMarken();
+            jahre[size] = auto.getBaujahr().getYear();
+            leistung[size] = auto.getLeistung();
+            gewicht[size] = auto.getGewicht();
+            verbrenner.set(size, auto.isVerbrenner());
+            size++;
+        }
+
+        Schnappschuss schnappschuss(Map<Integer, String> markenNamen, long generation) {
+            return new Schnappschuss(size, Arrays.copyOf(markeIds, size), Arrays.copyOf(jahre, size),
+                    Arrays.copyOf(leistung, size), Arrays.copyOf(gewicht, size), verbrenner, markenNamen, generation);
+        }
+    }
+}
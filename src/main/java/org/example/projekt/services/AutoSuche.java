@@ -0,0 +1,95 @@
+package org.example.projekt.services;
+
+import org.example.projekt.modules.Auto;
+
+import java.util.Comparator;
+import java.util.Locale;
+
+// Suchkriterien für /autos/search; null bedeutet "nicht filtern", Bereiche sind inklusive.
+// Die Form (welche Kriterien gesetzt sind, Sortierung, Richtung) bestimmt das SQL-Statement,
+// die Werte werden nur als Parameter gebunden. Gleiche Form = gleiches Statement.
+public record AutoSuche(Integer minLeistung, Integer maxLeistung,
+                        Double minGewicht, Double maxGewicht,
+                        Integer vonJahr, Integer bisJahr,
+                        Boolean verbrenner, Boolean produktion,
+                        Integer fsMarken, String modell,
+                        Sortierung sortierung, boolean absteigend, int limit) {
+
+    // Bits der Form, in der Reihenfolge der Bedingungen im SQL
+    static final int MIN_LEISTUNG = 1;
+    static final int MAX_LEISTUNG = 1 << 1;
+    static final int MIN_GEWICHT = 1 << 2;
+    static final int MAX_GEWICHT = 1 << 3;
+    static final int VON_JAHR = 1 << 4;
+    static final int BIS_JAHR = 1 << 5;
+    static final int VERBRENNER = 1 << 6;
+    static final int PRODUKTION = 1 << 7;
+    static final int MARKE = 1 << 8;
+    static final int MODELL = 1 << 9;
+
+    public enum Sortierung {
+        ID("a.ID_Autos", Comparator.comparingInt(Auto::getIdAutos)),
+        LEISTUNG("a.Leistung", Comparator.comparingInt(Auto::getLeistung)),
+        GEWICHT("a.Gewicht", Comparator.comparingDouble(Auto::getGewicht)),
+        BAUJAHR("a.Baujahr", Comparator.comparing(Auto::getBaujahr)),
+        MODELL("a.Modell", Comparator.comparing(Auto::getModell, String.CASE_INSENSITIVE_ORDER));
+
+        private final String spalte;
+        private final Comparator<Auto> comparator;
+
+        Sortierung(String spalte, Comparator<Auto> comparator) {
+            this.spalte = spalte;
+            this.comparator = comparator;
+        }
+
+        String getSpalte() {
+            return spalte;
+        }
+
+        // Bei gleichem Wert aufsteigend nach ID, wie ORDER BY <spalte>, a.ID_Autos
+        Comparator<Auto> comparator(boolean absteigend) {
+            Comparator<Auto> c = absteigend ? comparator.reversed() : comparator;
+            return this == ID ? c : c.thenComparingInt(Auto::getIdAutos);
+        }
+    }
+
+    public AutoSuche {
+        if (sortierung == null) {
+            sortierung = Sortierung.ID;
+        }
+        if (modell != null) {
+            // Klein geschrieben, damit passt() nur noch die Zeile umwandeln muss
+            modell = modell.isBlank() ? null : modell.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    // Gesetzte Kriterien als Bitmaske, zusammen mit Sortierung und Richtung der Schlüssel für den Plan-Cache
+    int form() {
+        int form = 0;
+        form |= minLeistung != null ? MIN_LEISTUNG : 0;
+        form |= maxLeistung != null ? MAX_LEISTUNG : 0;
+        form |= minGewicht != null ? MIN_GEWICHT : 0;
+        form |= maxGewicht != null ? MAX_GEWICHT : 0;
+        form |= vonJahr != null ? VON_JAHR : 0;
+        form |= bisJahr != null ? BIS_JAHR : 0;
+        form |= verbrenner != null ? VERBRENNER : 0;
+        form |= produktion != null ? PRODUKTION : 0;
+        form |= fsMarken != null ? MARKE : 0;
+        form |= modell != null ? MODELL : 0;
+        return form | sortierung.ordinal() << 16 | (absteigend ? 1 << 24 : 0);
+    }
+
+    // Prüfung im Speicher, gleiche Semantik wie das SQL (Modell: Teilstring ohne Gross-/Kleinschreibung)
+    boolean passt(Auto auto) {
+        return (minLeistung == null || auto.getLeistung() >= minLeistung)
+                && (maxLeistung == null || auto.getLeistung() <= maxLeistung)
+                && (minGewicht == null || auto.getGewicht() >= minGewicht)
+                && (maxGewicht == null || auto.getGewicht() <= maxGewicht)
+                && (vonJahr == null || auto.getBaujahr().getYear() >= vonJahr)
+                && (bisJahr == null || auto.getBaujahr().getYear() <= bisJahr)
+                && (verbrenner == null || auto.isVerbrenner() == verbrenner)
+                && (produktion == null || auto.isProduktion() == produktion)
+                && (fsMarken == null || auto.getFsMarken() == fsMarken)
+                && (modell == null || auto.getModell().toLowerCase(Locale.ROOT).contains(modell));
+    }
+}
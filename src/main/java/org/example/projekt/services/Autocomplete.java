@@ -0,0 +1,313 @@
+package org.example.projekt.services;
+
+import org.example.projekt.modules.Auto;
+import org.example.projekt.modules.Marke;
+import org.example.projekt.modules.Vorschlag;
+
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+// Autovervollständigung über Modellnamen und Marken, ohne Gross-/Kleinschreibung und Akzente.
+// Jeder Wortanfang eines Namens ist ein Schlüssel in einer sortierten Map, eine Präfixsuche ist damit ein
+// Bereich der Map. Lesen läuft ohne Lock auf der ConcurrentSkipListMap.
+// Die Modelle folgen den Änderungen des AutoIndex (gleiche Reihenfolge wie dort), die Marken werden nach
+// markenGeaendert() beim nächsten Aufruf mit dem Repository abgeglichen.
+public class Autocomplete implements AutoIndex.Beobachter {
+    private static final Pattern AKZENTE = Pattern.compile("\\p{M}+");
+    private static final Pattern LEERZEICHEN = Pattern.compile("\\s+");
+    // Trennt Wort und Eintrag im Schlüssel, kleiner als jedes Zeichen eines Namens
+    private static final char TRENNER = '\u0000';
+    // Kurze Präfixe treffen einen grossen Teil aller Namen; ihr Ergebnis wird bis zur nächsten Änderung gehalten
+    private static final int MAX_KURZ = 2;
+    private static final int MAX_GEHALTEN = 50;
+
+    private enum Typ {
+        MODELL, MARKE
+    }
+
+    private static final class Eintrag {
+        final Typ typ;
+        final String text;
+        final String normalisiert;
+        final Integer idMarke;
+        volatile int anzahl;
+
+        Eintrag(Typ typ, String text, String normalisiert, Integer idMarke) {
+            this.typ = typ;
+            this.text = text;
+            this.normalisiert = normalisiert;
+            this.idMarke = idMarke;
+        }
+    }
+
+    private final AutoIndex index;
+    private final MarkeRepository markeRepository;
+
+    private record Treffer(long generation, List<Eintrag> eintraege) {
+    }
+
+    private final ConcurrentSkipListMap<String, Eintrag> schluessel = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, Treffer> kurzePraefixe = new ConcurrentHashMap<>();
+    // Wird bei jeder Änderung erhöht, gehaltene Treffer einer älteren Generation gelten nicht mehr
+    private final AtomicLong generation = new AtomicLong();
+
+    // Nur unter lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Eintrag> modelle = new HashMap<>();
+    private final IntHashMap<Eintrag> marken = new IntHashMap<>();
+    private final IntHashMap<int[]> autosProMarke = new IntHashMap<>();
+    private long markenUebernommen;
+
+    private final AtomicLong markenGelesen = new AtomicLong();
+
+    private volatile boolean markenVeraltet = true;
+
+    public Autocomplete(AutoIndex index, MarkeRepository markeRepository) {
+        this.index = index;
+        this.markeRepository = markeRepository;
+        index.beobachten(this);
+    }
+
+    // Die besten limit Treffer für die Eingabe: erst Namen, die mit der Eingabe beginnen, dann solche mit einem
+    // späteren Wort; innerhalb davon nach Anzahl Autos, Länge und alphabetisch
+    public List<Vorschlag> vorschlaege(String eingabe, int limit) throws SQLException {
+        String praefix = normalisieren(eingabe);
+        if (praefix.isEmpty()) {
+            return List.of();
+        }
+        index.ensureGeladen();
+        if (markenVeraltet) {
+            markenAbgleichen();
+        }
+
+        List<Eintrag> sortiert;
+        if (praefix.length() <= MAX_KURZ && limit <= MAX_GEHALTEN) {
+            Treffer treffer = kurzePraefixe.get(praefix);
+            long aktuell = generation.get();
+            if (treffer == null || treffer.generation() != aktuell) {
+                treffer = new Treffer(aktuell, besteEintraege(praefix, MAX_GEHALTEN));
+                kurzePraefixe.put(praefix, treffer);
+            }
+            sortiert = treffer.eintraege().subList(0, Math.min(limit, treffer.eintraege().size()));
+        } else {
+            sortiert = besteEintraege(praefix, limit);
+        }
+
+        List<Vorschlag> vorschlaege = new ArrayList<>(sortiert.size());
+        for (Eintrag e : sortiert) {
+            vorschlaege.add(new Vorschlag(e.text, e.typ.name().toLowerCase(Locale.ROOT), e.idMarke, e.anzahl));
+        }
+        return vorschlaege;
+    }
+
+    private List<Eintrag> besteEintraege(String praefix, int limit) {
+        Comparator<Eintrag> rang = Comparator
+                .comparing((Eintrag e) -> !e.normalisiert.startsWith(praefix))
+                .thenComparing(e -> -e.anzahl)
+                .thenComparingInt(e -> e.text.length())
+                .thenComparing(e -> e.text);
+        // Der Kopf des Heaps ist der schlechteste der bisher besten Treffer
+        PriorityQueue<Eintrag> besten = new PriorityQueue<>(limit, rang.reversed());
+        Set<Eintrag> gesehen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Eintrag e : schluessel.subMap(praefix, praefix + Character.MAX_VALUE).values()) {
+            // Ein Eintrag mit mehreren passenden Wörtern zählt einmal
+            if (!gesehen.add(e)) {
+                continue;
+            }
+            if (besten.size() < limit) {
+                besten.add(e);
+            } else if (rang.compare(e, besten.peek()) < 0) {
+                besten.poll();
+                besten.add(e);
+            }
+        }
+        List<Eintrag> sortiert = new ArrayList<>(besten);
+        sortiert.sort(rang);
+        return sortiert;
+    }
+
+    // Nach addMarke/deleteMarke
+    public void markenGeaendert() {
+        markenVeraltet = true;
+    }
+
+    // ==================== Änderungen aus dem AutoIndex (unter dessen Schreib-Lock) ====================
+
+    @Override
+    public void eingefuegt(Auto auto) {
+        lock.lock();
+        try {
+            String normalisiert = normalisieren(auto.getModell());
+            Eintrag modell = modelle.get(normalisiert);
+            if (modell == null) {
+                modell = new Eintrag(Typ.MODELL, auto.getModell().trim(), normalisiert, null);
+                modelle.put(normalisiert, modell);
+                eintragen(modell);
+            }
+            modell.anzahl++;
+            zaehleMarke(auto.getFsMarken(), 1);
+            generation.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void entfernt(Auto auto) {
+        lock.lock();
+        try {
+            Eintrag modell = modelle.get(normalisieren(auto.getModell()));
+            if (modell != null && --modell.anzahl == 0) {
+                modelle.remove(modell.normalisiert);
+                austragen(modell);
+            }
+            zaehleMarke(auto.getFsMarken(), -1);
+            generation.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void geleert() {
+        lock.lock();
+        try {
+            for (Eintrag modell : modelle.values()) {
+                austragen(modell);
+            }
+            modelle.clear();
+            autosProMarke.clear();
+            marken.forEachValue(marke -> marke.anzahl = 0);
+            generation.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ==================== Marken ====================
+
+    // Nur die Unterschiede übernehmen: gelöschte Marken austragen, neue eintragen.
+    // Gelesen wird ohne Lock, damit Änderungen aus dem AutoIndex nicht auf die Datenbank warten; übernommen wird
+    // nur ein Stand, der nach dem zuletzt übernommenen gelesen wurde.
+    private void markenAbgleichen() throws SQLException {
+        // Vor dem Lesen zurücksetzen, damit eine gleichzeitige Änderung einen weiteren Abgleich auslöst
+        markenVeraltet = false;
+        long nummer = markenGelesen.incrementAndGet();
+        List<Marke> aktuell;
+        try {
+            aktuell = markeRepository.getAllMarken();
+        } catch (SQLException | RuntimeException e) {
+            markenVeraltet = true;
+            throw e;
+        }
+        IntHashMap<Marke> neu = new IntHashMap<>(aktuell.size());
+        for (Marke marke : aktuell) {
+            neu.put(marke.getIdMarke(), marke);
+        }
+
+        lock.lock();
+        try {
+            if (nummer < markenUebernommen) {
+                return;
+            }
+            markenUebernommen = nummer;
+            List<Eintrag> weg = new ArrayList<>();
+            marken.forEachValue(e -> {
+                Marke marke = neu.get(e.idMarke);
+                if (marke == null || !marke.getName().equals(e.text)) {
+                    weg.add(e);
+                }
+            });
+            for (Eintrag e : weg) {
+                marken.remove(e.idMarke);
+                austragen(e);
+            }
+            for (Marke marke : aktuell) {
+                if (!marken.containsKey(marke.getIdMarke())) {
+                    Eintrag e = new Eintrag(Typ.MARKE, marke.getName(), normalisieren(marke.getName()), marke.getIdMarke());
+                    int[] anzahl = autosProMarke.get(marke.getIdMarke());
+                    e.anzahl = anzahl == null ? 0 : anzahl[0];
+                    marken.put(marke.getIdMarke(), e);
+                    eintragen(e);
+                }
+            }
+            generation.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void zaehleMarke(int idMarke, int delta) {
+        int[] anzahl = autosProMarke.get(idMarke);
+        if (anzahl == null) {
+            anzahl = new int[1];
+            autosProMarke.put(idMarke, anzahl);
+        }
+        anzahl[0] += delta;
+        Eintrag marke = marken.get(idMarke);
+        if (marke != null) {
+            marke.anzahl = anzahl[0];
+        }
+    }
+
+    // ==================== Schlüssel ====================
+
+    // Ein Schlüssel pro Wortanfang, damit "gti" auch "Golf GTI" findet
+    private void eintragen(Eintrag e) {
+        for (int start : wortanfaenge(e.normalisiert)) {
+            schluessel.put(schluesselFuer(e, start), e);
+        }
+    }
+
+    private void austragen(Eintrag e) {
+        for (int start : wortanfaenge(e.normalisiert)) {
+            schluessel.remove(schluesselFuer(e, start));
+        }
+    }
+
+    private static String schluesselFuer(Eintrag e, int start) {
+        return e.normalisiert.substring(start) + TRENNER + e.typ.ordinal() + TRENNER
+                + (e.idMarke == null ? e.normalisiert : e.idMarke.toString());
+    }
+
+    private static List<Integer> wortanfaenge(String normalisiert) {
+        List<Integer> anfaenge = new ArrayList<>(2);
+        for (int i = 0; i < normalisiert.length(); i++) {
+            if (i == 0 || normalisiert.charAt(i - 1) == ' ' || normalisiert.charAt(i - 1) == '-') {
+                anfaenge.add(i);
+            }
+        }
+        return anfaenge;
+    }
+
+    // Kleinbuchstaben ohne Akzente (é -> e, ß -> ss), Leerzeichen zusammengefasst
+    static String normalisieren(String text) {
+        if (text == null) {
+            return "";
+        }
+        String ohneAkzente = text;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7F) {
+                ohneAkzente = AKZENTE.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                        .replace("ß", "ss");
+                break;
+            }
+        }
+        return LEERZEICHEN.matcher(ohneAkzente.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,201 @@
+package org.example.projekt.services;
+
+import jakarta.ws.rs.ServiceUnavailableException;
+import org.example.projekt.modules.Auto;
+import org.example.projekt.modules.Marke;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+// Legt je ein AdaptivesLimit für lesende und schreibende Abfragen vor die Datenbank. Ein DELETE /autos/all
+// oder ein grosser Batch belegt damit nur Plätze der Schreibseite und verdrängt keine Einzelabfragen.
+// Ist kein Platz frei, wird kurz gewartet und danach mit 503 abgewiesen (ServiceUnavailableException mit
+// Retry-After), statt den Request bis zum Timeout im Connection-Pool warten zu lassen.
+// Abfragen, die DataBase aus dem MarkeCache oder dem AutoCounter beantwortet, laufen ohne Limit: sie
+// brauchen meist keine Verbindung und würden die Latenzmessung verfälschen.
+public class BegrenztesRepository implements AutoRepository, MarkeRepository {
+    private static final long RETRY_AFTER_SECONDS = 1L;
+
+    private final AutoRepository autos;
+    private final MarkeRepository marken;
+    private final AdaptivesLimit lesen;
+    private final AdaptivesLimit schreiben;
+
+    public <R extends AutoRepository & MarkeRepository> BegrenztesRepository(R repository, AdaptivesLimit lesen,
+                                                                             AdaptivesLimit schreiben) {
+        this.autos = repository;
+        this.marken = repository;
+        this.lesen = lesen;
+        this.schreiben = schreiben;
+    }
+
+    // Lesen beginnt bei der Poolgrösse, Schreiben bei zwei Plätzen (-Ddb.limit.read.initial usw.)
+    public static <R extends AutoRepository & MarkeRepository> BegrenztesRepository fromSystemProperties(R repository) {
+        int poolGroesse = Integer.getInteger("db.pool.maxSize", 10);
+        return new BegrenztesRepository(repository,
+                AdaptivesLimit.fromSystemProperties("read", poolGroesse, 5 * poolGroesse),
+                AdaptivesLimit.fromSystemProperties("write", 2, poolGroesse));
+    }
+
+    public AdaptivesLimit getLesen() {
+        return lesen;
+    }
+
+    public AdaptivesLimit getSchreiben() {
+        return schreiben;
+    }
+
+    // ==================== Autos ====================
+
+    @Override
+    public Auto readAutoById(int id) throws SQLException {
+        return begrenzt(lesen, "readAutoById", () -> autos.readAutoById(id));
+    }
+
+    @Override
+    public List<Auto> getAllAutos() throws SQLException {
+        return begrenzt(lesen, "getAllAutos", autos::getAllAutos);
+    }
+
+    @Override
+    public List<Auto> getAutosAfter(int afterId, int limit) throws SQLException {
+        return begrenzt(lesen, "getAutosAfter", () -> autos.getAutosAfter(afterId, limit));
+    }
+
+    // Belegt einen Leseplatz, misst aber keine Latenz: die Dauer hängt vom Client ab, der den Stream liest
+    @Override
+    public void streamAllAutos(int fetchSize, AutoConsumer consumer) throws SQLException, IOException {
+        betreten(lesen);
+        try {
+            autos.streamAllAutos(fetchSize, consumer);
+        } finally {
+            lesen.verlassen(-1, false);
+        }
+    }
+
+    // Der Leseplatz wird sofort belegt und erst am Ende des Schreibens freigegeben
+    @Override
+    public AutoStream oeffneStream(int fetchSize) {
+        betreten(lesen);
+        return consumer -> {
+            try {
+                autos.streamAllAutos(fetchSize, consumer);
+            } finally {
+                lesen.verlassen(-1, false);
+            }
+        };
+    }
+
+    @Override
+    public List<Auto> getAutosByBaujahr(LocalDate von, LocalDate bisExklusiv) throws SQLException {
+        return begrenzt(lesen, "getAutosByBaujahr", () -> autos.getAutosByBaujahr(von, bisExklusiv));
+    }
+
+    @Override
+    public List<Auto> searchAutos(AutoSuche suche) throws SQLException {
+        // Jede Form der Suche (welche Filter gesetzt sind) hat ihre eigene Basis-Latenz
+        return begrenzt(lesen, "searchAutos/" + suche.form(), () -> autos.searchAutos(suche));
+    }
+
+    @Override
+    public WriteResult addAuto(Auto auto) throws SQLException {
+        return begrenzt(schreiben, "addAuto", () -> autos.addAuto(auto));
+    }
+
+    @Override
+    public int[] addAutos(List<Auto> neu) throws SQLException {
+        return begrenzt(schreiben, "addAutos", () -> autos.addAutos(neu));
+    }
+
+    @Override
+    public WriteResult updateAuto(Auto auto) throws SQLException {
+        return begrenzt(schreiben, "updateAuto", () -> autos.updateAuto(auto));
+    }
+
+    @Override
+    public int deleteAuto(int id) throws SQLException {
+        return begrenzt(schreiben, "deleteAuto", () -> autos.deleteAuto(id));
+    }
+
+    @Override
+    public int deleteAllAutos() throws SQLException {
+        return begrenzt(schreiben, "deleteAllAutos", autos::deleteAllAutos);
+    }
+
+    // Aus dem AutoCounter
+    @Override
+    public long countAutos() throws SQLException {
+        return autos.countAutos();
+    }
+
+    @Override
+    public int countAutosWithMarke(int markeId) throws SQLException {
+        return begrenzt(lesen, "countAutosWithMarke", () -> autos.countAutosWithMarke(markeId));
+    }
+
+    @Override
+    public boolean autoExists(int autoId) throws SQLException {
+        return begrenzt(lesen, "autoExists", () -> autos.autoExists(autoId));
+    }
+
+    // ==================== Marken (Lesen aus dem MarkeCache) ====================
+
+    @Override
+    public Marke readMarkeById(int id) throws SQLException {
+        return marken.readMarkeById(id);
+    }
+
+    @Override
+    public List<Marke> getAllMarken() throws SQLException {
+        return marken.getAllMarken();
+    }
+
+    @Override
+    public boolean markeExists(int markeId) throws SQLException {
+        return marken.markeExists(markeId);
+    }
+
+    @Override
+    public Set<Integer> existingMarkenIds(Collection<Integer> markenIds) throws SQLException {
+        return marken.existingMarkenIds(markenIds);
+    }
+
+    @Override
+    public int addMarke(Marke marke) throws SQLException {
+        return begrenzt(schreiben, "addMarke", () -> marken.addMarke(marke));
+    }
+
+    @Override
+    public int deleteMarke(int id) throws SQLException {
+        return begrenzt(schreiben, "deleteMarke", () -> marken.deleteMarke(id));
+    }
+
+    // ==================== Hilfsmethoden ====================
+
+    // art ist der Name der Repository-Methode; Latenzen werden nur mit der gleichen Art verglichen
+    private static <T> T begrenzt(AdaptivesLimit limit, String art, Abfrage<T> abfrage) throws SQLException {
+        betreten(limit);
+        long start = System.nanoTime();
+        boolean ueberlast = false;
+        try {
+            return abfrage.ausfuehren();
+        } catch (SQLTransientException e) {
+            // Pool-Timeout oder Lock-Wartezeit: die Datenbank kommt nicht nach
+            ueberlast = true;
+            throw e;
+        } finally {
+            limit.verlassen(art, System.nanoTime() - start, ueberlast);
+        }
+    }
+
+    private static void betreten(AdaptivesLimit limit) {
+        if (!limit.betreten()) {
+            throw new ServiceUnavailableException("Datenbank ausgelastet (" + limit.getName() + ")", RETRY_AFTER_SECONDS);
+        }
+    }
+}
@@ -0,0 +1,551 @@
+package org.example.projekt.services;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class ConnectionPool implements ConnectionPoolMXBean, AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    // Verbindungen, die länger als das unbenutzt waren, werden vor der Ausgabe geprüft
+    private static final long VALIDATION_AFTER_IDLE_MS = 30_000;
+    private static final int ISOLATION_UNVERAENDERT = -1;
+
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    private final String name;
+    private final ConnectionFactory factory;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMs;
+    private final long maxLifetimeMs;
+    private final long leakDetectionMs;
+    private final long connectionTimeoutMs;
+
+    // Zustand des Pools, geschützt durch lock (kein synchronized, damit virtuelle Threads nicht pinnen)
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final ArrayDeque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private int total;
+    private int waiting;
+    private boolean closed;
+
+    // Metriken
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private final ScheduledExecutorService housekeeper;
+
+    public ConnectionPool(String name, ConnectionFactory factory, int minSize, int maxSize,
+                          long idleTimeoutMs, long maxLifetimeMs, long leakDetectionMs, long connectionTimeoutMs) {
+        if (maxSize < 1 || minSize < 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Ungültige Poolgrösse: min=" + minSize + ", max=" + maxSize);
+        }
+        this.name = name;
+        this.factory = factory;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.maxLifetimeMs = maxLifetimeMs;
+        this.leakDetectionMs = leakDetectionMs;
+        this.connectionTimeoutMs = connectionTimeoutMs;
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-" + name);
+            t.setDaemon(true);
+            return t;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::housekeeping, 0, 5, TimeUnit.SECONDS);
+    }
+
+    // Pool mit Einstellungen aus System-Properties (-Ddb.pool.maxSize=20 usw.)
+    public static ConnectionPool fromSystemProperties(String name, ConnectionFactory factory) {
+        ConnectionPool pool = new ConnectionPool(
+                name,
+                factory,
+                Integer.getInteger("db.pool.minSize", 2),
+                Integer.getInteger("db.pool.maxSize", 10),
+                Long.getLong("db.pool.idleTimeoutMs", 600_000L),
+                Long.getLong("db.pool.maxLifetimeMs", 1_800_000L),
+                Long.getLong("db.pool.leakDetectionMs", 60_000L),
+                Long.getLong("db.pool.connectionTimeoutMs", 5_000L));
+        pool.registerMBean();
+        return pool;
+    }
+
+    // ==================== Ausleihen / Zurückgeben ====================
+
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(connectionTimeoutMs);
+        while (true) {
+            PooledConnection pc = reservieren(deadline);
+            if (pc == null) {
+                pc = openPhysical();
+            } else if (System.currentTimeMillis() - pc.lastUsed > VALIDATION_AFTER_IDLE_MS && !isValid(pc)) {
+                // Nächster Versuch mit der restlichen Wartezeit, nicht mit einem neuen Timeout
+                retireUnlocked(pc);
+                continue;
+            }
+            recordWait(System.nanoTime() - start);
+            return borrow(pc);
+        }
+    }
+
+    // Eine freie Verbindung oder null, wenn der Aufrufer eine neue öffnen darf (total ist dann schon erhöht)
+    private PooledConnection reservieren(long deadline) throws SQLException {
+        List<PooledConnection> abgelaufen = new ArrayList<>();
+        lock.lock();
+        try {
+            while (true) {
+                if (closed) {
+                    throw new SQLException("Connection-Pool " + name + " ist geschlossen");
+                }
+                PooledConnection candidate = idle.pollFirst();
+                if (candidate != null) {
+                    if (isExpired(candidate, System.currentTimeMillis())) {
+                        total--;
+                        abgelaufen.add(candidate);
+                        continue;
+                    }
+                    return candidate;
+                }
+                if (total < maxSize) {
+                    total++;
+                    return null;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    timeouts.increment();
+                    throw new SQLTransientConnectionException("Keine freie Verbindung im Pool " + name
+                            + " nach " + connectionTimeoutMs + " ms (aktiv: " + borrowed.size() + "/" + maxSize + ")");
+                }
+                waiting++;
+                try {
+                    available.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Warten auf Verbindung unterbrochen", e);
+                } finally {
+                    waiting--;
+                }
+            }
+        } finally {
+            lock.unlock();
+            // Schliessen kann beim Treiber einen Roundtrip kosten, also nicht unter dem Lock
+            abgelaufen.forEach(this::closeQuietly);
+        }
+    }
+
+    private PooledConnection openPhysical() throws SQLException {
+        try {
+            PooledConnection pc = new PooledConnection(factory.create());
+            created.increment();
+            return pc;
+        } catch (SQLException | RuntimeException e) {
+            lock.lock();
+            try {
+                total--;
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private Connection borrow(PooledConnection pc) {
+        pc.borrowedAt = System.currentTimeMillis();
+        pc.borrowSite = leakDetectionMs > 0 ? new Exception("Verbindung hier ausgeliehen") : null;
+        pc.leakReported = false;
+        borrowed.add(pc);
+        borrows.increment();
+        return pc.newHandle();
+    }
+
+    private void giveBack(PooledConnection pc) {
+        borrowed.remove(pc);
+        if (pc.leakReported) {
+            LOGGER.info("Als Leck gemeldete Verbindung wurde nach "
+                    + (System.currentTimeMillis() - pc.borrowedAt) + " ms zurückgegeben");
+        }
+        boolean healthy = resetState(pc);
+        pc.lastUsed = System.currentTimeMillis();
+
+        boolean schliessen;
+        lock.lock();
+        try {
+            schliessen = !healthy || closed || isExpired(pc, pc.lastUsed);
+            if (schliessen) {
+                total--;
+            } else {
+                // LIFO: zuletzt benutzte Verbindung zuerst wieder ausgeben, damit überzählige altern
+                idle.addFirst(pc);
+            }
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (schliessen) {
+            closeQuietly(pc);
+        }
+    }
+
+    // Offene Transaktionen zurückrollen und die Isolation zurücksetzen, damit die nächste Anfrage eine saubere
+    // Verbindung erhält
+    private boolean resetState(PooledConnection pc) {
+        try {
+            if (pc.dirty) {
+                if (!pc.physical.getAutoCommit()) {
+                    pc.physical.rollback();
+                    pc.physical.setAutoCommit(true);
+                }
+                if (pc.isolation != ISOLATION_UNVERAENDERT) {
+                    pc.physical.setTransactionIsolation(pc.isolation);
+                    pc.isolation = ISOLATION_UNVERAENDERT;
+                }
+                pc.dirty = false;
+            }
+            return !pc.physical.isClosed();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Verbindung konnte nicht zurückgesetzt werden", e);
+            return false;
+        }
+    }
+
+    private boolean isExpired(PooledConnection pc, long now) {
+        return maxLifetimeMs > 0 && now - pc.createdAt > maxLifetimeMs;
+    }
+
+    private boolean isValid(PooledConnection pc) {
+        try {
+            return pc.physical.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void retireUnlocked(PooledConnection pc) {
+        lock.lock();
+        try {
+            total--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        closeQuietly(pc);
+    }
+
+    private void closeQuietly(PooledConnection pc) {
+        try {
+            pc.physical.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Fehler beim Schliessen einer Verbindung", e);
+        }
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.add(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    // ==================== Housekeeping ====================
+
+    // Läuft alle 5 Sekunden; package-private für Tests
+    void housekeeping() {
+        try {
+            long now = System.currentTimeMillis();
+            detectLeaks(now);
+            evictIdle(now);
+            fillToMinimum();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Fehler im Housekeeping des Connection-Pools " + name, e);
+        }
+    }
+
+    private void detectLeaks(long now) {
+        if (leakDetectionMs <= 0) {
+            return;
+        }
+        for (PooledConnection pc : borrowed) {
+            if (!pc.leakReported && now - pc.borrowedAt > leakDetectionMs) {
+                pc.leakReported = true;
+                leaks.increment();
+                LOGGER.log(Level.WARNING, "Mögliches Verbindungsleck: Verbindung seit "
+                        + (now - pc.borrowedAt) + " ms nicht zurückgegeben", pc.borrowSite);
+            }
+        }
+    }
+
+    private void evictIdle(long now) {
+        List<PooledConnection> evicted = new ArrayList<>();
+        lock.lock();
+        try {
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext()) {
+                PooledConnection pc = it.next();
+                boolean idleTooLong = idleTimeoutMs > 0 && now - pc.lastUsed > idleTimeoutMs && total > minSize;
+                if (idleTooLong || isExpired(pc, now)) {
+                    it.remove();
+                    total--;
+                    evicted.add(pc);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        evicted.forEach(this::closeQuietly);
+    }
+
+    private void fillToMinimum() {
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || total >= minSize) {
+                    return;
+                }
+                total++;
+            } finally {
+                lock.unlock();
+            }
+            PooledConnection pc;
+            try {
+                pc = openPhysical();
+            } catch (SQLException | RuntimeException e) {
+                LOGGER.log(Level.FINE, "Minimale Poolgrösse konnte nicht aufgefüllt werden", e);
+                return;
+            }
+            lock.lock();
+            try {
+                idle.addLast(pc);
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            total -= idle.size();
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        toClose.forEach(this::closeQuietly);
+        unregisterMBean();
+    }
+
+    // ==================== Metriken ====================
+
+    @Override
+    public int getActiveConnections() {
+        return borrowed.size();
+    }
+
+    @Override
+    public int getIdleConnections() {
+        lock.lock();
+        try {
+            return idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getTotalConnections() {
+        lock.lock();
+        try {
+            return total;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getThreadsAwaitingConnection() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public double getSaturation() {
+        return (double) borrowed.size() / maxSize;
+    }
+
+    @Override
+    public long getTotalBorrows() {
+        return borrows.sum();
+    }
+
+    @Override
+    public long getConnectionsCreated() {
+        return created.sum();
+    }
+
+    @Override
+    public long getConnectionTimeouts() {
+        return timeouts.sum();
+    }
+
+    @Override
+    public long getLeaksDetected() {
+        return leaks.sum();
+    }
+
+    @Override
+    public double getAverageWaitMillis() {
+        long count = borrows.sum();
+        return count == 0 ? 0 : totalWaitNanos.sum() / 1_000_000.0 / count;
+    }
+
+    @Override
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    private ObjectName objectName() throws Exception {
+        return new ObjectName("org.example.projekt:type=ConnectionPool,name=" + name);
+    }
+
+    private void registerMBean() {
+        try {
+            ObjectName objectName = objectName();
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Pool-Metriken konnten nicht per JMX registriert werden", e);
+        }
+    }
+
+    private void unregisterMBean() {
+        try {
+            ObjectName objectName = objectName();
+            if (ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)) {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.FINE, "Pool-Metriken konnten nicht abgemeldet werden", e);
+        }
+    }
+
+    // ==================== Verbindung im Pool ====================
+
+    private final class PooledConnection {
+        private final Connection physical;
+        private final long createdAt = System.currentTimeMillis();
+        private volatile long lastUsed = createdAt;
+        private volatile long borrowedAt;
+        private volatile Exception borrowSite;
+        private volatile boolean leakReported;
+        private boolean dirty;
+        // Isolation vor dem ersten setTransactionIsolation dieser Ausleihe
+        private int isolation = ISOLATION_UNVERAENDERT;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        // Pro Ausleihe ein eigener Proxy: close() gibt die Verbindung zurück, danach ist der Proxy unbrauchbar
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+    }
+
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pc;
+        private boolean released;
+
+        private Handle(PooledConnection pc) {
+            this.pc = pc;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        giveBack(pc);
+                    }
+                    return null;
+                case "isClosed":
+                    return released || pc.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + name + "]";
+                default:
+                    break;
+            }
+            if (released) {
+                throw new SQLException("Verbindung wurde bereits an den Pool zurückgegeben");
+            }
+            if (method.getName().equals("setAutoCommit")) {
+                pc.dirty = true;
+            } else if (method.getName().equals("setTransactionIsolation")) {
+                if (pc.isolation == ISOLATION_UNVERAENDERT) {
+                    pc.isolation = pc.physical.getTransactionIsolation();
+                }
+                pc.dirty = true;
+            }
+            try {
+                return method.invoke(pc.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
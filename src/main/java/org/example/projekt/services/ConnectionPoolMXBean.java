@@ -0,0 +1,28 @@
+package org.example.projekt.services;
+
+// Kennzahlen des Connection-Pools, per JMX (z.B. JConsole) abrufbar
+public interface ConnectionPoolMXBean {
+    int getActiveConnections();
+
+    int getIdleConnections();
+
+    int getTotalConnections();
+
+    int getThreadsAwaitingConnection();
+
+    int getMaxSize();
+
+    double getSaturation();
+
+    long getTotalBorrows();
+
+    long getConnectionsCreated();
+
+    long getConnectionTimeouts();
+
+    long getLeaksDetected();
+
+    double getAverageWaitMillis();
+
+    double getMaxWaitMillis();
+}
@@ -3,266 +3,552 @@ package org.example.projekt.services;
 import org.example.projekt.modules.Auto;
 import org.example.projekt.modules.Marke;
 
+import java.io.IOException;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
-public class DataBase {
-    private static final String DB_URL = "jdbc:mysql://localhost:8889/Autos?user=root&password=root";
+// MySQL-Implementierung der Repositories
+public class DataBase implements AutoRepository, MarkeRepository {
+    // cachePrepStmts/useServerPrepStmts: der Treiber hält pro Verbindung einen Cache vorbereiteter Statements
+    // useCursorFetch: Statements mit gesetzter Fetch-Size lesen über einen serverseitigen Cursor
+    // rewriteBatchedStatements: Batches werden als mehrzeilige INSERTs gesendet
+    private static final String DB_URL = "jdbc:mysql://localhost:8889/Autos?user=root&password=root"
+            + "&cachePrepStmts=true&prepStmtCacheSize=250&prepStmtCacheSqlLimit=2048&useServerPrepStmts=true"
+            + "&useCursorFetch=true&rewriteBatchedStatements=true";
+
+    // Die Marke wird nicht mitgeladen, sondern aus dem Marken-Cache aufgelöst
+    private static final String AUTO_SELECT =
+            "SELECT a.ID_Autos, a.Modell, a.Baujahr, a.Gewicht, a.Leistung, a.Verbrenner, a.Produktion, a.FS_Marken FROM autos a";
+
+    // SQL der Suche pro Form (siehe AutoSuche.form()); gleiche Form ergibt denselben Text,
+    // so trifft der Statement-Cache des Treibers und der Server muss nicht neu planen
+    private static final ConcurrentHashMap<Integer, String> SUCH_SQL = new ConcurrentHashMap<>();
+
+    private final ConnectionPool pool;
+    private final MarkeCache markeCache;
+    private final AutoCounter autoCounter;
+
+    // Die Instanz für die Anwendung, nur aus Repositories aufrufen: jeder Aufruf öffnet einen eigenen Pool.
+    // Pool, Marken-Cache (von addMarke/deleteMarke invalidiert) und AutoCounter (von den Schreibmethoden
+    // nachgeführt, periodisch abgeglichen) entstehen erst hier, nicht schon beim Laden der Klasse; Tests und
+    // Benchmarks mit eigenem Pool starten so keinen Housekeeper und keinen Abgleich gegen MySQL.
+    public static DataBase fromSystemProperties() {
+        ConnectionPool pool = ConnectionPool.fromSystemProperties(
+                "autos", () -> DriverManager.getConnection(System.getProperty("db.url", DB_URL)));
+        return new DataBase(pool, MarkeCache.fromSystemProperties(),
+                AutoCounter.fromSystemProperties(() -> queryCountAutos(pool)));
+    }
+
+    DataBase(ConnectionPool pool) {
+        this(pool, MarkeCache.fromSystemProperties(), new AutoCounter(() -> queryCountAutos(pool), 0));
+    }
+
+    DataBase(ConnectionPool pool, MarkeCache markeCache, AutoCounter autoCounter) {
+        this.pool = pool;
+        this.markeCache = markeCache;
+        this.autoCounter = autoCounter;
+    }
+
+    MarkeCache getMarkeCache() {
+        return markeCache;
+    }
+
+    AutoCounter getAutoCounter() {
+        return autoCounter;
+    }
 
     // ==================== MARKE-Methoden ====================
 
-    // Marke nach ID lesen
+    // Marke nach ID lesen (aus dem Cache, bei Bedarf aus der Datenbank)
+    @Override
     public Marke readMarkeById(int id) throws SQLException {
-        Connection con = DriverManager.getConnection(DB_URL);
-        PreparedStatement pstmt = con.prepareStatement("SELECT ID_Marken, Name FROM marken WHERE ID_Marken = ?");
-        pstmt.setInt(1, id);
-        ResultSet rs = pstmt.executeQuery();
-        Marke marke = null;
-        if (rs.next()) {
-            marke = new Marke();
-            marke.setIdMarke(rs.getInt("ID_Marken"));
-            marke.setName(rs.getString("Name"));
+        Marke marke = markeCache.get(id);
+        if (marke != null || markeCache.isComplete()) {
+            return marke;
+        }
+        try (Connection con = pool.getConnection()) {
+            ensureMarkenGeladen(con);
+            return resolveMarke(con, id);
         }
-        con.close();
-        return marke;
     }
 
-    // Alle Marken lesen
+    // Alle Marken lesen (aus dem Cache, bei Bedarf aus der Datenbank)
+    @Override
     public List<Marke> getAllMarken() throws SQLException {
-        List<Marke> marken = new ArrayList<>();
-        Connection con = DriverManager.getConnection(DB_URL);
-        PreparedStatement pstmt = con.prepareStatement("SELECT ID_Marken, Name FROM marken");
-        ResultSet rs = pstmt.executeQuery();
-        while (rs.next()) {
-            Marke marke = new Marke();
-            marke.setIdMarke(rs.getInt("ID_Marken"));
-            marke.setName(rs.getString("Name"));
-            marken.add(marke);
+        List<Marke> marken = markeCache.getAll();
+        if (marken != null) {
+            return marken;
+        }
+        try (Connection con = pool.getConnection()) {
+            return loadMarken(con);
         }
-        con.close();
-        return marken;
     }
 
     // Marke hinzufügen
+    @Override
     public int addMarke(Marke marke) throws SQLException {
-        Connection con = DriverManager.getConnection(DB_URL);
-        PreparedStatement pstmt = con.prepareStatement("INSERT INTO marken (Name) VALUES (?)");
-        pstmt.setString(1, marke.getName());
-        int rowsAffected = pstmt.executeUpdate();
-        con.close();
-        return rowsAffected;
+        try (Connection con = pool.getConnection();
+             PreparedStatement pstmt = con.prepareStatement("INSERT INTO marken (Name) VALUES (?)")) {
+            pstmt.setString(1, marke.getName());
+            return pstmt.executeUpdate();
+        } finally {
+            markeCache.invalidate();
+        }
     }
 
     // Marke löschen
+    @Override
     public int deleteMarke(int id) throws SQLException {
-        Connection con = DriverManager.getConnection(DB_URL);
-        PreparedStatement pstmt = con.prepareStatement("DELETE FROM marken WHERE ID_Marken = ?");
-        pstmt.setInt(1, id);
-        int rowsAffected = pstmt.executeUpdate();
-        con.close();
-        return rowsAffected;
+        try (Connection con = pool.getConnection();
+             PreparedStatement pstmt = con.prepareStatement("DELETE FROM marken WHERE ID_Marken = ?")) {
+            pstmt.setInt(1, id);
+            return pstmt.executeUpdate();
+        } finally {
+            markeCache.invalidate();
+        }
+    }
+
+    // Alle Marken aus der Datenbank laden und in den Cache übernehmen
+    private List<Marke> loadMarken(Connection con) throws SQLException {
+        long generation = markeCache.generation();
+        List<Marke> marken = new ArrayList<>();
+        try (PreparedStatement pstmt = con.prepareStatement("SELECT ID_Marken, Name FROM marken");
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                Marke marke = new Marke();
+                marke.setIdMarke(rs.getInt("ID_Marken"));
+                marke.setName(rs.getString("Name"));
+                marken.add(marke);
+            }
+        }
+        markeCache.putAll(marken, generation);
+        return marken;
+    }
+
+    // Marke über den Cache auflösen, nur bei einem Fehlschlag einzeln aus der Datenbank lesen
+    private Marke resolveMarke(Connection con, int id) throws SQLException {
+        Marke marke = markeCache.get(id);
+        if (marke != null || markeCache.isComplete()) {
+            return marke;
+        }
+        long generation = markeCache.generation();
+        try (PreparedStatement pstmt = con.prepareStatement("SELECT ID_Marken, Name FROM marken WHERE ID_Marken = ?")) {
+            pstmt.setInt(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    marke = new Marke();
+                    marke.setIdMarke(rs.getInt("ID_Marken"));
+                    marke.setName(rs.getString("Name"));
+                    markeCache.put(marke, generation);
+                }
+                return marke;
+            }
+        }
+    }
+
+    // Vor dem Lesen von Autos die Marken einmal komplett in den Cache laden (eine Abfrage statt einer pro Zeile)
+    private void ensureMarkenGeladen(Connection con) throws SQLException {
+        if (!markeCache.isComplete() && markeCache.canHoldAll()) {
+            loadMarken(con);
+        }
     }
 
     // ==================== AUTO-Methoden ====================
 
     // Auto nach ID lesen (inklusive Marke)
+    @Override
     public Auto readAutoById(int id) throws SQLException {
-        Connection con = DriverManager.getConnection(DB_URL);
-        PreparedStatement pstmt = con.prepareStatement(
-            "SELECT ID_Autos, Modell, Baujahr, Gewicht, Leistung, Verbrenner, Produktion, FS_Marken FROM autos WHERE ID_Autos = ?"
-        );
-        pstmt.setInt(1, id);
-        ResultSet rs = pstmt.executeQuery();
-        Auto auto = null;
-        if (rs.next()) {
-            auto = new Auto();
-            auto.setIdAutos(rs.getInt("ID_Autos"));
-            auto.setModell(rs.getString("Modell"));
-            auto.setBaujahr(rs.getDate("Baujahr").toLocalDate());
-            auto.setGewicht(rs.getDouble("Gewicht"));
-            auto.setLeistung(rs.getInt("Leistung"));
-            auto.setVerbrenner(rs.getBoolean("Verbrenner"));
-            auto.setProduktion(rs.getBoolean("Produktion"));
-            auto.setFsMarken(rs.getInt("FS_Marken"));
-
-            // Marke laden
-            Marke marke = readMarkeById(rs.getInt("FS_Marken"));
-            auto.setMarke(marke);
-        }
-        con.close();
-        return auto;
+        try (Connection con = pool.getConnection()) {
+            ensureMarkenGeladen(con);
+            try (PreparedStatement pstmt = con.prepareStatement(AUTO_SELECT + " WHERE a.ID_Autos = ?")) {
+                pstmt.setInt(1, id);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    Auto auto = null;
+                    if (rs.next()) {
+                        auto = mapAutoMitMarke(con, rs);
+                    }
+                    return auto;
+                }
+            }
+        }
     }
 
     // Alle Autos lesen (inklusive Marken)
+    @Override
     public List<Auto> getAllAutos() throws SQLException {
-        List<Auto> autos = new ArrayList<>();
-        Connection con = DriverManager.getConnection(DB_URL);
-        PreparedStatement pstmt = con.prepareStatement(
-            "SELECT ID_Autos, Modell, Baujahr, Gewicht, Leistung, Verbrenner, Produktion, FS_Marken FROM autos"
-        );
-        ResultSet rs = pstmt.executeQuery();
-        while (rs.next()) {
-            Auto auto = new Auto();
-            auto.setIdAutos(rs.getInt("ID_Autos"));
-            auto.setModell(rs.getString("Modell"));
-            auto.setBaujahr(rs.getDate("Baujahr").toLocalDate());
-            auto.setGewicht(rs.getDouble("Gewicht"));
-            auto.setLeistung(rs.getInt("Leistung"));
-            auto.setVerbrenner(rs.getBoolean("Verbrenner"));
-            auto.setProduktion(rs.getBoolean("Produktion"));
-            auto.setFsMarken(rs.getInt("FS_Marken"));
-
-            // Marke laden
-            Marke marke = readMarkeById(rs.getInt("FS_Marken"));
-            auto.setMarke(marke);
-
-            autos.add(auto);
-        }
-        con.close();
-        return autos;
+        try (Connection con = pool.getConnection()) {
+            ensureMarkenGeladen(con);
+            try (PreparedStatement pstmt = con.prepareStatement(AUTO_SELECT);
+                 ResultSet rs = pstmt.executeQuery()) {
+                return mapAutosMitMarke(con, rs);
+            }
+        }
+    }
+
+    // Eine Seite Autos nach der angegebenen ID lesen (Keyset-Pagination über den Primärschlüssel)
+    @Override
+    public List<Auto> getAutosAfter(int afterId, int limit) throws SQLException {
+        try (Connection con = pool.getConnection()) {
+            ensureMarkenGeladen(con);
+            try (PreparedStatement pstmt = con.prepareStatement(
+                     AUTO_SELECT + " WHERE a.ID_Autos > ? ORDER BY a.ID_Autos LIMIT ?"
+                 )) {
+                pstmt.setInt(1, afterId);
+                pstmt.setInt(2, limit);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return mapAutosMitMarke(con, rs);
+                }
+            }
+        }
+    }
+
+    // Alle Autos zeilenweise über einen serverseitigen Cursor an den Consumer geben, ohne sie zu sammeln
+    @Override
+    public void streamAllAutos(int fetchSize, AutoConsumer consumer) throws SQLException, IOException {
+        try (Connection con = pool.getConnection()) {
+            ensureMarkenGeladen(con);
+            try (PreparedStatement pstmt = con.prepareStatement(
+                     AUTO_SELECT + " ORDER BY a.ID_Autos", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY
+                 )) {
+                pstmt.setFetchSize(fetchSize);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        consumer.accept(mapAutoMitMarke(con, rs));
+                    }
+                }
+            }
+        }
     }
 
-    // Auto hinzufügen
-    public int addAuto(Auto auto) throws SQLException {
-        Connection con = DriverManager.getConnection(DB_URL);
-        PreparedStatement pstmt = con.prepareStatement(
-            "INSERT INTO autos (Modell, Baujahr, Gewicht, Leistung, Verbrenner, Produktion, FS_Marken) VALUES (?, ?, ?, ?, ?, ?, ?)"
-        );
-        pstmt.setString(1, auto.getModell());
-        pstmt.setDate(2, Date.valueOf(auto.getBaujahr()));
-        pstmt.setDouble(3, auto.getGewicht());
-        pstmt.setInt(4, auto.getLeistung());
-        pstmt.setBoolean(5, auto.isVerbrenner());
-        pstmt.setBoolean(6, auto.isProduktion());
-        pstmt.setInt(7, auto.getFsMarken());
-        int rowsAffected = pstmt.executeUpdate();
-        con.close();
-        return rowsAffected;
+    // Auto hinzufügen, aber nur wenn die Marke existiert (INSERT ... SELECT in einer Anweisung).
+    // Keine eingefügte Zeile bedeutet: Marke existiert nicht. Die generierte ID wird im Auto gesetzt.
+    @Override
+    public WriteResult addAuto(Auto auto) throws SQLException {
+        int eingefuegt = 0;
+        autoCounter.beginWrite();
+        try (Connection con = pool.getConnection();
+             PreparedStatement pstmt = con.prepareStatement(
+                 "INSERT INTO autos (Modell, Baujahr, Gewicht, Leistung, Verbrenner, Produktion, FS_Marken) "
+                 + "SELECT ?, ?, ?, ?, ?, ?, m.ID_Marken FROM marken m WHERE m.ID_Marken = ?",
+                 Statement.RETURN_GENERATED_KEYS
+             )) {
+            pstmt.setString(1, auto.getModell());
+            pstmt.setDate(2, Date.valueOf(auto.getBaujahr()));
+            pstmt.setDouble(3, auto.getGewicht());
+            pstmt.setInt(4, auto.getLeistung());
+            pstmt.setBoolean(5, auto.isVerbrenner());
+            pstmt.setBoolean(6, auto.isProduktion());
+            pstmt.setInt(7, auto.getFsMarken());
+            eingefuegt = pstmt.executeUpdate();
+            if (eingefuegt == 0) {
+                return WriteResult.MARKE_NICHT_GEFUNDEN;
+            }
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    auto.setIdAutos(keys.getInt(1));
+                }
+            }
+            return WriteResult.OK;
+        } finally {
+            autoCounter.endWrite(eingefuegt);
+        }
+    }
+
+    // Mehrere Autos in einer Transaktion per JDBC-Batch einfügen, liefert die generierten IDs in Eingabereihenfolge
+    @Override
+    public int[] addAutos(List<Auto> autos) throws SQLException {
+        int eingefuegt = 0;
+        autoCounter.beginWrite();
+        try (Connection con = pool.getConnection()) {
+            con.setAutoCommit(false);
+            try (PreparedStatement pstmt = con.prepareStatement(
+                     "INSERT INTO autos (Modell, Baujahr, Gewicht, Leistung, Verbrenner, Produktion, FS_Marken) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                     Statement.RETURN_GENERATED_KEYS
+                 )) {
+                for (Auto auto : autos) {
+                    pstmt.setString(1, auto.getModell());
+                    pstmt.setDate(2, Date.valueOf(auto.getBaujahr()));
+                    pstmt.setDouble(3, auto.getGewicht());
+                    pstmt.setInt(4, auto.getLeistung());
+                    pstmt.setBoolean(5, auto.isVerbrenner());
+                    pstmt.setBoolean(6, auto.isProduktion());
+                    pstmt.setInt(7, auto.getFsMarken());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+
+                int[] ids = new int[autos.size()];
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    for (int i = 0; i < ids.length && keys.next(); i++) {
+                        ids[i] = keys.getInt(1);
+                    }
+                }
+                con.commit();
+                eingefuegt = ids.length;
+                return ids;
+            } catch (SQLException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+        } finally {
+            autoCounter.endWrite(eingefuegt);
+        }
     }
 
     // Auto löschen
+    @Override
     public int deleteAuto(int id) throws SQLException {
-        Connection con = DriverManager.getConnection(DB_URL);
-        PreparedStatement pstmt = con.prepareStatement("DELETE FROM autos WHERE ID_Autos = ?");
-        pstmt.setInt(1, id);
-        int rowsAffected = pstmt.executeUpdate();
-        con.close();
-        return rowsAffected;
+        int geloescht = 0;
+        autoCounter.beginWrite();
+        try (Connection con = pool.getConnection();
+             PreparedStatement pstmt = con.prepareStatement("DELETE FROM autos WHERE ID_Autos = ?")) {
+            pstmt.setInt(1, id);
+            geloescht = pstmt.executeUpdate();
+            return geloescht;
+        } finally {
+            autoCounter.endWrite(-geloescht);
+        }
     }
 
-    // Autos nach Baujahr (Jahr) lesen
-    public List<Auto> getAutosByJahr(int jahr) throws SQLException {
-        List<Auto> autos = new ArrayList<>();
-        Connection con = DriverManager.getConnection(DB_URL);
-        PreparedStatement pstmt = con.prepareStatement(
-            "SELECT ID_Autos, Modell, Baujahr, Gewicht, Leistung, Verbrenner, Produktion, FS_Marken FROM autos WHERE YEAR(Baujahr) = ?"
-        );
-        pstmt.setInt(1, jahr);
-        ResultSet rs = pstmt.executeQuery();
-        while (rs.next()) {
-            Auto auto = new Auto();
-            auto.setIdAutos(rs.getInt("ID_Autos"));
-            auto.setModell(rs.getString("Modell"));
-            auto.setBaujahr(rs.getDate("Baujahr").toLocalDate());
-            auto.setGewicht(rs.getDouble("Gewicht"));
-            auto.setLeistung(rs.getInt("Leistung"));
-            auto.setVerbrenner(rs.getBoolean("Verbrenner"));
-            auto.setProduktion(rs.getBoolean("Produktion"));
-            auto.setFsMarken(rs.getInt("FS_Marken"));
-
-            // Marke laden
-            Marke marke = readMarkeById(rs.getInt("FS_Marken"));
-            auto.setMarke(marke);
-
-            autos.add(auto);
-        }
-        con.close();
-        return autos;
+    // Halboffener Datumsbereich [von, bis) direkt auf der Spalte, damit MySQL den Index auf Baujahr nutzen kann
+    // (YEAR(Baujahr) = ? würde jede Zeile berechnen und die ganze Tabelle scannen)
+    @Override
+    public List<Auto> getAutosByBaujahr(LocalDate von, LocalDate bisExklusiv) throws SQLException {
+        try (Connection con = pool.getConnection()) {
+            ensureMarkenGeladen(con);
+            try (PreparedStatement pstmt = con.prepareStatement(
+                     AUTO_SELECT + " WHERE a.Baujahr >= ? AND a.Baujahr < ?"
+                 )) {
+                pstmt.setDate(1, Date.valueOf(von));
+                pstmt.setDate(2, Date.valueOf(bisExklusiv));
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return mapAutosMitMarke(con, rs);
+                }
+            }
+        }
+    }
+
+    // Suche mit einem parametrisierten Statement, nur die Werte werden pro Aufruf gebunden
+    @Override
+    public List<Auto> searchAutos(AutoSuche suche) throws SQLException {
+        String sql = SUCH_SQL.computeIfAbsent(suche.form(), form -> suchSql(suche));
+        try (Connection con = pool.getConnection()) {
+            ensureMarkenGeladen(con);
+            try (PreparedStatement pstmt = con.prepareStatement(sql)) {
+                // Reihenfolge wie in suchSql
+                int i = 1;
+                if (suche.minLeistung() != null) pstmt.setInt(i++, suche.minLeistung());
+                if (suche.maxLeistung() != null) pstmt.setInt(i++, suche.maxLeistung());
+                if (suche.minGewicht() != null) pstmt.setDouble(i++, suche.minGewicht());
+                if (suche.maxGewicht() != null) pstmt.setDouble(i++, suche.maxGewicht());
+                if (suche.vonJahr() != null) pstmt.setDate(i++, Date.valueOf(LocalDate.of(suche.vonJahr(), 1, 1)));
+                if (suche.bisJahr() != null) pstmt.setDate(i++, Date.valueOf(LocalDate.of(suche.bisJahr() + 1, 1, 1)));
+                if (suche.verbrenner() != null) pstmt.setBoolean(i++, suche.verbrenner());
+                if (suche.produktion() != null) pstmt.setBoolean(i++, suche.produktion());
+                if (suche.fsMarken() != null) pstmt.setInt(i++, suche.fsMarken());
+                if (suche.modell() != null) pstmt.setString(i++, "%" + escapeLike(suche.modell()) + "%");
+                pstmt.setInt(i, suche.limit());
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return mapAutosMitMarke(con, rs);
+                }
+            }
+        }
+    }
+
+    // SQL für die Form einer Suche; Baujahr als halboffener Datumsbereich, damit der Index auf Baujahr greift
+    private static String suchSql(AutoSuche suche) {
+        List<String> bedingungen = new ArrayList<>();
+        if (suche.minLeistung() != null) bedingungen.add("a.Leistung >= ?");
+        if (suche.maxLeistung() != null) bedingungen.add("a.Leistung <= ?");
+        if (suche.minGewicht() != null) bedingungen.add("a.Gewicht >= ?");
+        if (suche.maxGewicht() != null) bedingungen.add("a.Gewicht <= ?");
+        if (suche.vonJahr() != null) bedingungen.add("a.Baujahr >= ?");
+        if (suche.bisJahr() != null) bedingungen.add("a.Baujahr < ?");
+        if (suche.verbrenner() != null) bedingungen.add("a.Verbrenner = ?");
+        if (suche.produktion() != null) bedingungen.add("a.Produktion = ?");
+        if (suche.fsMarken() != null) bedingungen.add("a.FS_Marken = ?");
+        if (suche.modell() != null) bedingungen.add("a.Modell LIKE ?");
+
+        StringBuilder sql = new StringBuilder(AUTO_SELECT);
+        if (!bedingungen.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", bedingungen));
+        }
+        String richtung = suche.absteigend() ? " DESC" : "";
+        sql.append(" ORDER BY ").append(suche.sortierung().getSpalte()).append(richtung);
+        if (suche.sortierung() != AutoSuche.Sortierung.ID) {
+            sql.append(", a.ID_Autos");
+        }
+        return sql.append(" LIMIT ?").toString();
+    }
+
+    // Platzhalter von LIKE im Suchtext wörtlich nehmen (Escape-Zeichen ist standardmässig der Backslash)
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // Anzahl aller Autos (aus dem Zähler im Speicher, nur beim ersten Aufruf aus der Datenbank)
+    @Override
+    public long countAutos() throws SQLException {
+        return autoCounter.get();
     }
 
-    // Anzahl aller Autos zählen
-    public int countAutos() throws SQLException {
-        Connection con = DriverManager.getConnection(DB_URL);
-        PreparedStatement pstmt = con.prepareStatement("SELECT COUNT(*) as total FROM autos");
-        ResultSet rs = pstmt.executeQuery();
-        int count = 0;
-        if (rs.next()) {
-            count = rs.getInt("total");
-        }
-        con.close();
-        return count;
-    }
-
-    // Auto aktualisieren
-    public int updateAuto(Auto auto) throws SQLException {
-        Connection con = DriverManager.getConnection(DB_URL);
-        PreparedStatement pstmt = con.prepareStatement(
-            "UPDATE autos SET Modell = ?, Baujahr = ?, Gewicht = ?, Leistung = ?, Verbrenner = ?, Produktion = ?, FS_Marken = ? WHERE ID_Autos = ?"
-        );
-        pstmt.setString(1, auto.getModell());
-        pstmt.setDate(2, Date.valueOf(auto.getBaujahr()));
-        pstmt.setDouble(3, auto.getGewicht());
-        pstmt.setInt(4, auto.getLeistung());
-        pstmt.setBoolean(5, auto.isVerbrenner());
-        pstmt.setBoolean(6, auto.isProduktion());
-        pstmt.setInt(7, auto.getFsMarken());
-        pstmt.setInt(8, auto.getIdAutos());
-        int rowsAffected = pstmt.executeUpdate();
-        con.close();
-        return rowsAffected;
+    // Anzahl aller Autos in der Datenbank zählen, für das Laden und den Abgleich des Zählers
+    private static long queryCountAutos(ConnectionPool pool) throws SQLException {
+        try (Connection con = pool.getConnection();
+             PreparedStatement pstmt = con.prepareStatement("SELECT COUNT(*) as total FROM autos");
+             ResultSet rs = pstmt.executeQuery()) {
+            long count = 0;
+            if (rs.next()) {
+                count = rs.getLong("total");
+            }
+            return count;
+        }
+    }
+
+    // Auto aktualisieren, aber nur wenn Auto und Marke existieren (UPDATE mit JOIN in einer Anweisung).
+    // Nur wenn keine Zeile getroffen wurde, wird einmal nachgesehen, welche der beiden fehlt.
+    @Override
+    public WriteResult updateAuto(Auto auto) throws SQLException {
+        try (Connection con = pool.getConnection()) {
+            try (PreparedStatement pstmt = con.prepareStatement(
+                     "UPDATE autos a JOIN marken m ON m.ID_Marken = ? "
+                     + "SET a.Modell = ?, a.Baujahr = ?, a.Gewicht = ?, a.Leistung = ?, a.Verbrenner = ?, a.Produktion = ?, a.FS_Marken = m.ID_Marken "
+                     + "WHERE a.ID_Autos = ?"
+                 )) {
+                pstmt.setInt(1, auto.getFsMarken());
+                pstmt.setString(2, auto.getModell());
+                pstmt.setDate(3, Date.valueOf(auto.getBaujahr()));
+                pstmt.setDouble(4, auto.getGewicht());
+                pstmt.setInt(5, auto.getLeistung());
+                pstmt.setBoolean(6, auto.isVerbrenner());
+                pstmt.setBoolean(7, auto.isProduktion());
+                pstmt.setInt(8, auto.getIdAutos());
+                // Connector/J liefert gefundene (nicht nur geänderte) Zeilen, ein unverändertes Auto zählt also auch
+                if (pstmt.executeUpdate() > 0) {
+                    return WriteResult.OK;
+                }
+            }
+            return autoExists(con, auto.getIdAutos()) ? WriteResult.MARKE_NICHT_GEFUNDEN : WriteResult.AUTO_NICHT_GEFUNDEN;
+        }
     }
 
     // Alle Autos löschen
+    @Override
     public int deleteAllAutos() throws SQLException {
-        Connection con = DriverManager.getConnection(DB_URL);
-        PreparedStatement pstmt = con.prepareStatement("DELETE FROM autos");
-        int rowsAffected = pstmt.executeUpdate();
-        con.close();
-        return rowsAffected;
+        int geloescht = 0;
+        autoCounter.beginWrite();
+        try (Connection con = pool.getConnection();
+             PreparedStatement pstmt = con.prepareStatement("DELETE FROM autos")) {
+            geloescht = pstmt.executeUpdate();
+            return geloescht;
+        } finally {
+            autoCounter.endWrite(-geloescht);
+        }
+    }
+
+    // Alle Zeilen abbilden; die Marken kommen als geteilte Instanzen aus dem Cache
+    private List<Auto> mapAutosMitMarke(Connection con, ResultSet rs) throws SQLException {
+        List<Auto> autos = new ArrayList<>();
+        while (rs.next()) {
+            autos.add(mapAutoMitMarke(con, rs));
+        }
+        return autos;
+    }
+
+    // Eine Zeile aus der autos-Tabelle auf ein Auto abbilden, Marke aus dem Cache
+    private Auto mapAutoMitMarke(Connection con, ResultSet rs) throws SQLException {
+        Auto auto = new Auto();
+        auto.setIdAutos(rs.getInt("ID_Autos"));
+        auto.setModell(rs.getString("Modell"));
+        auto.setBaujahr(rs.getDate("Baujahr").toLocalDate());
+        auto.setGewicht(rs.getDouble("Gewicht"));
+        auto.setLeistung(rs.getInt("Leistung"));
+        auto.setVerbrenner(rs.getBoolean("Verbrenner"));
+        auto.setProduktion(rs.getBoolean("Produktion"));
+        auto.setFsMarken(rs.getInt("FS_Marken"));
+        auto.setMarke(resolveMarke(con, auto.getFsMarken()));
+        return auto;
     }
 
     // ==================== VALIDIERUNGS-Methoden ====================
 
-    // Prüfen ob eine Marke existiert
-    public boolean markeExists(int markeId) throws SQLException {
-        Connection con = DriverManager.getConnection(DB_URL);
-        PreparedStatement pstmt = con.prepareStatement("SELECT COUNT(*) as count FROM marken WHERE ID_Marken = ?");
-        pstmt.setInt(1, markeId);
-        ResultSet rs = pstmt.executeQuery();
-        boolean exists = false;
-        if (rs.next()) {
-            exists = rs.getInt("count") > 0;
+    // Welche der angegebenen Marken existieren (aus dem Cache oder mit einer einzigen IN-Abfrage)
+    @Override
+    public Set<Integer> existingMarkenIds(Collection<Integer> markenIds) throws SQLException {
+        Set<Integer> vorhanden = new HashSet<>();
+        List<Integer> unbekannt = new ArrayList<>();
+        for (Integer id : markenIds) {
+            if (markeCache.get(id) != null) {
+                vorhanden.add(id);
+            } else if (!markeCache.isComplete()) {
+                unbekannt.add(id);
+            }
+        }
+        if (unbekannt.isEmpty()) {
+            return vorhanden;
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT ID_Marken FROM marken WHERE ID_Marken IN (");
+        for (int i = 0; i < unbekannt.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
         }
-        con.close();
-        return exists;
+        sql.append(')');
+        try (Connection con = pool.getConnection();
+             PreparedStatement pstmt = con.prepareStatement(sql.toString())) {
+            for (int i = 0; i < unbekannt.size(); i++) {
+                pstmt.setInt(i + 1, unbekannt.get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    vorhanden.add(rs.getInt("ID_Marken"));
+                }
+            }
+        }
+        return vorhanden;
     }
 
     // Prüfen ob eine Marke von Autos referenziert wird
+    @Override
     public int countAutosWithMarke(int markeId) throws SQLException {
-        Connection con = DriverManager.getConnection(DB_URL);
-        PreparedStatement pstmt = con.prepareStatement("SELECT COUNT(*) as count FROM autos WHERE FS_Marken = ?");
-        pstmt.setInt(1, markeId);
-        ResultSet rs = pstmt.executeQuery();
-        int count = 0;
-        if (rs.next()) {
-            count = rs.getInt("count");
+        try (Connection con = pool.getConnection();
+             PreparedStatement pstmt = con.prepareStatement("SELECT COUNT(*) as count FROM autos WHERE FS_Marken = ?")) {
+            pstmt.setInt(1, markeId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                int count = 0;
+                if (rs.next()) {
+                    count = rs.getInt("count");
+                }
+                return count;
+            }
         }
-        con.close();
-        return count;
     }
 
     // Prüfen ob ein Auto existiert
+    @Override
     public boolean autoExists(int autoId) throws SQLException {
-        Connection con = DriverManager.getConnection(DB_URL);
-        PreparedStatement pstmt = con.prepareStatement("SELECT COUNT(*) as count FROM autos WHERE ID_Autos = ?");
-        pstmt.setInt(1, autoId);
-        ResultSet rs = pstmt.executeQuery();
-        boolean exists = false;
-        if (rs.next()) {
-            exists = rs.getInt("count") > 0;
-        }
-        con.close();
-        return exists;
+        try (Connection con = pool.getConnection()) {
+            return autoExists(con, autoId);
+        }
+    }
+
+    private boolean autoExists(Connection con, int autoId) throws SQLException {
+        try (PreparedStatement pstmt = con.prepareStatement("SELECT COUNT(*) as count FROM autos WHERE ID_Autos = ?")) {
+            pstmt.setInt(1, autoId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                boolean exists = false;
+                if (rs.next()) {
+                    exists = rs.getInt("count") > 0;
+                }
+                return exists;
+            }
+        }
     }
 }
@@ -0,0 +1,190 @@
+package org.example.projekt.services;
+
+import org.example.projekt.metrics.Histogramm;
+import org.example.projekt.metrics.Metriken;
+import org.example.projekt.modules.Auto;
+import org.example.projekt.modules.Marke;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+// Misst Dauer und Fehler jeder Repository-Methode (db_query_duration_seconds, db_query_errors_total).
+// Liegt direkt um DataBase bzw. InMemoryRepository, die Wartezeit im BegrenztesRepository zählt also nicht mit.
+// Histogramme und Zähler werden im Konstruktor angelegt, eine Messung kostet zwei nanoTime() und ein Inkrement.
+public class GemessenesRepository implements AutoRepository, MarkeRepository {
+
+    private record Messung(Histogramm dauer, LongAdder fehler) {
+        static Messung von(String abfrage) {
+            return new Messung(
+                    Metriken.histogramm("db_query_duration_seconds", "Dauer pro Repository-Methode", "query", abfrage),
+                    Metriken.zaehler("db_query_errors_total", "Fehlgeschlagene Aufrufe pro Repository-Methode", "query", abfrage));
+        }
+    }
+
+    private final AutoRepository autos;
+    private final MarkeRepository marken;
+
+    private final Messung readAutoById = Messung.von("readAutoById");
+    private final Messung getAllAutos = Messung.von("getAllAutos");
+    private final Messung getAutosAfter = Messung.von("getAutosAfter");
+    private final Messung streamAllAutos = Messung.von("streamAllAutos");
+    private final Messung getAutosByBaujahr = Messung.von("getAutosByBaujahr");
+    private final Messung searchAutos = Messung.von("searchAutos");
+    private final Messung addAuto = Messung.von("addAuto");
+    private final Messung addAutos = Messung.von("addAutos");
+    private final Messung updateAuto = Messung.von("updateAuto");
+    private final Messung deleteAuto = Messung.von("deleteAuto");
+    private final Messung deleteAllAutos = Messung.von("deleteAllAutos");
+    private final Messung countAutos = Messung.von("countAutos");
+    private final Messung countAutosWithMarke = Messung.von("countAutosWithMarke");
+    private final Messung autoExists = Messung.von("autoExists");
+    private final Messung readMarkeById = Messung.von("readMarkeById");
+    private final Messung getAllMarken = Messung.von("getAllMarken");
+    private final Messung markeExists = Messung.von("markeExists");
+    private final Messung existingMarkenIds = Messung.von("existingMarkenIds");
+    private final Messung addMarke = Messung.von("addMarke");
+    private final Messung deleteMarke = Messung.von("deleteMarke");
+
+    public <R extends AutoRepository & MarkeRepository> GemessenesRepository(R repository) {
+        this.autos = repository;
+        this.marken = repository;
+    }
+
+    // ==================== Autos ====================
+
+    @Override
+    public Auto readAutoById(int id) throws SQLException {
+        return gemessen(readAutoById, () -> autos.readAutoById(id));
+    }
+
+    @Override
+    public List<Auto> getAllAutos() throws SQLException {
+        return gemessen(getAllAutos, autos::getAllAutos);
+    }
+
+    @Override
+    public List<Auto> getAutosAfter(int afterId, int limit) throws SQLException {
+        return gemessen(getAutosAfter, () -> autos.getAutosAfter(afterId, limit));
+    }
+
+    // Enthält das Schreiben in den Response-Stream
+    @Override
+    public void streamAllAutos(int fetchSize, AutoConsumer consumer) throws SQLException, IOException {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            autos.streamAllAutos(fetchSize, consumer);
+            ok = true;
+        } finally {
+            aufnehmen(streamAllAutos, start, ok);
+        }
+    }
+
+    @Override
+    public List<Auto> getAutosByBaujahr(LocalDate von, LocalDate bisExklusiv) throws SQLException {
+        return gemessen(getAutosByBaujahr, () -> autos.getAutosByBaujahr(von, bisExklusiv));
+    }
+
+    @Override
+    public List<Auto> searchAutos(AutoSuche suche) throws SQLException {
+        return gemessen(searchAutos, () -> autos.searchAutos(suche));
+    }
+
+    @Override
+    public WriteResult addAuto(Auto auto) throws SQLException {
+        return gemessen(addAuto, () -> autos.addAuto(auto));
+    }
+
+    @Override
+    public int[] addAutos(List<Auto> neu) throws SQLException {
+        return gemessen(addAutos, () -> autos.addAutos(neu));
+    }
+
+    @Override
+    public WriteResult updateAuto(Auto auto) throws SQLException {
+        return gemessen(updateAuto, () -> autos.updateAuto(auto));
+    }
+
+    @Override
+    public int deleteAuto(int id) throws SQLException {
+        return gemessen(deleteAuto, () -> autos.deleteAuto(id));
+    }
+
+    @Override
+    public int deleteAllAutos() throws SQLException {
+        return gemessen(deleteAllAutos, autos::deleteAllAutos);
+    }
+
+    @Override
+    public long countAutos() throws SQLException {
+        return gemessen(countAutos, autos::countAutos);
+    }
+
+    @Override
+    public int countAutosWithMarke(int markeId) throws SQLException {
+        return gemessen(countAutosWithMarke, () -> autos.countAutosWithMarke(markeId));
+    }
+
+    @Override
+    public boolean autoExists(int autoId) throws SQLException {
+        return gemessen(autoExists, () -> autos.autoExists(autoId));
+    }
+
+    // ==================== Marken ====================
+
+    @Override
+    public Marke readMarkeById(int id) throws SQLException {
+        return gemessen(readMarkeById, () -> marken.readMarkeById(id));
+    }
+
+    @Override
+    public List<Marke> getAllMarken() throws SQLException {
+        return gemessen(getAllMarken, marken::getAllMarken);
+    }
+
+    @Override
+    public boolean markeExists(int markeId) throws SQLException {
+        return gemessen(markeExists, () -> marken.markeExists(markeId));
+    }
+
+    @Override
+    public Set<Integer> existingMarkenIds(Collection<Integer> markenIds) throws SQLException {
+        return gemessen(existingMarkenIds, () -> marken.existingMarkenIds(markenIds));
+    }
+
+    @Override
+    public int addMarke(Marke marke) throws SQLException {
+        return gemessen(addMarke, () -> marken.addMarke(marke));
+    }
+
+    @Override
+    public int deleteMarke(int id) throws SQLException {
+        return gemessen(deleteMarke, () -> marken.deleteMarke(id));
+    }
+
+    // ==================== Hilfsmethoden ====================
+
+    private static <T> T gemessen(Messung messung, Abfrage<T> abfrage) throws SQLException {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            T ergebnis = abfrage.ausfuehren();
+            ok = true;
+            return ergebnis;
+        } finally {
+            aufnehmen(messung, start, ok);
+        }
+    }
+
+    private static void aufnehmen(Messung messung, long start, boolean ok) {
+        messung.dauer().aufnehmen(System.nanoTime() - start);
+        if (!ok) {
+            messung.fehler().increment();
+        }
+    }
+}
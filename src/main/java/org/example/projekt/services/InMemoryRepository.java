@@ -0,0 +1,383 @@
+package org.example.projekt.services;
+
+import org.example.projekt.modules.Auto;
+import org.example.projekt.modules.Marke;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Repository im Speicher, ohne Datenbank (-Dprojekt.repository=memory).
+// Verhält sich wie die MySQL-Implementierung: IDs werden fortlaufend vergeben, der Fremdschlüssel
+// autos.FS_Marken wird geprüft und eine noch referenzierte Marke kann nicht gelöscht werden.
+// Lesezugriffe laufen parallel, Schreibzugriffe exklusiv (ein Lock für beide Tabellen, wie eine Transaktion).
+public class InMemoryRepository implements AutoRepository, MarkeRepository {
+
+    // SQLState für Verletzungen von Integritätsbedingungen, wie ihn auch MySQL liefert
+    private static final String SQLSTATE_CONSTRAINT = "23000";
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final IntHashMap<Marke> marken = new IntHashMap<>();
+    private final IntHashMap<Auto> autos = new IntHashMap<>();
+
+    // IDs der Autos aufsteigend; gelöschte IDs bleiben stehen, bis genug zum Aufräumen zusammenkommen
+    private int[] reihenfolge = new int[16];
+    private int reihenfolgeSize;
+
+    private int naechsteMarkeId = 1;
+    private int naechsteAutoId = 1;
+
+    // ==================== MARKE-Methoden ====================
+
+    @Override
+    public Marke readMarkeById(int id) {
+        lock.readLock().lock();
+        try {
+            return marken.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Marke> getAllMarken() {
+        lock.readLock().lock();
+        try {
+            List<Marke> liste = new ArrayList<>(marken.size());
+            marken.forEachValue(liste::add);
+            liste.sort((a, b) -> Integer.compare(a.getIdMarke(), b.getIdMarke()));
+            return liste;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int addMarke(Marke marke) {
+        lock.writeLock().lock();
+        try {
+            Marke kopie = new Marke(naechsteMarkeId++, marke.getName());
+            marken.put(kopie.getIdMarke(), kopie);
+            return 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int deleteMarke(int id) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            if (!marken.containsKey(id)) {
+                return 0;
+            }
+            if (countAutosWithMarkeLocked(id) > 0) {
+                throw new SQLIntegrityConstraintViolationException(
+                        "Marke " + id + " wird noch von Autos referenziert", SQLSTATE_CONSTRAINT);
+            }
+            marken.remove(id);
+            return 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Set<Integer> existingMarkenIds(Collection<Integer> markenIds) {
+        lock.readLock().lock();
+        try {
+            Set<Integer> vorhanden = new HashSet<>();
+            for (Integer id : markenIds) {
+                if (marken.containsKey(id)) {
+                    vorhanden.add(id);
+                }
+            }
+            return vorhanden;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==================== AUTO-Methoden ====================
+
+    @Override
+    public Auto readAutoById(int id) {
+        lock.readLock().lock();
+        try {
+            Auto auto = autos.get(id);
+            return auto == null ? null : kopieMitMarke(auto);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Auto> getAllAutos() {
+        return getAutosAfter(0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Auto> getAutosAfter(int afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Auto> seite = new ArrayList<>(Math.min(limit, autos.size()));
+            for (int i = ersterIndexNach(afterId); i < reihenfolgeSize && seite.size() < limit; i++) {
+                Auto auto = autos.get(reihenfolge[i]);
+                if (auto != null) {
+                    seite.add(kopieMitMarke(auto));
+                }
+            }
+            return seite;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Seitenweise lesen, damit der Consumer (Schreiben in den Response-Stream) nicht unter dem Lock läuft
+    @Override
+    public void streamAllAutos(int fetchSize, AutoConsumer consumer) throws IOException {
+        int afterId = 0;
+        List<Auto> seite;
+        do {
+            seite = getAutosAfter(afterId, fetchSize);
+            for (Auto auto : seite) {
+                consumer.accept(auto);
+            }
+            if (!seite.isEmpty()) {
+                afterId = seite.get(seite.size() - 1).getIdAutos();
+            }
+        } while (seite.size() == fetchSize);
+    }
+
+    @Override
+    public List<Auto> getAutosByBaujahr(LocalDate von, LocalDate bisExklusiv) {
+        lock.readLock().lock();
+        try {
+            List<Auto> treffer = new ArrayList<>();
+            for (int i = 0; i < reihenfolgeSize; i++) {
+                Auto auto = autos.get(reihenfolge[i]);
+                if (auto != null && !auto.getBaujahr().isBefore(von) && auto.getBaujahr().isBefore(bisExklusiv)) {
+                    treffer.add(kopieMitMarke(auto));
+                }
+            }
+            return treffer;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Plan: nach ID aufsteigend in der gespeicherten Reihenfolge suchen und beim Limit aufhören,
+    // sonst alle Treffer durch einen Heap der Grösse limit schieben (Top-K statt ganz sortieren)
+    @Override
+    public List<Auto> searchAutos(AutoSuche suche) {
+        Comparator<Auto> reihenfolge = suche.sortierung().comparator(suche.absteigend());
+        lock.readLock().lock();
+        try {
+            if (suche.sortierung() == AutoSuche.Sortierung.ID && !suche.absteigend()) {
+                List<Auto> treffer = new ArrayList<>();
+                for (int i = 0; i < reihenfolgeSize && treffer.size() < suche.limit(); i++) {
+                    Auto auto = autos.get(this.reihenfolge[i]);
+                    if (auto != null && suche.passt(auto)) {
+                        treffer.add(kopieMitMarke(auto));
+                    }
+                }
+                return treffer;
+            }
+            // Der Kopf des Heaps ist der schlechteste der bisher besten Treffer
+            PriorityQueue<Auto> besten = new PriorityQueue<>(reihenfolge.reversed());
+            autos.forEachValue(auto -> {
+                if (suche.passt(auto)) {
+                    if (besten.size() < suche.limit()) {
+                        besten.add(auto);
+                    } else if (reihenfolge.compare(auto, besten.peek()) < 0) {
+                        besten.poll();
+                        besten.add(auto);
+                    }
+                }
+            });
+            List<Auto> treffer = new ArrayList<>(besten.size());
+            for (Auto auto : besten) {
+                treffer.add(kopieMitMarke(auto));
+            }
+            treffer.sort(reihenfolge);
+            return treffer;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public WriteResult addAuto(Auto auto) {
+        lock.writeLock().lock();
+        try {
+            if (!marken.containsKey(auto.getFsMarken())) {
+                return WriteResult.MARKE_NICHT_GEFUNDEN;
+            }
+            auto.setIdAutos(einfuegen(auto));
+            return WriteResult.OK;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Alles oder nichts: bei einer fehlenden Marke wird kein Auto eingefügt (wie der Rollback in MySQL)
+    @Override
+    public int[] addAutos(List<Auto> neueAutos) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            for (Auto auto : neueAutos) {
+                if (!marken.containsKey(auto.getFsMarken())) {
+                    throw new SQLIntegrityConstraintViolationException(
+                            "Marke " + auto.getFsMarken() + " existiert nicht", SQLSTATE_CONSTRAINT);
+                }
+            }
+            int[] ids = new int[neueAutos.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = einfuegen(neueAutos.get(i));
+            }
+            return ids;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public WriteResult updateAuto(Auto auto) {
+        lock.writeLock().lock();
+        try {
+            if (!autos.containsKey(auto.getIdAutos())) {
+                return WriteResult.AUTO_NICHT_GEFUNDEN;
+            }
+            if (!marken.containsKey(auto.getFsMarken())) {
+                return WriteResult.MARKE_NICHT_GEFUNDEN;
+            }
+            autos.put(auto.getIdAutos(), kopie(auto, auto.getIdAutos()));
+            return WriteResult.OK;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int deleteAuto(int id) {
+        lock.writeLock().lock();
+        try {
+            if (autos.remove(id) == null) {
+                return 0;
+            }
+            // Die ID bleibt in der Reihenfolge stehen und wird beim Lesen übersprungen
+            if (reihenfolgeSize > 64 && autos.size() < reihenfolgeSize / 2) {
+                aufraeumen();
+            }
+            return 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int deleteAllAutos() {
+        lock.writeLock().lock();
+        try {
+            int anzahl = autos.size();
+            autos.clear();
+            reihenfolgeSize = 0;
+            return anzahl;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long countAutos() {
+        lock.readLock().lock();
+        try {
+            return autos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int countAutosWithMarke(int markeId) {
+        lock.readLock().lock();
+        try {
+            return countAutosWithMarkeLocked(markeId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean autoExists(int autoId) {
+        lock.readLock().lock();
+        try {
+            return autos.containsKey(autoId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==================== Hilfsmethoden (nur unter dem Lock aufrufen) ====================
+
+    private int countAutosWithMarkeLocked(int markeId) {
+        int[] anzahl = {0};
+        autos.forEachValue(auto -> {
+            if (auto.getFsMarken() == markeId) {
+                anzahl[0]++;
+            }
+        });
+        return anzahl[0];
+    }
+
+    // Kopie speichern und die ID hinten an die Reihenfolge anhängen (IDs sind fortlaufend, also bleibt sie sortiert)
+    private int einfuegen(Auto auto) {
+        int id = naechsteAutoId++;
+        autos.put(id, kopie(auto, id));
+        if (reihenfolgeSize == reihenfolge.length) {
+            reihenfolge = Arrays.copyOf(reihenfolge, reihenfolgeSize * 2);
+        }
+        reihenfolge[reihenfolgeSize++] = id;
+        return id;
+    }
+
+    // Index der ersten ID grösser als afterId in der sortierten Reihenfolge
+    private int ersterIndexNach(int afterId) {
+        int index = Arrays.binarySearch(reihenfolge, 0, reihenfolgeSize, afterId);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    // Gelöschte IDs aus der Reihenfolge entfernen
+    private void aufraeumen() {
+        int neu = 0;
+        for (int i = 0; i < reihenfolgeSize; i++) {
+            if (autos.containsKey(reihenfolge[i])) {
+                reihenfolge[neu++] = reihenfolge[i];
+            }
+        }
+        reihenfolgeSize = neu;
+    }
+
+    // Gespeicherte Autos werden nie herausgegeben, damit Aufrufer sie nicht ausserhalb des Locks verändern
+    private Auto kopieMitMarke(Auto auto) {
+        Auto kopie = kopie(auto, auto.getIdAutos());
+        kopie.setMarke(marken.get(auto.getFsMarken()));
+        return kopie;
+    }
+
+    private static Auto kopie(Auto auto, int id) {
+        return new Auto(id, auto.getModell(), auto.getBaujahr(), auto.getGewicht(), auto.getLeistung(),
+                auto.isVerbrenner(), auto.isProduktion(), auto.getFsMarken(), null);
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.projekt.services;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+// Hash-Map mit int-Schlüsseln ohne Boxing: offene Adressierung mit linearer Sondierung in zwei Arrays.
+// Nicht thread-sicher, der Aufrufer synchronisiert (siehe InMemoryRepository).
+final class IntHashMap<V> {
+    private static final int FREI = 0;
+    private static final float MAX_LOAD = 0.6f;
+
+    // Schlüssel 0 markiert einen freien Platz und wird deshalb separat gehalten
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+    private boolean hatNull;
+    private Object nullValue;
+
+    IntHashMap() {
+        this(16);
+    }
+
+    IntHashMap(int erwarteteGroesse) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (erwarteteGroesse / MAX_LOAD)) - 1) << 1;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    int size() {
+        return size + (hatNull ? 1 : 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        if (key == FREI) {
+            return hatNull ? (V) nullValue : null;
+        }
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) {
+                return (V) values[i];
+            }
+            if (k == FREI) {
+                return null;
+            }
+        }
+    }
+
+    boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    // Wert setzen, liefert den bisherigen Wert oder null
+    @SuppressWarnings("unchecked")
+    V put(int key, V value) {
+        if (key == FREI) {
+            V alt = hatNull ? (V) nullValue : null;
+            hatNull = true;
+            nullValue = value;
+            return alt;
+        }
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) {
+                V alt = (V) values[i];
+                values[i] = value;
+                return alt;
+            }
+            if (k == FREI) {
+                keys[i] = key;
+                values[i] = value;
+                if (++size > (mask + 1) * MAX_LOAD) {
+                    rehash((mask + 1) << 1);
+                }
+                return null;
+            }
+        }
+    }
+
+    // Eintrag entfernen, liefert den bisherigen Wert oder null
+    @SuppressWarnings("unchecked")
+    V remove(int key) {
+        if (key == FREI) {
+            V alt = hatNull ? (V) nullValue : null;
+            hatNull = false;
+            nullValue = null;
+            return alt;
+        }
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) {
+                V alt = (V) values[i];
+                shiftBack(i);
+                size--;
+                return alt;
+            }
+            if (k == FREI) {
+                return null;
+            }
+        }
+    }
+
+    void clear() {
+        Arrays.fill(keys, FREI);
+        Arrays.fill(values, null);
+        size = 0;
+        hatNull = false;
+        nullValue = null;
+    }
+
+    // Alle Werte in beliebiger Reihenfolge
+    @SuppressWarnings("unchecked")
+    void forEachValue(Consumer<? super V> action) {
+        if (hatNull) {
+            action.accept((V) nullValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREI) {
+                action.accept((V) values[i]);
+            }
+        }
+    }
+
+    private int index(int key) {
+        // Fibonacci-Hashing verteilt fortlaufende IDs gleichmässig
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    // Löschen ohne Grabsteine: nachfolgende Einträge derselben Kette rücken nach
+    private void shiftBack(int frei) {
+        for (int i = (frei + 1) & mask; keys[i] != FREI; i = (i + 1) & mask) {
+            int ideal = index(keys[i]);
+            // Eintrag darf nur nach vorne rücken, wenn er dadurch nicht vor seinen idealen Platz gerät
+            if (((i - ideal) & mask) >= ((i - frei) & mask)) {
+                keys[frei] = keys[i];
+                values[frei] = values[i];
+                frei = i;
+            }
+        }
+        keys[frei] = FREI;
+        values[frei] = null;
+    }
+
+    private void rehash(int capacity) {
+        int[] alteKeys = keys;
+        Object[] alteValues = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < alteKeys.length; i++) {
+            int k = alteKeys[i];
+            if (k != FREI) {
+                int j = index(k);
+                while (keys[j] != FREI) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = k;
+                values[j] = alteValues[i];
+            }
+        }
+    }
+}
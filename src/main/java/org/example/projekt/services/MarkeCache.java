@@ -0,0 +1,159 @@
+package org.example.projekt.services;
+
+import org.example.projekt.modules.Marke;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+// Read-Through-Cache für die kleine, selten geänderte marken-Tabelle.
+// Schreibzugriffe rufen invalidate() auf; Ladevorgänge, die während einer Invalidierung laufen,
+// werden über die Generation erkannt und nicht übernommen.
+public class MarkeCache {
+
+    private record Eintrag(Marke marke, long geladenAm) {
+    }
+
+    private record Liste(List<Marke> marken, long geladenAm) {
+    }
+
+    private final int maxSize;
+    private final long ttlMillis;
+
+    private final Map<Integer, Eintrag> byId = new ConcurrentHashMap<>();
+    private final AtomicReference<Liste> alle = new AtomicReference<>();
+    private final AtomicLong generation = new AtomicLong();
+    private volatile boolean zuGross;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public MarkeCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+    }
+
+    // Einstellungen aus System-Properties (-Dcache.marken.maxSize, -Dcache.marken.ttlMs, 0 = ohne TTL)
+    public static MarkeCache fromSystemProperties() {
+        return new MarkeCache(
+                Integer.getInteger("cache.marken.maxSize", 10_000),
+                Long.getLong("cache.marken.ttlMs", 0L));
+    }
+
+    // Vor dem Laden aus der Datenbank abfragen und an put/putAll übergeben
+    public long generation() {
+        return generation.get();
+    }
+
+    // Marke aus dem Cache, null wenn nicht (mehr) vorhanden
+    public Marke get(int id) {
+        Eintrag eintrag = byId.get(id);
+        if (eintrag == null || abgelaufen(eintrag.geladenAm())) {
+            if (eintrag != null) {
+                byId.remove(id, eintrag);
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return eintrag.marke();
+    }
+
+    // Alle Marken, null wenn die vollständige Liste nicht geladen ist
+    public List<Marke> getAll() {
+        Liste liste = alle.get();
+        if (liste == null || abgelaufen(liste.geladenAm())) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return liste.marken();
+    }
+
+    // true, wenn alle Marken im Cache sind: eine fehlende ID existiert dann auch in der Datenbank nicht
+    public boolean isComplete() {
+        Liste liste = alle.get();
+        return liste != null && !abgelaufen(liste.geladenAm());
+    }
+
+    // false, wenn die Tabelle beim letzten Laden nicht in den Cache gepasst hat
+    public boolean canHoldAll() {
+        return !zuGross;
+    }
+
+    public void put(Marke marke, long geladenInGeneration) {
+        if (generation.get() != geladenInGeneration) {
+            return;
+        }
+        if (byId.size() >= maxSize && !byId.containsKey(marke.getIdMarke())) {
+            evictOldest();
+        }
+        Eintrag eintrag = new Eintrag(marke, System.currentTimeMillis());
+        byId.put(marke.getIdMarke(), eintrag);
+        // Invalidierung zwischen Prüfung und put: Eintrag wieder entfernen
+        if (generation.get() != geladenInGeneration) {
+            byId.remove(marke.getIdMarke(), eintrag);
+        }
+    }
+
+    public void putAll(List<Marke> marken, long geladenInGeneration) {
+        if (marken.size() > maxSize) {
+            // Tabelle grösser als der Cache: nur einzelne Marken bei Bedarf cachen
+            zuGross = true;
+            return;
+        }
+        if (generation.get() != geladenInGeneration) {
+            return;
+        }
+        for (Marke marke : marken) {
+            put(marke, geladenInGeneration);
+        }
+        Liste liste = new Liste(List.copyOf(marken), System.currentTimeMillis());
+        alle.set(liste);
+        if (generation.get() != geladenInGeneration) {
+            alle.compareAndSet(liste, null);
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        zuGross = false;
+        alle.set(null);
+        byId.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    private boolean abgelaufen(long geladenAm) {
+        return ttlMillis > 0 && System.currentTimeMillis() - geladenAm > ttlMillis;
+    }
+
+    private void evictOldest() {
+        Integer oldestId = null;
+        long oldest = Long.MAX_VALUE;
+        for (Map.Entry<Integer, Eintrag> entry : byId.entrySet()) {
+            if (entry.getValue().geladenAm() < oldest) {
+                oldest = entry.getValue().geladenAm();
+                oldestId = entry.getKey();
+            }
+        }
+        if (oldestId != null) {
+            byId.remove(oldestId);
+            // Die Liste ist nicht mehr vollständig
+            alle.set(null);
+        }
+    }
+}
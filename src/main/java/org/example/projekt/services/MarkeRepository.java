@@ -0,0 +1,33 @@
+package org.example.projekt.services;
+
+import org.example.projekt.modules.Marke;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+// Zugriff auf die Marken, unabhängig vom Speicher (MySQL oder im Speicher, siehe Repositories)
+public interface MarkeRepository {
+
+    // Marke nach ID lesen, null wenn sie nicht existiert
+    Marke readMarkeById(int id) throws SQLException;
+
+    // Alle Marken lesen
+    List<Marke> getAllMarken() throws SQLException;
+
+    // Marke hinzufügen, liefert die Anzahl eingefügter Zeilen
+    int addMarke(Marke marke) throws SQLException;
+
+    // Marke löschen, liefert die Anzahl gelöschter Zeilen.
+    // Wird die Marke noch von Autos referenziert, schlägt das Löschen mit einer SQLIntegrityConstraintViolationException fehl.
+    int deleteMarke(int id) throws SQLException;
+
+    // Prüfen ob eine Marke existiert
+    default boolean markeExists(int markeId) throws SQLException {
+        return readMarkeById(markeId) != null;
+    }
+
+    // Welche der angegebenen Marken existieren
+    Set<Integer> existingMarkenIds(Collection<Integer> markenIds) throws SQLException;
+}
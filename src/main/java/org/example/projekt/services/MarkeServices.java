@@ -3,138 +3,236 @@ package org.example.projekt.services;
 import jakarta.annotation.security.PermitAll;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Providers;
+import org.example.projekt.config.KeineKompression;
+import org.example.projekt.logging.Protokoll;
 import org.example.projekt.modules.Marke;
 
+import java.io.IOException;
 import java.sql.SQLException;
 import java.util.List;
-import java.util.logging.Logger;
-import java.util.logging.Level;
+import java.util.concurrent.CompletionStage;
 
 @Path("/marken")
 public class MarkeServices {
-    private static final Logger LOGGER = Logger.getLogger(MarkeServices.class.getName());
-    private DataBase db = new DataBase();
+    private static final Protokoll LOG = Protokoll.fuer(MarkeServices.class);
+    private final MarkeRepository markeRepository;
+    private final AutoRepository autoRepository;
+    private final Autocomplete autocomplete;
+    private final VersionTracker versionen;
+    private final ResponseCache responseCache;
+
+    @Context
+    Providers providers;
+
+    // Pro Request gesetzt; Vorbedingungen werden vor der asynchronen Arbeit geprüft
+    @HeaderParam("If-None-Match")
+    String ifNoneMatch;
+
+    @HeaderParam("Accept-Encoding")
+    String acceptEncoding;
+
+    public MarkeServices() {
+        this(Repositories.marken(), Repositories.autos(), Repositories.autocomplete(), Repositories.versionen(),
+                Repositories.responseCache());
+    }
+
+    MarkeServices(DataBase db) {
+        this(db, db);
+    }
+
+    MarkeServices(MarkeRepository markeRepository, AutoRepository autoRepository) {
+        this(markeRepository, autoRepository, new Autocomplete(new AutoIndex(autoRepository), markeRepository),
+                new VersionTracker(), ResponseCache.fromSystemProperties());
+    }
+
+    MarkeServices(MarkeRepository markeRepository, AutoRepository autoRepository, Autocomplete autocomplete,
+                  VersionTracker versionen, ResponseCache responseCache) {
+        this.markeRepository = markeRepository;
+        this.autoRepository = autoRepository;
+        this.autocomplete = autocomplete;
+        this.versionen = versionen;
+        this.responseCache = responseCache;
+    }
 
     @GET
     @Path("/ping")
+    @KeineKompression
     @PermitAll
     @Produces(MediaType.TEXT_PLAIN)
     public Response ping() {
-        LOGGER.info("Ping Request für Marke API");
+        LOG.info("marke.ping");
         return Response.ok("Marke API is running").build();
     }
 
     @GET
     @RolesAllowed({"ADMIN", "USER"})
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getMarke(@QueryParam("id") int id) {
-        LOGGER.info("GET Request für Marke ID: " + id);
+    public CompletionStage<Response> getMarke(@QueryParam("id") int id) {
+        String etag = versionen.etag(VersionTracker.MARKEN);
+        // Ob die Marke existiert, ist erst nach dem Lesen bekannt: hier zählen nur konkrete ETags
+        if (VersionTracker.passt(ifNoneMatch, etag, false)) {
+            return AutoServices.nichtGeaendert(etag);
+        }
+        return AsyncExecutor.submit(() -> {
+            LOG.info("marke.get", "id", id);
 
-        try {
-            Marke marke = db.readMarkeById(id);
-            if (marke == null) {
-                LOGGER.log(Level.WARNING, "Marke mit ID " + id + " nicht gefunden");
-                return Response.status(Response.Status.NOT_FOUND)
-                        .entity("Marke nicht gefunden")
+            try {
+                Marke marke = markeRepository.readMarkeById(id);
+                if (marke == null) {
+                    LOG.warnung("marke.not_found", "id", id);
+                    return Response.status(Response.Status.NOT_FOUND)
+                            .entity("Marke nicht gefunden")
+                            .build();
+                }
+                if (VersionTracker.passt(ifNoneMatch, etag, true)) {
+                    return AutoServices.nichtGeaendertAntwort(etag);
+                }
+                LOG.info("marke.get.ok", "id", id);
+                return mitEtag(Response.ok(marke), etag).build();
+            } catch (SQLException e) {
+                LOG.fehler("marke.get.db_error", e, "id", id);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity("Datenbankfehler: " + e.getMessage())
                         .build();
             }
-            LOGGER.info("Marke mit ID " + id + " erfolgreich abgerufen");
-            return Response.ok(marke).build();
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Datenbankfehler beim Lesen von Marke " + id, e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity("Datenbankfehler: " + e.getMessage())
-                    .build();
-        }
+        });
     }
 
     @GET
     @Path("/all")
     @RolesAllowed({"ADMIN", "USER"})
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getAllMarken() {
-        LOGGER.info("GET Request für alle Marken");
-
-        try {
-            List<Marke> marken = db.getAllMarken();
-            LOGGER.info(marken.size() + " Marken erfolgreich abgerufen");
-            return Response.ok(marken).build();
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Datenbankfehler beim Abrufen aller Marken", e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity("Datenbankfehler: " + e.getMessage())
-                    .build();
+    public CompletionStage<Response> getAllMarken() {
+        String etag = versionen.etag(VersionTracker.MARKEN);
+        if (VersionTracker.passt(ifNoneMatch, etag, true)) {
+            return AutoServices.nichtGeaendert(etag);
         }
+        return AsyncExecutor.submit(() -> {
+            LOG.info("marken.all");
+
+            ResponseCache.Schluessel schluessel = new ResponseCache.Schluessel("/marken/all", "", MediaType.APPLICATION_JSON);
+            ResponseCache.Eintrag eintrag = responseCache.get(schluessel, etag);
+            if (eintrag != null) {
+                return responseCache.antwort(eintrag, acceptEncoding);
+            }
+
+            try {
+                List<Marke> marken = markeRepository.getAllMarken();
+                LOG.info("marken.all.ok", "count", marken.size());
+                return zwischenspeichern(schluessel, etag, marken);
+            } catch (SQLException e) {
+                LOG.fehler("marken.all.db_error", e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity("Datenbankfehler: " + e.getMessage())
+                        .build();
+            }
+        });
     }
 
     @DELETE
     @RolesAllowed("ADMIN")
     @Produces(MediaType.TEXT_PLAIN)
-    public Response deleteMarke(@QueryParam("id") int id) {
-        LOGGER.info("DELETE Request für Marke ID: " + id);
+    public CompletionStage<Response> deleteMarke(@QueryParam("id") int id) {
+        return AsyncExecutor.submitSchreibend(() -> {
+            LOG.info("marke.delete", "id", id);
 
-        try {
-            // Validierung: Prüfen ob Marke noch von Autos referenziert wird
-            int autoCount = db.countAutosWithMarke(id);
-            if (autoCount > 0) {
-                LOGGER.log(Level.WARNING, "Marke " + id + " kann nicht gelöscht werden - wird von " + autoCount + " Auto(s) referenziert");
-                return Response.status(Response.Status.CONFLICT)
-                        .entity("Fehler: Marke kann nicht gelöscht werden. Sie wird noch von " + autoCount + " Auto(s) verwendet. Bitte löschen Sie zuerst die zugehörigen Autos.")
-                        .build();
-            }
+            try {
+                // Validierung: Prüfen ob Marke noch von Autos referenziert wird
+                int autoCount = autoRepository.countAutosWithMarke(id);
+                if (autoCount > 0) {
+                    LOG.warnung("marke.delete.referenced", "id", id, "autos", autoCount);
+                    return Response.status(Response.Status.CONFLICT)
+                            .entity("Fehler: Marke kann nicht gelöscht werden. Sie wird noch von " + autoCount + " Auto(s) verwendet. Bitte löschen Sie zuerst die zugehörigen Autos.")
+                            .build();
+                }
 
-            int rowsDeleted = db.deleteMarke(id);
-            if (rowsDeleted > 0) {
-                LOGGER.info("Marke " + id + " erfolgreich gelöscht");
-                return Response.ok("Marke " + id + " erfolgreich gelöscht!").build();
-            } else {
-                LOGGER.log(Level.WARNING, "Marke mit ID " + id + " nicht gefunden");
-                return Response.status(Response.Status.NOT_FOUND)
-                        .entity("Marke nicht gefunden")
+                int rowsDeleted;
+                try (VersionTracker.Schreibzugriff s = versionen.schreiben(VersionTracker.MARKEN)) {
+                    rowsDeleted = markeRepository.deleteMarke(id);
+                }
+                autocomplete.markenGeaendert();
+                if (rowsDeleted > 0) {
+                    LOG.info("marke.delete.ok", "id", id);
+                    return Response.ok("Marke " + id + " erfolgreich gelöscht!").build();
+                } else {
+                    LOG.warnung("marke.not_found", "id", id);
+                    return Response.status(Response.Status.NOT_FOUND)
+                            .entity("Marke nicht gefunden")
+                            .build();
+                }
+            } catch (SQLException e) {
+                LOG.fehler("marke.delete.db_error", e, "id", id);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity("Datenbankfehler: " + e.getMessage())
                         .build();
             }
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Datenbankfehler beim Löschen von Marke " + id, e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity("Datenbankfehler: " + e.getMessage())
-                    .build();
-        }
+        });
     }
 
     @POST
     @RolesAllowed("ADMIN")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.TEXT_PLAIN)
-    public Response addMarke(Marke marke) {
-        LOGGER.info("POST Request zum Hinzufügen einer neuen Marke: " + marke.getName());
+    public CompletionStage<Response> addMarke(Marke marke) {
+        return AsyncExecutor.submitSchreibend(() -> {
+            LOG.info("marke.add", "name", marke.getName());
 
-        try {
-            // Validierung: Pflichtfelder prüfen
-            if (marke.getName() == null || marke.getName().trim().isEmpty()) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("Fehler: Markenname darf nicht leer sein")
-                        .build();
-            }
+            try {
+                // Validierung: Pflichtfelder prüfen
+                if (marke.getName() == null || marke.getName().trim().isEmpty()) {
+                    return Response.status(Response.Status.BAD_REQUEST)
+                            .entity("Fehler: Markenname darf nicht leer sein")
+                            .build();
+                }
 
-            int rowsInserted = db.addMarke(marke);
-            if (rowsInserted > 0) {
-                LOGGER.info("Neue Marke erfolgreich hinzugefügt: " + marke.getName());
-                return Response.status(Response.Status.CREATED)
-                        .entity("Neue Marke " + marke.getName() + " erfolgreich hinzugefügt")
-                        .build();
-            } else {
-                LOGGER.log(Level.WARNING, "Marke konnte nicht hinzugefügt werden");
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("Marke konnte nicht hinzugefügt werden")
+                int rowsInserted;
+                try (VersionTracker.Schreibzugriff s = versionen.schreiben(VersionTracker.MARKEN)) {
+                    rowsInserted = markeRepository.addMarke(marke);
+                }
+                autocomplete.markenGeaendert();
+                if (rowsInserted > 0) {
+                    LOG.info("marke.add.ok", "name", marke.getName());
+                    return Response.status(Response.Status.CREATED)
+                            .entity("Neue Marke " + marke.getName() + " erfolgreich hinzugefügt")
+                            .build();
+                } else {
+                    LOG.warnung("marke.add.failed");
+                    return Response.status(Response.Status.BAD_REQUEST)
+                            .entity("Marke konnte nicht hinzugefügt werden")
+                            .build();
+                }
+            } catch (SQLException e) {
+                LOG.fehler("marke.add.db_error", e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity("Datenbankfehler: " + e.getMessage())
                         .build();
             }
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Datenbankfehler beim Hinzufügen einer Marke", e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity("Datenbankfehler: " + e.getMessage())
-                    .build();
+        });
+    }
+
+    // ETag nur setzen, wenn sich die Marken während des Lesens nicht geändert haben
+    private Response.ResponseBuilder mitEtag(Response.ResponseBuilder builder, String etag) {
+        if (etag != null && etag.equals(versionen.etag(VersionTracker.MARKEN))) {
+            builder.tag(new EntityTag(etag));
+        }
+        return builder;
+    }
+
+    // Serialisiert ablegen, wenn die Marken während des Lesens gleich blieben; sonst normal über den Container
+    private Response zwischenspeichern(ResponseCache.Schluessel schluessel, String etag, Object entity) {
+        if (providers == null || etag == null || !etag.equals(versionen.etag(VersionTracker.MARKEN))) {
+            return mitEtag(Response.ok(entity), etag).build();
+        }
+        try {
+            return responseCache.antwort(responseCache.speichern(schluessel, etag, entity, providers), acceptEncoding);
+        } catch (IOException e) {
+            LOG.warnung("response_cache.error", e, "path", schluessel.pfad());
+            return mitEtag(Response.ok(entity), etag).build();
         }
     }
 }
@@ -0,0 +1,22 @@
+package org.example.projekt.services;
+
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Response;
+import org.example.projekt.metrics.Metriken;
+
+// Metriken im Textformat von Prometheus. Liest nur Zähler und Histogramme ohne Lock und läuft deshalb
+// direkt auf dem Container-Thread, ohne Datenbank und ohne AsyncExecutor.
+@Path("/metrics")
+public class MetrikServices {
+    private static final String PROMETHEUS_TEXT = "text/plain; version=0.0.4; charset=utf-8";
+
+    @GET
+    @RolesAllowed({"ADMIN"})
+    @Produces(PROMETHEUS_TEXT)
+    public Response metrics() {
+        return Response.ok(Metriken.prometheus(), PROMETHEUS_TEXT).header("Cache-Control", "no-store").build();
+    }
+}
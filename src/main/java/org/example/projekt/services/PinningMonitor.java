@@ -0,0 +1,79 @@
+package org.example.projekt.services;
+
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+// Meldet virtuelle Threads, die ihren Träger-Thread blockieren (JFR-Event jdk.VirtualThreadPinned).
+// Einschalten mit -Dvirtualthreads.pinningMonitor=true, Schwelle mit -Dvirtualthreads.pinningThresholdMs.
+// Damit lässt sich im Betrieb prüfen, dass JDBC-Aufrufe auf den virtuellen Threads nicht pinnen.
+public final class PinningMonitor {
+    private static final Logger LOGGER = Logger.getLogger(PinningMonitor.class.getName());
+    private static final int MAX_FRAMES = 12;
+
+    private static final LongAdder PINNED = new LongAdder();
+    private static final ReentrantLock LOCK = new ReentrantLock();
+    private static RecordingStream stream;
+
+    private PinningMonitor() {
+    }
+
+    public static void start() {
+        LOCK.lock();
+        try {
+            if (stream == null) {
+                startStream();
+            }
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    public static void stop() {
+        LOCK.lock();
+        try {
+            if (stream != null) {
+                stream.close();
+                stream = null;
+            }
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    private static void startStream() {
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned")
+                .withThreshold(Duration.ofMillis(Long.getLong("virtualthreads.pinningThresholdMs", 20L)))
+                .withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", event -> {
+            PINNED.increment();
+            StringBuilder message = new StringBuilder("Virtueller Thread pinnt seinen Träger-Thread für ")
+                    .append(event.getDuration().toMillis()).append(" ms");
+            RecordedStackTrace stackTrace = event.getStackTrace();
+            if (stackTrace != null) {
+                List<RecordedFrame> frames = stackTrace.getFrames();
+                for (int i = 0; i < frames.size() && i < MAX_FRAMES; i++) {
+                    RecordedFrame frame = frames.get(i);
+                    message.append("\n    at ").append(frame.getMethod().getType().getName())
+                            .append('.').append(frame.getMethod().getName())
+                            .append(':').append(frame.getLineNumber());
+                }
+            }
+            LOGGER.warning(message.toString());
+        });
+        stream.startAsync();
+        LOGGER.info("Überwachung von gepinnten virtuellen Threads gestartet");
+    }
+
+    // Anzahl gemeldeter Pinning-Ereignisse seit dem Start
+    public static long getPinnedEvents() {
+        return PINNED.sum();
+    }
+}
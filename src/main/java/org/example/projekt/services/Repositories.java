@@ -0,0 +1,95 @@
+package org.example.projekt.services;
+
+import org.example.projekt.metrics.Metriken;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+// Wählt die Implementierung der Repositories über -Dprojekt.repository:
+//   mysql  (Standard) - DataBase, MySQL über den Connection-Pool, hinter adaptiven Limits (BegrenztesRepository)
+//                       und mit Messung jeder Abfrage (GemessenesRepository)
+//   memory            - InMemoryRepository, ohne Datenbank (lokaler Betrieb, Benchmarks, Tests)
+// Eine Instanz für die ganze Anwendung, da JAX-RS pro Request neue Service-Instanzen erzeugt.
+public final class Repositories {
+    private static final Logger LOGGER = Logger.getLogger(Repositories.class.getName());
+
+    private Repositories() {
+    }
+
+    // Erst beim ersten Zugriff anlegen, damit im Speicher-Betrieb kein Connection-Pool entsteht
+    private static final class Holder {
+        static final AutoRepository AUTOS;
+        static final MarkeRepository MARKEN;
+        static final AutoStatistik STATISTIK;
+        static final AutoIndex INDEX;
+        static final Autocomplete AUTOCOMPLETE;
+        static final VersionTracker VERSIONEN = new VersionTracker();
+        static final ResponseCache RESPONSE_CACHE = ResponseCache.fromSystemProperties();
+
+        static {
+            String typ = System.getProperty("projekt.repository", "mysql");
+            switch (typ) {
+                case "memory" -> {
+                    InMemoryRepository repository = new InMemoryRepository();
+                    AUTOS = repository;
+                    MARKEN = repository;
+                }
+                case "mysql" -> {
+                    BegrenztesRepository repository =
+                            BegrenztesRepository.fromSystemProperties(new GemessenesRepository(DataBase.fromSystemProperties()));
+                    AUTOS = repository;
+                    MARKEN = repository;
+                    for (AdaptivesLimit limit : List.of(repository.getLesen(), repository.getSchreiben())) {
+                        Metriken.messwert("db_limit", "Aktuelles adaptives Limit gleichzeitiger Abfragen",
+                                limit::getLimit, "kind", limit.getName());
+                        Metriken.messwert("db_limit_in_flight", "Laufende Abfragen",
+                                limit::getLaufend, "kind", limit.getName());
+                        Metriken.zaehler("db_limit_rejected_total", "Mit 503 abgewiesene Abfragen",
+                                limit::getAbgewiesen, "kind", limit.getName());
+                    }
+                }
+                default -> throw new IllegalStateException("Unbekanntes Repository: " + typ + " (mysql oder memory)");
+            }
+            STATISTIK = new AutoStatistik(AUTOS, MARKEN);
+            INDEX = new AutoIndex(AUTOS);
+            AUTOCOMPLETE = new Autocomplete(INDEX, MARKEN);
+            Metriken.zaehler("response_cache_hits_total", "Treffer im ResponseCache", RESPONSE_CACHE::getHits);
+            Metriken.zaehler("response_cache_misses_total", "Fehlschläge im ResponseCache", RESPONSE_CACHE::getMisses);
+            Metriken.messwert("response_cache_bytes", "Belegter Speicher im ResponseCache", RESPONSE_CACHE::getBelegt);
+            LOGGER.info("Repository: " + typ);
+        }
+    }
+
+    public static AutoRepository autos() {
+        return Holder.AUTOS;
+    }
+
+    public static MarkeRepository marken() {
+        return Holder.MARKEN;
+    }
+
+    // Statistik über das gewählte Auto-Repository
+    public static AutoStatistik statistik() {
+        return Holder.STATISTIK;
+    }
+
+    // Sekundärindizes (Marke, Baujahr, Leistung) über das gewählte Auto-Repository
+    public static AutoIndex index() {
+        return Holder.INDEX;
+    }
+
+    // Autovervollständigung für Modelle und Marken, folgt dem Index
+    public static Autocomplete autocomplete() {
+        return Holder.AUTOCOMPLETE;
+    }
+
+    // Versionen für ETags, von den Schreibmethoden der Services nachgeführt
+    public static VersionTracker versionen() {
+        return Holder.VERSIONEN;
+    }
+
+    // Serialisierte Antworten für /autos/all und /marken/all
+    public static ResponseCache responseCache() {
+        return Holder.RESPONSE_CACHE;
+    }
+}
@@ -0,0 +1,235 @@
+package org.example.projekt.services;
+
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Providers;
+import org.example.projekt.config.Kompression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+// Fertig serialisierte Antworten (JSON als byte[], bei Bedarf zusätzlich gzip) für häufig gelesene Endpoints.
+// Jeder Eintrag merkt sich den ETag seines Stands (siehe VersionTracker); passt er nicht mehr zum aktuellen,
+// gilt der Eintrag als veraltet. Damit machen genau die Schreibzugriffe auf die betroffene Tabelle oder Zeile
+// einen Eintrag ungültig, ohne dass die Services Schlüssel kennen müssen.
+// Speicherobergrenze in Bytes, bei Überschreitung wird der am längsten nicht benutzte Eintrag entfernt (LRU).
+public class ResponseCache {
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+    // Endpoint, Query-Parameter und Content-Type
+    public record Schluessel(String pfad, String parameter, String mediaType) {
+    }
+
+    public static final class Eintrag {
+        private final Schluessel schluessel;
+        private final String etag;
+        private final byte[] daten;
+        private volatile byte[] gzip;
+
+        private Eintrag(Schluessel schluessel, String etag, byte[] daten) {
+            this.schluessel = schluessel;
+            this.etag = etag;
+            this.daten = daten;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public byte[] getDaten() {
+            return daten;
+        }
+    }
+
+    private final long maxBytes;
+
+    // Zugriffsreihenfolge: der älteste Eintrag steht vorne
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Schluessel, Eintrag> eintraege = new LinkedHashMap<>(16, 0.75f, true);
+    private long belegt;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ResponseCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public static ResponseCache fromSystemProperties() {
+        return new ResponseCache(Long.getLong("cache.responses.maxBytes", 64L * 1024 * 1024));
+    }
+
+    // Eintrag für den Schlüssel, wenn er zum aktuellen ETag gehört; null bei einem Fehlschlag
+    public Eintrag get(Schluessel schluessel, String etag) {
+        if (etag == null || maxBytes <= 0) {
+            return null;
+        }
+        lock.lock();
+        try {
+            Eintrag eintrag = eintraege.get(schluessel);
+            if (eintrag != null && eintrag.etag.equals(etag)) {
+                hits.increment();
+                return eintrag;
+            }
+            if (eintrag != null) {
+                // Veraltet, wird nie mehr passen
+                entfernen(eintrag);
+            }
+            misses.increment();
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Ablegen; zu grosse Antworten (mehr als ein Viertel des Caches) werden nur zurückgegeben
+    public Eintrag put(Schluessel schluessel, String etag, byte[] daten) {
+        Eintrag eintrag = new Eintrag(schluessel, etag, daten);
+        if (daten.length > maxBytes / 4) {
+            return eintrag;
+        }
+        lock.lock();
+        try {
+            Eintrag alt = eintraege.put(schluessel, eintrag);
+            if (alt != null) {
+                belegt -= groesse(alt);
+            }
+            belegt += daten.length;
+            verdraengen();
+        } finally {
+            lock.unlock();
+        }
+        return eintrag;
+    }
+
+    // Entity mit dem JSON-Writer des Containers serialisieren und ablegen
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Eintrag speichern(Schluessel schluessel, String etag, Object entity, Providers providers) throws IOException {
+        MessageBodyWriter writer = providers.getMessageBodyWriter(
+                entity.getClass(), entity.getClass(), NO_ANNOTATIONS, MediaType.APPLICATION_JSON_TYPE);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        writer.writeTo(entity, entity.getClass(), entity.getClass(), NO_ANNOTATIONS,
+                MediaType.APPLICATION_JSON_TYPE, new MultivaluedHashMap<>(), out);
+        return put(schluessel, etag, out.toByteArray());
+    }
+
+    // gzip-Variante, beim ersten Bedarf erzeugt und mitgezählt
+    public byte[] gzip(Eintrag eintrag) {
+        byte[] gzip = eintrag.gzip;
+        if (gzip != null) {
+            return gzip;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(eintrag.daten.length / 4 + 64);
+        try (GZIPOutputStream zip = new GZIPOutputStream(out, 8192)) {
+            zip.write(eintrag.daten);
+        } catch (IOException e) {
+            // Kommt beim Schreiben in ein Byte-Array nicht vor
+            throw new UncheckedIOException(e);
+        }
+        gzip = out.toByteArray();
+        lock.lock();
+        try {
+            if (eintrag.gzip == null) {
+                eintrag.gzip = gzip;
+                if (eintraege.get(eintrag.schluessel) == eintrag) {
+                    belegt += gzip.length;
+                    verdraengen();
+                }
+            }
+            return eintrag.gzip;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Antwort direkt aus den Bytes, gzip wenn der Client es akzeptiert; der Container schreibt das Array unverändert.
+    // Die beiden Varianten haben verschiedene Bytes und deshalb verschiedene starke ETags
+    public Response antwort(Eintrag eintrag, String acceptEncoding) {
+        Response.ResponseBuilder builder = Response.ok()
+                .type(eintrag.schluessel.mediaType())
+                .header("Vary", "Accept-Encoding");
+        if (akzeptiertGzip(acceptEncoding)) {
+            return builder.entity(gzip(eintrag))
+                    .tag(new EntityTag(eintrag.etag + Kompression.Kodierung.GZIP.getEtagEndung()))
+                    .header("Content-Encoding", "gzip")
+                    .build();
+        }
+        return builder.entity(eintrag.daten).tag(new EntityTag(eintrag.etag)).build();
+    }
+
+    // gzip in Accept-Encoding, nicht mit q=0 ausgeschlossen
+    static boolean akzeptiertGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String teil : acceptEncoding.split(",")) {
+            String[] werte = teil.trim().split(";");
+            String name = werte[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                for (int i = 1; i < werte.length; i++) {
+                    String parameter = werte[i].trim().replace(" ", "");
+                    if (parameter.equals("q=0") || parameter.startsWith("q=0.") && parameter.substring(4).matches("0*")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long getBelegt() {
+        lock.lock();
+        try {
+            return belegt;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    // ==================== Hilfsmethoden (nur unter dem Lock) ====================
+
+    private void verdraengen() {
+        Iterator<Map.Entry<Schluessel, Eintrag>> it = eintraege.entrySet().iterator();
+        while (belegt > maxBytes && it.hasNext()) {
+            Eintrag aeltester = it.next().getValue();
+            it.remove();
+            belegt -= groesse(aeltester);
+            evictions.increment();
+        }
+    }
+
+    private void entfernen(Eintrag eintrag) {
+        eintraege.remove(eintrag.schluessel);
+        belegt -= groesse(eintrag);
+    }
+
+    private static long groesse(Eintrag eintrag) {
+        byte[] gzip = eintrag.gzip;
+        return eintrag.daten.length + (gzip == null ? 0 : gzip.length);
+    }
+}
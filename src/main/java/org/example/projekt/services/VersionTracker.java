@@ -0,0 +1,110 @@
+package org.example.projekt.services;
+
+import org.example.projekt.config.Kompression;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Versionen für ETags: je ein Zähler für die Tabellen autos und marken und für Streifen von Auto-IDs
+// (ein Streifen pro ID-Bereich modulo STREIFEN, damit der Speicher unabhängig von der Anzahl Autos bleibt).
+// Schreibzugriffe erhöhen die Version vor und nach der Änderung und zählen sich als laufend.
+// Ein ETag wird nur vergeben, wenn kein Schreibzugriff läuft und die Version vor und nach dem Lesen gleich ist:
+// so bekommt nie eine Antwort den ETag eines anderen Stands.
+public final class VersionTracker {
+    static final int AUTOS = 0;
+    static final int MARKEN = 1;
+    // Für DELETE /autos/all, gehört zu jedem Auto
+    static final int ALLE_AUTOS = 2;
+    private static final int ERSTER_STREIFEN = 3;
+    private static final int STREIFEN = 4096;
+
+    private final String epoch;
+    private final AtomicLongArray versionen = new AtomicLongArray(ERSTER_STREIFEN + STREIFEN);
+    private final AtomicIntegerArray laufend = new AtomicIntegerArray(ERSTER_STREIFEN + STREIFEN);
+
+    // Ein laufender Schreibzugriff, mit try-with-resources verwenden
+    public final class Schreibzugriff implements AutoCloseable {
+        private final int[] slots;
+
+        private Schreibzugriff(int[] slots) {
+            this.slots = slots;
+            for (int slot : slots) {
+                laufend.incrementAndGet(slot);
+                versionen.incrementAndGet(slot);
+            }
+        }
+
+        @Override
+        public void close() {
+            for (int slot : slots) {
+                versionen.incrementAndGet(slot);
+                laufend.decrementAndGet(slot);
+            }
+        }
+    }
+
+    public VersionTracker() {
+        // Nach einem Neustart dürfen alte ETags nicht mehr passen
+        this.epoch = Long.toString(System.currentTimeMillis(), 36);
+    }
+
+    // Slots zum Lesen eines einzelnen Autos (Zeile und DELETE /autos/all)
+    static int[] autoLesen(int id) {
+        return new int[]{ALLE_AUTOS, ERSTER_STREIFEN + Math.floorMod(id, STREIFEN)};
+    }
+
+    // Für ein Schreiben auf ein einzelnes Auto: Tabelle und Zeile
+    static int[] autoSchreiben(int id) {
+        return new int[]{AUTOS, ERSTER_STREIFEN + Math.floorMod(id, STREIFEN)};
+    }
+
+    public Schreibzugriff schreiben(int... slots) {
+        return new Schreibzugriff(slots);
+    }
+
+    // Wert des starken ETags (ohne Anführungszeichen) für den aktuellen Stand, null während eines Schreibzugriffs
+    public String etag(int... slots) {
+        StringBuilder etag = new StringBuilder(32).append(epoch);
+        for (int slot : slots) {
+            // Erst laufend, dann die Version lesen: ein Schreibzugriff erhöht laufend vor der Version
+            if (laufend.get(slot) > 0) {
+                return null;
+            }
+            etag.append('-').append(Long.toString(versionen.get(slot), 36));
+        }
+        return etag.toString();
+    }
+
+    // Passt einer der ETags aus If-None-Match? Für GET gilt der schwache Vergleich (W/ wird ignoriert),
+    // die ETags der komprimierten Varianten (mit der Endung der Kodierung) passen auf den gleichen Stand.
+    // "*" passt nur auf eine vorhandene Ressource (RFC 9110), ein fehlendes Auto bleibt 404
+    static boolean passt(String ifNoneMatch, String etag, boolean vorhanden) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String kandidat : ifNoneMatch.split(",")) {
+            kandidat = kandidat.trim();
+            if (kandidat.startsWith("W/")) {
+                kandidat = kandidat.substring(2);
+            }
+            if (kandidat.length() >= 2 && kandidat.startsWith("\"") && kandidat.endsWith("\"")) {
+                kandidat = kandidat.substring(1, kandidat.length() - 1);
+            }
+            if (kandidat.equals("*") ? vorhanden : kandidat.equals(etag) || istKodiert(kandidat, etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean istKodiert(String kandidat, String etag) {
+        for (Kompression.Kodierung kodierung : Kompression.Kodierung.values()) {
+            String endung = kodierung.getEtagEndung();
+            if (kandidat.length() == etag.length() + endung.length()
+                    && kandidat.startsWith(etag) && kandidat.endsWith(endung)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.projekt.services;
+
+// Ergebnis eines bedingten Schreibzugriffs: unterscheidet die Fehlerfälle ohne vorgelagerte Existenz-Abfragen
+public enum WriteResult {
+    OK,
+    AUTO_NICHT_GEFUNDEN,
+    MARKE_NICHT_GEFUNDEN
+}
@@ -0,0 +1,3 @@
+-- Index für die Abfragen nach Baujahr (GET /autos/baujahr)
+-- Die Abfragen filtern mit Baujahr >= ? AND Baujahr < ?, damit MySQL diesen Index per Range-Scan nutzen kann.
+CREATE INDEX idx_autos_baujahr ON autos (Baujahr);
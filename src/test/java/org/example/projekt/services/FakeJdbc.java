@@ -0,0 +1,168 @@
+package org.example.projekt.services;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+// Minimale JDBC-Attrappe: liefert vorbereitete Zeilen, zählt die ausgeführten Abfragen und merkt sich den
+// Zustand jeder Verbindung (Auto-Commit, Isolation, Rollbacks)
+class FakeJdbc {
+
+    private final List<String> queries = new ArrayList<>();
+    private final List<Verbindung> verbindungen = new CopyOnWriteArrayList<>();
+    private final Function<String, List<Map<String, Object>>> rows;
+
+    FakeJdbc(Function<String, List<Map<String, Object>>> rows) {
+        this.rows = rows;
+    }
+
+    List<String> getQueries() {
+        return queries;
+    }
+
+    void reset() {
+        queries.clear();
+    }
+
+    ConnectionPool pool() {
+        return new ConnectionPool("fake", this::connection, 0, 4, 0, 0, 0, 1000);
+    }
+
+    DataBase dataBase() {
+        return new DataBase(pool());
+    }
+
+    // Zeile der marken-Tabelle
+    static Map<String, Object> markeRow(int id, String name) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("ID_Marken", id);
+        row.put("Name", name);
+        return row;
+    }
+
+    // Zeile der autos-Tabelle
+    static Map<String, Object> autoRow(int id, String modell, int jahr, int markeId) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("ID_Autos", id);
+        row.put("Modell", modell);
+        row.put("Baujahr", Date.valueOf(LocalDate.of(jahr, 1, 1)));
+        row.put("Gewicht", 1500.0);
+        row.put("Leistung", 150);
+        row.put("Verbrenner", true);
+        row.put("Produktion", true);
+        row.put("FS_Marken", markeId);
+        return row;
+    }
+
+    // Zustand einer physischen Verbindung, für die Tests des Pools
+    static final class Verbindung {
+        boolean autoCommit = true;
+        int isolation = Connection.TRANSACTION_REPEATABLE_READ;
+        int rollbacks;
+        boolean geschlossen;
+    }
+
+    // Alle bisher geöffneten Verbindungen
+    List<Verbindung> getVerbindungen() {
+        return verbindungen;
+    }
+
+    Connection connection() {
+        Verbindung v = new Verbindung();
+        verbindungen.add(v);
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "prepareStatement" -> statement((String) args[0]);
+                    case "isValid" -> !v.geschlossen;
+                    case "isClosed" -> v.geschlossen;
+                    case "getAutoCommit" -> v.autoCommit;
+                    case "getTransactionIsolation" -> v.isolation;
+                    case "setAutoCommit" -> {
+                        v.autoCommit = (Boolean) args[0];
+                        yield null;
+                    }
+                    case "setTransactionIsolation" -> {
+                        v.isolation = (Integer) args[0];
+                        yield null;
+                    }
+                    case "rollback" -> {
+                        v.rollbacks++;
+                        yield null;
+                    }
+                    case "close" -> {
+                        v.geschlossen = true;
+                        yield null;
+                    }
+                    default -> null;
+                });
+    }
+
+    private PreparedStatement statement(String sql) {
+        int[] batch = {0};
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "executeQuery" -> {
+                        queries.add(sql);
+                        yield resultSet(rows.apply(sql));
+                    }
+                    case "executeUpdate" -> {
+                        queries.add(sql);
+                        yield 1;
+                    }
+                    case "addBatch" -> {
+                        batch[0]++;
+                        yield null;
+                    }
+                    case "executeBatch" -> {
+                        queries.add(sql);
+                        yield new int[batch[0]];
+                    }
+                    case "getGeneratedKeys" -> {
+                        List<Map<String, Object>> keys = new ArrayList<>();
+                        for (int i = 1; i <= batch[0]; i++) {
+                            keys.add(Map.of("GENERATED_KEY", 100 + i));
+                        }
+                        yield resultSet(keys);
+                    }
+                    default -> null;
+                });
+    }
+
+    private ResultSet resultSet(List<Map<String, Object>> data) {
+        int[] cursor = {-1};
+        Object[] last = {null};
+        return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next":
+                            return ++cursor[0] < data.size();
+                        case "wasNull":
+                            return last[0] == null;
+                        case "close":
+                            return null;
+                        default:
+                            break;
+                    }
+                    Object value = args[0] instanceof Integer i
+                            ? new ArrayList<>(data.get(cursor[0]).values()).get(i - 1)
+                            : data.get(cursor[0]).get((String) args[0]);
+                    last[0] = value;
+                    return switch (method.getName()) {
+                        case "getInt" -> value == null ? 0 : ((Number) value).intValue();
+                        case "getLong" -> value == null ? 0L : ((Number) value).longValue();
+                        case "getDouble" -> value == null ? 0.0 : ((Number) value).doubleValue();
+                        case "getBoolean" -> value != null && (Boolean) value;
+                        default -> value;
+                    };
+                });
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.projekt.services;
+
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.ext.ContextResolver;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Providers;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+// Providers ohne Container: liefert für jeden Typ denselben Writer, alles andere fehlt
+final class FakeProviders implements Providers {
+    private final MessageBodyWriter<?> writer;
+
+    FakeProviders(MessageBodyWriter<?> writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> MessageBodyWriter<T> getMessageBodyWriter(Class<T> type, Type genericType, Annotation[] annotations,
+                                                         MediaType mediaType) {
+        return (MessageBodyWriter<T>) writer;
+    }
+
+    @Override
+    public <T> MessageBodyReader<T> getMessageBodyReader(Class<T> type, Type genericType, Annotation[] annotations,
+                                                         MediaType mediaType) {
+        return null;
+    }
+
+    @Override
+    public <T extends Throwable> ExceptionMapper<T> getExceptionMapper(Class<T> type) {
+        return null;
+    }
+
+    @Override
+    public <T> ContextResolver<T> getContextResolver(Class<T> contextType, MediaType mediaType) {
+        return null;
+    }
+}
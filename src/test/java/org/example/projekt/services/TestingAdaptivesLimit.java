@@ -0,0 +1,152 @@
+package org.example.projekt.services;
+
+import jakarta.ws.rs.ServiceUnavailableException;
+import org.example.projekt.modules.Marke;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Adaptives Limit für Datenbankabfragen")
+public class TestingAdaptivesLimit {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Limit wächst, solange es ausgeschöpft ist und die Latenz gleich bleibt")
+    void testLimit_Waechst() {
+        // Arrange
+        AdaptivesLimit limit = new AdaptivesLimit("read", 2, 1, 10, 2.0, 0, 10);
+
+        // Act: immer alle Plätze belegen, dann mit gleicher Latenz freigeben
+        for (int runde = 0; runde < 50; runde++) {
+            int belegt = 0;
+            while (limit.betreten()) {
+                belegt++;
+            }
+            for (int i = 0; i < belegt; i++) {
+                limit.verlassen(MS, false);
+            }
+        }
+
+        // Assert
+        assertTrue(limit.getLimit() > 2, "Limit: " + limit.getLimit());
+        assertTrue(limit.getLimit() <= 10);
+        assertEquals(0, limit.getLaufend());
+    }
+
+    @Test
+    @DisplayName("Limit schrumpft, wenn die Latenz über die Toleranz steigt oder Überlast gemeldet wird")
+    void testLimit_Schrumpft() {
+        // Arrange
+        AdaptivesLimit limit = new AdaptivesLimit("read", 10, 1, 10, 2.0, 0, 10);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limit.betreten());
+            limit.verlassen(MS, false);
+        }
+        assertEquals(10, limit.getLimit());
+
+        // Act: fünffache Latenz
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limit.betreten());
+            limit.verlassen(5 * MS, false);
+        }
+
+        // Assert
+        assertEquals(7, limit.getLimit());
+
+        // Act: Überlast bei normaler Latenz
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limit.betreten());
+            limit.verlassen(MS, i == 0);
+        }
+
+        // Assert
+        assertEquals(5, limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("Gemischte Abfragen - Ein langsamer Scan pro Fenster verkleinert das Limit nicht, langsamere Einzelabfragen schon")
+    void testLimit_GemischteLatenzen() {
+        // Arrange
+        AdaptivesLimit limit = new AdaptivesLimit("read", 10, 1, 20, 2.0, 0, 10);
+
+        // Act: pro Fenster neun Einzelabfragen mit 1 ms und ein Scan mit 200 ms, Limit immer ausgeschöpft
+        for (int runde = 0; runde < 30; runde++) {
+            int belegt = 0;
+            while (limit.betreten()) {
+                belegt++;
+            }
+            for (int i = 0; i < belegt; i++) {
+                boolean scan = i % 10 == 9;
+                limit.verlassen(scan ? "getAllAutos" : "readAutoById", scan ? 200 * MS : MS, false);
+            }
+        }
+
+        // Assert
+        assertEquals(20, limit.getLimit());
+
+        // Act: die Einzelabfragen werden fünfmal langsamer, der Scan bleibt gleich
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limit.betreten());
+            boolean scan = i % 10 == 9;
+            limit.verlassen(scan ? "getAllAutos" : "readAutoById", scan ? 200 * MS : 5 * MS, false);
+        }
+
+        // Assert
+        assertEquals(15, limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("betreten - Wartet kurz auf einen freien Platz, danach wird abgewiesen")
+    void testBetreten_Warteschlange() throws Exception {
+        // Arrange
+        AdaptivesLimit limit = new AdaptivesLimit("read", 1, 1, 1, 2.0, 30, 10);
+        assertTrue(limit.betreten());
+
+        // Act: ohne Freigabe läuft die Wartezeit ab
+        long start = System.nanoTime();
+        boolean zweiter = limit.betreten();
+        long gewartet = System.nanoTime() - start;
+
+        // Assert
+        assertFalse(zweiter);
+        assertTrue(gewartet >= 25 * MS, "gewartet: " + gewartet);
+        assertEquals(1, limit.getAbgewiesen());
+
+        // Act: Freigabe während ein anderer Thread wartet
+        CompletableFuture<Boolean> wartend = CompletableFuture.supplyAsync(limit::betreten);
+        Thread.sleep(5);
+        limit.verlassen(MS, false);
+
+        // Assert
+        assertTrue(wartend.get(1, TimeUnit.SECONDS));
+        assertEquals(1, limit.getLaufend());
+    }
+
+    @Test
+    @DisplayName("BegrenztesRepository - Volle Schreibseite weist Schreibzugriffe mit 503 ab, Lesen läuft weiter")
+    void testRepository_LesenUndSchreibenGetrennt() throws Exception {
+        // Arrange
+        InMemoryRepository speicher = new InMemoryRepository();
+        AdaptivesLimit lesen = new AdaptivesLimit("read", 2, 1, 10, 2.0, 0, 10);
+        AdaptivesLimit schreiben = new AdaptivesLimit("write", 1, 1, 1, 2.0, 0, 10);
+        BegrenztesRepository repository = new BegrenztesRepository(speicher, lesen, schreiben);
+        assertEquals(1, repository.addMarke(new Marke("Volkswagen")));
+
+        // Act: ein langer Schreibzugriff belegt den einzigen Platz
+        assertTrue(schreiben.betreten());
+
+        // Assert
+        ServiceUnavailableException e = assertThrows(ServiceUnavailableException.class,
+                () -> repository.addMarke(new Marke("Audi")));
+        assertEquals(503, e.getResponse().getStatus());
+        assertEquals(0, repository.getAllAutos().size());
+        assertFalse(repository.autoExists(1));
+        assertEquals(0, lesen.getLaufend());
+        assertEquals(1, schreiben.getAbgewiesen());
+    }
+}
@@ -0,0 +1,152 @@
+package org.example.projekt.services;
+
+import org.example.projekt.security.Anmeldungen;
+import org.example.projekt.security.Benutzerverwaltung;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Benutzerverwaltung und gemerkte Anmeldungen")
+public class TestingAnmeldungen {
+
+    // Wenige Iterationen, damit die Tests schnell bleiben
+    private static final int ITERATIONEN = 1_000;
+    private static final int ADMIN = 1;
+    private static final int USER = 2;
+
+    private Properties eintraege;
+    private Benutzerverwaltung benutzerverwaltung;
+
+    @BeforeEach
+    void setUp() {
+        eintraege = new Properties();
+        eintraege.setProperty("admin", Benutzerverwaltung.eintrag("ADMIN", "geheim", ITERATIONEN));
+        eintraege.setProperty("anna", Benutzerverwaltung.eintrag("USER", "pass:mit:doppelpunkt", ITERATIONEN));
+        benutzerverwaltung = new Benutzerverwaltung(eintraege);
+    }
+
+    private static String basic(String credentials) {
+        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("rollen - Gehasht wird nur beim ersten Request, danach aus dem Cache")
+    void testRollen_Cache() {
+        // Arrange
+        Anmeldungen anmeldungen = new Anmeldungen(benutzerverwaltung, 100, 60_000, 1_000);
+
+        // Act & Assert
+        assertEquals(ADMIN, anmeldungen.rollen(basic("admin:geheim")));
+        assertEquals(ADMIN, anmeldungen.rollen(basic("admin:geheim")));
+        assertEquals(USER, anmeldungen.rollen(basic("anna:pass:mit:doppelpunkt")));
+        assertEquals(1, anmeldungen.getHits());
+        assertEquals(2, anmeldungen.getMisses());
+    }
+
+    @Test
+    @DisplayName("rollen - Gemerkter Header trifft auch als neuer String, ein gleich langer falscher nie")
+    void testRollen_DirektGemerkt() {
+        // Arrange
+        Anmeldungen anmeldungen = new Anmeldungen(benutzerverwaltung, 1, 60_000, 1_000);
+        String header = basic("admin:geheim");
+
+        // Act & Assert
+        assertEquals(ADMIN, anmeldungen.rollen(header));
+        assertEquals(Anmeldungen.UNGUELTIG, anmeldungen.rollen(basic("admin:geheiM")));
+        assertEquals(ADMIN, anmeldungen.rollen(new String(header.toCharArray())));
+        assertEquals(1, anmeldungen.getHits());
+        assertEquals(2, anmeldungen.getGehasht());
+    }
+
+    @Test
+    @DisplayName("rollen - Falsche Passwörter, unbekannte Benutzer und kaputte Header")
+    void testRollen_Ungueltig() {
+        // Arrange
+        Anmeldungen anmeldungen = new Anmeldungen(benutzerverwaltung, 100, 60_000, 1_000);
+
+        // Act & Assert
+        assertEquals(Anmeldungen.UNGUELTIG, anmeldungen.rollen(basic("admin:falsch")));
+        assertEquals(Anmeldungen.UNGUELTIG, anmeldungen.rollen(basic("niemand:geheim")));
+        assertEquals(Anmeldungen.UNGUELTIG, anmeldungen.rollen(basic("admin")));
+        assertEquals(Anmeldungen.UNGUELTIG, anmeldungen.rollen("Basic %%%"));
+        // Fehlversuche werden nicht gemerkt
+        assertEquals(Anmeldungen.UNGUELTIG, anmeldungen.rollen(basic("admin:falsch")));
+        assertEquals(0, anmeldungen.getHits());
+    }
+
+    @Test
+    @DisplayName("rollen - Sperren und neue Passwörter wirken sofort, trotz gemerkter Anmeldung")
+    void testRollen_Widerruf() {
+        // Arrange
+        Anmeldungen anmeldungen = new Anmeldungen(benutzerverwaltung, 100, 60_000, 1_000);
+        assertEquals(ADMIN, anmeldungen.rollen(basic("admin:geheim")));
+        assertEquals(USER, anmeldungen.rollen(basic("anna:pass:mit:doppelpunkt")));
+
+        // Act
+        benutzerverwaltung.sperren("anna");
+        eintraege.remove("anna");
+        eintraege.setProperty("admin", Benutzerverwaltung.eintrag("ADMIN", "neu", ITERATIONEN));
+        benutzerverwaltung.uebernehmen(eintraege);
+
+        // Assert
+        assertEquals(Anmeldungen.UNGUELTIG, anmeldungen.rollen(basic("anna:pass:mit:doppelpunkt")));
+        assertEquals(Anmeldungen.UNGUELTIG, anmeldungen.rollen(basic("admin:geheim")));
+        assertEquals(ADMIN, anmeldungen.rollen(basic("admin:neu")));
+    }
+
+    @Test
+    @DisplayName("rollen - Nach Ablauf der TTL wird erneut gehasht")
+    void testRollen_Ttl() {
+        // Arrange: TTL 0, jeder Eintrag ist sofort abgelaufen
+        Anmeldungen anmeldungen = new Anmeldungen(benutzerverwaltung, 100, 0, 1_000);
+
+        // Act
+        anmeldungen.rollen(basic("admin:geheim"));
+        int rollen = anmeldungen.rollen(basic("admin:geheim"));
+
+        // Assert
+        assertEquals(ADMIN, rollen);
+        assertEquals(0, anmeldungen.getHits());
+        assertEquals(2, anmeldungen.getMisses());
+    }
+
+    @Test
+    @DisplayName("rollen - Gleichzeitige Requests mit demselben Header hashen nur einmal")
+    void testRollen_Gleichzeitig() throws Exception {
+        // Arrange: genug Iterationen, damit alle Threads während der ersten Prüfung ankommen
+        eintraege.setProperty("admin", Benutzerverwaltung.eintrag("ADMIN", "geheim", 200_000));
+        benutzerverwaltung.uebernehmen(eintraege);
+        Anmeldungen anmeldungen = new Anmeldungen(benutzerverwaltung, 100, 60_000, 10_000);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> ergebnisse = new ArrayList<>();
+
+        // Act
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 16; i++) {
+                ergebnisse.add(threads.submit(() -> {
+                    start.await();
+                    return anmeldungen.rollen(basic("admin:geheim"));
+                }));
+            }
+            start.countDown();
+        }
+
+        // Assert
+        for (Future<Integer> ergebnis : ergebnisse) {
+            assertEquals(ADMIN, (int) ergebnis.get());
+        }
+        assertEquals(1, anmeldungen.getGehasht());
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.projekt.services;
+
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Asynchrone Ausführung der Ressourcen")
+public class TestingAsyncExecutor {
+
+    @Test
+    @DisplayName("submit - Arbeit läuft auf einem virtuellen Thread")
+    void testSubmit_VirtualThread() {
+        // Act
+        Response response = AsyncExecutor.submit(
+                () -> Response.ok(Thread.currentThread().isVirtual()).build(), 5_000).toCompletableFuture().join();
+
+        // Assert
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals(Boolean.TRUE, response.getEntity());
+    }
+
+    @Test
+    @DisplayName("submit - Zeitüberschreitung liefert 503 mit Retry-After")
+    void testSubmit_Timeout() {
+        // Act
+        Response response = AsyncExecutor.submit(() -> {
+            try {
+                Thread.sleep(2_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Response.ok().build();
+        }, 50).toCompletableFuture().join();
+
+        // Assert
+        assertEquals(Response.Status.SERVICE_UNAVAILABLE.getStatusCode(), response.getStatus());
+        assertTrue(AsyncExecutor.getTimeouts() > 0);
+    }
+}
@@ -0,0 +1,162 @@
+package org.example.projekt.services;
+
+import jakarta.ws.rs.core.Response;
+import org.example.projekt.modules.Auto;
+import org.example.projekt.modules.Marke;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Sekundärindizes für Marke, Baujahr und Leistung")
+public class TestingAutoIndex {
+
+    private InMemoryRepository repository;
+    private AutoIndex index;
+    private AutoServices autoServices;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryRepository();
+        index = new AutoIndex(repository);
+        autoServices = new AutoServices(repository, repository, new AutoStatistik(repository, repository), index);
+
+        repository.addMarke(new Marke("Volkswagen"));
+        repository.addMarke(new Marke("Tesla"));
+        // IDs 1..3 Volkswagen, 4..5 Tesla
+        repository.addAuto(new Auto("Golf", LocalDate.of(2010, 1, 1), 1200.0, 110, true, true, 1));
+        repository.addAuto(new Auto("Passat", LocalDate.of(2015, 1, 1), 1500.0, 150, true, true, 1));
+        repository.addAuto(new Auto("Polo", LocalDate.of(2015, 6, 1), 1000.0, 80, true, true, 1));
+        repository.addAuto(new Auto("Model 3", LocalDate.of(2020, 1, 1), 1800.0, 300, false, true, 2));
+        repository.addAuto(new Auto("Model S", LocalDate.of(2020, 1, 1), 2100.0, 500, false, true, 2));
+    }
+
+    private static Response await(CompletionStage<Response> stage) {
+        return stage.toCompletableFuture().join();
+    }
+
+    private static List<Integer> ids(List<Auto> autos) {
+        return autos.stream().map(Auto::getIdAutos).toList();
+    }
+
+    @Test
+    @DisplayName("find - Marke, Baujahr und Leistungsbereich aus dem Index")
+    void testFind() throws Exception {
+        // Act & Assert
+        assertEquals(List.of(1, 2, 3), ids(index.findByMarke(1)));
+        assertEquals(List.of(2, 3, 4, 5), ids(index.findByJahre(2015, 2020)));
+        // Sortiert nach Leistung, Grenzen inklusive
+        assertEquals(List.of(3, 1, 2), ids(index.findByLeistung(80, 150)));
+        assertTrue(index.findByMarke(99).isEmpty());
+        assertTrue(index.findByLeistung(501, 1000).isEmpty());
+    }
+
+    @Test
+    @DisplayName("find - Treffer sind Kopien, Änderungen daran verändern den Index nicht")
+    void testFind_Kopien() throws Exception {
+        // Arrange
+        Auto golf = index.findByMarke(1).get(0);
+
+        // Act
+        golf.setModell("Geändert");
+        golf.setLeistung(999);
+        index.findByLeistung(80, 150).get(0).setModell("Auch geändert");
+
+        // Assert
+        assertEquals("Golf", index.findByMarke(1).get(0).getModell());
+        assertEquals("Polo", index.findByLeistung(80, 150).get(0).getModell());
+        assertEquals(List.of(3, 1, 2), ids(index.findByLeistung(80, 150)));
+    }
+
+    @Test
+    @DisplayName("Laden - Viele Autos werden vollständig und sortiert in den Index übernommen")
+    void testLaden_VieleAutos() throws Exception {
+        // Arrange: Leistung nicht in ID-Reihenfolge
+        List<Auto> neu = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            neu.add(new Auto("Modell " + i, LocalDate.of(2000 + i % 20, 1, 1), 1000.0, 1 + (i * 7919) % 1000, true, true, 1 + i % 2));
+        }
+        repository.addAutos(neu);
+
+        // Act
+        List<Auto> alle = index.findByLeistung(0, 1000);
+
+        // Assert
+        assertEquals(50_005, index.size());
+        assertEquals(50_005, alle.size());
+        for (int i = 1; i < alle.size(); i++) {
+            Auto vorher = alle.get(i - 1);
+            Auto jetzt = alle.get(i);
+            assertTrue(vorher.getLeistung() < jetzt.getLeistung()
+                    || vorher.getLeistung() == jetzt.getLeistung() && vorher.getIdAutos() < jetzt.getIdAutos());
+        }
+        List<Integer> volkswagen = ids(index.findByMarke(1));
+        assertEquals(25_003, volkswagen.size());
+        for (int i = 1; i < volkswagen.size(); i++) {
+            assertTrue(volkswagen.get(i - 1) < volkswagen.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Schreibzugriffe über den Service halten den Index aktuell")
+    void testSchreibzugriffe() throws Exception {
+        // Arrange: Index laden
+        assertEquals(5, index.size());
+
+        // Act
+        await(autoServices.addAuto(new Auto("ID.3", LocalDate.of(2021, 1, 1), 1800.0, 204, false, true, 1)));
+        Auto update = new Auto("Model 3", LocalDate.of(2020, 1, 1), 1800.0, 120, false, true, 1);
+        update.setIdAutos(4);
+        await(autoServices.updateAuto(update));
+        await(autoServices.deleteAuto(2));
+        await(autoServices.addAutos(List.of(
+                new Auto("Roadster", LocalDate.of(2008, 1, 1), 1300.0, 250, false, false, 2),
+                new Auto("Cybertruck", LocalDate.of(2023, 1, 1), 3000.0, 600, false, true, 2))));
+
+        // Assert
+        assertEquals(List.of(1, 3, 4, 6), ids(index.findByMarke(1)));
+        assertEquals(List.of(5, 7, 8), ids(index.findByMarke(2)));
+        assertEquals(List.of(1, 4, 6, 7), ids(index.findByLeistung(100, 250)));
+        assertTrue(index.findByJahre(2015, 2015).stream().noneMatch(a -> a.getIdAutos() == 2));
+        assertEquals(7, index.size());
+    }
+
+    @Test
+    @DisplayName("Alle löschen - Index wird neu geladen")
+    void testDeleteAll() throws Exception {
+        // Arrange
+        assertEquals(5, index.size());
+
+        // Act
+        await(autoServices.deleteAllAutos());
+        repository.addAuto(new Auto("Golf", LocalDate.of(2010, 1, 1), 1200.0, 110, true, true, 1));
+
+        // Assert
+        assertEquals(List.of(6), ids(index.findByMarke(1)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    @DisplayName("GET /autos/marke und /autos/leistung")
+    void testEndpoints() {
+        // Act
+        Response marke = await(autoServices.getAutosByMarke(2));
+        Response unbekannt = await(autoServices.getAutosByMarke(99));
+        Response leistung = await(autoServices.getAutosByLeistung(100, 300));
+        Response ungueltig = await(autoServices.getAutosByLeistung(300, 100));
+
+        // Assert
+        assertEquals(200, marke.getStatus());
+        assertEquals(2, ((List<?>) marke.getEntity()).size());
+        assertEquals(404, unbekannt.getStatus());
+        assertEquals(200, leistung.getStatus());
+        assertEquals(3, ((List<?>) leistung.getEntity()).size());
+        assertEquals(400, ungueltig.getStatus());
+    }
+}
@@ -1,12 +1,25 @@
 package org.example.projekt.services;
 
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.ext.MessageBodyWriter;
 import org.example.projekt.modules.Auto;
+import org.example.projekt.modules.Marke;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -32,13 +45,18 @@ public class TestingAutoServices {
         );
     }
 
+    // Die Ressourcen antworten asynchron, die Tests warten auf das Ergebnis
+    private static Response await(CompletionStage<Response> stage) {
+        return stage.toCompletableFuture().join();
+    }
+
     // ================== addAuto() Tests ==================
 
     @Test
     @DisplayName("addAuto - Positiv: Auto mit gültigen Daten hinzufügen")
     void testAddAuto_ValidData() {
         // Act
-        Response response = autoServices.addAuto(testAuto);
+        Response response = await(autoServices.addAuto(testAuto));
 
         // Assert
         assertTrue(
@@ -54,7 +72,7 @@ public class TestingAutoServices {
         testAuto.setBaujahr(LocalDate.now().plusDays(1));
 
         // Act
-        Response response = autoServices.addAuto(testAuto);
+        Response response = await(autoServices.addAuto(testAuto));
 
         // Assert
         assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
@@ -68,7 +86,7 @@ public class TestingAutoServices {
         testAuto.setGewicht(0);
 
         // Act
-        Response response = autoServices.addAuto(testAuto);
+        Response response = await(autoServices.addAuto(testAuto));
 
         // Assert
         assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
@@ -82,7 +100,7 @@ public class TestingAutoServices {
         testAuto.setLeistung(0);
 
         // Act
-        Response response = autoServices.addAuto(testAuto);
+        Response response = await(autoServices.addAuto(testAuto));
 
         // Assert
         assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
@@ -96,7 +114,7 @@ public class TestingAutoServices {
         testAuto.setModell("   ");
 
         // Act
-        Response response = autoServices.addAuto(testAuto);
+        Response response = await(autoServices.addAuto(testAuto));
 
         // Assert
         assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
@@ -122,7 +140,7 @@ public class TestingAutoServices {
         );
 
         // Act
-        Response response = autoServices.updateAuto(updateAuto);
+        Response response = await(autoServices.updateAuto(updateAuto));
 
         // Assert
         assertTrue(
@@ -148,7 +166,7 @@ public class TestingAutoServices {
         );
 
         // Act
-        Response response = autoServices.updateAuto(updateAuto);
+        Response response = await(autoServices.updateAuto(updateAuto));
 
         // Assert
         assertTrue(response.getEntity().toString().contains("Baujahr darf nicht in der Zukunft liegen") ||
@@ -172,7 +190,7 @@ public class TestingAutoServices {
         );
 
         // Act
-        Response response = autoServices.updateAuto(updateAuto);
+        Response response = await(autoServices.updateAuto(updateAuto));
 
         // Assert
         assertTrue(response.getEntity().toString().contains("Gewicht muss größer als 0 sein") ||
@@ -196,7 +214,7 @@ public class TestingAutoServices {
         );
 
         // Act
-        Response response = autoServices.updateAuto(updateAuto);
+        Response response = await(autoServices.updateAuto(updateAuto));
 
         // Assert
         assertTrue(response.getEntity().toString().contains("Leistung muss größer als 0 sein") ||
@@ -209,7 +227,7 @@ public class TestingAutoServices {
     @DisplayName("getAuto - Positiv: Auto abrufen")
     void testGetAuto_Success() {
         // Act
-        Response response = autoServices.getAuto(1);
+        Response response = await(autoServices.getAuto(1));
 
         // Assert
         assertTrue(
@@ -222,7 +240,7 @@ public class TestingAutoServices {
     @DisplayName("getAuto - Negativ: Auto nicht gefunden")
     void testGetAuto_NotFound() {
         // Act
-        Response response = autoServices.getAuto(99999);
+        Response response = await(autoServices.getAuto(99999));
 
         // Assert
         assertEquals(Response.Status.NOT_FOUND.getStatusCode(), response.getStatus());
@@ -235,7 +253,7 @@ public class TestingAutoServices {
     @DisplayName("getAllAutos - Positiv: Alle Autos abrufen")
     void testGetAllAutos_Success() {
         // Act
-        Response response = autoServices.getAllAutos();
+        Response response = await(autoServices.getAllAutos());
 
         // Assert
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
@@ -248,7 +266,7 @@ public class TestingAutoServices {
     @DisplayName("deleteAuto - Positiv: Auto löschen")
     void testDeleteAuto_Success() {
         // Act
-        Response response = autoServices.deleteAuto(1);
+        Response response = await(autoServices.deleteAuto(1));
 
         // Assert
         assertTrue(
@@ -261,44 +279,115 @@ public class TestingAutoServices {
     @DisplayName("deleteAuto - Negativ: Auto nicht gefunden")
     void testDeleteAuto_NotFound() {
         // Act
-        Response response = autoServices.deleteAuto(99999);
+        Response response = await(autoServices.deleteAuto(99999));
 
         // Assert
         assertEquals(Response.Status.NOT_FOUND.getStatusCode(), response.getStatus());
         assertEquals("Auto nicht gefunden", response.getEntity());
     }
 
+    @Test
+    @DisplayName("addAuto/updateAuto - Negativ: Ungültige Felder werden vor einer fehlenden Marke gemeldet")
+    void testMarkeVorFeldern() throws Exception {
+        // Arrange
+        InMemoryRepository repository = new InMemoryRepository();
+        repository.addMarke(new Marke("Volkswagen"));
+        repository.addAuto(new Auto("Golf", LocalDate.of(2014, 3, 1), 1200.0, 110, true, true, 1));
+        AutoServices services = new AutoServices(repository, repository);
+        Auto neu = new Auto("Polo", LocalDate.of(2019, 6, 1), 0, 70, true, true, 99);
+        Auto geaendert = new Auto(1, "Golf", LocalDate.of(2014, 3, 1), 1200.0, 0, true, true, 99, null);
+        Auto fehlend = new Auto(42, "Golf", LocalDate.of(2014, 3, 1), 1200.0, 0, true, true, 99, null);
+
+        // Act
+        Response add = await(services.addAuto(neu));
+        Response update = await(services.updateAuto(geaendert));
+        Response nichtGefunden = await(services.updateAuto(fehlend));
+
+        // Assert
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), add.getStatus());
+        assertTrue(add.getEntity().toString().contains("Gewicht"), add.getEntity().toString());
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), update.getStatus());
+        assertTrue(update.getEntity().toString().contains("Leistung"), update.getEntity().toString());
+        assertEquals(Response.Status.NOT_FOUND.getStatusCode(), nichtGefunden.getStatus());
+    }
+
     // ================== getAutosByBaujahr() Tests ==================
 
     @Test
     @DisplayName("getAutosByBaujahr - Positiv: Autos nach Jahr abrufen")
     void testGetAutosByBaujahr_Success() {
         // Act
-        Response response = autoServices.getAutosByBaujahr(2020);
+        Response response = await(autoServices.getAutosByBaujahr(2020));
 
         // Assert
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
         assertNotNull(response.getEntity());
     }
 
+    @Test
+    @DisplayName("getAutosByBaujahr - Positiv: Bereich aus dem Index, folgt Schreibzugriffen")
+    void testGetAutosByBaujahr_Bereich() throws Exception {
+        // Arrange
+        InMemoryRepository repository = new InMemoryRepository();
+        repository.addMarke(new Marke("Volkswagen"));
+        repository.addAuto(new Auto("Golf", LocalDate.of(2014, 3, 1), 1200.0, 110, true, true, 1));
+        repository.addAuto(new Auto("Polo", LocalDate.of(2019, 6, 1), 1000.0, 70, true, true, 1));
+        AutoServices services = new AutoServices(repository, repository);
+        await(services.getAutosByBaujahr(null, 2010, 2020));
+
+        // Act
+        await(services.addAuto(new Auto("ID.3", LocalDate.of(2020, 9, 1), 1800.0, 150, false, true, 1)));
+        Response bereich = await(services.getAutosByBaujahr(null, 2015, 2020));
+        Response jahr = await(services.getAutosByBaujahr(2014));
+
+        // Assert
+        assertEquals(Response.Status.OK.getStatusCode(), bereich.getStatus());
+        @SuppressWarnings("unchecked")
+        List<Auto> autos = (List<Auto>) bereich.getEntity();
+        assertEquals(List.of("Polo", "ID.3"), autos.stream().map(Auto::getModell).toList());
+        assertEquals(1, ((List<?>) jahr.getEntity()).size());
+    }
+
     @Test
     @DisplayName("getAutosByBaujahr - Negativ: Ungültiges Jahr (0)")
     void testGetAutosByBaujahr_InvalidYear() {
         // Act
-        Response response = autoServices.getAutosByBaujahr(0);
+        Response response = await(autoServices.getAutosByBaujahr(0));
+
+        // Assert
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+        assertTrue(response.getEntity().toString().contains("gültiges Jahr"));
+    }
+
+    @Test
+    @DisplayName("getAutosByBaujahr - Negativ: Ohne jahr, von und bis")
+    void testGetAutosByBaujahr_OhneParameter() {
+        // Act
+        Response response = await(autoServices.getAutosByBaujahr(null, null, null));
 
         // Assert
         assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
         assertTrue(response.getEntity().toString().contains("gültiges Jahr"));
     }
 
+    @Test
+    @DisplayName("getAutosByBaujahr - Negativ: von grösser als bis")
+    void testGetAutosByBaujahr_VonGroesserBis() {
+        // Act
+        Response response = await(autoServices.getAutosByBaujahr(null, 2021, 2019));
+
+        // Assert
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+        assertEquals("Fehler: von darf nicht grösser als bis sein", response.getEntity());
+    }
+
     // ================== countAutos() Tests ==================
 
     @Test
     @DisplayName("countAutos - Positiv: Anzahl der Autos abrufen")
     void testCountAutos_Success() {
         // Act
-        Response response = autoServices.countAutos();
+        Response response = await(autoServices.countAutos());
 
         // Assert
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
@@ -311,10 +400,94 @@ public class TestingAutoServices {
     @DisplayName("deleteAllAutos - Positiv: Alle Autos löschen")
     void testDeleteAllAutos_Success() {
         // Act
-        Response response = autoServices.deleteAllAutos();
+        Response response = await(autoServices.deleteAllAutos());
 
         // Assert
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
         assertTrue(response.getEntity().toString().contains("Autos erfolgreich gelöscht"));
     }
+
+    // ================== streamAllAutos() Tests ==================
+
+    // Schreibt nur die ID und flusht/schliesst danach wie der JSON-Writer von Jersey
+    private static final class IdWriter implements MessageBodyWriter<Auto> {
+        @Override
+        public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return true;
+        }
+
+        @Override
+        public void writeTo(Auto auto, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+            entityStream.write(Integer.toString(auto.getIdAutos()).getBytes(StandardCharsets.US_ASCII));
+            entityStream.flush();
+            entityStream.close();
+        }
+    }
+
+    @Test
+    @DisplayName("getAllAutos - stream: Flush in Blöcken statt nach jedem Auto")
+    void testStreamAllAutos_FlushInBloecken() throws Exception {
+        // Arrange
+        InMemoryRepository repository = new InMemoryRepository();
+        repository.addMarke(new Marke("Volkswagen"));
+        for (int i = 0; i < 1_200; i++) {
+            repository.addAuto(new Auto("Golf", LocalDate.of(2010, 1, 1), 1200.0, 110, true, true, 1));
+        }
+        AutoServices services = new AutoServices(repository, repository, new AutoStatistik(repository, repository));
+        services.providers = new FakeProviders(new IdWriter());
+        int[] flushes = {0};
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes[0]++;
+            }
+
+            @Override
+            public void close() {
+                fail("Der Response-Stream darf nicht geschlossen werden");
+            }
+        };
+
+        // Act
+        Response response = await(services.getAllAutos(null, null, true));
+        ((StreamingOutput) response.getEntity()).write(out);
+
+        // Assert
+        String json = out.toString(StandardCharsets.US_ASCII);
+        assertTrue(json.startsWith("[1,2,3,"), json);
+        assertTrue(json.endsWith(",1200]"), json);
+        // Zwei volle Blöcke zu 500 Autos und der Rest am Ende
+        assertEquals(3, flushes[0]);
+    }
+
+    @Test
+    @DisplayName("getAllAutos - stream: 503 vor dem Stream, wenn kein Leseplatz frei ist; Platz nach dem Schreiben frei")
+    void testStreamAllAutos_Leseplatz() throws Exception {
+        // Arrange
+        InMemoryRepository repository = new InMemoryRepository();
+        repository.addMarke(new Marke("Volkswagen"));
+        repository.addAuto(new Auto("Golf", LocalDate.of(2010, 1, 1), 1200.0, 110, true, true, 1));
+        AdaptivesLimit lesen = new AdaptivesLimit("read", 1, 1, 1, 2.0, 0, 0);
+        BegrenztesRepository begrenzt = new BegrenztesRepository(repository, lesen,
+                new AdaptivesLimit("write", 1, 1, 1, 2.0, 0, 0));
+        AutoServices services = new AutoServices(begrenzt, begrenzt, new AutoStatistik(repository, repository));
+        services.providers = new FakeProviders(new IdWriter());
+
+        // Act
+        assertTrue(lesen.betreten());
+        Response abgewiesen = await(services.getAllAutos(null, null, true));
+        lesen.verlassen(-1, false);
+        Response response = await(services.getAllAutos(null, null, true));
+        int belegtVorDemSchreiben = lesen.getLaufend();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(out);
+
+        // Assert
+        assertEquals(Response.Status.SERVICE_UNAVAILABLE.getStatusCode(), abgewiesen.getStatus());
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals(1, belegtVorDemSchreiben);
+        assertEquals("[1]", out.toString(StandardCharsets.US_ASCII));
+        assertEquals(0, lesen.getLaufend());
+    }
 }
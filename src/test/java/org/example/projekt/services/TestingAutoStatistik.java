@@ -0,0 +1,151 @@
+package org.example.projekt.services;
+
+import jakarta.ws.rs.core.Response;
+import org.example.projekt.modules.Auto;
+import org.example.projekt.modules.AutoStats;
+import org.example.projekt.modules.Marke;
+import org.example.projekt.modules.StatsGruppe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Statistik über die Autos")
+public class TestingAutoStatistik {
+
+    private InMemoryRepository repository;
+    private AutoStatistik statistik;
+    private AutoServices autoServices;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryRepository();
+        statistik = new AutoStatistik(repository, repository);
+        autoServices = new AutoServices(repository, repository, statistik);
+
+        repository.addMarke(new Marke("Volkswagen"));
+        repository.addMarke(new Marke("Tesla"));
+        // Volkswagen: Leistung 101..200, Tesla: 10 Elektroautos mit 300 PS
+        for (int i = 1; i <= 100; i++) {
+            repository.addAuto(new Auto("Golf", LocalDate.of(2000 + i % 2, 1, 1), 1000.0 + i, 100 + i, true, true, 1));
+        }
+        for (int i = 0; i < 10; i++) {
+            repository.addAuto(new Auto("Model 3", LocalDate.of(2021, 1, 1), 1800.0, 300, false, true, 2));
+        }
+    }
+
+    private static Response await(CompletionStage<Response> stage) {
+        return stage.toCompletableFuture().join();
+    }
+
+    @Test
+    @DisplayName("stats - Pro Marke: Anzahl, Durchschnitt und Perzentile")
+    void testStats_ProMarke() throws Exception {
+        // Act
+        AutoStats stats = statistik.stats(AutoStatistik.Gruppierung.MARKE);
+
+        // Assert
+        StatsGruppe vw = stats.getGruppen().get(0);
+        assertEquals(110, stats.getAnzahl());
+        assertEquals("Volkswagen", vw.getSchluessel());
+        assertEquals(100, vw.getAnzahl());
+        assertEquals(150.5, vw.getLeistung().getDurchschnitt(), 1e-9);
+        assertEquals(150.0, vw.getLeistung().getP50());
+        assertEquals(190.0, vw.getLeistung().getP90());
+        assertEquals(101.0, vw.getLeistung().getMin());
+        assertEquals(1100.0, vw.getGewicht().getMax());
+    }
+
+    @Test
+    @DisplayName("stats - Nach Antrieb und nach Baujahr")
+    void testStats_AntriebUndJahr() throws Exception {
+        // Act
+        AutoStats antrieb = statistik.stats(AutoStatistik.Gruppierung.ANTRIEB);
+        AutoStats jahr = statistik.stats(AutoStatistik.Gruppierung.JAHR);
+
+        // Assert
+        assertEquals("Verbrenner", antrieb.getGruppen().get(0).getSchluessel());
+        assertEquals(10, antrieb.getGruppen().get(1).getAnzahl());
+        assertEquals(300.0, antrieb.getGruppen().get(1).getLeistung().getP99());
+        assertEquals(3, jahr.getGruppen().size());
+        assertEquals("2000", jahr.getGruppen().get(0).getSchluessel());
+    }
+
+    @Test
+    @DisplayName("stats - Gleichzeitige erste Aufrufe bauen den Schnappschuss nur einmal")
+    void testStats_ErsterAufbauEinmal() throws Exception {
+        // Arrange: langsames Laden, damit alle Aufrufe während des ersten Aufbaus ankommen
+        AtomicInteger geladen = new AtomicInteger();
+        InMemoryRepository langsam = new InMemoryRepository() {
+            @Override
+            public void streamAllAutos(int fetchSize, AutoConsumer consumer) throws IOException {
+                geladen.incrementAndGet();
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.streamAllAutos(fetchSize, consumer);
+            }
+        };
+        langsam.addMarke(new Marke("Volkswagen"));
+        langsam.addAuto(new Auto("Golf", LocalDate.of(2010, 1, 1), 1200.0, 110, true, true, 1));
+        AutoStatistik erste = new AutoStatistik(langsam, langsam);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<AutoStats>> ergebnisse = new ArrayList<>();
+
+        // Act
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 8; i++) {
+                ergebnisse.add(threads.submit(() -> {
+                    start.await();
+                    return erste.stats(AutoStatistik.Gruppierung.MARKE);
+                }));
+            }
+            start.countDown();
+        }
+
+        // Assert
+        for (Future<AutoStats> ergebnis : ergebnisse) {
+            assertEquals(1, ergebnis.get().getAnzahl());
+        }
+        assertEquals(1, geladen.get());
+    }
+
+    @Test
+    @DisplayName("stats - Schreibzugriff über den Service erneuert den Schnappschuss")
+    void testStats_NachSchreibzugriff() throws Exception {
+        // Arrange
+        statistik.stats(AutoStatistik.Gruppierung.MARKE);
+
+        // Act
+        await(autoServices.addAuto(new Auto("ID.3", LocalDate.of(2022, 1, 1), 1700.0, 150, false, true, 1)));
+        statistik.aufbauen();
+        AutoStats stats = statistik.stats(AutoStatistik.Gruppierung.MARKE);
+
+        // Assert
+        assertEquals(111, stats.getAnzahl());
+    }
+
+    @Test
+    @DisplayName("getStats - Ungültige Gruppierung liefert 400")
+    void testGetStats_UngueltigeGruppe() {
+        // Act
+        Response response = await(autoServices.getStats("farbe"));
+
+        // Assert
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+    }
+}
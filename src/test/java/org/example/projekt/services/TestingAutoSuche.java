@@ -0,0 +1,83 @@
+package org.example.projekt.services;
+
+import jakarta.ws.rs.core.Response;
+import org.example.projekt.modules.Auto;
+import org.example.projekt.modules.Marke;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Suche über mehrere Kriterien")
+public class TestingAutoSuche {
+
+    private AutoServices autoServices;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryRepository repository = new InMemoryRepository();
+        autoServices = new AutoServices(repository, repository);
+
+        repository.addMarke(new Marke("Volkswagen"));
+        repository.addMarke(new Marke("Tesla"));
+        // IDs 1..5
+        repository.addAuto(new Auto("Golf GTI", LocalDate.of(2010, 1, 1), 1300.0, 200, true, true, 1));
+        repository.addAuto(new Auto("Golf", LocalDate.of(2015, 1, 1), 1200.0, 110, true, true, 1));
+        repository.addAuto(new Auto("Passat", LocalDate.of(2015, 6, 1), 1500.0, 150, true, false, 1));
+        repository.addAuto(new Auto("Model 3", LocalDate.of(2020, 1, 1), 1800.0, 300, false, true, 2));
+        repository.addAuto(new Auto("Model S", LocalDate.of(2020, 1, 1), 2100.0, 500, false, true, 2));
+    }
+
+    private static Response await(CompletionStage<Response> stage) {
+        return stage.toCompletableFuture().join();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Integer> ids(Response response) {
+        return ((List<Auto>) response.getEntity()).stream().map(Auto::getIdAutos).toList();
+    }
+
+    @Test
+    @DisplayName("search - Kriterien kombinieren, Modell als Teilstring ohne Gross-/Kleinschreibung")
+    void testSearch_Kriterien() {
+        // Act
+        Response golf = await(autoServices.searchAutos(null, null, null, null, null, null, null, null, 1, "GOLF", "id", false, null));
+        Response bereich = await(autoServices.searchAutos(100, 300, 1000.0, 1600.0, 2011, 2020, true, null, null, null, "id", false, null));
+        Response elektro = await(autoServices.searchAutos(null, null, null, null, null, null, false, true, null, null, "id", false, null));
+
+        // Assert
+        assertEquals(List.of(1, 2), ids(golf));
+        assertEquals(List.of(2, 3), ids(bereich));
+        assertEquals(List.of(4, 5), ids(elektro));
+    }
+
+    @Test
+    @DisplayName("search - Sortierung und Limit")
+    void testSearch_SortierungUndLimit() {
+        // Act
+        Response staerkste = await(autoServices.searchAutos(null, null, null, null, null, null, null, null, null, null, "leistung", true, 2));
+        Response ersteNachId = await(autoServices.searchAutos(null, null, null, null, null, null, null, null, null, null, "id", false, 3));
+        Response nachBaujahr = await(autoServices.searchAutos(null, null, null, null, 2015, null, null, null, null, null, "baujahr", false, null));
+
+        // Assert
+        assertEquals(List.of(5, 4), ids(staerkste));
+        assertEquals(List.of(1, 2, 3), ids(ersteNachId));
+        // Gleiches Baujahr: aufsteigend nach ID
+        assertEquals(List.of(2, 3, 4, 5), ids(nachBaujahr));
+    }
+
+    @Test
+    @DisplayName("search - Ungültige Parameter ergeben 400")
+    void testSearch_Ungueltig() {
+        // Act & Assert
+        assertEquals(400, await(autoServices.searchAutos(300, 100, null, null, null, null, null, null, null, null, "id", false, null)).getStatus());
+        assertEquals(400, await(autoServices.searchAutos(null, null, null, null, null, null, null, null, null, null, "farbe", false, null)).getStatus());
+        assertEquals(400, await(autoServices.searchAutos(null, null, null, null, null, null, null, null, null, null, "id", false, 0)).getStatus());
+        assertEquals(400, await(autoServices.searchAutos(null, null, null, null, 0, null, null, null, null, null, "id", false, null)).getStatus());
+    }
+}
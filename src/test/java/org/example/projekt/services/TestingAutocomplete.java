@@ -0,0 +1,155 @@
+package org.example.projekt.services;
+
+import jakarta.ws.rs.core.Response;
+import org.example.projekt.modules.Auto;
+import org.example.projekt.modules.Marke;
+import org.example.projekt.modules.Vorschlag;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Autovervollständigung für Modelle und Marken")
+public class TestingAutocomplete {
+
+    private InMemoryRepository repository;
+    private Autocomplete autocomplete;
+    private AutoServices autoServices;
+    private MarkeServices markeServices;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryRepository();
+        AutoIndex index = new AutoIndex(repository);
+        autocomplete = new Autocomplete(index, repository);
+        autoServices = new AutoServices(repository, repository, new AutoStatistik(repository, repository), index, autocomplete,
+                new VersionTracker(), new ResponseCache(1 << 20));
+        markeServices = new MarkeServices(repository, repository, autocomplete, new VersionTracker(),
+                new ResponseCache(1 << 20));
+
+        repository.addMarke(new Marke("Volkswagen"));
+        repository.addMarke(new Marke("Škoda"));
+        repository.addAuto(new Auto("Golf", LocalDate.of(2010, 1, 1), 1200.0, 110, true, true, 1));
+        repository.addAuto(new Auto("Golf", LocalDate.of(2015, 1, 1), 1250.0, 150, true, true, 1));
+        repository.addAuto(new Auto("Golf GTI", LocalDate.of(2018, 1, 1), 1300.0, 245, true, true, 1));
+        repository.addAuto(new Auto("Octavia", LocalDate.of(2019, 1, 1), 1400.0, 150, true, true, 2));
+    }
+
+    private static Response await(CompletionStage<Response> stage) {
+        return stage.toCompletableFuture().join();
+    }
+
+    private static List<String> texte(List<Vorschlag> vorschlaege) {
+        return vorschlaege.stream().map(Vorschlag::getText).toList();
+    }
+
+    @Test
+    @DisplayName("vorschlaege - Präfix, Wortanfang und Rang nach Anzahl")
+    void testVorschlaege() throws Exception {
+        // Act
+        List<Vorschlag> golf = autocomplete.vorschlaege("GOL", 10);
+        List<Vorschlag> gti = autocomplete.vorschlaege("gti", 10);
+
+        // Assert
+        assertEquals(List.of("Golf", "Golf GTI"), texte(golf));
+        assertEquals(2, golf.get(0).getAnzahl());
+        assertEquals("modell", golf.get(0).getTyp());
+        assertEquals(List.of("Golf GTI"), texte(gti));
+        assertEquals(List.of("Golf"), texte(autocomplete.vorschlaege("go", 1)));
+    }
+
+    @Test
+    @DisplayName("vorschlaege - Marken ohne Akzente finden")
+    void testVorschlaege_Akzente() throws Exception {
+        // Act
+        List<Vorschlag> skoda = autocomplete.vorschlaege("sko", 10);
+
+        // Assert
+        assertEquals(List.of("Škoda"), texte(skoda));
+        assertEquals("marke", skoda.get(0).getTyp());
+        assertEquals(Integer.valueOf(2), skoda.get(0).getIdMarke());
+        assertEquals(1, skoda.get(0).getAnzahl());
+    }
+
+    @Test
+    @DisplayName("vorschlaege - Änderungen warten nicht auf das Lesen der Marken")
+    void testMarkenAbgleich_OhneLock() throws Exception {
+        // Arrange: getAllMarken blockiert, bis der Test es freigibt
+        CountDownLatch liest = new CountDownLatch(1);
+        CountDownLatch weiter = new CountDownLatch(1);
+        boolean[] blockieren = {false};
+        InMemoryRepository langsam = new InMemoryRepository() {
+            @Override
+            public List<Marke> getAllMarken() {
+                if (blockieren[0]) {
+                    liest.countDown();
+                    try {
+                        weiter.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.getAllMarken();
+            }
+        };
+        langsam.addMarke(new Marke("Volkswagen"));
+        langsam.addAuto(new Auto("Golf", LocalDate.of(2010, 1, 1), 1200.0, 110, true, true, 1));
+        AutoIndex index = new AutoIndex(langsam);
+        Autocomplete langsamesAutocomplete = new Autocomplete(index, langsam);
+        index.ensureGeladen();
+        blockieren[0] = true;
+
+        // Act
+        CompletableFuture<List<Vorschlag>> vorschlaege = CompletableFuture.supplyAsync(() -> {
+            try {
+                return langsamesAutocomplete.vorschlaege("pol", 10);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(liest.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> einfuegen = CompletableFuture.runAsync(() ->
+                langsamesAutocomplete.eingefuegt(new Auto("Polo", LocalDate.of(2015, 1, 1), 1000.0, 80, true, true, 1)));
+
+        // Assert
+        einfuegen.get(5, TimeUnit.SECONDS);
+        weiter.countDown();
+        assertEquals(List.of("Polo"), texte(vorschlaege.get(5, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    @DisplayName("Änderungen über die Services werden übernommen")
+    void testAenderungen() throws Exception {
+        // Arrange: Index laden
+        assertEquals(2, autocomplete.vorschlaege("golf", 10).size());
+
+        // Act
+        await(autoServices.addAuto(new Auto("Polo", LocalDate.of(2020, 1, 1), 1100.0, 95, true, true, 1)));
+        Auto update = new Auto("Golf Variant", LocalDate.of(2018, 1, 1), 1300.0, 245, true, true, 1);
+        update.setIdAutos(3);
+        await(autoServices.updateAuto(update));
+        await(markeServices.addMarke(new Marke("Porsche")));
+
+        // Assert
+        assertEquals(List.of("Polo", "Porsche"), texte(autocomplete.vorschlaege("po", 10)));
+        assertEquals(List.of("Golf", "Golf Variant"), texte(autocomplete.vorschlaege("golf", 10)));
+        assertTrue(autocomplete.vorschlaege("gti", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("GET /autos/autocomplete - Leere Eingabe ergibt 400")
+    void testEndpoint() {
+        // Act & Assert
+        assertEquals(200, await(autoServices.autocomplete("oct", 10)).getStatus());
+        assertEquals(400, await(autoServices.autocomplete(" ", 10)).getStatus());
+        assertEquals(400, await(autoServices.autocomplete("a", 0)).getStatus());
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.projekt.services;
+
+import jakarta.ws.rs.core.Response;
+import org.example.projekt.modules.Auto;
+import org.example.projekt.security.Roles;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Wie TestingRoles, aber direkt gegen den Filter, ohne laufenden Server
+@DisplayName("Vorberechnete Berechtigungen im Roles-Filter")
+public class TestingBerechtigungen {
+
+    private static Method ping;
+    private static Method count;
+    private static Method addAuto;
+    private final Roles roles = new Roles();
+
+    @BeforeAll
+    static void setup() throws Exception {
+        Roles.vorberechnen(AutoServices.class, MarkeServices.class);
+        ping = AutoServices.class.getMethod("ping");
+        count = AutoServices.class.getMethod("countAutos");
+        addAuto = AutoServices.class.getMethod("addAuto", Auto.class);
+    }
+
+    private static String basic(String credentials) {
+        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int status(Response response) {
+        return response == null ? 200 : response.getStatus();
+    }
+
+    @Test
+    @DisplayName("@PermitAll - Ohne Header erlaubt")
+    void testPermitAll() {
+        assertEquals(200, status(roles.pruefen(ping, null)));
+    }
+
+    @Test
+    @DisplayName("@RolesAllowed - Rollen aus dem Header, auch beim zweiten Aufruf aus dem Cache")
+    void testRolesAllowed() {
+        for (int i = 0; i < 2; i++) {
+            assertEquals(200, status(roles.pruefen(count, basic("user:187"))));
+            assertEquals(200, status(roles.pruefen(addAuto, basic("admin:1234"))));
+            assertEquals(401, status(roles.pruefen(addAuto, basic("user:187"))));
+        }
+    }
+
+    @Test
+    @DisplayName("Ungültige Header - 401 statt Fehler")
+    void testUngueltigeHeader() {
+        assertEquals(401, status(roles.pruefen(count, null)));
+        assertEquals(401, status(roles.pruefen(count, "")));
+        assertEquals(401, status(roles.pruefen(count, "Basic %%%")));
+        assertEquals(401, status(roles.pruefen(count, basic("user"))));
+        assertEquals(401, status(roles.pruefen(count, basic("user:1870"))));
+        assertEquals(401, status(roles.pruefen(count, "Bearer " + basic("user:187").substring(6))));
+    }
+
+    @Test
+    @DisplayName("Bearer - Token aus dem Login gilt mit den Rollen des Benutzers bis zum Logout")
+    void testBearer() {
+        // Arrange
+        String bearer = "Bearer " + Roles.ausstellen(basic("admin:1234")).wert();
+
+        // Act & Assert
+        assertEquals(200, status(roles.pruefen(addAuto, bearer)));
+        assertTrue(Roles.widerrufen(bearer));
+        assertEquals(401, status(roles.pruefen(addAuto, bearer)));
+        assertEquals(401, status(roles.pruefen(count, "Bearer ungueltig")));
+    }
+}
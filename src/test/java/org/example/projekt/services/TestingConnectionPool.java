@@ -0,0 +1,125 @@
+package org.example.projekt.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Connection-Pool")
+public class TestingConnectionPool {
+
+    private FakeJdbc jdbc;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new FakeJdbc(sql -> List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    // min 0, ohne Idle-Timeout und Lebensdauer
+    private ConnectionPool pool(int maxSize, long leakDetectionMs, long connectionTimeoutMs) {
+        pool = new ConnectionPool("test", jdbc::connection, 0, maxSize, 0, 0, leakDetectionMs, connectionTimeoutMs);
+        return pool;
+    }
+
+    @Test
+    @DisplayName("Ausleihen und Zurückgeben - Die Verbindung wird wiederverwendet, der Handle ist danach unbrauchbar")
+    void testAusleihenUndZurueckgeben() throws Exception {
+        // Arrange
+        pool(2, 0, 1_000);
+
+        // Act
+        Connection erste = pool.getConnection();
+        int aktiv = pool.getActiveConnections();
+        erste.close();
+        erste.close();
+        Connection zweite = pool.getConnection();
+
+        // Assert
+        assertEquals(1, aktiv);
+        assertEquals(1, jdbc.getVerbindungen().size());
+        assertEquals(1, pool.getTotalConnections());
+        assertTrue(erste.isClosed());
+        assertThrows(SQLException.class, () -> erste.prepareStatement("SELECT 1"));
+        zweite.close();
+        assertEquals(0, pool.getActiveConnections());
+        assertEquals(1, pool.getIdleConnections());
+        assertEquals(2, pool.getTotalBorrows());
+    }
+
+    @Test
+    @DisplayName("Timeout - Ohne freie Verbindung wird nach connectionTimeoutMs abgebrochen")
+    void testTimeout() throws Exception {
+        // Arrange
+        pool(1, 0, 50);
+        Connection belegt = pool.getConnection();
+
+        // Act
+        long start = System.nanoTime();
+        assertThrows(SQLTransientConnectionException.class, pool::getConnection);
+        long gewartet = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert
+        assertTrue(gewartet >= 45, "gewartet: " + gewartet);
+        assertEquals(1, pool.getConnectionTimeouts());
+        belegt.close();
+        pool.getConnection().close();
+    }
+
+    @Test
+    @DisplayName("Leckerkennung - Zu lange ausgeliehene Verbindungen werden einmal gemeldet")
+    void testLeckerkennung() throws Exception {
+        // Arrange
+        pool(2, 1, 1_000);
+        Connection vergessen = pool.getConnection();
+        Thread.sleep(10);
+
+        // Act
+        pool.housekeeping();
+        pool.housekeeping();
+
+        // Assert
+        assertEquals(1, pool.getLeaksDetected());
+        vergessen.close();
+        assertEquals(0, pool.getActiveConnections());
+    }
+
+    @Test
+    @DisplayName("Zustand - Offene Transaktion wird zurückgerollt, Auto-Commit und Isolation zurückgesetzt")
+    void testZustandZuruecksetzen() throws Exception {
+        // Arrange
+        pool(1, 0, 1_000);
+        Connection connection = pool.getConnection();
+        connection.setAutoCommit(false);
+        connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        connection.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+
+        // Act
+        connection.close();
+        Connection naechste = pool.getConnection();
+
+        // Assert
+        FakeJdbc.Verbindung physisch = jdbc.getVerbindungen().get(0);
+        assertEquals(1, jdbc.getVerbindungen().size());
+        assertEquals(1, physisch.rollbacks);
+        assertTrue(physisch.autoCommit);
+        assertEquals(Connection.TRANSACTION_REPEATABLE_READ, physisch.isolation);
+        assertEquals(Connection.TRANSACTION_REPEATABLE_READ, naechste.getTransactionIsolation());
+        naechste.close();
+    }
+}
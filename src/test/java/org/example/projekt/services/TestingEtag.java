@@ -0,0 +1,136 @@
+package org.example.projekt.services;
+
+import jakarta.ws.rs.core.Response;
+import org.example.projekt.modules.Auto;
+import org.example.projekt.modules.Marke;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletionStage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ETags und bedingte GET-Requests")
+public class TestingEtag {
+
+    private AutoServices autoServices;
+    private MarkeServices markeServices;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryRepository repository = new InMemoryRepository();
+        AutoIndex index = new AutoIndex(repository);
+        Autocomplete autocomplete = new Autocomplete(index, repository);
+        VersionTracker versionen = new VersionTracker();
+        autoServices = new AutoServices(repository, repository, new AutoStatistik(repository, repository), index,
+                autocomplete, versionen, new ResponseCache(1 << 20));
+        markeServices = new MarkeServices(repository, repository, autocomplete, versionen, new ResponseCache(1 << 20));
+
+        repository.addMarke(new Marke("Volkswagen"));
+        repository.addAuto(new Auto("Golf", LocalDate.of(2010, 1, 1), 1200.0, 110, true, true, 1));
+        repository.addAuto(new Auto("Polo", LocalDate.of(2015, 1, 1), 1000.0, 80, true, true, 1));
+    }
+
+    private static Response await(CompletionStage<Response> stage) {
+        return stage.toCompletableFuture().join();
+    }
+
+    private static String quoted(Response response) {
+        return "\"" + response.getEntityTag().getValue() + "\"";
+    }
+
+    @Test
+    @DisplayName("getAllAutos - Gleicher Stand ergibt 304, nach einem Schreibzugriff 200")
+    void testAllAutos() {
+        // Arrange
+        Response erste = await(autoServices.getAllAutos());
+        autoServices.ifNoneMatch = quoted(erste);
+
+        // Act
+        Response unveraendert = await(autoServices.getAllAutos());
+        await(autoServices.deleteAuto(2));
+        Response geaendert = await(autoServices.getAllAutos());
+
+        // Assert
+        assertEquals(304, unveraendert.getStatus());
+        assertNull(unveraendert.getEntity());
+        assertEquals(200, geaendert.getStatus());
+        assertNotEquals(erste.getEntityTag().getValue(), geaendert.getEntityTag().getValue());
+    }
+
+    @Test
+    @DisplayName("getAuto - ETag pro Zeile: Änderung eines anderen Autos lässt ihn gültig")
+    void testAuto_ProZeile() {
+        // Arrange
+        Response golf = await(autoServices.getAuto(1));
+        autoServices.ifNoneMatch = "W/\"x\", " + quoted(golf);
+
+        // Act
+        Auto polo = new Auto("Polo", LocalDate.of(2015, 1, 1), 1000.0, 90, true, true, 1);
+        polo.setIdAutos(2);
+        await(autoServices.updateAuto(polo));
+        Response nachAnderem = await(autoServices.getAuto(1));
+        Auto golfNeu = new Auto("Golf", LocalDate.of(2010, 1, 1), 1200.0, 120, true, true, 1);
+        golfNeu.setIdAutos(1);
+        await(autoServices.updateAuto(golfNeu));
+        Response nachEigenem = await(autoServices.getAuto(1));
+
+        // Assert
+        assertEquals(304, nachAnderem.getStatus());
+        assertEquals(200, nachEigenem.getStatus());
+        assertEquals(120, ((Auto) nachEigenem.getEntity()).getLeistung());
+    }
+
+    @Test
+    @DisplayName("getAllMarken - Neue Marke macht den ETag ungültig")
+    void testMarken() {
+        // Arrange
+        Response erste = await(markeServices.getAllMarken());
+        markeServices.ifNoneMatch = quoted(erste);
+
+        // Act
+        Response unveraendert = await(markeServices.getAllMarken());
+        await(markeServices.addMarke(new Marke("Audi")));
+        Response geaendert = await(markeServices.getAllMarken());
+
+        // Assert
+        assertEquals(304, unveraendert.getStatus());
+        assertEquals(200, geaendert.getStatus());
+    }
+
+    @Test
+    @DisplayName("Während eines Schreibzugriffs wird kein ETag vergeben")
+    void testKeinEtagWaehrendSchreibzugriff() {
+        // Arrange
+        VersionTracker versionen = new VersionTracker();
+        String vorher = versionen.etag(VersionTracker.AUTOS);
+
+        // Act & Assert
+        try (VersionTracker.Schreibzugriff s = versionen.schreiben(VersionTracker.AUTOS)) {
+            assertNull(versionen.etag(VersionTracker.AUTOS));
+        }
+        assertNotEquals(vorher, versionen.etag(VersionTracker.AUTOS));
+        assertTrue(VersionTracker.passt("*", vorher, true));
+        assertFalse(VersionTracker.passt("*", vorher, false));
+        assertFalse(VersionTracker.passt("\"" + vorher + "\"", versionen.etag(VersionTracker.AUTOS), true));
+        assertTrue(VersionTracker.passt("\"" + vorher + "-gz\"", vorher, true));
+        assertFalse(VersionTracker.passt("\"" + vorher + "-gz\"", versionen.etag(VersionTracker.AUTOS), true));
+    }
+
+    @Test
+    @DisplayName("getAuto - If-None-Match: * ergibt 304 nur für ein vorhandenes Auto")
+    void testAuto_Stern() {
+        // Arrange
+        autoServices.ifNoneMatch = "*";
+
+        // Act
+        Response vorhanden = await(autoServices.getAuto(1));
+        Response fehlt = await(autoServices.getAuto(99));
+
+        // Assert
+        assertEquals(304, vorhanden.getStatus());
+        assertEquals(404, fehlt.getStatus());
+    }
+}
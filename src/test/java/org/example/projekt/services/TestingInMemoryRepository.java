@@ -0,0 +1,142 @@
+package org.example.projekt.services;
+
+import jakarta.ws.rs.core.Response;
+import org.example.projekt.modules.Auto;
+import org.example.projekt.modules.AutoPage;
+import org.example.projekt.modules.Marke;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("InMemoryRepository - gleiche Semantik wie MySQL")
+public class TestingInMemoryRepository {
+
+    private InMemoryRepository repository;
+    private AutoServices autoServices;
+    private MarkeServices markeServices;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryRepository();
+        autoServices = new AutoServices(repository, repository);
+        markeServices = new MarkeServices(repository, repository);
+
+        // Marken 1 (Volkswagen) und 2 (Audi)
+        repository.addMarke(new Marke("Volkswagen"));
+        repository.addMarke(new Marke("Audi"));
+    }
+
+    private static Response await(CompletionStage<Response> stage) {
+        return stage.toCompletableFuture().join();
+    }
+
+    private static Auto auto(String modell, int jahr, int markeId) {
+        return new Auto(modell, LocalDate.of(jahr, 1, 1), 1300.0, 110, true, true, markeId);
+    }
+
+    @Test
+    @DisplayName("addAuto - Fortlaufende ID und Marke beim Lesen")
+    void testAddAuto_IdUndMarke() {
+        // Act
+        Response response = await(autoServices.addAuto(auto("Golf", 2020, 1)));
+        Auto gelesen = repository.readAutoById(1);
+
+        // Assert
+        assertEquals(Response.Status.CREATED.getStatusCode(), response.getStatus());
+        assertEquals("Golf", gelesen.getModell());
+        assertEquals("Volkswagen", gelesen.getMarke().getName());
+    }
+
+    @Test
+    @DisplayName("addAuto / updateAuto - Fremdschlüssel auf marken wird geprüft")
+    void testFremdschluessel() {
+        // Arrange
+        repository.addAuto(auto("Golf", 2020, 1));
+
+        // Act
+        Response add = await(autoServices.addAuto(auto("Unbekannt", 2020, 99)));
+        Auto update = auto("Golf", 2020, 99);
+        update.setIdAutos(1);
+        Response put = await(autoServices.updateAuto(update));
+
+        // Assert
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), add.getStatus());
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), put.getStatus());
+        assertEquals(1, repository.countAutos());
+    }
+
+    @Test
+    @DisplayName("addAutos - Alles oder nichts bei fehlender Marke")
+    void testAddAutos_AllesOderNichts() {
+        // Act & Assert
+        assertThrows(SQLIntegrityConstraintViolationException.class,
+                () -> repository.addAutos(List.of(auto("Golf", 2020, 1), auto("X", 2020, 99))));
+        assertEquals(0, repository.countAutos());
+    }
+
+    @Test
+    @DisplayName("deleteMarke - Referenzierte Marke: 409 im Service, Constraint-Fehler im Repository")
+    void testDeleteMarke_Konflikt() throws Exception {
+        // Arrange
+        repository.addAuto(auto("Golf", 2020, 1));
+
+        // Act
+        Response response = await(markeServices.deleteMarke(1));
+
+        // Assert
+        assertEquals(Response.Status.CONFLICT.getStatusCode(), response.getStatus());
+        assertThrows(SQLIntegrityConstraintViolationException.class, () -> repository.deleteMarke(1));
+        assertEquals(1, repository.deleteMarke(2));
+    }
+
+    @Test
+    @DisplayName("getAllAutos - Seiten nach ID, gelöschte Autos werden übersprungen")
+    void testPagination_NachLoeschen() throws Exception {
+        // Arrange
+        for (int i = 0; i < 200; i++) {
+            repository.addAuto(auto("Auto " + i, 2000 + i % 20, 1 + i % 2));
+        }
+        for (int id = 1; id <= 150; id++) {
+            repository.deleteAuto(id);
+        }
+
+        // Act
+        AutoPage seite = (AutoPage) await(autoServices.getAllAutos(0, 10, false)).getEntity();
+
+        // Assert
+        assertEquals(151, seite.getAutos().get(0).getIdAutos());
+        assertEquals(Integer.valueOf(160), seite.getNextCursor());
+        assertEquals(50, repository.countAutos());
+        assertEquals(3, repository.getAutosByJahr(2010).size());
+    }
+
+    @Test
+    @DisplayName("IntHashMap - Einfügen, Überschreiben und Entfernen über viele Schlüssel")
+    void testIntHashMap() {
+        // Arrange
+        IntHashMap<String> map = new IntHashMap<>();
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            map.put(i, "v" + i);
+        }
+        for (int i = 0; i < 10_000; i += 2) {
+            map.remove(i);
+        }
+        map.put(1, "neu");
+
+        // Assert
+        assertEquals(5_000, map.size());
+        assertNull(map.get(0));
+        assertNull(map.get(9_998));
+        assertEquals("neu", map.get(1));
+        assertEquals("v9999", map.get(9_999));
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.projekt.services;
+
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import org.example.projekt.config.DeflaterPool;
+import org.example.projekt.config.Kompression;
+import org.example.projekt.config.KomprimierenderStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Kompression der Antworten")
+public class TestingKompression {
+
+    private final DeflaterPool pool = new DeflaterPool(6, 8192, 4);
+
+    private static String json(int autos) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 1; i <= autos; i++) {
+            sb.append(i > 1 ? "," : "").append("{\"idAutos\":").append(i)
+                    .append(",\"modell\":\"Golf\",\"marke\":{\"idMarke\":1,\"name\":\"VW\"}}");
+        }
+        return sb.append(']').toString();
+    }
+
+    @Test
+    @DisplayName("Kleine Antworten - unverändert und ohne Content-Encoding")
+    void testUnterMinBytes() throws Exception {
+        // Arrange
+        ByteArrayOutputStream ziel = new ByteArrayOutputStream();
+        boolean[] gestartet = {false};
+        KomprimierenderStream stream = new KomprimierenderStream(ziel, Kompression.Kodierung.GZIP, pool, 1024,
+                () -> gestartet[0] = true);
+        byte[] daten = json(3).getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        stream.write(daten);
+        stream.fertig();
+
+        // Assert
+        assertFalse(gestartet[0]);
+        assertFalse(stream.isKomprimiert());
+        assertArrayEquals(daten, ziel.toByteArray());
+    }
+
+    @Test
+    @DisplayName("gzip - Auch in einzelnen Bytes geschrieben wieder lesbar und kleiner")
+    void testGzip() throws Exception {
+        // Arrange
+        ByteArrayOutputStream ziel = new ByteArrayOutputStream();
+        boolean[] gestartet = {false};
+        KomprimierenderStream stream = new KomprimierenderStream(ziel, Kompression.Kodierung.GZIP, pool, 1024,
+                () -> gestartet[0] = true);
+        String json = json(2000);
+        byte[] daten = json.getBytes(StandardCharsets.UTF_8);
+
+        // Act: gemischt, wie beim Streamen
+        stream.write('[');
+        stream.write(daten, 1, 100);
+        for (int i = 101; i < 200; i++) {
+            stream.write(daten[i]);
+        }
+        stream.write(daten, 200, daten.length - 200);
+        stream.fertig();
+
+        // Assert
+        assertTrue(gestartet[0]);
+        assertTrue(ziel.size() < daten.length / 10);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(ziel.toByteArray()))) {
+            assertEquals(json, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("deflate - zlib-Format mit wiederverwendetem Deflater")
+    void testDeflate_Pool() throws Exception {
+        String json = json(500);
+        for (int i = 0; i < 3; i++) {
+            // Arrange
+            ByteArrayOutputStream ziel = new ByteArrayOutputStream();
+            KomprimierenderStream stream = new KomprimierenderStream(ziel, Kompression.Kodierung.DEFLATE, pool, 0,
+                    () -> { });
+
+            // Act
+            stream.write(json.getBytes(StandardCharsets.UTF_8));
+            stream.close();
+
+            // Assert
+            try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(ziel.toByteArray()))) {
+                assertEquals(json, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("flush - Bisher Geschriebenes kommt vollständig beim Ziel an (SYNC_FLUSH)")
+    void testFlush_SyncFlush() throws Exception {
+        // Arrange
+        ByteArrayOutputStream ziel = new ByteArrayOutputStream();
+        KomprimierenderStream stream = new KomprimierenderStream(ziel, Kompression.Kodierung.DEFLATE, pool, 1024,
+                () -> { });
+        byte[] daten = json(100).getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        stream.write(daten);
+        stream.write(',');
+        stream.flush();
+        byte[] geflusht = ziel.toByteArray();
+        stream.fertig();
+
+        // Assert: ohne Ende des Streams lässt sich alles bis zum Flush entpacken
+        Inflater inflater = new Inflater();
+        inflater.setInput(geflusht);
+        byte[] entpackt = new byte[daten.length + 100];
+        int laenge = inflater.inflate(entpackt);
+        inflater.end();
+        assertEquals(daten.length + 1, laenge);
+        assertEquals(json(100) + ",", new String(entpackt, 0, laenge, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("waehlen - Accept-Encoding mit q-Werten")
+    void testWaehlen() {
+        assertNull(Kompression.waehlen(null));
+        assertNull(Kompression.waehlen("br, identity"));
+        assertNull(Kompression.waehlen("gzip;q=0, deflate;q=0"));
+        assertEquals(Kompression.Kodierung.GZIP, Kompression.waehlen("deflate, gzip"));
+        assertEquals(Kompression.Kodierung.DEFLATE, Kompression.waehlen("gzip;q=0, deflate"));
+        assertEquals(Kompression.Kodierung.DEFLATE, Kompression.waehlen("gzip;q=0.2, deflate;q=0.8"));
+        assertEquals(Kompression.Kodierung.GZIP, Kompression.waehlen("*"));
+        assertEquals(Kompression.Kodierung.DEFLATE, Kompression.waehlen("gzip;q=0, *"));
+    }
+
+    @Test
+    @DisplayName("kodiert - Starker ETag bekommt die Endung der Kodierung, schwacher bleibt")
+    void testKodiert_Etag() {
+        // Arrange
+        MultivaluedMap<String, Object> stark = new MultivaluedHashMap<>();
+        stark.putSingle(HttpHeaders.ETAG, new EntityTag("v1"));
+        stark.putSingle(HttpHeaders.CONTENT_LENGTH, 4096);
+        MultivaluedMap<String, Object> schwach = new MultivaluedHashMap<>();
+        EntityTag schwacherTag = new EntityTag("v1", true);
+        schwach.putSingle(HttpHeaders.ETAG, schwacherTag);
+
+        // Act
+        Kompression.kodiert(stark, Kompression.Kodierung.DEFLATE);
+        Kompression.kodiert(schwach, Kompression.Kodierung.GZIP);
+
+        // Assert
+        assertEquals("deflate", stark.getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertFalse(stark.containsKey(HttpHeaders.CONTENT_LENGTH));
+        assertEquals("v1-df", ((EntityTag) stark.getFirst(HttpHeaders.ETAG)).getValue());
+        assertSame(schwacherTag, schwach.getFirst(HttpHeaders.ETAG));
+        assertTrue(VersionTracker.passt("\"v1-df\"", "v1", true));
+    }
+}
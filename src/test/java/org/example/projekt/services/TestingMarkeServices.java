@@ -5,6 +5,7 @@ import org.example.projekt.modules.Marke;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import java.util.concurrent.CompletionStage;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -22,13 +23,18 @@ public class TestingMarkeServices {
         testMarke = new Marke("Volkswagen Test");
     }
 
+    // Die Ressourcen antworten asynchron, die Tests warten auf das Ergebnis
+    private static Response await(CompletionStage<Response> stage) {
+        return stage.toCompletableFuture().join();
+    }
+
     // ================== addMarke() Tests ==================
 
     @Test
     @DisplayName("addMarke - Positiv: Marke mit gültigem Namen hinzufügen")
     void testAddMarke_ValidData() {
         // Act
-        Response response = markeServices.addMarke(testMarke);
+        Response response = await(markeServices.addMarke(testMarke));
 
         // Assert
         assertTrue(
@@ -44,7 +50,7 @@ public class TestingMarkeServices {
         testMarke.setName("   ");
 
         // Act
-        Response response = markeServices.addMarke(testMarke);
+        Response response = await(markeServices.addMarke(testMarke));
 
         // Assert
         assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
@@ -58,7 +64,7 @@ public class TestingMarkeServices {
         testMarke.setName(null);
 
         // Act
-        Response response = markeServices.addMarke(testMarke);
+        Response response = await(markeServices.addMarke(testMarke));
 
         // Assert
         assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
@@ -71,7 +77,7 @@ public class TestingMarkeServices {
     @DisplayName("getMarke - Positiv: Marke abrufen")
     void testGetMarke_Success() {
         // Act
-        Response response = markeServices.getMarke(1);
+        Response response = await(markeServices.getMarke(1));
 
         // Assert
         assertTrue(
@@ -84,7 +90,7 @@ public class TestingMarkeServices {
     @DisplayName("getMarke - Negativ: Marke nicht gefunden")
     void testGetMarke_NotFound() {
         // Act
-        Response response = markeServices.getMarke(99999);
+        Response response = await(markeServices.getMarke(99999));
 
         // Assert
         assertEquals(Response.Status.NOT_FOUND.getStatusCode(), response.getStatus());
@@ -97,7 +103,7 @@ public class TestingMarkeServices {
     @DisplayName("getAllMarken - Positiv: Alle Marken abrufen")
     void testGetAllMarken_Success() {
         // Act
-        Response response = markeServices.getAllMarken();
+        Response response = await(markeServices.getAllMarken());
 
         // Assert
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
@@ -110,7 +116,7 @@ public class TestingMarkeServices {
     @DisplayName("deleteMarke - Positiv: Marke löschen")
     void testDeleteMarke_Success() {
         // Act
-        Response response = markeServices.deleteMarke(1);
+        Response response = await(markeServices.deleteMarke(1));
 
         // Assert
         assertTrue(
@@ -124,7 +130,7 @@ public class TestingMarkeServices {
     @DisplayName("deleteMarke - Negativ: Marke nicht gefunden")
     void testDeleteMarke_NotFound() {
         // Act
-        Response response = markeServices.deleteMarke(99999);
+        Response response = await(markeServices.deleteMarke(99999));
 
         // Assert
         assertTrue(
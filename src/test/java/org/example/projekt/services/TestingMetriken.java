@@ -0,0 +1,128 @@
+package org.example.projekt.services;
+
+import org.example.projekt.metrics.Histogramm;
+import org.example.projekt.metrics.Metriken;
+import org.example.projekt.modules.Auto;
+import org.example.projekt.modules.Marke;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Metriken und /metrics")
+public class TestingMetriken {
+
+    // Wie histogram_quantile() von Prometheus: linear innerhalb des Buckets, in dem der Rang liegt
+    private static double quantil(Histogramm.Auswertung auswertung, double q) {
+        long[] kumuliert = auswertung.kumuliert();
+        double rang = q * auswertung.getAnzahl();
+        for (int i = 0; i < kumuliert.length; i++) {
+            if (kumuliert[i] >= rang) {
+                long unten = i == 0 ? 0 : Histogramm.obergrenze(i - 1);
+                long vorher = i == 0 ? 0 : kumuliert[i - 1];
+                return unten + (Histogramm.obergrenze(i) - unten) * (rang - vorher) / (kumuliert[i] - vorher);
+            }
+        }
+        return Double.NaN;
+    }
+
+    @Test
+    @DisplayName("Histogramm - Quantile aus den exportierten Buckets mit weniger als 1 % Fehler")
+    void testHistogramm_Quantile() {
+        // Arrange
+        Histogramm histogramm = new Histogramm();
+
+        // Act: 1 µs bis 100 ms gleichverteilt
+        for (long i = 1; i <= 100_000; i++) {
+            histogramm.aufnehmen(i * 1000);
+        }
+        Histogramm.Auswertung auswertung = histogramm.auswerten();
+
+        // Assert
+        assertEquals(100_000, auswertung.getAnzahl());
+        assertEquals(50_000_000L, quantil(auswertung, 0.5), 500_000);
+        assertEquals(99_000_000L, quantil(auswertung, 0.99), 990_000);
+        assertEquals(99_900_000L, quantil(auswertung, 0.999), 999_000);
+    }
+
+    @Test
+    @DisplayName("Histogramm - Ein einzelner Wert liegt in einem Bucket von höchstens 12.5 % Breite")
+    void testHistogramm_Grenzen() {
+        // Arrange
+        Histogramm histogramm = new Histogramm();
+
+        // Act
+        histogramm.aufnehmen(-5);
+        histogramm.aufnehmen(250_000_000);
+        histogramm.aufnehmen(Long.MAX_VALUE);
+        Histogramm.Auswertung auswertung = histogramm.auswerten();
+        long[] kumuliert = auswertung.kumuliert();
+
+        // Assert
+        assertEquals(1, kumuliert[0]);
+        int bucket = 0;
+        while (kumuliert[bucket] < 2) {
+            bucket++;
+        }
+        assertTrue(Histogramm.obergrenze(bucket - 1) <= 250_000_000L);
+        assertTrue(Histogramm.obergrenze(bucket) > 250_000_000L);
+        assertTrue(Histogramm.obergrenze(bucket) <= 250_000_000L * 1.125);
+        // Der Überlauf erscheint nur in +Inf
+        assertEquals(2, kumuliert[kumuliert.length - 1]);
+        assertEquals(3, auswertung.getAnzahl());
+    }
+
+    @Test
+    @DisplayName("prometheus - Histogramm, Zähler und Messwerte im Textformat")
+    void testPrometheus() {
+        // Arrange
+        Histogramm dauer = Metriken.histogramm("test_dauer_seconds", "Testdauer", "handler", "eins");
+        LongAdder zaehler = Metriken.zaehler("test_total", "Testzähler", "grund", "a\"b");
+        Metriken.messwert("test_wert", "Testwert", () -> 2.5);
+
+        // Act
+        dauer.aufnehmen(2_000_000);
+        zaehler.add(3);
+        String text = Metriken.prometheus();
+
+        // Assert
+        assertSame(dauer, Metriken.histogramm("test_dauer_seconds", "Testdauer", "handler", "eins"));
+        assertTrue(text.contains("# TYPE test_dauer_seconds histogram\n"), text);
+        // 2 ms liegt im Bucket von 1.966 ms bis 2.097 ms
+        assertTrue(text.contains("test_dauer_seconds_bucket{handler=\"eins\",le=\"0.001966080\"} 0\n"), text);
+        assertTrue(text.contains("test_dauer_seconds_bucket{handler=\"eins\",le=\"0.002097152\"} 1\n"), text);
+        assertTrue(text.contains("test_dauer_seconds_bucket{handler=\"eins\",le=\"+Inf\"} 1\n"), text);
+        assertTrue(text.contains("test_dauer_seconds_sum{handler=\"eins\"} 0.002\n"), text);
+        assertTrue(text.contains("test_dauer_seconds_count{handler=\"eins\"} 1\n"), text);
+        assertTrue(text.contains("test_total{grund=\"a\\\"b\"} 3\n"), text);
+        assertTrue(text.contains("test_wert 2.5\n"), text);
+        assertTrue(text.contains("jvm_memory_used_bytes{area=\"heap\"} "), text);
+        assertThrows(IllegalArgumentException.class, () -> Metriken.zaehler("test_wert", "falscher Typ"));
+    }
+
+    @Test
+    @DisplayName("GemessenesRepository - Misst jede Abfrage und zählt Fehler")
+    void testGemessenesRepository() throws Exception {
+        // Arrange
+        GemessenesRepository repository = new GemessenesRepository(new InMemoryRepository());
+
+        // Act
+        repository.addMarke(new Marke("Volkswagen"));
+        repository.getAllMarken();
+        repository.getAllMarken();
+        assertThrows(SQLIntegrityConstraintViolationException.class, () -> repository.addAutos(
+                List.of(new Auto("X", LocalDate.of(2020, 1, 1), 1300.0, 110, true, true, 99))));
+        String text = Metriken.prometheus();
+
+        // Assert
+        assertTrue(text.contains("db_query_duration_seconds_count{query=\"getAllMarken\"} "), text);
+        assertTrue(text.contains("db_query_duration_seconds_count{query=\"addMarke\"} "), text);
+        assertTrue(text.contains("db_query_errors_total{query=\"addAutos\"} "), text);
+        assertFalse(text.contains("db_query_errors_total{query=\"addAutos\"} 0\n"), text);
+    }
+}
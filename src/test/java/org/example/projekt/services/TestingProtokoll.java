@@ -0,0 +1,185 @@
+package org.example.projekt.services;
+
+import org.example.projekt.logging.AsyncHandler;
+import org.example.projekt.logging.Protokoll;
+import org.example.projekt.logging.SchluesselWertFormat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Strukturiertes, asynchrones Logging")
+public class TestingProtokoll {
+
+    // Sammelt die Einträge des Loggers dieser Testklasse
+    private static final class Sammler extends Handler {
+        final List<LogRecord> eintraege = new ArrayList<>();
+
+        @Override
+        public void publish(LogRecord record) {
+            eintraege.add(record);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    // Ausgabe, deren erster Schreibzugriff wartet, bis der Test sie freigibt
+    private static final class GestauteAusgabe extends OutputStream {
+        final ByteArrayOutputStream inhalt = new ByteArrayOutputStream();
+        final CountDownLatch betreten = new CountDownLatch(1);
+        final CountDownLatch frei = new CountDownLatch(1);
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            betreten.countDown();
+            try {
+                frei.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            inhalt.write(b, off, len);
+        }
+
+        String text() {
+            return inhalt.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    private static LogRecord eintrag(String nachricht) {
+        LogRecord record = new LogRecord(Level.INFO, nachricht);
+        record.setLoggerName("org.example.projekt.services.AutoServices");
+        return record;
+    }
+
+    @Test
+    @DisplayName("Format - key=value mit Ereignis, Anführungszeichen nur bei Bedarf")
+    void testFormat() {
+        // Arrange
+        Logger logger = Logger.getLogger(TestingProtokoll.class.getName() + ".format");
+        logger.setUseParentHandlers(false);
+        Sammler sammler = new Sammler();
+        logger.addHandler(sammler);
+        Protokoll log = Protokoll.fuer(TestingProtokoll.class);
+        Logger.getLogger(TestingProtokoll.class.getName()).setUseParentHandlers(false);
+        Logger.getLogger(TestingProtokoll.class.getName()).addHandler(sammler);
+        SchluesselWertFormat format = new SchluesselWertFormat();
+
+        // Act
+        log.info("auto.add", "modell", "Golf \"GTI\"");
+        log.fehler("auto.get.db_error", new SQLException("Verbindung weg"), "id", 42);
+        logger.info("Ping Request");
+
+        // Assert
+        assertEquals(3, sammler.eintraege.size());
+        String erste = format.format(sammler.eintraege.get(0));
+        assertTrue(erste.startsWith("ts="), erste);
+        assertTrue(erste.contains(" level=INFO logger=TestingProtokoll "), erste);
+        assertTrue(erste.endsWith(" event=auto.add modell=\"Golf \\\"GTI\\\"\"\n"), erste);
+        String zweite = format.format(sammler.eintraege.get(1));
+        assertTrue(zweite.contains(" event=auto.get.db_error id=42 error=java.sql.SQLException error_msg=\"Verbindung weg\"\n"), zweite);
+        assertTrue(zweite.contains("\n    java.sql.SQLException: Verbindung weg\n"), zweite);
+        assertTrue(format.format(sammler.eintraege.get(2)).endsWith(" msg=\"Ping Request\"\n"));
+    }
+
+    @Test
+    @DisplayName("Protokoll - Ohne aktiven Level wird kein Eintrag erzeugt")
+    void testLevelAus() {
+        // Arrange
+        Logger logger = Logger.getLogger(TestingProtokoll.Sammler.class.getName());
+        logger.setUseParentHandlers(false);
+        logger.setLevel(Level.WARNING);
+        Sammler sammler = new Sammler();
+        logger.addHandler(sammler);
+        Protokoll log = Protokoll.fuer(TestingProtokoll.Sammler.class);
+
+        // Act
+        log.info("auto.get", "id", 4711);
+        log.fein("autos.suggest", "q", "go");
+        log.warnung("auto.not_found", "id", 4711);
+
+        // Assert
+        assertFalse(log.aktiv(Level.INFO));
+        assertEquals(1, sammler.eintraege.size());
+        assertEquals("auto.not_found", sammler.eintraege.get(0).getMessage());
+    }
+
+    @Test
+    @DisplayName("AsyncHandler - Voller Puffer verwirft und meldet die Anzahl")
+    void testAsyncHandler_Verwerfen() throws Exception {
+        // Arrange
+        GestauteAusgabe ausgabe = new GestauteAusgabe();
+        AsyncHandler handler = new AsyncHandler(2, AsyncHandler.Strategie.VERWERFEN, ausgabe);
+        handler.publish(eintrag("eins"));
+        assertTrue(ausgabe.betreten.await(1, TimeUnit.SECONDS));
+
+        // Act: der Schreiber hängt in der Ausgabe, zwei passen in den Puffer, drei nicht
+        for (int i = 0; i < 5; i++) {
+            handler.publish(eintrag("weiter " + i));
+        }
+        ausgabe.frei.countDown();
+        handler.flush();
+        handler.close();
+
+        // Assert
+        assertEquals(3, handler.getVerworfen());
+        String text = ausgabe.text();
+        assertTrue(text.contains("msg=eins\n"), text);
+        assertTrue(text.contains("msg=\"weiter 1\"\n"), text);
+        assertFalse(text.contains("weiter 2"), text);
+        assertTrue(text.contains("event=log.dropped count=3 capacity=2\n"), text);
+    }
+
+    @Test
+    @DisplayName("AsyncHandler - WARTEN hält den Aufrufer an, bis Platz frei ist")
+    void testAsyncHandler_Warten() throws Exception {
+        // Arrange
+        GestauteAusgabe ausgabe = new GestauteAusgabe();
+        AsyncHandler handler = new AsyncHandler(2, AsyncHandler.Strategie.WARTEN, ausgabe);
+        handler.publish(eintrag("eins"));
+        assertTrue(ausgabe.betreten.await(1, TimeUnit.SECONDS));
+
+        // Act
+        CompletableFuture<Void> schreiben = CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 5; i++) {
+                handler.publish(eintrag("weiter " + i));
+            }
+        });
+        Thread.sleep(50);
+        boolean wartet = !schreiben.isDone();
+        ausgabe.frei.countDown();
+        schreiben.get(1, TimeUnit.SECONDS);
+        handler.close();
+
+        // Assert
+        assertTrue(wartet);
+        assertEquals(0, handler.getVerworfen());
+        assertEquals(6, handler.getGeschrieben());
+        assertTrue(ausgabe.text().contains("msg=\"weiter 4\"\n"));
+    }
+}
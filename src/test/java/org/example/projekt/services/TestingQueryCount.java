@@ -0,0 +1,320 @@
+package org.example.projekt.services;
+
+import jakarta.ws.rs.core.Response;
+import org.example.projekt.modules.Auto;
+import org.example.projekt.modules.AutoPage;
+import org.example.projekt.modules.BatchResult;
+import org.example.projekt.modules.Marke;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Anzahl Datenbankabfragen pro Endpoint")
+public class TestingQueryCount {
+
+    private FakeJdbc jdbc;
+    private DataBase db;
+    private AutoServices autoServices;
+    private MarkeServices markeServices;
+
+    @BeforeEach
+    void setUp() {
+        List<Map<String, Object>> autos = List.of(
+                FakeJdbc.autoRow(1, "Golf", 2020, 1),
+                FakeJdbc.autoRow(2, "Polo", 2020, 1),
+                FakeJdbc.autoRow(3, "A4", 2019, 2));
+        List<Map<String, Object>> marken = List.of(
+                FakeJdbc.markeRow(1, "Volkswagen"),
+                FakeJdbc.markeRow(2, "Audi"));
+        List<Map<String, Object>> count = List.of(Map.of("total", 3));
+        jdbc = new FakeJdbc(sql -> sql.contains("COUNT(*)") ? count : sql.contains("FROM marken") ? marken : autos);
+        db = jdbc.dataBase();
+        autoServices = new AutoServices(db);
+        markeServices = new MarkeServices(db);
+
+        // Marken-Cache füllen, danach zählt jeder Test nur seine eigenen Abfragen
+        await(autoServices.getAllAutos());
+        jdbc.reset();
+    }
+
+    // Die Ressourcen antworten asynchron, die Tests warten auf das Ergebnis
+    private static Response await(CompletionStage<Response> stage) {
+        return stage.toCompletableFuture().join();
+    }
+
+    @Test
+    @DisplayName("getAllAutos - Kalter Cache: Marken einmal laden, nicht pro Zeile")
+    void testGetAllAutos_ColdCache() {
+        // Arrange
+        db.getMarkeCache().invalidate();
+
+        // Act
+        Response response = await(autoServices.getAllAutos());
+
+        // Assert
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals(2, jdbc.getQueries().size());
+    }
+
+    @Test
+    @DisplayName("getAllAutos - Warmer Cache: genau eine Abfrage")
+    void testGetAllAutos_SingleQuery() {
+        // Act
+        Response response = await(autoServices.getAllAutos());
+
+        // Assert
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals(1, jdbc.getQueries().size());
+        assertTrue(jdbc.getQueries().get(0).contains("FROM autos"));
+    }
+
+    @Test
+    @DisplayName("getAllAutos - Gleiche Marken werden als eine Instanz geteilt")
+    @SuppressWarnings("unchecked")
+    void testGetAllAutos_SharedMarke() {
+        // Act
+        List<Auto> autos = (List<Auto>) await(autoServices.getAllAutos()).getEntity();
+
+        // Assert
+        assertEquals(3, autos.size());
+        assertSame(autos.get(0).getMarke(), autos.get(1).getMarke());
+        assertEquals("Audi", autos.get(2).getMarke().getName());
+    }
+
+    @Test
+    @DisplayName("getAllAutos - Seite mit limit liefert nextCursor aus einer Abfrage")
+    void testGetAllAutos_PageSingleQuery() {
+        // Act
+        Response response = await(autoServices.getAllAutos(0, 2, false));
+
+        // Assert
+        AutoPage page = (AutoPage) response.getEntity();
+        assertEquals(1, jdbc.getQueries().size());
+        assertEquals(2, page.getAutos().size());
+        assertEquals(Integer.valueOf(2), page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("getAuto - Auto mit Marke in einer Abfrage laden")
+    void testGetAuto_SingleQuery() {
+        // Act
+        Response response = await(autoServices.getAuto(1));
+
+        // Assert
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals(1, jdbc.getQueries().size());
+        assertNotNull(((Auto) response.getEntity()).getMarke());
+    }
+
+    @Test
+    @DisplayName("getAllMarken / getMarke - Aus dem Cache ohne Abfrage")
+    void testMarken_FromCache() {
+        // Act
+        await(markeServices.getAllMarken());
+        Response response = await(markeServices.getMarke(2));
+
+        // Assert
+        assertEquals(0, jdbc.getQueries().size());
+        assertEquals("Audi", ((Marke) response.getEntity()).getName());
+        assertTrue(db.getMarkeCache().getHits() > 0);
+    }
+
+    @Test
+    @DisplayName("addMarke - Invalidiert den Marken-Cache sofort")
+    void testAddMarke_InvalidatesCache() {
+        // Act
+        await(markeServices.addMarke(new Marke("Skoda")));
+        jdbc.reset();
+        await(markeServices.getAllMarken());
+
+        // Assert
+        assertEquals(1, jdbc.getQueries().size());
+        assertTrue(jdbc.getQueries().get(0).contains("FROM marken"));
+    }
+
+    @Test
+    @DisplayName("addAuto - Markenprüfung und Insert in einer Anweisung")
+    void testAddAuto_SingleStatement() {
+        // Act
+        Response response = await(autoServices.addAuto(new Auto("Golf", LocalDate.of(2020, 1, 1), 1300.0, 110, true, true, 1)));
+
+        // Assert
+        assertEquals(Response.Status.CREATED.getStatusCode(), response.getStatus());
+        assertEquals(1, jdbc.getQueries().size());
+        assertTrue(jdbc.getQueries().get(0).contains("FROM marken"));
+    }
+
+    @Test
+    @DisplayName("updateAuto - Existenzprüfungen und Update in einer Anweisung")
+    void testUpdateAuto_SingleStatement() {
+        // Act
+        Response response = await(autoServices.updateAuto(
+                new Auto(1, "Golf", LocalDate.of(2020, 1, 1), 1300.0, 110, true, true, 1, null)));
+
+        // Assert
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals(1, jdbc.getQueries().size());
+    }
+
+    @Test
+    @DisplayName("addAutos - Batch mit einem einzigen Insert-Batch einfügen")
+    void testAddAutos_SingleBatch() {
+        // Arrange
+        List<Auto> autos = List.of(
+                new Auto("Golf", LocalDate.of(2020, 1, 1), 1300.0, 110, true, true, 1),
+                new Auto("A3", LocalDate.of(2021, 1, 1), 1400.0, 150, true, true, 2));
+
+        // Act
+        Response response = await(autoServices.addAutos(autos));
+
+        // Assert
+        BatchResult result = (BatchResult) response.getEntity();
+        assertEquals(Response.Status.CREATED.getStatusCode(), response.getStatus());
+        assertEquals(1, jdbc.getQueries().size());
+        assertEquals(2, result.getInserted());
+        assertEquals(Integer.valueOf(102), result.getItems().get(1).getIdAutos());
+    }
+
+    @Test
+    @DisplayName("addAutos - Ungültiger Eintrag: nichts einfügen, Ergebnis pro Eintrag")
+    void testAddAutos_InvalidItem() {
+        // Arrange
+        List<Auto> autos = List.of(
+                new Auto("Golf", LocalDate.of(2020, 1, 1), 1300.0, 110, true, true, 1),
+                new Auto("Unbekannt", LocalDate.of(2020, 1, 1), 1300.0, 110, true, true, 99));
+
+        // Act
+        Response response = await(autoServices.addAutos(autos));
+
+        // Assert
+        BatchResult result = (BatchResult) response.getEntity();
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+        assertEquals(0, jdbc.getQueries().size());
+        assertEquals(424, result.getItems().get(0).getStatus());
+        assertTrue(result.getItems().get(1).getMessage().contains("Marke mit ID 99 existiert nicht"));
+    }
+
+    @Test
+    @DisplayName("countAutos - Nur der erste Aufruf fragt die Datenbank, Schreibzugriffe führen den Zähler nach")
+    void testCountAutos_FromCounter() {
+        // Act
+        Response first = await(autoServices.countAutos());
+        await(autoServices.addAuto(new Auto("Golf", LocalDate.of(2020, 1, 1), 1300.0, 110, true, true, 1)));
+        await(autoServices.deleteAuto(2));
+        await(autoServices.addAutos(List.of(
+                new Auto("A3", LocalDate.of(2021, 1, 1), 1400.0, 150, true, true, 2),
+                new Auto("A6", LocalDate.of(2022, 1, 1), 1700.0, 200, true, true, 2))));
+        jdbc.reset();
+        Response second = await(autoServices.countAutos());
+
+        // Assert
+        assertEquals("{\"count\": 3}", first.getEntity());
+        assertEquals("{\"count\": 5}", second.getEntity());
+        assertEquals(0, jdbc.getQueries().size());
+    }
+
+    @Test
+    @DisplayName("countAutos - Abgleich übernimmt die Anzahl aus der Datenbank")
+    void testCountAutos_Resync() throws Exception {
+        // Arrange
+        await(autoServices.countAutos());
+        await(autoServices.deleteAllAutos());
+
+        // Act
+        db.getAutoCounter().resync();
+        Response response = await(autoServices.countAutos());
+
+        // Assert
+        assertEquals("{\"count\": 3}", response.getEntity());
+        assertEquals(1, db.getAutoCounter().getCorrections());
+    }
+
+    @Test
+    @DisplayName("getAutosByBaujahr - Aus dem Index: nur das Laden ist eine Abfrage")
+    void testGetAutosByBaujahr_SingleQuery() {
+        // Act
+        Response response = await(autoServices.getAutosByBaujahr(2020));
+        Response bereich = await(autoServices.getAutosByBaujahr(null, 2019, 2021));
+
+        // Assert
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals(Response.Status.OK.getStatusCode(), bereich.getStatus());
+        assertEquals(1, jdbc.getQueries().size());
+    }
+
+    @Test
+    @DisplayName("searchAutos - Eine Abfrage, gleiche Form ergibt dasselbe SQL")
+    void testSearchAutos_SingleQuery() {
+        // Act
+        await(autoServices.searchAutos(100, null, null, null, 2019, 2020, null, null, 1, "golf", "leistung", true, 10));
+        await(autoServices.searchAutos(200, null, null, null, 2010, 2012, null, null, 2, "a4", "leistung", true, 5));
+        await(autoServices.searchAutos(null, null, null, null, null, null, true, null, null, null, "id", false, null));
+
+        // Assert
+        List<String> queries = jdbc.getQueries();
+        assertEquals(3, queries.size());
+        assertEquals(queries.get(0), queries.get(1));
+        assertTrue(queries.get(0).contains("a.Leistung >= ?") && queries.get(0).contains("ORDER BY a.Leistung DESC"));
+        assertTrue(queries.get(2).contains("WHERE a.Verbrenner = ?") && queries.get(2).endsWith("ORDER BY a.ID_Autos LIMIT ?"));
+    }
+
+    @Test
+    @DisplayName("getAllAutos - If-None-Match mit aktuellem ETag ohne Abfrage")
+    void testGetAllAutos_NotModified() {
+        // Arrange
+        Response erste = await(autoServices.getAllAutos());
+        jdbc.reset();
+        autoServices.ifNoneMatch = "\"" + erste.getEntityTag().getValue() + "\"";
+
+        // Act
+        Response response = await(autoServices.getAllAutos());
+
+        // Assert
+        assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), response.getStatus());
+        assertEquals(0, jdbc.getQueries().size());
+    }
+
+    @Test
+    @DisplayName("getAllAutos - Zweiter Aufruf liefert die gespeicherten Bytes ohne Abfrage")
+    void testGetAllAutos_ResponseCache() {
+        // Arrange: Writer, der die Entity als Text schreibt
+        MessageBodyWriter<Object> writer = new MessageBodyWriter<>() {
+            @Override
+            public boolean isWriteable(Class<?> t, Type g, Annotation[] a, MediaType m) {
+                return true;
+            }
+
+            @Override
+            public void writeTo(Object o, Class<?> c, Type g, Annotation[] a, MediaType m,
+                                MultivaluedMap<String, Object> h, OutputStream out) throws java.io.IOException {
+                out.write(o.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        };
+        autoServices.providers = new FakeProviders(writer);
+        Response erste = await(autoServices.getAllAutos());
+        jdbc.reset();
+
+        // Act
+        Response zweite = await(autoServices.getAllAutos());
+
+        // Assert
+        assertEquals(0, jdbc.getQueries().size());
+        assertSame(erste.getEntity(), zweite.getEntity());
+        assertTrue(zweite.getEntity() instanceof byte[]);
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.projekt.services;
+
+import org.example.projekt.security.RateLimiter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Rate-Limit pro Benutzer")
+public class TestingRateLimiter {
+
+    private static final int ADMIN = 1;
+    private static final int USER = 2;
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final long[] jetzt = {0};
+
+    // USER: 10 pro Sekunde, Burst 5; ADMIN: 100 pro Sekunde, Burst 50
+    private RateLimiter limiter() {
+        return new RateLimiter(100, 50, 10, 5, 1000, () -> jetzt[0]);
+    }
+
+    @Test
+    @DisplayName("erlauben - Burst, danach Wartezeit bis zum nächsten Token")
+    void testErlauben_Burst() {
+        // Arrange
+        RateLimiter limiter = limiter();
+
+        // Act & Assert
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.erlauben("anna", USER, 1));
+        }
+        assertEquals(100 * MS, limiter.erlauben("anna", USER, 1));
+        // Andere Benutzer haben ihren eigenen Bucket
+        assertEquals(0, limiter.erlauben("bernd", USER, 1));
+        jetzt[0] += 100 * MS;
+        assertEquals(0, limiter.erlauben("anna", USER, 1));
+        assertEquals(1, limiter.getAbgewiesen());
+    }
+
+    @Test
+    @DisplayName("erlauben - Teure Requests verbrauchen mehr, ADMIN hat ein höheres Limit")
+    void testErlauben_KostenUndRolle() {
+        // Arrange
+        RateLimiter limiter = limiter();
+
+        // Act & Assert
+        assertEquals(0, limiter.erlauben("anna", USER, 3));
+        assertTrue(limiter.erlauben("anna", USER, 3) > 0);
+        assertEquals(0, limiter.erlauben("anna", USER, 2));
+        // Kosten über dem Burst kosten den ganzen Burst statt nie erlaubt zu sein
+        assertEquals(0, limiter.erlauben("carla", USER, 50));
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.erlauben("admin", ADMIN | USER, 5));
+        }
+        assertTrue(limiter.erlauben("admin", ADMIN, 1) > 0);
+    }
+
+    @Test
+    @DisplayName("erlauben - Gleichzeitig nie mehr als der Burst")
+    void testErlauben_Parallel() throws Exception {
+        // Arrange
+        RateLimiter limiter = limiter();
+        AtomicInteger erlaubt = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1000; i++) {
+                    if (limiter.erlauben("admin", ADMIN, 1) == 0) {
+                        erlaubt.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(50, erlaubt.get());
+    }
+}
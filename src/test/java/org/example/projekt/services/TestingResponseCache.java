@@ -0,0 +1,87 @@
+package org.example.projekt.services;
+
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Cache für serialisierte Antworten")
+public class TestingResponseCache {
+
+    private static ResponseCache.Schluessel schluessel(String pfad) {
+        return new ResponseCache.Schluessel(pfad, "", "application/json");
+    }
+
+    private static byte[] bytes(int laenge) {
+        return new byte[laenge];
+    }
+
+    @Test
+    @DisplayName("get - Nur mit dem ETag des gespeicherten Stands")
+    void testGet_Etag() {
+        // Arrange
+        ResponseCache cache = new ResponseCache(1000);
+        cache.put(schluessel("/autos/all"), "v1", bytes(100));
+
+        // Act & Assert
+        assertNotNull(cache.get(schluessel("/autos/all"), "v1"));
+        assertNull(cache.get(schluessel("/autos/all"), "v2"));
+        // Der veraltete Eintrag ist entfernt
+        assertNull(cache.get(schluessel("/autos/all"), "v1"));
+        assertEquals(0, cache.getBelegt());
+        assertNull(cache.get(schluessel("/marken/all"), null));
+    }
+
+    @Test
+    @DisplayName("put - Am längsten nicht benutzte Einträge werden verdrängt")
+    void testPut_Lru() {
+        // Arrange
+        ResponseCache cache = new ResponseCache(1000);
+        cache.put(schluessel("a"), "v", bytes(200));
+        cache.put(schluessel("b"), "v", bytes(200));
+        cache.put(schluessel("c"), "v", bytes(200));
+        cache.get(schluessel("a"), "v");
+
+        // Act
+        cache.put(schluessel("d"), "v", bytes(250));
+        cache.put(schluessel("e"), "v", bytes(250));
+        cache.put(schluessel("f"), "v", bytes(250));
+
+        // Assert: b ist der älteste, danach c
+        assertNull(cache.get(schluessel("b"), "v"));
+        assertNull(cache.get(schluessel("c"), "v"));
+        assertNotNull(cache.get(schluessel("a"), "v"));
+        assertEquals(950, cache.getBelegt());
+        assertEquals(2, cache.getEvictions());
+    }
+
+    @Test
+    @DisplayName("antwort - gzip-Variante nur wenn der Client sie akzeptiert")
+    void testAntwort_Gzip() throws Exception {
+        // Arrange
+        ResponseCache cache = new ResponseCache(1 << 20);
+        byte[] json = "[{\"modell\":\"Golf\"},{\"modell\":\"Golf\"}]".getBytes(StandardCharsets.UTF_8);
+        ResponseCache.Eintrag eintrag = cache.put(schluessel("/autos/all"), "v1", json);
+
+        // Act
+        Response plain = cache.antwort(eintrag, "identity");
+        Response gzip = cache.antwort(eintrag, "br, gzip;q=0.8");
+
+        // Assert
+        assertSame(json, plain.getEntity());
+        assertEquals("gzip", gzip.getHeaderString("Content-Encoding"));
+        assertEquals("v1", plain.getEntityTag().getValue());
+        assertEquals("v1-gz", gzip.getEntityTag().getValue());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream((byte[]) gzip.getEntity()))) {
+            assertEquals(new String(json, StandardCharsets.UTF_8), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals(json.length + ((byte[]) gzip.getEntity()).length, cache.getBelegt());
+        assertFalse(ResponseCache.akzeptiertGzip("gzip;q=0"));
+        assertTrue(ResponseCache.akzeptiertGzip("*"));
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.projekt.services;
+
+import org.example.projekt.security.Tokens;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Signierte Bearer-Tokens")
+public class TestingTokens {
+
+    private final long[] jetzt = {1_000_000};
+    private Tokens tokens;
+
+    @BeforeEach
+    void setUp() {
+        LinkedHashMap<String, byte[]> schluessel = new LinkedHashMap<>();
+        schluessel.put("k1", "0123456789abcdef0123456789abcdef".getBytes());
+        tokens = new Tokens(schluessel, 900, 100, () -> jetzt[0]);
+    }
+
+    @Test
+    @DisplayName("ausstellen - Rollen und Benutzer bis zum Ablauf lesbar")
+    void testAusstellen_Ablauf() {
+        // Arrange
+        Tokens.Token token = tokens.ausstellen("anna|mit|strichen", 3);
+
+        // Act & Assert
+        assertTrue(token.wert().startsWith("k1."));
+        assertEquals(jetzt[0] + 900, token.ablauf());
+        assertEquals(3, tokens.rollen(token.wert()));
+        assertEquals("anna|mit|strichen", tokens.benutzer(token.wert()));
+        jetzt[0] += 900;
+        assertEquals(0, tokens.rollen(token.wert()));
+    }
+
+    @Test
+    @DisplayName("rollen - Veränderte oder fremde Tokens sind ungültig")
+    void testRollen_Manipuliert() {
+        // Arrange
+        String wert = tokens.ausstellen("user", 2).wert();
+        String[] teile = wert.split("\\.");
+        String admin = tokens.ausstellen("admin", 1).wert().split("\\.")[1];
+
+        // Act & Assert
+        assertEquals(0, tokens.rollen(teile[0] + "." + admin + "." + teile[2]));
+        assertEquals(0, tokens.rollen("k2." + teile[1] + "." + teile[2]));
+        assertEquals(0, tokens.rollen(teile[0] + "." + teile[1] + ".%%%"));
+        assertEquals(0, tokens.rollen("kein-token"));
+        assertEquals(2, tokens.rollen(wert));
+    }
+
+    @Test
+    @DisplayName("rotieren - Alte Tokens gelten bis ihr Schlüssel entfernt wird")
+    void testRotieren() {
+        // Arrange
+        String alt = tokens.ausstellen("user", 2).wert();
+
+        // Act
+        String kid = tokens.rotieren();
+        String neu = tokens.ausstellen("user", 2).wert();
+
+        // Assert
+        assertTrue(neu.startsWith(kid + "."));
+        assertEquals(2, tokens.rollen(alt));
+        tokens.entfernen("k1");
+        assertEquals(0, tokens.rollen(alt));
+        assertEquals(2, tokens.rollen(neu));
+        assertThrows(IllegalArgumentException.class, () -> tokens.entfernen(kid));
+    }
+
+    @Test
+    @DisplayName("widerrufen - Nur das gesperrte Token wird ungültig")
+    void testWiderrufen() {
+        // Arrange
+        String erstes = tokens.ausstellen("user", 2).wert();
+        String zweites = tokens.ausstellen("user", 2).wert();
+
+        // Act
+        boolean gesperrt = tokens.widerrufen(erstes);
+
+        // Assert
+        assertTrue(gesperrt);
+        assertEquals(0, tokens.rollen(erstes));
+        assertEquals(2, tokens.rollen(zweites));
+        assertFalse(tokens.widerrufen(erstes));
+    }
+}